@@ -7,6 +7,7 @@ package org.opensearch.ml.common;
 
 import lombok.Builder;
 import lombok.Getter;
+import org.opensearch.Version;
 import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.io.stream.StreamOutput;
 import org.opensearch.common.xcontent.ToXContentObject;
@@ -26,24 +27,33 @@ public class MLModel implements ToXContentObject {
     public static final String MODEL_VERSION = "version";
     public static final String MODEL_CONTENT = "content";
     public static final String USER = "user";
+    public static final String MEMORY_ESTIMATE = "memory_estimate_in_bytes";
+    //Nodes before this version don't know the training memory estimate.
+    public static final Version MEMORY_ESTIMATE_VERSION = Version.V_2_0_0;
 
     private String name;
     private FunctionName algorithm;
     private Integer version;
     private String content;
     private User user;
+    private Long memoryEstimate;
 
     @Builder
-    public MLModel(String name, FunctionName algorithm, Integer version, String content, User user) {
+    public MLModel(String name, FunctionName algorithm, Integer version, String content, User user, Long memoryEstimate) {
         this.name = name;
         this.algorithm = algorithm;
         this.version = version;
         this.content = content;
         this.user = user;
+        this.memoryEstimate = memoryEstimate;
     }
 
     public MLModel(FunctionName algorithm, Model model) {
-        this(model.getName(), algorithm, model.getVersion(), Base64.getEncoder().encodeToString(model.getContent()), null);
+        this(algorithm, model, null);
+    }
+
+    public MLModel(FunctionName algorithm, Model model, Long memoryEstimate) {
+        this(model.getName(), algorithm, model.getVersion(), Base64.getEncoder().encodeToString(model.getContent()), null, memoryEstimate);
     }
 
     public MLModel(StreamInput input) throws IOException{
@@ -56,6 +66,9 @@ public class MLModel implements ToXContentObject {
         } else {
             user = null;
         }
+        if (input.getVersion().onOrAfter(MEMORY_ESTIMATE_VERSION)) {
+            memoryEstimate = input.readOptionalLong();
+        }
     }
 
     public void writeTo(StreamOutput out) throws IOException {
@@ -69,6 +82,9 @@ public class MLModel implements ToXContentObject {
         } else {
             out.writeBoolean(false); // user does not exist
         }
+        if (out.getVersion().onOrAfter(MEMORY_ESTIMATE_VERSION)) {
+            out.writeOptionalLong(memoryEstimate);
+        }
     }
 
     @Override
@@ -89,6 +105,9 @@ public class MLModel implements ToXContentObject {
         if (user != null) {
             builder.field(USER, user);
         }
+        if (memoryEstimate != null) {
+            builder.field(MEMORY_ESTIMATE, memoryEstimate);
+        }
         builder.endObject();
         return builder;
     }
@@ -99,6 +118,7 @@ public class MLModel implements ToXContentObject {
         Integer version = null;
         String content = null;
         User user = null;
+        Long memoryEstimate = null;
 
         ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.currentToken(), parser);
         while (parser.nextToken() != XContentParser.Token.END_OBJECT) {
@@ -121,6 +141,9 @@ public class MLModel implements ToXContentObject {
                 case ALGORITHM:
                     algorithm = FunctionName.from(parser.text());
                     break;
+                case MEMORY_ESTIMATE:
+                    memoryEstimate = parser.longValue();
+                    break;
                 default:
                     parser.skipChildren();
                     break;
@@ -132,6 +155,7 @@ public class MLModel implements ToXContentObject {
                 .version(version)
                 .content(content)
                 .user(user)
+                .memoryEstimate(memoryEstimate)
                 .build();
         }
 
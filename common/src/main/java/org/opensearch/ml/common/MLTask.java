@@ -9,6 +9,7 @@ import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
+import org.opensearch.Version;
 import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.io.stream.StreamOutput;
 import org.opensearch.common.io.stream.Writeable;
@@ -41,6 +42,9 @@ public class MLTask implements ToXContentObject, Writeable {
     public static final String ERROR_FIELD = "error";
     public static final String USER_FIELD = "user";
     public static final String IS_ASYNC_TASK_FIELD = "is_async";
+    public static final String MEMORY_ESTIMATE_FIELD = "memory_estimate_in_bytes";
+    //Nodes before this version don't know the training memory estimate.
+    public static final Version MEMORY_ESTIMATE_VERSION = Version.V_2_0_0;
 
     @Setter
     private String taskId;
@@ -60,6 +64,8 @@ public class MLTask implements ToXContentObject, Writeable {
     private String error;
     private User user; // TODO: support document level access control later
     private boolean async;
+    @Setter
+    private Long memoryEstimate;
 
     @Builder(toBuilder = true)
     public MLTask(
@@ -76,7 +82,8 @@ public class MLTask implements ToXContentObject, Writeable {
         Instant lastUpdateTime,
         String error,
         User user,
-        boolean async
+        boolean async,
+        Long memoryEstimate
     ) {
         this.taskId = taskId;
         this.modelId = modelId;
@@ -92,6 +99,7 @@ public class MLTask implements ToXContentObject, Writeable {
         this.error = error;
         this.user = user;
         this.async = async;
+        this.memoryEstimate = memoryEstimate;
     }
 
     public MLTask(StreamInput input) throws IOException {
@@ -113,6 +121,9 @@ public class MLTask implements ToXContentObject, Writeable {
             this.user = null;
         }
         this.async = input.readBoolean();
+        if (input.getVersion().onOrAfter(MEMORY_ESTIMATE_VERSION)) {
+            this.memoryEstimate = input.readOptionalLong();
+        }
     }
 
     @Override
@@ -135,6 +146,9 @@ public class MLTask implements ToXContentObject, Writeable {
             out.writeBoolean(false);
         }
         out.writeBoolean(async);
+        if (out.getVersion().onOrAfter(MEMORY_ESTIMATE_VERSION)) {
+            out.writeOptionalLong(memoryEstimate);
+        }
     }
 
     @Override
@@ -180,6 +194,9 @@ public class MLTask implements ToXContentObject, Writeable {
             builder.field(USER_FIELD, user);
         }
         builder.field(IS_ASYNC_TASK_FIELD, async);
+        if (memoryEstimate != null) {
+            builder.field(MEMORY_ESTIMATE_FIELD, memoryEstimate);
+        }
         return builder.endObject();
     }
 
@@ -203,6 +220,7 @@ public class MLTask implements ToXContentObject, Writeable {
         String error = null;
         User user = null;
         boolean async = false;
+        Long memoryEstimate = null;
 
         ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.currentToken(), parser);
         while (parser.nextToken() != XContentParser.Token.END_OBJECT) {
@@ -252,6 +270,9 @@ public class MLTask implements ToXContentObject, Writeable {
                 case IS_ASYNC_TASK_FIELD:
                     async = parser.booleanValue();
                     break;
+                case MEMORY_ESTIMATE_FIELD:
+                    memoryEstimate = parser.longValue();
+                    break;
                 default:
                     parser.skipChildren();
                     break;
@@ -272,6 +293,7 @@ public class MLTask implements ToXContentObject, Writeable {
                 .error(error)
                 .user(user)
                 .async(async)
+                .memoryEstimate(memoryEstimate)
                 .build();
     }
 }
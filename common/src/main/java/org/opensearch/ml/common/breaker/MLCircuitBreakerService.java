@@ -66,6 +66,18 @@ public class MLCircuitBreakerService {
         return this;
     }
 
+    /**
+     * Get how many bytes of heap an ML task can allocate before the memory breaker opens.
+     * @return available heap in bytes, Long.MAX_VALUE if no memory breaker is registered
+     */
+    public long getAvailableMemoryInBytes() {
+        CircuitBreaker breaker = breakers.get(BreakerName.MEMORY);
+        if (breaker instanceof MemoryCircuitBreaker) {
+            return ((MemoryCircuitBreaker) breaker).getAvailableBytes();
+        }
+        return Long.MAX_VALUE;
+    }
+
     public Boolean isOpen() {
         for (CircuitBreaker breaker : breakers.values()) {
             if (breaker.isOpen()) {
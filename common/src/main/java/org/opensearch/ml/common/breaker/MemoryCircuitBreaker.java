@@ -6,6 +6,7 @@
 package org.opensearch.ml.common.breaker;
 
 import org.opensearch.monitor.jvm.JvmService;
+import org.opensearch.monitor.jvm.JvmStats;
 
 /**
  * A circuit breaker for memory usage.
@@ -29,4 +30,14 @@ public class MemoryCircuitBreaker extends ThresholdCircuitBreaker<Short> {
     public boolean isOpen() {
         return jvmService.stats().getMem().getHeapUsedPercent() > this.getThreshold();
     }
+
+    /**
+     * Get how many bytes of heap can still be allocated before the breaker opens.
+     * @return available heap in bytes, 0 if the breaker is open
+     */
+    public long getAvailableBytes() {
+        JvmStats.Mem mem = jvmService.stats().getMem();
+        long limit = mem.getHeapMax().getBytes() * this.getThreshold() / 100;
+        return Math.max(0, limit - mem.getHeapUsed().getBytes());
+    }
 }
@@ -9,6 +9,7 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
+import org.opensearch.Version;
 import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.io.stream.StreamOutput;
 import org.opensearch.common.settings.Settings;
@@ -34,18 +35,15 @@ import lombok.experimental.FieldDefaults;
 @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
 @InputDataSet(MLInputDataType.SEARCH_QUERY)
 public class SearchQueryInputDataset extends MLInputDataset {
+    /**
+     * Nodes before this version write the search query as a JSON string.
+     */
+    public static final Version WRITEABLE_SEARCH_SOURCE_VERSION = Version.V_2_0_0;
 
     SearchSourceBuilder searchSourceBuilder;
 
     List<String> indices;
 
-    private static NamedXContentRegistry xContentRegistry;
-
-    static {
-        SearchModule searchModule = new SearchModule(Settings.EMPTY, Collections.emptyList());
-        xContentRegistry = new NamedXContentRegistry(searchModule.getNamedXContents());
-    }
-
     @Builder
     public SearchQueryInputDataset(@NonNull List<String> indices, @NonNull SearchSourceBuilder searchSourceBuilder) {
         super(MLInputDataType.SEARCH_QUERY);
@@ -57,18 +55,45 @@ public class SearchQueryInputDataset extends MLInputDataset {
         this.searchSourceBuilder = searchSourceBuilder;
     }
 
+    /**
+     * Read search query input data. The search query is read as named writeables, so the stream must be
+     * aware of the node's NamedWriteableRegistry, which is true for streams read by the transport service.
+     * Streams of older nodes have the search query as a JSON string, which is parsed with the built-in queries.
+     * @param streaminput stream input
+     * @throws IOException if the search query can't be read
+     */
     public SearchQueryInputDataset(StreamInput streaminput) throws IOException {
         super(MLInputDataType.SEARCH_QUERY);
-        String searchString = streaminput.readString();
-        XContentParser parser = XContentType.JSON.xContent().createParser(xContentRegistry, LoggingDeprecationHandler.INSTANCE, searchString);
-        this.searchSourceBuilder = SearchSourceBuilder.fromXContent(parser);
+        if (streaminput.getVersion().onOrAfter(WRITEABLE_SEARCH_SOURCE_VERSION)) {
+            this.searchSourceBuilder = new SearchSourceBuilder(streaminput);
+        } else {
+            String searchString = streaminput.readString();
+            try (
+                XContentParser parser = XContentType.JSON
+                    .xContent()
+                    .createParser(DefaultRegistryHolder.REGISTRY, LoggingDeprecationHandler.INSTANCE, searchString)
+            ) {
+                this.searchSourceBuilder = SearchSourceBuilder.fromXContent(parser);
+            }
+        }
         this.indices = streaminput.readStringList();
     }
 
     @Override
     public void writeTo(StreamOutput streamOutput) throws IOException {
         super.writeTo(streamOutput);
-        streamOutput.writeString(searchSourceBuilder.toString());
+        if (streamOutput.getVersion().onOrAfter(WRITEABLE_SEARCH_SOURCE_VERSION)) {
+            searchSourceBuilder.writeTo(streamOutput);
+        } else {
+            streamOutput.writeString(searchSourceBuilder.toString());
+        }
         streamOutput.writeStringCollection(indices);
     }
+
+    // only built on first use, to read search queries sent by older nodes
+    private static class DefaultRegistryHolder {
+        private static final NamedXContentRegistry REGISTRY = new NamedXContentRegistry(
+            new SearchModule(Settings.EMPTY, Collections.emptyList()).getNamedXContents()
+        );
+    }
 }
@@ -7,6 +7,7 @@ package org.opensearch.ml.common.input.parameter.clustering;
 
 import lombok.Builder;
 import lombok.Data;
+import org.opensearch.Version;
 import org.opensearch.common.ParseField;
 import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.io.stream.StreamOutput;
@@ -35,20 +36,39 @@ public class KMeansParams implements MLAlgoParams {
     public static final String CENTROIDS_FIELD = "centroids";
     public static final String ITERATIONS_FIELD = "iterations";
     public static final String DISTANCE_TYPE_FIELD = "distance_type";
+    public static final String ENGINE_FIELD = "engine";
+    public static final String TOLERANCE_FIELD = "tolerance";
+    public static final String MINI_BATCH_SIZE_FIELD = "mini_batch_size";
+    //Nodes before this version don't know the KMeans engine, tolerance and mini-batch size.
+    public static final Version ENGINE_VERSION = Version.V_2_0_0;
 
     //The number of centroids to use.
     private Integer centroids;
-    //The maximum number of iterations
+    //The maximum number of iterations, or the number of passes over the training data in mini-batch mode.
     private Integer iterations;
     //The distance function.
     private DistanceType distanceType;
+    //The training engine, Tribuo by default.
+    private Engine engine;
+    //Native engine stops once centroids move less than this fraction of the data variance.
+    private Double tolerance;
+    //Train mini-batch KMeans with batches of this many rows, holding one batch in memory at a time.
+    private Integer miniBatchSize;
     //TODO: expose number of thread and seed?
 
     @Builder(toBuilder = true)
-    public KMeansParams(Integer centroids, Integer iterations, DistanceType distanceType) {
+    public KMeansParams(Integer centroids,
+                        Integer iterations,
+                        DistanceType distanceType,
+                        Engine engine,
+                        Double tolerance,
+                        Integer miniBatchSize) {
         this.centroids = centroids;
         this.iterations = iterations;
         this.distanceType = distanceType;
+        this.engine = engine;
+        this.tolerance = tolerance;
+        this.miniBatchSize = miniBatchSize;
     }
 
     public KMeansParams(StreamInput in) throws IOException {
@@ -57,12 +77,22 @@ public class KMeansParams implements MLAlgoParams {
         if (in.readBoolean()) {
             this.distanceType = in.readEnum(DistanceType.class);
         }
+        if (in.getVersion().onOrAfter(ENGINE_VERSION)) {
+            if (in.readBoolean()) {
+                this.engine = in.readEnum(Engine.class);
+            }
+            this.tolerance = in.readOptionalDouble();
+            this.miniBatchSize = in.readOptionalInt();
+        }
     }
 
     public static MLAlgoParams parse(XContentParser parser) throws IOException {
         Integer k = null;
         Integer iterations = null;
         DistanceType distanceType = null;
+        Engine engine = null;
+        Double tolerance = null;
+        Integer miniBatchSize = null;
 
         ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.currentToken(), parser);
         while (parser.nextToken() != XContentParser.Token.END_OBJECT) {
@@ -79,12 +109,21 @@ public class KMeansParams implements MLAlgoParams {
                 case DISTANCE_TYPE_FIELD:
                     distanceType = DistanceType.from(parser.text());
                     break;
+                case ENGINE_FIELD:
+                    engine = Engine.from(parser.text());
+                    break;
+                case TOLERANCE_FIELD:
+                    tolerance = parser.doubleValue(false);
+                    break;
+                case MINI_BATCH_SIZE_FIELD:
+                    miniBatchSize = parser.intValue(false);
+                    break;
                 default:
                     parser.skipChildren();
                     break;
             }
         }
-        return new KMeansParams(k, iterations, distanceType);
+        return new KMeansParams(k, iterations, distanceType, engine, tolerance, miniBatchSize);
     }
 
     @Override
@@ -102,6 +141,16 @@ public class KMeansParams implements MLAlgoParams {
         } else {
             out.writeBoolean(false);
         }
+        if (out.getVersion().onOrAfter(ENGINE_VERSION)) {
+            if (engine != null) {
+                out.writeBoolean(true);
+                out.writeEnum(engine);
+            } else {
+                out.writeBoolean(false);
+            }
+            out.writeOptionalDouble(tolerance);
+            out.writeOptionalInt(miniBatchSize);
+        }
     }
 
     @Override
@@ -116,6 +165,15 @@ public class KMeansParams implements MLAlgoParams {
         if (distanceType != null) {
             builder.field(DISTANCE_TYPE_FIELD, distanceType.name());
         }
+        if (engine != null) {
+            builder.field(ENGINE_FIELD, engine.name());
+        }
+        if (tolerance != null) {
+            builder.field(TOLERANCE_FIELD, tolerance);
+        }
+        if (miniBatchSize != null) {
+            builder.field(MINI_BATCH_SIZE_FIELD, miniBatchSize);
+        }
         builder.endObject();
         return builder;
     }
@@ -138,4 +196,17 @@ public class KMeansParams implements MLAlgoParams {
             }
         }
     }
+
+    public enum Engine {
+        TRIBUO,
+        NATIVE;
+
+        public static Engine from(String value) {
+            try {
+                return Engine.valueOf(value);
+            } catch (Exception e) {
+                throw new IllegalArgumentException("Wrong KMeans engine");
+            }
+        }
+    }
 }
@@ -7,6 +7,7 @@ package org.opensearch.ml.common.input.parameter.rcf;
 
 import lombok.Builder;
 import lombok.Data;
+import org.opensearch.Version;
 import org.opensearch.common.ParseField;
 import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.io.stream.StreamOutput;
@@ -37,12 +38,28 @@ public class BatchRCFParams implements MLAlgoParams {
     public static final String OUTPUT_AFTER = "output_after";
     public static final String TRAINING_DATA_SIZE = "training_data_size";
     public static final String ANOMALY_SCORE_THRESHOLD = "anomaly_score_threshold";
+    public static final String PRECISION = "precision";
+    public static final String COMPACT = "compact";
+    public static final String BOUNDING_BOX_CACHE_FRACTION = "bounding_box_cache_fraction";
+    public static final String TRAINING_SAMPLE_SIZE = "training_sample_size";
+    public static final String TRAINING_SAMPLE_TIME_DECAY = "training_sample_time_decay";
+    //Nodes before this version don't know the forest precision, compact and bounding box cache fraction.
+    public static final Version PRECISION_VERSION = Version.V_2_0_0;
+    //Nodes before this version don't know the training sample parameters.
+    public static final Version TRAINING_SAMPLE_VERSION = Version.V_2_0_0;
     private Integer numberOfTrees;
     private Integer shingleSize;
     private Integer sampleSize;
     private Integer outputAfter;
     private Integer trainingDataSize;
     private Double anomalyScoreThreshold;
+    private RCFPrecision precision;
+    private Boolean compact;
+    private Double boundingBoxCacheFraction;
+    // train on a reservoir sample of this many rows, drawn in one pass over the training data
+    private Integer trainingSampleSize;
+    // 0 samples rows uniformly, larger values favor later rows
+    private Double trainingSampleTimeDecay;
 
     @Builder
     public BatchRCFParams(Integer numberOfTrees,
@@ -50,13 +67,23 @@ public class BatchRCFParams implements MLAlgoParams {
                           Integer sampleSize,
                           Integer outputAfter,
                           Integer trainingDataSize,
-                          Double anomalyScoreThreshold) {
+                          Double anomalyScoreThreshold,
+                          RCFPrecision precision,
+                          Boolean compact,
+                          Double boundingBoxCacheFraction,
+                          Integer trainingSampleSize,
+                          Double trainingSampleTimeDecay) {
         this.numberOfTrees = numberOfTrees;
         this.shingleSize = shingleSize;
         this.sampleSize = sampleSize;
         this.outputAfter = outputAfter;
         this.trainingDataSize = trainingDataSize;
         this.anomalyScoreThreshold = anomalyScoreThreshold;
+        this.precision = precision;
+        this.compact = compact;
+        this.boundingBoxCacheFraction = boundingBoxCacheFraction;
+        this.trainingSampleSize = trainingSampleSize;
+        this.trainingSampleTimeDecay = trainingSampleTimeDecay;
     }
 
     public BatchRCFParams(StreamInput in) throws IOException {
@@ -66,6 +93,17 @@ public class BatchRCFParams implements MLAlgoParams {
         this.outputAfter = in.readOptionalInt();
         this.trainingDataSize = in.readOptionalInt();
         this.anomalyScoreThreshold = in.readOptionalDouble();
+        if (in.getVersion().onOrAfter(PRECISION_VERSION)) {
+            if (in.readBoolean()) {
+                this.precision = in.readEnum(RCFPrecision.class);
+            }
+            this.compact = in.readOptionalBoolean();
+            this.boundingBoxCacheFraction = in.readOptionalDouble();
+        }
+        if (in.getVersion().onOrAfter(TRAINING_SAMPLE_VERSION)) {
+            this.trainingSampleSize = in.readOptionalInt();
+            this.trainingSampleTimeDecay = in.readOptionalDouble();
+        }
     }
 
     @Override
@@ -76,6 +114,20 @@ public class BatchRCFParams implements MLAlgoParams {
         out.writeOptionalInt(outputAfter);
         out.writeOptionalInt(trainingDataSize);
         out.writeOptionalDouble(anomalyScoreThreshold);
+        if (out.getVersion().onOrAfter(PRECISION_VERSION)) {
+            if (precision != null) {
+                out.writeBoolean(true);
+                out.writeEnum(precision);
+            } else {
+                out.writeBoolean(false);
+            }
+            out.writeOptionalBoolean(compact);
+            out.writeOptionalDouble(boundingBoxCacheFraction);
+        }
+        if (out.getVersion().onOrAfter(TRAINING_SAMPLE_VERSION)) {
+            out.writeOptionalInt(trainingSampleSize);
+            out.writeOptionalDouble(trainingSampleTimeDecay);
+        }
     }
 
     public static BatchRCFParams parse(XContentParser parser) throws IOException {
@@ -85,6 +137,11 @@ public class BatchRCFParams implements MLAlgoParams {
         Integer outputAfter = null;
         Integer trainingDataSize = null;
         Double anomalyScoreThreshold = null;
+        RCFPrecision precision = null;
+        Boolean compact = null;
+        Double boundingBoxCacheFraction = null;
+        Integer trainingSampleSize = null;
+        Double trainingSampleTimeDecay = null;
 
         ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.currentToken(), parser);
         while (parser.nextToken() != XContentParser.Token.END_OBJECT) {
@@ -110,13 +167,29 @@ public class BatchRCFParams implements MLAlgoParams {
                 case ANOMALY_SCORE_THRESHOLD:
                     anomalyScoreThreshold = parser.doubleValue(false);
                     break;
+                case PRECISION:
+                    precision = RCFPrecision.from(parser.text());
+                    break;
+                case COMPACT:
+                    compact = parser.booleanValue();
+                    break;
+                case BOUNDING_BOX_CACHE_FRACTION:
+                    boundingBoxCacheFraction = parser.doubleValue(false);
+                    break;
+                case TRAINING_SAMPLE_SIZE:
+                    trainingSampleSize = parser.intValue(false);
+                    break;
+                case TRAINING_SAMPLE_TIME_DECAY:
+                    trainingSampleTimeDecay = parser.doubleValue(false);
+                    break;
                 default:
                     parser.skipChildren();
                     break;
             }
         }
         return new BatchRCFParams(numberOfTrees, shingleSize, sampleSize, outputAfter,
-                trainingDataSize, anomalyScoreThreshold);
+                trainingDataSize, anomalyScoreThreshold, precision, compact, boundingBoxCacheFraction,
+                trainingSampleSize, trainingSampleTimeDecay);
     }
 
     @Override
@@ -150,6 +223,21 @@ public class BatchRCFParams implements MLAlgoParams {
         if (anomalyScoreThreshold != null) {
             builder.field(ANOMALY_SCORE_THRESHOLD, anomalyScoreThreshold);
         }
+        if (precision != null) {
+            builder.field(PRECISION, precision.name());
+        }
+        if (compact != null) {
+            builder.field(COMPACT, compact);
+        }
+        if (boundingBoxCacheFraction != null) {
+            builder.field(BOUNDING_BOX_CACHE_FRACTION, boundingBoxCacheFraction);
+        }
+        if (trainingSampleSize != null) {
+            builder.field(TRAINING_SAMPLE_SIZE, trainingSampleSize);
+        }
+        if (trainingSampleTimeDecay != null) {
+            builder.field(TRAINING_SAMPLE_TIME_DECAY, trainingSampleTimeDecay);
+        }
         builder.endObject();
         return builder;
     }
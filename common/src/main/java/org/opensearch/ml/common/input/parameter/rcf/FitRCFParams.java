@@ -7,6 +7,7 @@ package org.opensearch.ml.common.input.parameter.rcf;
 
 import lombok.Builder;
 import lombok.Data;
+import org.opensearch.Version;
 import org.opensearch.common.ParseField;
 import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.io.stream.StreamOutput;
@@ -40,6 +41,15 @@ public class FitRCFParams implements MLAlgoParams {
     public static final String TIME_FIELD = "time_field";
     public static final String DATE_FORMAT = "date_format";
     public static final String TIME_ZONE = "time_zone";
+    public static final String CATEGORY_FIELD = "category_field";
+    public static final String MAX_ENTITIES = "max_entities";
+    public static final String PRECISION = "precision";
+    public static final String COMPACT = "compact";
+    public static final String BOUNDING_BOX_CACHE_FRACTION = "bounding_box_cache_fraction";
+    //Nodes before this version don't know the category field and max entities.
+    public static final Version CATEGORY_FIELD_VERSION = Version.V_2_0_0;
+    //Nodes before this version don't know the forest precision, compact and bounding box cache fraction.
+    public static final Version PRECISION_VERSION = Version.V_2_0_0;
     private Integer numberOfTrees;
     private Integer shingleSize;
     private Integer sampleSize;
@@ -49,6 +59,11 @@ public class FitRCFParams implements MLAlgoParams {
     private String timeField;
     private String dateFormat;
     private String timeZone;
+    private String categoryField;
+    private Integer maxEntities;
+    private RCFPrecision precision;
+    private Boolean compact;
+    private Double boundingBoxCacheFraction;
 
     @Builder
     public FitRCFParams(Integer numberOfTrees,
@@ -59,7 +74,12 @@ public class FitRCFParams implements MLAlgoParams {
                         Double anomalyRate,
                         String timeField,
                         String dateFormat,
-                        String timeZone) {
+                        String timeZone,
+                        String categoryField,
+                        Integer maxEntities,
+                        RCFPrecision precision,
+                        Boolean compact,
+                        Double boundingBoxCacheFraction) {
         this.numberOfTrees = numberOfTrees;
         this.shingleSize = shingleSize;
         this.sampleSize = sampleSize;
@@ -69,6 +89,11 @@ public class FitRCFParams implements MLAlgoParams {
         this.timeField = timeField;
         this.dateFormat = dateFormat;
         this.timeZone = timeZone;
+        this.categoryField = categoryField;
+        this.maxEntities = maxEntities;
+        this.precision = precision;
+        this.compact = compact;
+        this.boundingBoxCacheFraction = boundingBoxCacheFraction;
     }
 
     public FitRCFParams(StreamInput in) throws IOException {
@@ -81,6 +106,17 @@ public class FitRCFParams implements MLAlgoParams {
         this.timeField = in.readOptionalString();
         this.dateFormat = in.readOptionalString();
         this.timeZone = in.readOptionalString();
+        if (in.getVersion().onOrAfter(CATEGORY_FIELD_VERSION)) {
+            this.categoryField = in.readOptionalString();
+            this.maxEntities = in.readOptionalInt();
+        }
+        if (in.getVersion().onOrAfter(PRECISION_VERSION)) {
+            if (in.readBoolean()) {
+                this.precision = in.readEnum(RCFPrecision.class);
+            }
+            this.compact = in.readOptionalBoolean();
+            this.boundingBoxCacheFraction = in.readOptionalDouble();
+        }
     }
 
     @Override
@@ -94,6 +130,20 @@ public class FitRCFParams implements MLAlgoParams {
         out.writeOptionalString(timeField);
         out.writeOptionalString(dateFormat);
         out.writeOptionalString(timeZone);
+        if (out.getVersion().onOrAfter(CATEGORY_FIELD_VERSION)) {
+            out.writeOptionalString(categoryField);
+            out.writeOptionalInt(maxEntities);
+        }
+        if (out.getVersion().onOrAfter(PRECISION_VERSION)) {
+            if (precision != null) {
+                out.writeBoolean(true);
+                out.writeEnum(precision);
+            } else {
+                out.writeBoolean(false);
+            }
+            out.writeOptionalBoolean(compact);
+            out.writeOptionalDouble(boundingBoxCacheFraction);
+        }
     }
 
     public static FitRCFParams parse(XContentParser parser) throws IOException {
@@ -106,6 +156,11 @@ public class FitRCFParams implements MLAlgoParams {
         String timeField = null;
         String dateFormat = null;
         String timeZone = null;
+        String categoryField = null;
+        Integer maxEntities = null;
+        RCFPrecision precision = null;
+        Boolean compact = null;
+        Double boundingBoxCacheFraction = null;
 
         ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.currentToken(), parser);
         while (parser.nextToken() != XContentParser.Token.END_OBJECT) {
@@ -140,13 +195,29 @@ public class FitRCFParams implements MLAlgoParams {
                 case TIME_ZONE:
                     timeZone = parser.text();
                     break;
+                case CATEGORY_FIELD:
+                    categoryField = parser.text();
+                    break;
+                case MAX_ENTITIES:
+                    maxEntities = parser.intValue(false);
+                    break;
+                case PRECISION:
+                    precision = RCFPrecision.from(parser.text());
+                    break;
+                case COMPACT:
+                    compact = parser.booleanValue();
+                    break;
+                case BOUNDING_BOX_CACHE_FRACTION:
+                    boundingBoxCacheFraction = parser.doubleValue(false);
+                    break;
                 default:
                     parser.skipChildren();
                     break;
             }
         }
         return new FitRCFParams(numberOfTrees, shingleSize, sampleSize, outputAfter,
-                timeDecay, anomalyRate, timeField, dateFormat, timeZone);
+                timeDecay, anomalyRate, timeField, dateFormat, timeZone, categoryField, maxEntities,
+                precision, compact, boundingBoxCacheFraction);
     }
 
     @Override
@@ -189,6 +260,21 @@ public class FitRCFParams implements MLAlgoParams {
         if (timeZone != null) {
             builder.field(TIME_ZONE, timeZone);
         }
+        if (categoryField != null) {
+            builder.field(CATEGORY_FIELD, categoryField);
+        }
+        if (maxEntities != null) {
+            builder.field(MAX_ENTITIES, maxEntities);
+        }
+        if (precision != null) {
+            builder.field(PRECISION, precision.name());
+        }
+        if (compact != null) {
+            builder.field(COMPACT, compact);
+        }
+        if (boundingBoxCacheFraction != null) {
+            builder.field(BOUNDING_BOX_CACHE_FRACTION, boundingBoxCacheFraction);
+        }
         builder.endObject();
         return builder;
     }
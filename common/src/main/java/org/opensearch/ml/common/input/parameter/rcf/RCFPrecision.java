@@ -0,0 +1,22 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.common.input.parameter.rcf;
+
+/**
+ * Precision of RCF point store and cached bounding boxes. FLOAT_32 halves their memory at the cost of precision.
+ */
+public enum RCFPrecision {
+    FLOAT_32,
+    FLOAT_64;
+
+    public static RCFPrecision from(String value) {
+        try {
+            return RCFPrecision.valueOf(value);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Wrong RCF precision");
+        }
+    }
+}
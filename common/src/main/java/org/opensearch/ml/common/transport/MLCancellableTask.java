@@ -0,0 +1,64 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.common.transport;
+
+import org.opensearch.tasks.CancellableTask;
+import org.opensearch.tasks.TaskId;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Cancellable task of ML requests. Cancelling the task on the coordinating node also cancels the task dispatched
+ * to the worker node. Listeners can be registered to be notified once the task is cancelled, so requests waiting
+ * for other requests don't have to check the task periodically.
+ */
+public class MLCancellableTask extends CancellableTask {
+    private final List<Runnable> cancellationListeners = new CopyOnWriteArrayList<>();
+
+    public MLCancellableTask(long id, String type, String action, String description, TaskId parentTaskId, Map<String, String> headers) {
+        super(id, type, action, description, parentTaskId, headers);
+    }
+
+    @Override
+    public boolean shouldCancelChildrenOnCancellation() {
+        return true;
+    }
+
+    /**
+     * Add listener which runs once when the task is cancelled, or right away if the task is already cancelled.
+     * @param listener cancellation listener
+     */
+    public void addCancellationListener(Runnable listener) {
+        cancellationListeners.add(listener);
+        if (isCancelled()) {
+            runCancellationListener(listener);
+        }
+    }
+
+    /**
+     * Remove cancellation listener which isn't needed anymore.
+     * @param listener cancellation listener
+     */
+    public void removeCancellationListener(Runnable listener) {
+        cancellationListeners.remove(listener);
+    }
+
+    @Override
+    protected void onCancelled() {
+        for (Runnable listener : cancellationListeners) {
+            runCancellationListener(listener);
+        }
+    }
+
+    private void runCancellationListener(Runnable listener) {
+        // a listener added while the task is cancelled is only run by the caller removing it
+        if (cancellationListeners.remove(listener)) {
+            listener.run();
+        }
+    }
+}
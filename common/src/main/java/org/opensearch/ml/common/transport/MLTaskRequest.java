@@ -7,20 +7,36 @@ package org.opensearch.ml.common.transport;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.opensearch.Version;
 import org.opensearch.action.ActionRequest;
 import org.opensearch.action.ActionRequestValidationException;
+import org.opensearch.common.io.stream.NamedWriteableAwareStreamInput;
+import org.opensearch.common.io.stream.NamedWriteableRegistry;
 import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.search.SearchModule;
+import org.opensearch.tasks.Task;
+import org.opensearch.tasks.TaskId;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
 import java.util.UUID;
 
 @Getter
 @Setter
 public class MLTaskRequest extends ActionRequest {
+    //Nodes before this version don't know the timeout of ML requests.
+    public static final Version TIMEOUT_VERSION = Version.V_2_0_0;
 
     protected boolean dispatchTask;
     protected final String requestID;
+    /**
+     * Time budget of the ML task. Null means no time limit.
+     */
+    protected TimeValue timeout;
 
     public MLTaskRequest(boolean dispatchTask) {
         this.dispatchTask = dispatchTask;
@@ -31,6 +47,9 @@ public class MLTaskRequest extends ActionRequest {
         super(in);
         this.requestID = in.readString();
         this.dispatchTask = in.readBoolean();
+        if (in.getVersion().onOrAfter(TIMEOUT_VERSION)) {
+            this.timeout = in.readOptionalTimeValue();
+        }
     }
 
     @Override
@@ -38,10 +57,46 @@ public class MLTaskRequest extends ActionRequest {
         super.writeTo(out);
         out.writeString(requestID);
         out.writeBoolean(dispatchTask);
+        if (out.getVersion().onOrAfter(TIMEOUT_VERSION)) {
+            out.writeOptionalTimeValue(timeout);
+        }
     }
 
     @Override
     public ActionRequestValidationException validate() {
         return null;
     }
+
+    /**
+     * Register ML requests as cancellable tasks, so they can be cancelled with the _tasks API.
+     * Cancelling the task on the coordinating node also cancels the task dispatched to the worker node.
+     */
+    @Override
+    public Task createTask(long id, String type, String action, TaskId parentTaskId, Map<String, String> headers) {
+        return new MLCancellableTask(id, type, action, getDescription(), parentTaskId, headers);
+    }
+
+    @Override
+    public String getDescription() {
+        return "requestID[" + requestID + "]";
+    }
+
+    /**
+     * Wrap the stream of a request copied from another class loader, so named writeables like search
+     * queries can be read. Falls back to the built-in search named writeables if no registry is given.
+     * @param in stream input
+     * @param namedWriteableRegistry node's named writeable registry, can be null
+     * @return stream input aware of named writeables
+     */
+    protected static StreamInput namedWriteableAware(StreamInput in, NamedWriteableRegistry namedWriteableRegistry) {
+        NamedWriteableRegistry registry = namedWriteableRegistry == null ? DefaultRegistryHolder.REGISTRY : namedWriteableRegistry;
+        return new NamedWriteableAwareStreamInput(in, registry);
+    }
+
+    // only built on first use, as requests sent through the transport service never need it
+    private static class DefaultRegistryHolder {
+        private static final NamedWriteableRegistry REGISTRY = new NamedWriteableRegistry(
+            new SearchModule(Settings.EMPTY, Collections.emptyList()).getNamedWriteables()
+        );
+    }
 }
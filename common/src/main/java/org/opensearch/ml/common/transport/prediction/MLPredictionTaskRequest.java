@@ -13,6 +13,7 @@ import java.io.UncheckedIOException;
 import org.opensearch.action.ActionRequest;
 import org.opensearch.action.ActionRequestValidationException;
 import org.opensearch.common.io.stream.InputStreamStreamInput;
+import org.opensearch.common.io.stream.NamedWriteableRegistry;
 import org.opensearch.common.io.stream.OutputStreamStreamOutput;
 import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.io.stream.StreamOutput;
@@ -73,6 +74,17 @@ public class MLPredictionTaskRequest extends MLTaskRequest {
 
 
     public static MLPredictionTaskRequest fromActionRequest(ActionRequest actionRequest) {
+        return fromActionRequest(actionRequest, null);
+    }
+
+    /**
+     * Convert action request into MLPredictionTaskRequest. Requests from another class loader are copied through
+     * serialization, reading search queries with the given registry.
+     * @param actionRequest action request
+     * @param namedWriteableRegistry node's named writeable registry, can be null
+     * @return MLPredictionTaskRequest
+     */
+    public static MLPredictionTaskRequest fromActionRequest(ActionRequest actionRequest, NamedWriteableRegistry namedWriteableRegistry) {
         if (actionRequest instanceof MLPredictionTaskRequest) {
             return (MLPredictionTaskRequest) actionRequest;
         }
@@ -80,7 +92,12 @@ public class MLPredictionTaskRequest extends MLTaskRequest {
         try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
              OutputStreamStreamOutput osso = new OutputStreamStreamOutput(baos)) {
             actionRequest.writeTo(osso);
-            try (StreamInput input = new InputStreamStreamInput(new ByteArrayInputStream(baos.toByteArray()))) {
+            try (
+                StreamInput input = namedWriteableAware(
+                    new InputStreamStreamInput(new ByteArrayInputStream(baos.toByteArray())),
+                    namedWriteableRegistry
+                )
+            ) {
                 return new MLPredictionTaskRequest(input);
             }
         } catch (IOException e) {
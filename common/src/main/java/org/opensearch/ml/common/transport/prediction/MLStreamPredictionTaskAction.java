@@ -0,0 +1,22 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.common.transport.prediction;
+
+import org.opensearch.action.ActionType;
+import org.opensearch.ml.common.transport.MLTaskResponse;
+
+/**
+ * Predict with a detector session which keeps the model in memory on its owner node and updates it with every
+ * streamed point. Takes the same request as {@link MLPredictionTaskAction}.
+ */
+public class MLStreamPredictionTaskAction extends ActionType<MLTaskResponse> {
+    public static final MLStreamPredictionTaskAction INSTANCE = new MLStreamPredictionTaskAction();
+    public static final String NAME = "cluster:admin/opensearch/ml/stream_predict";
+
+    private MLStreamPredictionTaskAction() {
+        super(NAME, MLTaskResponse::new);
+    }
+}
@@ -13,6 +13,7 @@ import lombok.experimental.FieldDefaults;
 import org.opensearch.action.ActionRequest;
 import org.opensearch.action.ActionRequestValidationException;
 import org.opensearch.common.io.stream.InputStreamStreamInput;
+import org.opensearch.common.io.stream.NamedWriteableRegistry;
 import org.opensearch.common.io.stream.OutputStreamStreamOutput;
 import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.io.stream.StreamOutput;
@@ -75,6 +76,17 @@ public class MLTrainingTaskRequest extends MLTaskRequest {
     }
 
     public static MLTrainingTaskRequest fromActionRequest(ActionRequest actionRequest) {
+        return fromActionRequest(actionRequest, null);
+    }
+
+    /**
+     * Convert action request into MLTrainingTaskRequest. Requests from another class loader are copied through
+     * serialization, reading search queries with the given registry.
+     * @param actionRequest action request
+     * @param namedWriteableRegistry node's named writeable registry, can be null
+     * @return MLTrainingTaskRequest
+     */
+    public static MLTrainingTaskRequest fromActionRequest(ActionRequest actionRequest, NamedWriteableRegistry namedWriteableRegistry) {
         if (actionRequest instanceof MLTrainingTaskRequest) {
             return (MLTrainingTaskRequest) actionRequest;
         }
@@ -82,7 +94,12 @@ public class MLTrainingTaskRequest extends MLTaskRequest {
         try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
              OutputStreamStreamOutput osso = new OutputStreamStreamOutput(baos)) {
             actionRequest.writeTo(osso);
-            try (StreamInput input = new InputStreamStreamInput(new ByteArrayInputStream(baos.toByteArray()))) {
+            try (
+                StreamInput input = namedWriteableAware(
+                    new InputStreamStreamInput(new ByteArrayInputStream(baos.toByteArray())),
+                    namedWriteableRegistry
+                )
+            ) {
                 return new MLTrainingTaskRequest(input);
             }
         } catch (IOException e) {
@@ -7,6 +7,7 @@ package org.opensearch.ml.common;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.opensearch.Version;
 import org.opensearch.common.io.stream.BytesStreamOutput;
 import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.xcontent.XContentBuilder;
@@ -16,6 +17,7 @@ import org.opensearch.commons.authuser.User;
 import java.io.IOException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.opensearch.common.xcontent.ToXContent.EMPTY_PARAMS;
 
 public class MLModelTests {
@@ -31,6 +33,7 @@ public class MLModelTests {
                 .version(1)
                 .content("some content")
                 .user(user)
+                .memoryEstimate(1024L)
                 .build();
     }
 
@@ -57,6 +60,22 @@ public class MLModelTests {
         readInputStream(mlModel);
     }
 
+    @Test
+    public void readInputStream_OlderVersion() throws IOException {
+        BytesStreamOutput bytesStreamOutput = new BytesStreamOutput();
+        bytesStreamOutput.setVersion(Version.V_1_3_0);
+        mlModel.writeTo(bytesStreamOutput);
+
+        StreamInput streamInput = bytesStreamOutput.bytes().streamInput();
+        streamInput.setVersion(Version.V_1_3_0);
+        MLModel parsedMLModel = new MLModel(streamInput);
+        assertEquals(mlModel.getName(), parsedMLModel.getName());
+        assertEquals(mlModel.getUser(), parsedMLModel.getUser());
+        // older nodes don't know the memory estimate
+        assertNull(parsedMLModel.getMemoryEstimate());
+        assertEquals(0, streamInput.available());
+    }
+
     public void readInputStream(MLModel mlModel) throws IOException {
         BytesStreamOutput bytesStreamOutput = new BytesStreamOutput();
         mlModel.writeTo(bytesStreamOutput);
@@ -68,5 +87,6 @@ public class MLModelTests {
         assertEquals(mlModel.getVersion(), parsedMLModel.getVersion());
         assertEquals(mlModel.getContent(), parsedMLModel.getContent());
         assertEquals(mlModel.getUser(), parsedMLModel.getUser());
+        assertEquals(mlModel.getMemoryEstimate(), parsedMLModel.getMemoryEstimate());
     }
 }
@@ -12,7 +12,9 @@ import java.time.temporal.ChronoUnit;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.opensearch.Version;
 import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.xcontent.ToXContent;
 import org.opensearch.common.xcontent.XContentBuilder;
 import org.opensearch.common.xcontent.XContentType;
@@ -49,6 +51,21 @@ public class MLTaskTests {
         Assert.assertEquals(mlTask, task2);
     }
 
+    @Test
+    public void testWriteTo_OlderVersion() throws IOException {
+        mlTask.setMemoryEstimate(1024L);
+        BytesStreamOutput output = new BytesStreamOutput();
+        output.setVersion(Version.V_1_3_0);
+        mlTask.writeTo(output);
+        StreamInput input = output.bytes().streamInput();
+        input.setVersion(Version.V_1_3_0);
+        MLTask task2 = new MLTask(input);
+        Assert.assertNull(task2.getMemoryEstimate());
+        Assert.assertEquals(mlTask.getTaskId(), task2.getTaskId());
+        Assert.assertEquals(mlTask.isAsync(), task2.isAsync());
+        Assert.assertEquals(0, input.available());
+    }
+
     @Test
     public void toXContent() throws IOException {
         XContentBuilder builder = XContentBuilder.builder(XContentType.JSON.xContent());
@@ -11,6 +11,7 @@ import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.opensearch.common.unit.ByteSizeValue;
 import org.opensearch.monitor.jvm.JvmService;
 import org.opensearch.monitor.jvm.JvmStats;
 
@@ -96,4 +97,20 @@ public class MLCircuitBreakerServiceTests {
         Assert.assertEquals(true, mlCircuitBreakerService.isOpen());
     }
 
+    @Test
+    public void testGetAvailableMemoryInBytes() {
+        Assert.assertEquals(Long.MAX_VALUE, mlCircuitBreakerService.getAvailableMemoryInBytes());
+
+        when(jvmService.stats()).thenReturn(jvmStats);
+        when(jvmStats.getMem()).thenReturn(mem);
+        when(mem.getHeapMax()).thenReturn(new ByteSizeValue(1000));
+        when(mem.getHeapUsed()).thenReturn(new ByteSizeValue(500));
+        mlCircuitBreakerService.registerBreaker(BreakerName.MEMORY, new MemoryCircuitBreaker(jvmService));
+        // default threshold 85%
+        Assert.assertEquals(350, mlCircuitBreakerService.getAvailableMemoryInBytes());
+
+        when(mem.getHeapUsed()).thenReturn(new ByteSizeValue(900));
+        Assert.assertEquals(0, mlCircuitBreakerService.getAvailableMemoryInBytes());
+    }
+
 }
@@ -8,13 +8,20 @@ package org.opensearch.ml.common.dataset;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.opensearch.Version;
 import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.io.stream.NamedWriteableAwareStreamInput;
+import org.opensearch.common.io.stream.NamedWriteableRegistry;
 import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.settings.Settings;
 import org.opensearch.index.query.MatchAllQueryBuilder;
+import org.opensearch.index.query.TermQueryBuilder;
+import org.opensearch.search.SearchModule;
 import org.opensearch.search.builder.SearchSourceBuilder;
 
 import static org.junit.Assert.assertEquals;
@@ -24,6 +31,10 @@ public class SearchQueryInputDatasetTest {
     @Rule
     public ExpectedException exceptionRule = ExpectedException.none();
 
+    private final NamedWriteableRegistry namedWriteableRegistry = new NamedWriteableRegistry(
+        new SearchModule(Settings.EMPTY, Collections.emptyList()).getNamedWriteables()
+    );
+
     @Test
     public void writeTo_Success() throws IOException {
         SearchQueryInputDataset searchQueryInputDataset = SearchQueryInputDataset.builder()
@@ -32,7 +43,7 @@ public class SearchQueryInputDatasetTest {
             .build();
         BytesStreamOutput bytesStreamOutput = new BytesStreamOutput();
         searchQueryInputDataset.writeTo(bytesStreamOutput);
-        StreamInput streamInput = bytesStreamOutput.bytes().streamInput();
+        StreamInput streamInput = new NamedWriteableAwareStreamInput(bytesStreamOutput.bytes().streamInput(), namedWriteableRegistry);
         MLInputDataType inputDataType = streamInput.readEnum(MLInputDataType.class);
         assertEquals(MLInputDataType.SEARCH_QUERY, inputDataType);
         searchQueryInputDataset = new SearchQueryInputDataset(streamInput);
@@ -41,6 +52,49 @@ public class SearchQueryInputDatasetTest {
         assertEquals(new MatchAllQueryBuilder(), searchQueryInputDataset.getSearchSourceBuilder().query());
     }
 
+    @Test
+    public void writeTo_KeepQueryAndSourceFields() throws IOException {
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder()
+            .query(new TermQueryBuilder("field1", "value1"))
+            .fetchSource(new String[] { "field2" }, null)
+            .size(10);
+        SearchQueryInputDataset searchQueryInputDataset = SearchQueryInputDataset.builder()
+            .indices(Arrays.asList("index1", "index2"))
+            .searchSourceBuilder(searchSourceBuilder)
+            .build();
+        BytesStreamOutput bytesStreamOutput = new BytesStreamOutput();
+        searchQueryInputDataset.writeTo(bytesStreamOutput);
+        StreamInput streamInput = new NamedWriteableAwareStreamInput(bytesStreamOutput.bytes().streamInput(), namedWriteableRegistry);
+        streamInput.readEnum(MLInputDataType.class);
+        searchQueryInputDataset = new SearchQueryInputDataset(streamInput);
+        assertEquals(Arrays.asList("index1", "index2"), searchQueryInputDataset.getIndices());
+        assertEquals(searchSourceBuilder, searchQueryInputDataset.getSearchSourceBuilder());
+    }
+
+    @Test
+    public void writeTo_OlderVersion() throws IOException {
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().query(new TermQueryBuilder("field1", "value1")).size(10);
+        SearchQueryInputDataset searchQueryInputDataset = SearchQueryInputDataset.builder()
+            .indices(Arrays.asList("index1"))
+            .searchSourceBuilder(searchSourceBuilder)
+            .build();
+        BytesStreamOutput bytesStreamOutput = new BytesStreamOutput();
+        bytesStreamOutput.setVersion(Version.V_1_3_0);
+        searchQueryInputDataset.writeTo(bytesStreamOutput);
+        // older nodes don't read named writeables
+        StreamInput streamInput = bytesStreamOutput.bytes().streamInput();
+        streamInput.setVersion(Version.V_1_3_0);
+        streamInput.readEnum(MLInputDataType.class);
+        assertEquals(searchSourceBuilder.toString(), streamInput.readString());
+
+        streamInput = bytesStreamOutput.bytes().streamInput();
+        streamInput.setVersion(Version.V_1_3_0);
+        streamInput.readEnum(MLInputDataType.class);
+        searchQueryInputDataset = new SearchQueryInputDataset(streamInput);
+        assertEquals(Arrays.asList("index1"), searchQueryInputDataset.getIndices());
+        assertEquals(searchSourceBuilder, searchQueryInputDataset.getSearchSourceBuilder());
+    }
+
     @Test
     public void init_EmptyIndices() {
         exceptionRule.expect(IllegalArgumentException.class);
@@ -9,6 +9,7 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.opensearch.Version;
 import org.opensearch.common.io.stream.BytesStreamOutput;
 import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.xcontent.XContentParser;
@@ -18,6 +19,7 @@ import java.io.IOException;
 import java.util.function.Function;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.opensearch.ml.common.TestHelper.contentObjectToString;
 import static org.opensearch.ml.common.TestHelper.testParseFromString;
 
@@ -40,6 +42,9 @@ public class KMeansParamsTest {
                 .centroids(2)
                 .iterations(10)
                 .distanceType(KMeansParams.DistanceType.COSINE)
+                .engine(KMeansParams.Engine.NATIVE)
+                .tolerance(0.001)
+                .miniBatchSize(1000)
                 .build();
     }
 
@@ -64,6 +69,14 @@ public class KMeansParamsTest {
         testParseFromString(params, paramsStr.replace("\"iterations\":10,", "\"iterations\":\"10.01\","), function);
     }
 
+    @Test
+    public void parse_KMeansParams_WrongEngine() throws IOException {
+        exceptionRule.expect(IllegalArgumentException.class);
+        exceptionRule.expectMessage("Wrong KMeans engine");
+        String paramsStr = contentObjectToString(params);
+        testParseFromString(params, paramsStr.replace("\"engine\":\"NATIVE\"", "\"engine\":\"NONE\""), function);
+    }
+
     @Test
     public void parse_EmptyKMeansParams() throws IOException {
         TestHelper.testParse(KMeansParams.builder().build(), function);
@@ -79,6 +92,24 @@ public class KMeansParamsTest {
         readInputStream(KMeansParams.builder().build());
     }
 
+    @Test
+    public void readInputStream_OlderVersion() throws IOException {
+        BytesStreamOutput bytesStreamOutput = new BytesStreamOutput();
+        bytesStreamOutput.setVersion(Version.V_1_3_0);
+        params.writeTo(bytesStreamOutput);
+
+        StreamInput streamInput = bytesStreamOutput.bytes().streamInput();
+        streamInput.setVersion(Version.V_1_3_0);
+        KMeansParams parsedParams = new KMeansParams(streamInput);
+        assertEquals(params.getCentroids(), parsedParams.getCentroids());
+        assertEquals(params.getIterations(), parsedParams.getIterations());
+        assertEquals(params.getDistanceType(), parsedParams.getDistanceType());
+        // older nodes don't know the engine, they train with the default one
+        assertNull(parsedParams.getEngine());
+        assertNull(parsedParams.getTolerance());
+        assertNull(parsedParams.getMiniBatchSize());
+    }
+
     private void readInputStream(KMeansParams params) throws IOException {
         BytesStreamOutput bytesStreamOutput = new BytesStreamOutput();
         params.writeTo(bytesStreamOutput);
@@ -6,18 +6,27 @@
 package org.opensearch.ml.common.input.parameter.rcf;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.opensearch.Version;
 import org.opensearch.common.io.stream.BytesStreamOutput;
 import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.xcontent.LoggingDeprecationHandler;
+import org.opensearch.common.xcontent.NamedXContentRegistry;
 import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.ml.common.TestHelper;
 
 import java.io.IOException;
 import java.util.function.Function;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class BatchRCFParamsTest {
+    @Rule
+    public ExpectedException exceptionRule = ExpectedException.none();
 
     BatchRCFParams params;
     private Function<XContentParser, BatchRCFParams> function = parser -> {
@@ -36,6 +45,11 @@ public class BatchRCFParamsTest {
                 .sampleSize(256)
                 .outputAfter(32)
                 .trainingDataSize(200)
+                .precision(RCFPrecision.FLOAT_32)
+                .compact(true)
+                .boundingBoxCacheFraction(0.5)
+                .trainingSampleSize(1000)
+                .trainingSampleTimeDecay(0.001)
                 .build();
     }
 
@@ -49,6 +63,17 @@ public class BatchRCFParamsTest {
         TestHelper.testParse(BatchRCFParams.builder().build(), function);
     }
 
+    @Test
+    public void parse_WrongPrecision() throws IOException {
+        exceptionRule.expect(IllegalArgumentException.class);
+        exceptionRule.expectMessage("Wrong RCF precision");
+        String paramsStr = "{\"precision\":\"FLOAT_16\"}";
+        XContentParser parser = XContentType.JSON.xContent().createParser(NamedXContentRegistry.EMPTY,
+                LoggingDeprecationHandler.INSTANCE, paramsStr);
+        parser.nextToken();
+        BatchRCFParams.parse(parser);
+    }
+
     @Test
     public void readInputStream_Success() throws IOException {
         readInputStream(params);
@@ -59,6 +84,27 @@ public class BatchRCFParamsTest {
         readInputStream(BatchRCFParams.builder().build());
     }
 
+    @Test
+    public void readInputStream_OlderVersion() throws IOException {
+        BytesStreamOutput bytesStreamOutput = new BytesStreamOutput();
+        bytesStreamOutput.setVersion(Version.V_1_3_0);
+        params.writeTo(bytesStreamOutput);
+
+        StreamInput streamInput = bytesStreamOutput.bytes().streamInput();
+        streamInput.setVersion(Version.V_1_3_0);
+        BatchRCFParams parsedParams = new BatchRCFParams(streamInput);
+        assertEquals(params.getNumberOfTrees(), parsedParams.getNumberOfTrees());
+        assertEquals(params.getTrainingDataSize(), parsedParams.getTrainingDataSize());
+        // older nodes train full precision forests with default bounding box cache
+        assertNull(parsedParams.getPrecision());
+        assertNull(parsedParams.getCompact());
+        assertNull(parsedParams.getBoundingBoxCacheFraction());
+        // older nodes train on the first rows instead of a sample
+        assertNull(parsedParams.getTrainingSampleSize());
+        assertNull(parsedParams.getTrainingSampleTimeDecay());
+        assertEquals(0, streamInput.available());
+    }
+
     private void readInputStream(BatchRCFParams params) throws IOException {
         BytesStreamOutput bytesStreamOutput = new BytesStreamOutput();
         params.writeTo(bytesStreamOutput);
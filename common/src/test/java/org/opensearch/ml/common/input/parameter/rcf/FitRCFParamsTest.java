@@ -6,18 +6,27 @@
 package org.opensearch.ml.common.input.parameter.rcf;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.opensearch.Version;
 import org.opensearch.common.io.stream.BytesStreamOutput;
 import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.xcontent.LoggingDeprecationHandler;
+import org.opensearch.common.xcontent.NamedXContentRegistry;
 import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.ml.common.TestHelper;
 
 import java.io.IOException;
 import java.util.function.Function;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class FitRCFParamsTest {
+    @Rule
+    public ExpectedException exceptionRule = ExpectedException.none();
 
     FitRCFParams params;
     private Function<XContentParser, FitRCFParams> function = parser -> {
@@ -40,6 +49,11 @@ public class FitRCFParamsTest {
                 .timeField("timestamp")
                 .dateFormat("yyyy-mm-dd")
                 .timeZone("UTC")
+                .categoryField("host")
+                .maxEntities(100)
+                .precision(RCFPrecision.FLOAT_32)
+                .compact(true)
+                .boundingBoxCacheFraction(0.5)
                 .build();
     }
 
@@ -53,6 +67,17 @@ public class FitRCFParamsTest {
         TestHelper.testParse(FitRCFParams.builder().build(), function);
     }
 
+    @Test
+    public void parse_WrongPrecision() throws IOException {
+        exceptionRule.expect(IllegalArgumentException.class);
+        exceptionRule.expectMessage("Wrong RCF precision");
+        String paramsStr = "{\"precision\":\"FLOAT_16\"}";
+        XContentParser parser = XContentType.JSON.xContent().createParser(NamedXContentRegistry.EMPTY,
+                LoggingDeprecationHandler.INSTANCE, paramsStr);
+        parser.nextToken();
+        FitRCFParams.parse(parser);
+    }
+
     @Test
     public void readInputStream_Success() throws IOException {
         readInputStream(params);
@@ -63,6 +88,27 @@ public class FitRCFParamsTest {
         readInputStream(FitRCFParams.builder().build());
     }
 
+    @Test
+    public void readInputStream_OlderVersion() throws IOException {
+        BytesStreamOutput bytesStreamOutput = new BytesStreamOutput();
+        bytesStreamOutput.setVersion(Version.V_1_3_0);
+        params.writeTo(bytesStreamOutput);
+
+        StreamInput streamInput = bytesStreamOutput.bytes().streamInput();
+        streamInput.setVersion(Version.V_1_3_0);
+        FitRCFParams parsedParams = new FitRCFParams(streamInput);
+        assertEquals(params.getNumberOfTrees(), parsedParams.getNumberOfTrees());
+        assertEquals(params.getTimeField(), parsedParams.getTimeField());
+        // older nodes don't know the category field, they train one forest
+        assertNull(parsedParams.getCategoryField());
+        assertNull(parsedParams.getMaxEntities());
+        // older nodes train full precision forests with default bounding box cache
+        assertNull(parsedParams.getPrecision());
+        assertNull(parsedParams.getCompact());
+        assertNull(parsedParams.getBoundingBoxCacheFraction());
+        assertEquals(0, streamInput.available());
+    }
+
     private void readInputStream(FitRCFParams params) throws IOException {
         BytesStreamOutput bytesStreamOutput = new BytesStreamOutput();
         params.writeTo(bytesStreamOutput);
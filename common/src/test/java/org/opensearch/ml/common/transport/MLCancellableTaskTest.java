@@ -0,0 +1,47 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.common.transport;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.opensearch.tasks.TaskId;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MLCancellableTaskTest {
+
+    @Test
+    public void onCancelled_RunListenersOnce() {
+        MLCancellableTask task = task();
+        AtomicInteger count = new AtomicInteger();
+        task.addCancellationListener(count::incrementAndGet);
+        Assert.assertEquals(0, count.get());
+        task.onCancelled();
+        task.onCancelled();
+        Assert.assertEquals(1, count.get());
+    }
+
+    @Test
+    public void removeCancellationListener() {
+        MLCancellableTask task = task();
+        AtomicInteger count = new AtomicInteger();
+        Runnable listener = count::incrementAndGet;
+        task.addCancellationListener(listener);
+        task.removeCancellationListener(listener);
+        task.onCancelled();
+        Assert.assertEquals(0, count.get());
+    }
+
+    @Test
+    public void shouldCancelChildrenOnCancellation() {
+        Assert.assertTrue(task().shouldCancelChildrenOnCancellation());
+    }
+
+    private MLCancellableTask task() {
+        return new MLCancellableTask(1, "transport", "action", "requestID[1]", TaskId.EMPTY_TASK_ID, Collections.emptyMap());
+    }
+}
@@ -7,17 +7,26 @@ package org.opensearch.ml.common.transport.training;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.opensearch.Version;
 import org.opensearch.action.ActionRequest;
 import org.opensearch.action.ActionRequestValidationException;
 import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.io.stream.NamedWriteableRegistry;
+import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.index.query.MatchAllQueryBuilder;
 import org.opensearch.ml.common.dataframe.DataFrame;
 import org.opensearch.ml.common.dataframe.DataFrameBuilder;
 import org.opensearch.ml.common.dataset.DataFrameInputDataset;
 import org.opensearch.ml.common.dataset.MLInputDataType;
+import org.opensearch.ml.common.dataset.SearchQueryInputDataset;
 import org.opensearch.ml.common.input.parameter.clustering.KMeansParams;
 import org.opensearch.ml.common.FunctionName;
 import org.opensearch.ml.common.input.MLInput;
+import org.opensearch.search.SearchModule;
+import org.opensearch.search.builder.SearchSourceBuilder;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
@@ -66,6 +75,37 @@ public class MLTrainingTaskRequestTest {
         assertEquals(MLInputDataType.DATA_FRAME, request.getMlInput().getInputDataset().getInputDataType());
     }
 
+    @Test
+    public void writeTo_Timeout() throws IOException {
+        MLTrainingTaskRequest request = MLTrainingTaskRequest.builder()
+            .mlInput(mlInput)
+            .build();
+        request.setTimeout(TimeValue.timeValueSeconds(10));
+        BytesStreamOutput bytesStreamOutput = new BytesStreamOutput();
+        request.writeTo(bytesStreamOutput);
+        request = new MLTrainingTaskRequest(bytesStreamOutput.bytes().streamInput());
+        assertEquals(TimeValue.timeValueSeconds(10), request.getTimeout());
+    }
+
+    @Test
+    public void writeTo_OlderVersion() throws IOException {
+        MLTrainingTaskRequest request = MLTrainingTaskRequest.builder()
+            .mlInput(mlInput)
+            .build();
+        request.setTimeout(TimeValue.timeValueSeconds(10));
+        BytesStreamOutput bytesStreamOutput = new BytesStreamOutput();
+        bytesStreamOutput.setVersion(Version.V_1_3_0);
+        request.writeTo(bytesStreamOutput);
+
+        StreamInput streamInput = bytesStreamOutput.bytes().streamInput();
+        streamInput.setVersion(Version.V_1_3_0);
+        request = new MLTrainingTaskRequest(streamInput);
+        // older nodes don't know the timeout, the request runs without time limit
+        assertNull(request.getTimeout());
+        assertEquals(FunctionName.KMEANS, request.getMlInput().getAlgorithm());
+        assertEquals(0, streamInput.available());
+    }
+
     @Test
     public void fromActionRequest_WithMLTrainingTaskRequest() {
         MLTrainingTaskRequest request = MLTrainingTaskRequest.builder()
@@ -97,6 +137,35 @@ public class MLTrainingTaskRequestTest {
         assertEquals(request.getMlInput().getInputDataset().getInputDataType(), result.getMlInput().getInputDataset().getInputDataType());
     }
 
+    @Test
+    public void fromActionRequest_WithNonMLTrainingTaskRequest_SearchQueryInput() {
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().query(new MatchAllQueryBuilder());
+        mlInput.setInputDataset(SearchQueryInputDataset.builder()
+                .indices(Collections.singletonList("test_index"))
+                .searchSourceBuilder(searchSourceBuilder)
+                .build());
+        MLTrainingTaskRequest request = MLTrainingTaskRequest.builder()
+                .mlInput(mlInput)
+                .build();
+        ActionRequest actionRequest = new ActionRequest() {
+            @Override
+            public ActionRequestValidationException validate() {
+                return null;
+            }
+
+            @Override
+            public void writeTo(StreamOutput out) throws IOException {
+                request.writeTo(out);
+            }
+        };
+        NamedWriteableRegistry namedWriteableRegistry = new NamedWriteableRegistry(
+                new SearchModule(Settings.EMPTY, Collections.emptyList()).getNamedWriteables());
+        MLTrainingTaskRequest result = MLTrainingTaskRequest.fromActionRequest(actionRequest, namedWriteableRegistry);
+        SearchQueryInputDataset inputDataset = (SearchQueryInputDataset) result.getMlInput().getInputDataset();
+        assertEquals(Collections.singletonList("test_index"), inputDataset.getIndices());
+        assertEquals(searchSourceBuilder, inputDataset.getSearchSourceBuilder());
+    }
+
     @Test(expected = UncheckedIOException.class)
     public void fromActionRequest_Exception() {
         ActionRequest actionRequest = new ActionRequest() {
@@ -0,0 +1,37 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine;
+
+import org.opensearch.tasks.TaskCancelledException;
+
+/**
+ * Cooperative cancellation signal passed from the task runner into ML algorithms.
+ * Long-running algorithms should call {@link #ensureNotCancelled()} at natural
+ * boundaries (per point, per iteration, per epoch) so cancelled or timed out tasks
+ * release their thread promptly.
+ */
+public interface CancellationToken {
+
+    /**
+     * Token which is never cancelled.
+     */
+    CancellationToken NONE = () -> false;
+
+    /**
+     * Check if the ML task should stop.
+     * @return true if the task is cancelled or ran out of time
+     */
+    boolean isCancelled();
+
+    /**
+     * Throw {@link TaskCancelledException} if the ML task should stop.
+     */
+    default void ensureNotCancelled() {
+        if (isCancelled()) {
+            throw new TaskCancelledException("ML task cancelled");
+        }
+    }
+}
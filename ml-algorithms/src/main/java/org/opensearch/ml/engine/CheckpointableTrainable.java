@@ -0,0 +1,35 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine;
+
+import org.opensearch.ml.common.Model;
+import org.opensearch.ml.common.dataframe.DataFrame;
+
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Machine learning algorithms which train on the training data point by point and can checkpoint the model state
+ * in between, so that training can continue from the last checkpoint instead of starting over.
+ */
+public interface CheckpointableTrainable {
+
+    /**
+     * Train model, checkpointing the model state every checkpointPoints points. Parameters which don't train point
+     * by point in a fixed order train from scratch and never checkpoint.
+     * @param dataFrame training data
+     * @param checkpoint checkpoint to continue training from, or null to train from scratch
+     * @param checkpointPoints number of points between checkpoints, 0 disables checkpoints
+     * @param checkpointConsumer consumer of checkpoints, called by the training thread
+     * @param cancellationToken cancellation token
+     * @param executor executor of parallel training, or null to train in the calling thread
+     * @param parallelism max number of threads training concurrently
+     * @return trained model
+     */
+    Model train(DataFrame dataFrame, TrainingCheckpoint checkpoint, int checkpointPoints, Consumer<TrainingCheckpoint> checkpointConsumer,
+                CancellationToken cancellationToken, Executor executor, int parallelism);
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine;
+
+import org.opensearch.ml.common.Model;
+import org.opensearch.ml.common.dataframe.DataFrame;
+
+/**
+ * Machine learning algorithms which can be trained on data split across nodes. Training runs in iterations:
+ * each node computes partial statistics of its own data for the current model state, the coordinator adds
+ * up the partial statistics of all nodes and computes the next model state from the sum. Partial statistics
+ * must be additive, so that summing them is the same as computing them over all data at once.
+ */
+public interface DistributedTrainable {
+
+    /**
+     * Get names of the feature columns, which fixes the order of features in model state.
+     * @param sample sample of training data
+     * @return feature column names
+     */
+    String[] getFeatureNames(DataFrame sample);
+
+    /**
+     * Create initial model state.
+     * @param sample sample of training data
+     * @param featureNames feature column names
+     * @return initial model state
+     */
+    double[] initState(DataFrame sample, String[] featureNames);
+
+    /**
+     * Compute partial statistics of a part of the training data.
+     * @param dataFrame part of training data
+     * @param featureNames feature column names
+     * @param state current model state
+     * @return partial statistics
+     */
+    double[] computePartialStats(DataFrame dataFrame, String[] featureNames, double[] state);
+
+    /**
+     * Compute next model state.
+     * @param state current model state
+     * @param stats sum of partial statistics of all training data
+     * @return next model state
+     */
+    double[] updateState(double[] state, double[] stats);
+
+    /**
+     * Get number of training iterations.
+     * @return number of iterations
+     */
+    int getIterations();
+
+    /**
+     * Build the trained model.
+     * @param featureNames feature column names
+     * @param state final model state
+     * @return the java serialized model
+     */
+    Model buildModel(String[] featureNames, double[] state);
+}
@@ -5,6 +5,7 @@
 
 package org.opensearch.ml.engine;
 
+import org.opensearch.action.ActionListener;
 import org.opensearch.ml.common.input.Input;
 import org.opensearch.ml.common.output.Output;
 
@@ -17,4 +18,23 @@ public interface Executable {
      */
     Output execute(Input input);
 
+    /**
+     * Execute algorithm with given input data and notify the listener with the result.
+     * Functions which wait on I/O (like searches) should override this method and
+     * complete the listener from the response callback, so no thread is blocked while waiting.
+     * The default implementation runs {@link #execute(Input)} on the calling thread.
+     * @param input input data
+     * @param listener action listener
+     */
+    default void execute(Input input, ActionListener<Output> listener) {
+        Output output;
+        try {
+            output = execute(input);
+        } catch (Exception e) {
+            listener.onFailure(e);
+            return;
+        }
+        listener.onResponse(output);
+    }
+
 }
@@ -5,6 +5,8 @@
 
 package org.opensearch.ml.engine;
 
+import org.opensearch.action.ActionListener;
+import org.opensearch.ml.common.FunctionName;
 import org.opensearch.ml.common.dataframe.DataFrame;
 import org.opensearch.ml.common.input.Input;
 import org.opensearch.ml.common.input.parameter.MLAlgoParams;
@@ -12,6 +14,9 @@ import org.opensearch.ml.common.input.MLInput;
 import org.opensearch.ml.common.output.MLOutput;
 import org.opensearch.ml.common.Model;
 import org.opensearch.ml.common.output.Output;
+import org.opensearch.ml.engine.utils.ReservoirSampler;
+
+import java.util.concurrent.Executor;
 
 /**
  * This is the interface to all ml algorithms.
@@ -19,33 +24,151 @@ import org.opensearch.ml.common.output.Output;
 public class MLEngine {
 
     public static Model train(Input input) {
+        return train(input, CancellationToken.NONE);
+    }
+
+    public static Model train(Input input, CancellationToken cancellationToken) {
+        validateMLInput(input);
+        MLInput mlInput = (MLInput) input;
+        Trainable trainable = MLEngineClassLoader.initInstance(mlInput.getAlgorithm(), mlInput.getParameters(), MLAlgoParams.class);
+        if (trainable == null) {
+            throw new IllegalArgumentException("Unsupported algorithm: " + mlInput.getAlgorithm());
+        }
+        return trainable.train(mlInput.getDataFrame(), cancellationToken);
+    }
+
+    public static Model train(Input input, CancellationToken cancellationToken, Executor executor, int parallelism) {
         validateMLInput(input);
         MLInput mlInput = (MLInput) input;
         Trainable trainable = MLEngineClassLoader.initInstance(mlInput.getAlgorithm(), mlInput.getParameters(), MLAlgoParams.class);
         if (trainable == null) {
             throw new IllegalArgumentException("Unsupported algorithm: " + mlInput.getAlgorithm());
         }
-        return trainable.train(mlInput.getDataFrame());
+        return trainable.train(mlInput.getDataFrame(), cancellationToken, executor, parallelism);
     }
 
     public static MLOutput predict(Input input, Model model) {
+        return predict(input, model, CancellationToken.NONE);
+    }
+
+    public static MLOutput predict(Input input, Model model, CancellationToken cancellationToken) {
+        validateMLInput(input);
+        MLInput mlInput = (MLInput) input;
+        Predictable predictable = MLEngineClassLoader.initInstance(mlInput.getAlgorithm(), mlInput.getParameters(), MLAlgoParams.class);
+        if (predictable == null) {
+            throw new IllegalArgumentException("Unsupported algorithm: " + mlInput.getAlgorithm());
+        }
+        return predictable.predict(mlInput.getDataFrame(), model, cancellationToken);
+    }
+
+    public static MLOutput predict(Input input, Model model, CancellationToken cancellationToken, Executor executor, int parallelism) {
         validateMLInput(input);
         MLInput mlInput = (MLInput) input;
         Predictable predictable = MLEngineClassLoader.initInstance(mlInput.getAlgorithm(), mlInput.getParameters(), MLAlgoParams.class);
         if (predictable == null) {
             throw new IllegalArgumentException("Unsupported algorithm: " + mlInput.getAlgorithm());
         }
-        return predictable.predict(mlInput.getDataFrame(), model);
+        return predictable.predict(mlInput.getDataFrame(), model, cancellationToken, executor, parallelism);
     }
 
     public static MLOutput trainAndPredict(Input input) {
+        return trainAndPredict(input, CancellationToken.NONE);
+    }
+
+    public static MLOutput trainAndPredict(Input input, CancellationToken cancellationToken) {
         validateMLInput(input);
         MLInput mlInput = (MLInput) input;
         TrainAndPredictable trainAndPredictable = MLEngineClassLoader.initInstance(mlInput.getAlgorithm(), mlInput.getParameters(), MLAlgoParams.class);
         if (trainAndPredictable == null) {
             throw new IllegalArgumentException("Unsupported algorithm: " + mlInput.getAlgorithm());
         }
-        return trainAndPredictable.trainAndPredict(mlInput.getDataFrame());
+        return trainAndPredictable.trainAndPredict(mlInput.getDataFrame(), cancellationToken);
+    }
+
+    public static MLOutput trainAndPredict(Input input, CancellationToken cancellationToken, Executor executor, int parallelism) {
+        validateMLInput(input);
+        MLInput mlInput = (MLInput) input;
+        TrainAndPredictable trainAndPredictable = MLEngineClassLoader
+            .initInstance(mlInput.getAlgorithm(), mlInput.getParameters(), MLAlgoParams.class);
+        if (trainAndPredictable == null) {
+            throw new IllegalArgumentException("Unsupported algorithm: " + mlInput.getAlgorithm());
+        }
+        return trainAndPredictable.trainAndPredict(mlInput.getDataFrame(), cancellationToken, executor, parallelism);
+    }
+
+    /**
+     * Get algorithm which supports distributed training.
+     * @param algorithm algorithm name
+     * @param parameters algorithm parameters
+     * @return distributed trainable algorithm, or null if the algorithm doesn't support distributed training
+     */
+    public static DistributedTrainable getDistributedTrainable(FunctionName algorithm, MLAlgoParams parameters) {
+        Object instance = MLEngineClassLoader.initInstance(algorithm, parameters, MLAlgoParams.class);
+        return instance instanceof DistributedTrainable ? (DistributedTrainable) instance : null;
+    }
+
+    /**
+     * Create a sampler of training data for algorithms which train on a sample.
+     * @param algorithm algorithm name
+     * @param parameters algorithm parameters
+     * @param <T> type of sampled rows
+     * @return sampler, or null if the algorithm trains on all data
+     */
+    public static <T> ReservoirSampler<T> createTrainingSampler(FunctionName algorithm, MLAlgoParams parameters) {
+        Object instance = MLEngineClassLoader.initInstance(algorithm, parameters, MLAlgoParams.class);
+        return instance instanceof SampledTrainable ? ((SampledTrainable) instance).createTrainingSampler() : null;
+    }
+
+    /**
+     * Create a mini-batch trainer for algorithms which can train on batches of the training data.
+     * @param algorithm algorithm name
+     * @param parameters algorithm parameters
+     * @return mini-batch trainer, or null if the algorithm trains on all data at once
+     */
+    public static MiniBatchTrainer createMiniBatchTrainer(FunctionName algorithm, MLAlgoParams parameters) {
+        Object instance = MLEngineClassLoader.initInstance(algorithm, parameters, MLAlgoParams.class);
+        return instance instanceof MiniBatchTrainable ? ((MiniBatchTrainable) instance).createMiniBatchTrainer() : null;
+    }
+
+    /**
+     * Get algorithm which can checkpoint its model state while training.
+     * @param algorithm algorithm name
+     * @param parameters algorithm parameters
+     * @return checkpointable algorithm, or null if the algorithm can't checkpoint its model state
+     */
+    public static CheckpointableTrainable getCheckpointableTrainable(FunctionName algorithm, MLAlgoParams parameters) {
+        Object instance = MLEngineClassLoader.initInstance(algorithm, parameters, MLAlgoParams.class);
+        return instance instanceof CheckpointableTrainable ? (CheckpointableTrainable) instance : null;
+    }
+
+    /**
+     * Get algorithm which can estimate its training memory.
+     * @param algorithm algorithm name
+     * @param parameters algorithm parameters
+     * @return memory estimable algorithm, or null if the algorithm can't estimate its memory
+     */
+    public static MemoryEstimable getMemoryEstimable(FunctionName algorithm, MLAlgoParams parameters) {
+        Object instance = MLEngineClassLoader.initInstance(algorithm, parameters, MLAlgoParams.class);
+        return instance instanceof MemoryEstimable ? (MemoryEstimable) instance : null;
+    }
+
+    /**
+     * Open a stream session, which keeps the trained model in memory and updates it with every processed point.
+     * @param input input with algorithm and parameters, the data frame is not used
+     * @param model trained model
+     * @return stream session
+     */
+    public static StreamSession openStreamSession(Input input, Model model) {
+        validateInput(input);
+        if (!(input instanceof MLInput)) {
+            throw new IllegalArgumentException("Input should be MLInput");
+        }
+        MLInput mlInput = (MLInput) input;
+        Object instance = MLEngineClassLoader.initInstance(mlInput.getAlgorithm(), mlInput.getParameters(), MLAlgoParams.class);
+        if (!(instance instanceof Streamable)) {
+            throw new IllegalArgumentException("Unsupported streaming algorithm: " + mlInput.getAlgorithm());
+        }
+        return ((Streamable) instance).openStreamSession(model);
     }
 
     public static Output execute(Input input) {
@@ -57,6 +180,20 @@ public class MLEngine {
         return executable.execute(input);
     }
 
+    /**
+     * Execute function without blocking the calling thread on I/O.
+     * @param input input data
+     * @param listener action listener
+     */
+    public static void execute(Input input, ActionListener<Output> listener) {
+        validateInput(input);
+        Executable executable = MLEngineClassLoader.initInstance(input.getFunctionName(), input, Input.class);
+        if (executable == null) {
+            throw new IllegalArgumentException("Unsupported executable function: " + input.getFunctionName());
+        }
+        executable.execute(input, listener);
+    }
+
     private static void validateMLInput(Input input) {
         validateInput(input);
         if (!(input instanceof MLInput)) {
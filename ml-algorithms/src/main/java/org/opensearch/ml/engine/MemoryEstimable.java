@@ -0,0 +1,24 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine;
+
+import org.opensearch.ml.common.dataframe.DataFrame;
+
+/**
+ * Machine learning algorithms which can estimate how much memory training allocates, so that requests too
+ * large for the node fail before the model is built rather than running the node out of heap.
+ */
+public interface MemoryEstimable {
+
+    /**
+     * Estimate peak memory of training with given data, not counting the data itself.
+     * @param dataFrame training data
+     * @param parallelism maximal number of threads training runs on
+     * @return estimated memory in bytes
+     */
+    long estimateTrainingMemory(DataFrame dataFrame, int parallelism);
+
+}
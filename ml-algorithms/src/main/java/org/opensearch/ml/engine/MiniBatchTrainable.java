@@ -0,0 +1,20 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine;
+
+/**
+ * Machine learning algorithms which can train incrementally on batches of the training data. Only the current batch
+ * and the model state are kept in memory, so callers can stream training data of any size page by page.
+ */
+public interface MiniBatchTrainable {
+
+    /**
+     * Create a trainer of a new model.
+     * @return trainer, or null if the parameters don't enable mini-batch training
+     */
+    MiniBatchTrainer createMiniBatchTrainer();
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine;
+
+import org.opensearch.ml.common.Model;
+import org.opensearch.ml.common.dataframe.DataFrame;
+
+/**
+ * State of one mini-batch training. Callers pass the training data in batches of {@link #getBatchSize()} rows,
+ * repeat that {@link #getPasses()} times, and then build the model.
+ */
+public interface MiniBatchTrainer {
+
+    /**
+     * @return maximal number of rows of a batch
+     */
+    int getBatchSize();
+
+    /**
+     * @return number of passes over the training data
+     */
+    int getPasses();
+
+    /**
+     * Update the model state with a batch of training data.
+     * @param batch training data, up to batch size rows
+     * @param cancellationToken cancellation token of the ML task
+     */
+    void update(DataFrame batch, CancellationToken cancellationToken);
+
+    /**
+     * Build the model from the current state.
+     * @return model
+     */
+    Model buildModel();
+
+}
@@ -9,6 +9,8 @@ import org.opensearch.ml.common.dataframe.DataFrame;
 import org.opensearch.ml.common.output.MLOutput;
 import org.opensearch.ml.common.Model;
 
+import java.util.concurrent.Executor;
+
 /**
  * This is machine learning algorithms predict interface.
  */
@@ -22,4 +24,30 @@ public interface Predictable {
      */
     MLOutput predict(DataFrame dataFrame, Model model);
 
+    /**
+     * Predict with given features and model, stopping early if the task is cancelled.
+     * @param dataFrame features data
+     * @param model the java serialized model
+     * @param cancellationToken cancellation token of the ML task
+     * @return predicted results
+     */
+    default MLOutput predict(DataFrame dataFrame, Model model, CancellationToken cancellationToken) {
+        cancellationToken.ensureNotCancelled();
+        return predict(dataFrame, model);
+    }
+
+    /**
+     * Predict with given features and model, spreading the work over up to parallelism threads of the executor.
+     * The calling thread takes part in the work. Algorithms which can't predict in parallel predict sequentially.
+     * @param dataFrame features data
+     * @param model the java serialized model
+     * @param cancellationToken cancellation token of the ML task
+     * @param executor executor of helper threads
+     * @param parallelism maximal number of threads, including the calling thread
+     * @return predicted results
+     */
+    default MLOutput predict(DataFrame dataFrame, Model model, CancellationToken cancellationToken, Executor executor, int parallelism) {
+        return predict(dataFrame, model, cancellationToken);
+    }
+
 }
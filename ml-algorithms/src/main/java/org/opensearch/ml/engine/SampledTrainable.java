@@ -0,0 +1,24 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine;
+
+import org.opensearch.ml.engine.utils.ReservoirSampler;
+
+/**
+ * Machine learning algorithms which can train on a bounded sample of the training data. The sample is drawn in
+ * one pass, so callers can stream training data of any size through the sampler page by page and only keep the
+ * sample in memory.
+ */
+public interface SampledTrainable {
+
+    /**
+     * Create a sampler of training data.
+     * @param <T> type of sampled rows
+     * @return sampler, or null if the parameters don't enable sampling
+     */
+    <T> ReservoirSampler<T> createTrainingSampler();
+
+}
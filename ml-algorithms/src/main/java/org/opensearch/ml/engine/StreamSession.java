@@ -0,0 +1,32 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine;
+
+import org.opensearch.ml.common.dataframe.DataFrame;
+import org.opensearch.ml.common.output.MLOutput;
+import org.opensearch.ml.common.Model;
+
+/**
+ * In-memory model state of a {@link Streamable} algorithm. Every processed data point updates the state, so
+ * points must be sent in time order. Implementations must be safe to call from multiple threads.
+ */
+public interface StreamSession {
+
+    /**
+     * Predict with given data points and update the model state with them.
+     * @param dataFrame data points
+     * @param cancellationToken cancellation token of the ML task
+     * @return predicted results
+     */
+    MLOutput process(DataFrame dataFrame, CancellationToken cancellationToken);
+
+    /**
+     * Serialize current model state.
+     * @return model of current state
+     */
+    Model toModel();
+
+}
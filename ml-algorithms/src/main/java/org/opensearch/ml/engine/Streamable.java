@@ -0,0 +1,23 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine;
+
+import org.opensearch.ml.common.Model;
+
+/**
+ * Machine learning algorithms which can keep a trained model in memory and keep updating it with streamed data,
+ * rather than loading the model for every prediction request.
+ */
+public interface Streamable {
+
+    /**
+     * Open a stream session from trained model. The model is deserialized once, when the session is opened.
+     * @param model trained model
+     * @return stream session
+     */
+    StreamSession openStreamSession(Model model);
+
+}
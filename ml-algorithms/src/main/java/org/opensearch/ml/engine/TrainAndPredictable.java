@@ -8,6 +8,7 @@ package org.opensearch.ml.engine;
 import org.opensearch.ml.common.dataframe.DataFrame;
 import org.opensearch.ml.common.output.MLOutput;
 
+import java.util.concurrent.Executor;
 
 /**
  * This is machine learning algorithms train interface.
@@ -21,4 +22,28 @@ public interface TrainAndPredictable extends Trainable, Predictable {
      */
     MLOutput trainAndPredict(DataFrame dataFrame);
 
+    /**
+     * Train model with given features. Then predict with the same data. Stop early if the task is cancelled.
+     * @param dataFrame training data
+     * @param cancellationToken cancellation token of the ML task
+     * @return the java serialized model
+     */
+    default MLOutput trainAndPredict(DataFrame dataFrame, CancellationToken cancellationToken) {
+        cancellationToken.ensureNotCancelled();
+        return trainAndPredict(dataFrame);
+    }
+
+    /**
+     * Train model with given features. Then predict with the same data. Spread the work over up to parallelism
+     * threads of the executor, the calling thread included. Algorithms which can't run in parallel run sequentially.
+     * @param dataFrame training data
+     * @param cancellationToken cancellation token of the ML task
+     * @param executor executor of helper threads
+     * @param parallelism maximal number of threads, including the calling thread
+     * @return the java serialized model
+     */
+    default MLOutput trainAndPredict(DataFrame dataFrame, CancellationToken cancellationToken, Executor executor, int parallelism) {
+        return trainAndPredict(dataFrame, cancellationToken);
+    }
+
 }
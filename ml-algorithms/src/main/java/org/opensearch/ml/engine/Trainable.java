@@ -8,6 +8,8 @@ package org.opensearch.ml.engine;
 import org.opensearch.ml.common.dataframe.DataFrame;
 import org.opensearch.ml.common.Model;
 
+import java.util.concurrent.Executor;
+
 /**
  * This is machine learning algorithms train interface.
  */
@@ -20,4 +22,28 @@ public interface Trainable {
      */
     Model train(DataFrame dataFrame);
 
+    /**
+     * Train model with given features, stopping early if the task is cancelled.
+     * @param dataFrame training data
+     * @param cancellationToken cancellation token of the ML task
+     * @return the java serialized model
+     */
+    default Model train(DataFrame dataFrame, CancellationToken cancellationToken) {
+        cancellationToken.ensureNotCancelled();
+        return train(dataFrame);
+    }
+
+    /**
+     * Train model with given features, spreading the work over up to parallelism threads of the executor.
+     * The calling thread takes part in the work. Algorithms which can't train in parallel train sequentially.
+     * @param dataFrame training data
+     * @param cancellationToken cancellation token of the ML task
+     * @param executor executor of helper threads
+     * @param parallelism maximal number of threads, including the calling thread
+     * @return the java serialized model
+     */
+    default Model train(DataFrame dataFrame, CancellationToken cancellationToken, Executor executor, int parallelism) {
+        return train(dataFrame, cancellationToken);
+    }
+
 }
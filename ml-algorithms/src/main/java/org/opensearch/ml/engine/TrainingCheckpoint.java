@@ -0,0 +1,29 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine;
+
+import lombok.Getter;
+
+/**
+ * Intermediate model state of a checkpointable training, after the model was trained with the first points of the
+ * training data.
+ */
+@Getter
+public class TrainingCheckpoint {
+    /**
+     * Number of points the model state was trained with.
+     */
+    private final int points;
+    /**
+     * Serialized model state.
+     */
+    private final byte[] state;
+
+    public TrainingCheckpoint(int points, byte[] state) {
+        this.points = points;
+        this.state = state;
+    }
+}
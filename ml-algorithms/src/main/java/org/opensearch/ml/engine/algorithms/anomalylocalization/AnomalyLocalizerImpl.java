@@ -444,6 +444,15 @@ public class AnomalyLocalizerImpl implements AnomalyLocalizer, Executable {
         }
     }
 
+    @Override
+    public void execute(Input input, ActionListener<Output> listener) {
+        try {
+            getLocalizationResults((AnomalyLocalizationInput) input, ActionListener.wrap(listener::onResponse, listener::onFailure));
+        } catch (Exception e) {
+            listener.onFailure(e);
+        }
+    }
+
     @Override
     public Output execute(Input input) {
         CountDownLatch latch = new CountDownLatch(1);
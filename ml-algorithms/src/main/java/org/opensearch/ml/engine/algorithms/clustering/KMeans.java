@@ -7,16 +7,22 @@ package org.opensearch.ml.engine.algorithms.clustering;
 
 import org.opensearch.ml.common.dataframe.DataFrame;
 import org.opensearch.ml.common.dataframe.DataFrameBuilder;
+import org.opensearch.ml.common.dataframe.Row;
 import org.opensearch.ml.common.input.parameter.clustering.KMeansParams;
 import org.opensearch.ml.common.FunctionName;
 import org.opensearch.ml.common.input.parameter.MLAlgoParams;
 import org.opensearch.ml.common.output.MLOutput;
 import org.opensearch.ml.common.output.MLPredictionOutput;
 import org.opensearch.ml.common.Model;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.engine.DistributedTrainable;
+import org.opensearch.ml.engine.MiniBatchTrainable;
+import org.opensearch.ml.engine.MiniBatchTrainer;
 import org.opensearch.ml.engine.TrainAndPredictable;
 import org.opensearch.ml.engine.annotation.Function;
 import org.opensearch.ml.engine.utils.ModelSerDeSer;
 import org.opensearch.ml.engine.contants.TribuoOutputType;
+import org.opensearch.ml.engine.utils.FeatureUtil;
 import org.opensearch.ml.engine.utils.TribuoUtil;
 import org.tribuo.MutableDataset;
 import org.tribuo.Prediction;
@@ -30,6 +36,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.Executor;
 
 /**
  * Tribuo Kmean can only run with Java8. We see such error when run with Java11
@@ -37,12 +45,18 @@ import java.util.Optional;
  * Check more details in these Github issues
  * https://github.com/opensearch-project/ml-commons/issues/67
  * https://github.com/oracle/tribuo/issues/158
+ *
+ * With the NATIVE engine, KMeans is trained by {@link NativeKMeans} on a primitive feature matrix, and the model
+ * keeps the centroids in {@link KMeansCentroids} like distributed training does. With a mini batch size, KMeans
+ * is trained by {@link MiniBatchKMeans} instead, and iterations are the number of passes over the training data.
  */
 @Function(FunctionName.KMEANS)
-public class KMeans implements TrainAndPredictable {
+public class KMeans implements TrainAndPredictable, DistributedTrainable, MiniBatchTrainable {
     private static final KMeansParams.DistanceType DEFAULT_DISTANCE_TYPE = KMeansParams.DistanceType.EUCLIDEAN;
     private static int DEFAULT_CENTROIDS = 2;
     private static int DEFAULT_ITERATIONS = 10;
+    private static final KMeansParams.Engine DEFAULT_ENGINE = KMeansParams.Engine.TRIBUO;
+    private static final double DEFAULT_TOLERANCE = 1e-4;
 
     //The number of threads.
     private KMeansParams parameters;
@@ -51,6 +65,7 @@ public class KMeans implements TrainAndPredictable {
     //The random seed.
     private long seed = System.currentTimeMillis();
     private KMeansTrainer.Distance distance;
+    private KMeansParams.DistanceType distanceType;
 
     public KMeans() {}
 
@@ -70,10 +85,23 @@ public class KMeans implements TrainAndPredictable {
             throw new IllegalArgumentException("Iterations should be positive.");
         }
 
+        if (parameters.getTolerance() != null && parameters.getTolerance() < 0) {
+            throw new IllegalArgumentException("Tolerance should not be negative.");
+        }
+
+        if (parameters.getMiniBatchSize() != null) {
+            if (parameters.getMiniBatchSize() <= 0) {
+                throw new IllegalArgumentException("Mini batch size should be positive.");
+            }
+            if (parameters.getMiniBatchSize() < Optional.ofNullable(parameters.getCentroids()).orElse(DEFAULT_CENTROIDS)) {
+                throw new IllegalArgumentException("Mini batch size should not be less than K.");
+            }
+        }
+
     }
 
     private void createDistance() {
-        KMeansParams.DistanceType distanceType = Optional.ofNullable(parameters.getDistanceType()).orElse(DEFAULT_DISTANCE_TYPE);
+        distanceType = Optional.ofNullable(parameters.getDistanceType()).orElse(DEFAULT_DISTANCE_TYPE);
         switch (distanceType) {
             case COSINE:
                 distance = KMeansTrainer.Distance.COSINE;
@@ -93,10 +121,14 @@ public class KMeans implements TrainAndPredictable {
             throw new IllegalArgumentException("No model found for KMeans prediction.");
         }
 
+        Object kMeansModelObject = ModelSerDeSer.deserialize(model.getContent());
+        if (kMeansModelObject instanceof KMeansCentroids) {
+            return predict(dataFrame, (KMeansCentroids) kMeansModelObject);
+        }
         List<Prediction<ClusterID>> predictions;
         MutableDataset<ClusterID> predictionDataset = TribuoUtil.generateDataset(dataFrame, new ClusteringFactory(),
                 "KMeans prediction data from opensearch", TribuoOutputType.CLUSTERID);
-        KMeansModel kMeansModel = (KMeansModel) ModelSerDeSer.deserialize(model.getContent());
+        KMeansModel kMeansModel = (KMeansModel) kMeansModelObject;
         predictions = kMeansModel.predict(predictionDataset);
 
         List<Map<String, Object>> listClusterID = new ArrayList<>();
@@ -107,8 +139,22 @@ public class KMeans implements TrainAndPredictable {
 
     @Override
     public Model train(DataFrame dataFrame) {
+        return train(dataFrame, CancellationToken.NONE);
+    }
+
+    @Override
+    public Model train(DataFrame dataFrame, CancellationToken cancellationToken) {
+        if (parameters.getMiniBatchSize() != null) {
+            return trainMiniBatch(dataFrame, cancellationToken).buildModel();
+        }
+        if (isNativeEngine()) {
+            return train(dataFrame, cancellationToken, null, 1);
+        }
+        cancellationToken.ensureNotCancelled();
         MutableDataset<ClusterID> trainDataset = TribuoUtil.generateDataset(dataFrame, new ClusteringFactory(),
                 "KMeans training data from opensearch", TribuoOutputType.CLUSTERID);
+        // Tribuo KMeansTrainer has no iteration callback, so we can only check between phases.
+        cancellationToken.ensureNotCancelled();
         Integer centroids = Optional.ofNullable(parameters.getCentroids()).orElse(DEFAULT_CENTROIDS);
         Integer iterations = Optional.ofNullable(parameters.getIterations()).orElse(DEFAULT_ITERATIONS);
         KMeansTrainer trainer = new KMeansTrainer(centroids, iterations, distance, numThreads, seed);
@@ -121,14 +167,41 @@ public class KMeans implements TrainAndPredictable {
         return model;
     }
 
+    /**
+     * The native engine assigns points on up to parallelism threads, Tribuo uses its own threads.
+     */
+    @Override
+    public Model train(DataFrame dataFrame, CancellationToken cancellationToken, Executor executor, int parallelism) {
+        if (!isNativeEngine() || parameters.getMiniBatchSize() != null) {
+            return train(dataFrame, cancellationToken);
+        }
+        String[] featureNames = getFeatureNames(dataFrame);
+        NativeKMeans.Result result = trainNative(dataFrame, featureNames, false, cancellationToken, executor, parallelism);
+        return buildModel(new KMeansCentroids(featureNames, result.getCentroids(), distanceType));
+    }
+
     @Override
     public MLOutput trainAndPredict(DataFrame dataFrame) {
+        return trainAndPredict(dataFrame, CancellationToken.NONE);
+    }
+
+    @Override
+    public MLOutput trainAndPredict(DataFrame dataFrame, CancellationToken cancellationToken) {
+        if (parameters.getMiniBatchSize() != null) {
+            return predict(dataFrame, trainMiniBatch(dataFrame, cancellationToken).getCentroids());
+        }
+        if (isNativeEngine()) {
+            return trainAndPredict(dataFrame, cancellationToken, null, 1);
+        }
+        cancellationToken.ensureNotCancelled();
         MutableDataset<ClusterID> trainDataset = TribuoUtil.generateDataset(dataFrame, new ClusteringFactory(),
                 "KMeans training and predicting data from opensearch", TribuoOutputType.CLUSTERID);
+        cancellationToken.ensureNotCancelled();
         Integer centroids = Optional.ofNullable(parameters.getCentroids()).orElse(DEFAULT_CENTROIDS);
         Integer iterations = Optional.ofNullable(parameters.getIterations()).orElse(DEFAULT_ITERATIONS);
         KMeansTrainer trainer = new KMeansTrainer(centroids, iterations, distance, numThreads, seed);
         KMeansModel kMeansModel = trainer.train(trainDataset); // won't store model in index
+        cancellationToken.ensureNotCancelled();
 
         List<Prediction<ClusterID>> predictions = kMeansModel.predict(trainDataset);
         List<Map<String, Object>> listClusterID = new ArrayList<>();
@@ -136,4 +209,167 @@ public class KMeans implements TrainAndPredictable {
 
         return MLPredictionOutput.builder().predictionResult(DataFrameBuilder.load(listClusterID)).build();
     }
+
+    @Override
+    public MLOutput trainAndPredict(DataFrame dataFrame, CancellationToken cancellationToken, Executor executor, int parallelism) {
+        if (!isNativeEngine() || parameters.getMiniBatchSize() != null) {
+            return trainAndPredict(dataFrame, cancellationToken);
+        }
+        NativeKMeans.Result result = trainNative(dataFrame, getFeatureNames(dataFrame), true, cancellationToken, executor, parallelism);
+        List<Map<String, Object>> listClusterID = new ArrayList<>(result.getAssignments().length);
+        for (int clusterId : result.getAssignments()) {
+            listClusterID.add(Collections.singletonMap("ClusterID", clusterId));
+        }
+        return MLPredictionOutput.builder().predictionResult(DataFrameBuilder.load(listClusterID)).build();
+    }
+
+    private boolean isNativeEngine() {
+        return Optional.ofNullable(parameters.getEngine()).orElse(DEFAULT_ENGINE) == KMeansParams.Engine.NATIVE;
+    }
+
+    private NativeKMeans.Result trainNative(DataFrame dataFrame, String[] featureNames, boolean assignPoints,
+                                            CancellationToken cancellationToken, Executor executor, int parallelism) {
+        cancellationToken.ensureNotCancelled();
+        int dimension = featureNames.length;
+        int[] columnIndexes = FeatureUtil.columnIndexes(dataFrame, featureNames);
+        double[] points = new double[dataFrame.size() * dimension];
+        double[] point = new double[dimension];
+        for (int i = 0; i < dataFrame.size(); i++) {
+            FeatureUtil.readFeatures(dataFrame.getRow(i), columnIndexes, point);
+            System.arraycopy(point, 0, points, i * dimension, dimension);
+        }
+        int centroids = Optional.ofNullable(parameters.getCentroids()).orElse(DEFAULT_CENTROIDS);
+        int iterations = Optional.ofNullable(parameters.getIterations()).orElse(DEFAULT_ITERATIONS);
+        double tolerance = Optional.ofNullable(parameters.getTolerance()).orElse(DEFAULT_TOLERANCE);
+        NativeKMeans nativeKMeans = new NativeKMeans(centroids, iterations, tolerance, distanceType, seed);
+        return nativeKMeans.train(points, dimension, assignPoints, cancellationToken, executor, parallelism);
+    }
+
+    @Override
+    public MiniBatchTrainer createMiniBatchTrainer() {
+        return parameters.getMiniBatchSize() == null ? null : newMiniBatchKMeans();
+    }
+
+    private MiniBatchKMeans newMiniBatchKMeans() {
+        int centroids = Optional.ofNullable(parameters.getCentroids()).orElse(DEFAULT_CENTROIDS);
+        return new MiniBatchKMeans(centroids, parameters.getMiniBatchSize(), getIterations(), distanceType, seed);
+    }
+
+    /**
+     * Train on batches of rows of an in-memory data frame, which still saves the memory of a Tribuo dataset.
+     */
+    private MiniBatchKMeans trainMiniBatch(DataFrame dataFrame, CancellationToken cancellationToken) {
+        MiniBatchKMeans trainer = newMiniBatchKMeans();
+        for (int pass = 0; pass < trainer.getPasses(); pass++) {
+            for (int start = 0; start < dataFrame.size(); start += trainer.getBatchSize()) {
+                trainer.update(dataFrame, start, Math.min(start + trainer.getBatchSize(), dataFrame.size()), cancellationToken);
+            }
+        }
+        return trainer;
+    }
+
+    private MLOutput predict(DataFrame dataFrame, KMeansCentroids kMeansCentroids) {
+        int[] columnIndexes = FeatureUtil.columnIndexes(dataFrame, kMeansCentroids.getFeatureNames());
+        double[] point = new double[columnIndexes.length];
+        List<Map<String, Object>> listClusterID = new ArrayList<>();
+        for (Row row : dataFrame) {
+            int clusterId = kMeansCentroids.closestCentroid(FeatureUtil.readFeatures(row, columnIndexes, point));
+            listClusterID.add(Collections.singletonMap("ClusterID", clusterId));
+        }
+        return MLPredictionOutput.builder().predictionResult(DataFrameBuilder.load(listClusterID)).build();
+    }
+
+    @Override
+    public String[] getFeatureNames(DataFrame sample) {
+        return FeatureUtil.columnNames(sample, null);
+    }
+
+    /**
+     * Pick random rows of the sample as initial centroids.
+     */
+    @Override
+    public double[] initState(DataFrame sample, String[] featureNames) {
+        int centroids = Optional.ofNullable(parameters.getCentroids()).orElse(DEFAULT_CENTROIDS);
+        if (sample.size() < centroids) {
+            throw new IllegalArgumentException("Sample size " + sample.size() + " is less than the number of centroids " + centroids);
+        }
+        int[] columnIndexes = FeatureUtil.columnIndexes(sample, featureNames);
+        List<Integer> rowIndexes = new ArrayList<>();
+        for (int i = 0; i < sample.size(); i++) {
+            rowIndexes.add(i);
+        }
+        Collections.shuffle(rowIndexes, new Random(seed));
+        double[] state = new double[centroids * featureNames.length];
+        double[] point = new double[featureNames.length];
+        for (int i = 0; i < centroids; i++) {
+            FeatureUtil.readFeatures(sample.getRow(rowIndexes.get(i)), columnIndexes, point);
+            System.arraycopy(point, 0, state, i * featureNames.length, featureNames.length);
+        }
+        return state;
+    }
+
+    /**
+     * Partial statistics are the sum of points assigned to each centroid, followed by the count of points of each centroid.
+     */
+    @Override
+    public double[] computePartialStats(DataFrame dataFrame, String[] featureNames, double[] state) {
+        int dimension = featureNames.length;
+        double[][] centroids = toCentroids(state, dimension);
+        int[] columnIndexes = FeatureUtil.columnIndexes(dataFrame, featureNames);
+        double[] stats = new double[centroids.length * (dimension + 1)];
+        int countOffset = centroids.length * dimension;
+        double[] point = new double[dimension];
+        for (Row row : dataFrame) {
+            FeatureUtil.readFeatures(row, columnIndexes, point);
+            int closest = KMeansCentroids.closestCentroid(point, centroids, distanceType);
+            for (int i = 0; i < dimension; i++) {
+                stats[closest * dimension + i] += point[i];
+            }
+            stats[countOffset + closest]++;
+        }
+        return stats;
+    }
+
+    @Override
+    public double[] updateState(double[] state, double[] stats) {
+        int centroids = stats.length - state.length;
+        int dimension = state.length / centroids;
+        double[] newState = state.clone();
+        for (int i = 0; i < centroids; i++) {
+            double count = stats[state.length + i];
+            // keep the centroid if no point is assigned to it
+            if (count > 0) {
+                for (int j = 0; j < dimension; j++) {
+                    newState[i * dimension + j] = stats[i * dimension + j] / count;
+                }
+            }
+        }
+        return newState;
+    }
+
+    @Override
+    public int getIterations() {
+        return Optional.ofNullable(parameters.getIterations()).orElse(DEFAULT_ITERATIONS);
+    }
+
+    @Override
+    public Model buildModel(String[] featureNames, double[] state) {
+        return buildModel(new KMeansCentroids(featureNames, toCentroids(state, featureNames.length), distanceType));
+    }
+
+    static Model buildModel(KMeansCentroids kMeansCentroids) {
+        Model model = new Model();
+        model.setName(FunctionName.KMEANS.name());
+        model.setVersion(1);
+        model.setContent(ModelSerDeSer.serialize(kMeansCentroids));
+        return model;
+    }
+
+    private double[][] toCentroids(double[] state, int dimension) {
+        double[][] centroids = new double[state.length / dimension][dimension];
+        for (int i = 0; i < centroids.length; i++) {
+            System.arraycopy(state, i * dimension, centroids[i], 0, dimension);
+        }
+        return centroids;
+    }
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine.algorithms.clustering;
+
+import lombok.Getter;
+import org.opensearch.ml.common.input.parameter.clustering.KMeansParams;
+
+import java.io.Serializable;
+
+/**
+ * KMeans model trained by distributed training or the native engine. Tribuo can't build a KMeansModel from
+ * given centroids, so these models keep centroids in this class instead.
+ */
+@Getter
+public class KMeansCentroids implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String[] featureNames;
+    private final double[][] centroids;
+    private final KMeansParams.DistanceType distanceType;
+
+    public KMeansCentroids(String[] featureNames, double[][] centroids, KMeansParams.DistanceType distanceType) {
+        this.featureNames = featureNames;
+        this.centroids = centroids;
+        this.distanceType = distanceType;
+    }
+
+    /**
+     * Find the closest centroid of a point.
+     * @param point feature values
+     * @return centroid index
+     */
+    public int closestCentroid(double[] point) {
+        return closestCentroid(point, centroids, distanceType);
+    }
+
+    static int closestCentroid(double[] point, double[][] centroids, KMeansParams.DistanceType distanceType) {
+        int closest = 0;
+        double minDistance = Double.MAX_VALUE;
+        for (int i = 0; i < centroids.length; i++) {
+            double distance = distance(point, centroids[i], distanceType);
+            if (distance < minDistance) {
+                minDistance = distance;
+                closest = i;
+            }
+        }
+        return closest;
+    }
+
+    static double distance(double[] point, double[] centroid, KMeansParams.DistanceType distanceType) {
+        switch (distanceType) {
+            case COSINE:
+                double dot = 0;
+                double pointNorm = 0;
+                double centroidNorm = 0;
+                for (int i = 0; i < point.length; i++) {
+                    dot += point[i] * centroid[i];
+                    pointNorm += point[i] * point[i];
+                    centroidNorm += centroid[i] * centroid[i];
+                }
+                if (pointNorm == 0 || centroidNorm == 0) {
+                    return 1;
+                }
+                return 1 - dot / Math.sqrt(pointNorm * centroidNorm);
+            case L1:
+                double l1 = 0;
+                for (int i = 0; i < point.length; i++) {
+                    l1 += Math.abs(point[i] - centroid[i]);
+                }
+                return l1;
+            default:
+                // squared euclidean distance has the same closest centroid
+                double l2 = 0;
+                for (int i = 0; i < point.length; i++) {
+                    double diff = point[i] - centroid[i];
+                    l2 += diff * diff;
+                }
+                return l2;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine.algorithms.clustering;
+
+import org.opensearch.ml.common.Model;
+import org.opensearch.ml.common.dataframe.DataFrame;
+import org.opensearch.ml.common.input.parameter.clustering.KMeansParams;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.engine.MiniBatchTrainer;
+import org.opensearch.ml.engine.utils.FeatureUtil;
+
+/**
+ * Mini-batch KMeans as described by Sculley in "Web-scale k-means clustering". Every batch is assigned to the
+ * current centroids first, then every point moves its centroid towards itself with a per-centroid learning rate of
+ * one over the number of points the centroid has seen, so every centroid stays the running mean of its points.
+ * Initial centroids are picked with k-means++ seeding on the first batch. Only the centroids and their counts are
+ * kept between batches.
+ */
+class MiniBatchKMeans implements MiniBatchTrainer {
+    private final int k;
+    private final int batchSize;
+    private final int passes;
+    private final KMeansParams.DistanceType distanceType;
+    private final long seed;
+    private String[] featureNames;
+    private double[][] centroids;
+    private long[] counts;
+
+    MiniBatchKMeans(int k, int batchSize, int passes, KMeansParams.DistanceType distanceType, long seed) {
+        this.k = k;
+        this.batchSize = batchSize;
+        this.passes = passes;
+        this.distanceType = distanceType;
+        this.seed = seed;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public int getPasses() {
+        return passes;
+    }
+
+    @Override
+    public void update(DataFrame batch, CancellationToken cancellationToken) {
+        update(batch, 0, batch.size(), cancellationToken);
+    }
+
+    /**
+     * Update centroids with a range of rows, so in-memory data frames don't need to be copied into batches.
+     * @param dataFrame training data
+     * @param start first row of the batch
+     * @param end row after the last row of the batch
+     * @param cancellationToken cancellation token of the ML task
+     */
+    void update(DataFrame dataFrame, int start, int end, CancellationToken cancellationToken) {
+        cancellationToken.ensureNotCancelled();
+        if (featureNames == null) {
+            featureNames = FeatureUtil.columnNames(dataFrame, null);
+        }
+        int[] columnIndexes = FeatureUtil.columnIndexes(dataFrame, featureNames);
+        double[][] points = new double[end - start][featureNames.length];
+        for (int i = 0; i < points.length; i++) {
+            FeatureUtil.readFeatures(dataFrame.getRow(start + i), columnIndexes, points[i]);
+        }
+        if (centroids == null) {
+            seedCentroids(points, cancellationToken);
+        }
+        int[] assignments = new int[points.length];
+        for (int i = 0; i < points.length; i++) {
+            assignments[i] = KMeansCentroids.closestCentroid(points[i], centroids, distanceType);
+        }
+        for (int i = 0; i < points.length; i++) {
+            int closest = assignments[i];
+            double learningRate = 1.0 / ++counts[closest];
+            for (int j = 0; j < featureNames.length; j++) {
+                centroids[closest][j] += learningRate * (points[i][j] - centroids[closest][j]);
+            }
+        }
+    }
+
+    private void seedCentroids(double[][] points, CancellationToken cancellationToken) {
+        if (points.length < k) {
+            throw new IllegalArgumentException("Training data size " + points.length + " is less than the number of centroids " + k);
+        }
+        int dimension = featureNames.length;
+        double[] matrix = new double[points.length * dimension];
+        for (int i = 0; i < points.length; i++) {
+            System.arraycopy(points[i], 0, matrix, i * dimension, dimension);
+        }
+        NativeKMeans nativeKMeans = new NativeKMeans(k, 1, 0, distanceType, seed);
+        centroids = NativeKMeans.toCentroids(nativeKMeans.seedCentroids(matrix, dimension, cancellationToken, null, 1), dimension);
+        counts = new long[k];
+    }
+
+    /**
+     * @return current centroids
+     */
+    KMeansCentroids getCentroids() {
+        if (centroids == null) {
+            throw new IllegalArgumentException("No training data found for KMeans.");
+        }
+        double[][] copy = new double[k][];
+        for (int i = 0; i < k; i++) {
+            copy[i] = centroids[i].clone();
+        }
+        return new KMeansCentroids(featureNames, copy, distanceType);
+    }
+
+    @Override
+    public Model buildModel() {
+        return KMeans.buildModel(getCentroids());
+    }
+}
@@ -0,0 +1,389 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine.algorithms.clustering;
+
+import lombok.Getter;
+import org.opensearch.ml.common.input.parameter.clustering.KMeansParams;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.engine.utils.ParallelUtil;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * KMeans trained on a primitive feature matrix instead of Tribuo examples.
+ *
+ * Initial centroids are picked with k-means++ seeding. Points are assigned with Hamerly's algorithm: every point
+ * keeps an upper bound of the distance to its centroid and a lower bound of the distance to all other centroids,
+ * and distances are only computed when the bounds can't rule out a closer centroid. The bounds rely on the
+ * triangle inequality, which cosine distance doesn't satisfy, so points always compare all centroids with cosine
+ * distance. Training stops once no point changes its centroid, or the squared centroid shift drops below the
+ * tolerance times the mean variance of the features.
+ */
+class NativeKMeans {
+    // minimal number of points processed by one thread
+    static final int MIN_CHUNK_SIZE = 1024;
+
+    private final int k;
+    private final int maxIterations;
+    private final double tolerance;
+    private final KMeansParams.DistanceType distanceType;
+    private final boolean useBounds;
+    private final Random random;
+
+    NativeKMeans(int k, int maxIterations, double tolerance, KMeansParams.DistanceType distanceType, long seed) {
+        this.k = k;
+        this.maxIterations = maxIterations;
+        this.tolerance = tolerance;
+        this.distanceType = distanceType;
+        this.useBounds = distanceType != KMeansParams.DistanceType.COSINE;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Train centroids.
+     * @param points feature matrix, dimension values per point
+     * @param dimension number of features
+     * @param assignPoints whether to assign points to the trained centroids
+     * @param cancellationToken cancellation token of the ML task
+     * @param executor executor of helper threads
+     * @param parallelism maximal number of threads, including the calling thread
+     * @return trained centroids, and the centroid of every point if assigned
+     */
+    Result train(double[] points, int dimension, boolean assignPoints, CancellationToken cancellationToken, Executor executor,
+                 int parallelism) {
+        int size = points.length / dimension;
+        if (size < k) {
+            throw new IllegalArgumentException("Training data size " + size + " is less than the number of centroids " + k);
+        }
+        Assignment assignment = new Assignment(points, dimension, cancellationToken, executor, parallelism);
+        double[] centroids = seedCentroids(points, dimension, cancellationToken, executor, parallelism);
+        double shiftThreshold = tolerance * meanVariance(points, dimension);
+        double[] moves = new double[k];
+        double[] sums = new double[k * dimension];
+        long[] counts = new long[k];
+        int iteration = 0;
+        while (iteration < maxIterations) {
+            cancellationToken.ensureNotCancelled();
+            iteration++;
+            Arrays.fill(sums, 0);
+            Arrays.fill(counts, 0);
+            long changed = assignment.assign(centroids, moves, sums, counts);
+
+            double[] newCentroids = centroids.clone();
+            moves = new double[k];
+            double shift = 0;
+            for (int c = 0; c < k; c++) {
+                // keep the centroid if no point is assigned to it
+                if (counts[c] == 0) {
+                    continue;
+                }
+                int offset = c * dimension;
+                for (int j = 0; j < dimension; j++) {
+                    newCentroids[offset + j] = sums[offset + j] / counts[c];
+                    double diff = newCentroids[offset + j] - centroids[offset + j];
+                    shift += diff * diff;
+                }
+                moves[c] = distance(centroids, offset, newCentroids, offset, dimension);
+            }
+            centroids = newCentroids;
+            // points start at centroid 0, so the first iteration may keep all assignments without converging
+            if ((iteration > 1 && changed == 0) || shift <= shiftThreshold) {
+                break;
+            }
+        }
+        int[] assignments = null;
+        if (assignPoints) {
+            // bounds skip the points which the last centroid update can't have moved to another centroid
+            assignment.assign(centroids, moves, null, null);
+            assignments = assignment.assignments;
+        }
+        return new Result(toCentroids(centroids, dimension), assignments, iteration);
+    }
+
+    /**
+     * Pick the first centroid at random, and every next centroid with probability proportional to the squared
+     * distance of a point to its closest centroid picked so far.
+     */
+    double[] seedCentroids(double[] points, int dimension, CancellationToken cancellationToken, Executor executor,
+                           int parallelism) {
+        int size = points.length / dimension;
+        double[] centroids = new double[k * dimension];
+        int picked = random.nextInt(size);
+        System.arraycopy(points, picked * dimension, centroids, 0, dimension);
+        double[] minDistances = new double[size];
+        Arrays.fill(minDistances, Double.POSITIVE_INFINITY);
+        for (int c = 1; c < k; c++) {
+            cancellationToken.ensureNotCancelled();
+            int lastOffset = (c - 1) * dimension;
+            ParallelUtil.processInParallel(size, MIN_CHUNK_SIZE, executor, parallelism, (start, end) -> {
+                for (int i = start; i < end; i++) {
+                    double distance = distance(points, i * dimension, centroids, lastOffset, dimension);
+                    minDistances[i] = Math.min(minDistances[i], distance * distance);
+                }
+            });
+            double total = 0;
+            for (double minDistance : minDistances) {
+                total += minDistance;
+            }
+            if (total > 0) {
+                double target = random.nextDouble() * total;
+                picked = size - 1;
+                for (int i = 0; i < size; i++) {
+                    target -= minDistances[i];
+                    if (target < 0) {
+                        picked = i;
+                        break;
+                    }
+                }
+            } else {
+                // all points are duplicates of picked centroids
+                picked = random.nextInt(size);
+            }
+            System.arraycopy(points, picked * dimension, centroids, c * dimension, dimension);
+        }
+        return centroids;
+    }
+
+    /**
+     * Centroid of every point, with Hamerly's bounds of the distances to the centroids.
+     */
+    private class Assignment {
+        private final double[] points;
+        private final int dimension;
+        private final int size;
+        private final CancellationToken cancellationToken;
+        private final Executor executor;
+        private final int parallelism;
+        private final int[] assignments;
+        private final double[] upperBounds;
+        private final double[] lowerBounds;
+
+        private Assignment(double[] points, int dimension, CancellationToken cancellationToken, Executor executor, int parallelism) {
+            this.points = points;
+            this.dimension = dimension;
+            this.size = points.length / dimension;
+            this.cancellationToken = cancellationToken;
+            this.executor = executor;
+            this.parallelism = parallelism;
+            this.assignments = new int[size];
+            // every point starts at centroid 0 with unknown distance, so the first pass checks all of them
+            this.upperBounds = new double[size];
+            this.lowerBounds = new double[size];
+            Arrays.fill(upperBounds, Double.POSITIVE_INFINITY);
+        }
+
+        /**
+         * Assign every point to its closest centroid, and add up the points of each centroid.
+         * @param centroids current centroids
+         * @param moves distance each centroid moved since the last pass
+         * @param sums sums of the points of each centroid, null to skip adding up points
+         * @param counts number of points of each centroid, null to skip adding up points
+         * @return number of points which changed their centroid
+         */
+        private long assign(double[] centroids, double[] moves, double[] sums, long[] counts) {
+            double[] halfGaps = useBounds ? halfGaps(centroids, dimension) : null;
+            int farthestMoved = argMax(moves);
+            double maxMove = moves[farthestMoved];
+            double secondMaxMove = secondMax(moves, farthestMoved);
+            AtomicLong changed = new AtomicLong();
+            ParallelUtil.processInParallel(size, MIN_CHUNK_SIZE, executor, parallelism, (start, end) -> {
+                double[] chunkSums = sums == null ? null : new double[k * dimension];
+                long[] chunkCounts = counts == null ? null : new long[k];
+                long chunkChanged = 0;
+                for (int i = start; i < end; i++) {
+                    cancellationToken.ensureNotCancelled();
+                    int previous = assignments[i];
+                    if (useBounds) {
+                        // centroids moved since the bounds were computed
+                        upperBounds[i] += moves[previous];
+                        lowerBounds[i] -= previous == farthestMoved ? secondMaxMove : maxMove;
+                        assignWithBounds(i, centroids, halfGaps);
+                    } else {
+                        assignments[i] = closestCentroid(i * dimension, centroids);
+                    }
+                    int closest = assignments[i];
+                    if (closest != previous) {
+                        chunkChanged++;
+                    }
+                    if (chunkSums != null) {
+                        chunkCounts[closest]++;
+                        int offset = i * dimension;
+                        int centroidOffset = closest * dimension;
+                        for (int j = 0; j < dimension; j++) {
+                            chunkSums[centroidOffset + j] += points[offset + j];
+                        }
+                    }
+                }
+                if (chunkSums != null) {
+                    synchronized (sums) {
+                        for (int j = 0; j < chunkSums.length; j++) {
+                            sums[j] += chunkSums[j];
+                        }
+                        for (int j = 0; j < k; j++) {
+                            counts[j] += chunkCounts[j];
+                        }
+                    }
+                }
+                changed.addAndGet(chunkChanged);
+            });
+            return changed.get();
+        }
+
+        private void assignWithBounds(int i, double[] centroids, double[] halfGaps) {
+            int assigned = assignments[i];
+            double bound = Math.max(halfGaps[assigned], lowerBounds[i]);
+            if (upperBounds[i] <= bound) {
+                return;
+            }
+            int offset = i * dimension;
+            upperBounds[i] = distance(points, offset, centroids, assigned * dimension, dimension);
+            if (upperBounds[i] <= bound) {
+                return;
+            }
+            double minDistance = Double.POSITIVE_INFINITY;
+            double secondMinDistance = Double.POSITIVE_INFINITY;
+            int closest = assigned;
+            for (int c = 0; c < k; c++) {
+                double distance = distance(points, offset, centroids, c * dimension, dimension);
+                if (distance < minDistance) {
+                    secondMinDistance = minDistance;
+                    minDistance = distance;
+                    closest = c;
+                } else if (distance < secondMinDistance) {
+                    secondMinDistance = distance;
+                }
+            }
+            assignments[i] = closest;
+            upperBounds[i] = minDistance;
+            lowerBounds[i] = secondMinDistance;
+        }
+
+        private int closestCentroid(int offset, double[] centroids) {
+            int closest = 0;
+            double minDistance = Double.POSITIVE_INFINITY;
+            for (int c = 0; c < k; c++) {
+                double distance = distance(points, offset, centroids, c * dimension, dimension);
+                if (distance < minDistance) {
+                    minDistance = distance;
+                    closest = c;
+                }
+            }
+            return closest;
+        }
+    }
+
+    /**
+     * A point closer to its centroid than half the distance to the nearest other centroid keeps its centroid.
+     */
+    private double[] halfGaps(double[] centroids, int dimension) {
+        double[] halfGaps = new double[k];
+        Arrays.fill(halfGaps, Double.POSITIVE_INFINITY);
+        for (int a = 0; a < k; a++) {
+            for (int b = a + 1; b < k; b++) {
+                double halfGap = distance(centroids, a * dimension, centroids, b * dimension, dimension) / 2;
+                halfGaps[a] = Math.min(halfGaps[a], halfGap);
+                halfGaps[b] = Math.min(halfGaps[b], halfGap);
+            }
+        }
+        return halfGaps;
+    }
+
+    /**
+     * Distance between two vectors of the matrices. Unlike {@link KMeansCentroids#distance}, euclidean distance is
+     * not squared, as bounds need the triangle inequality.
+     */
+    private double distance(double[] a, int aOffset, double[] b, int bOffset, int dimension) {
+        switch (distanceType) {
+            case COSINE:
+                double dot = 0;
+                double aNorm = 0;
+                double bNorm = 0;
+                for (int i = 0; i < dimension; i++) {
+                    dot += a[aOffset + i] * b[bOffset + i];
+                    aNorm += a[aOffset + i] * a[aOffset + i];
+                    bNorm += b[bOffset + i] * b[bOffset + i];
+                }
+                if (aNorm == 0 || bNorm == 0) {
+                    return 1;
+                }
+                return 1 - dot / Math.sqrt(aNorm * bNorm);
+            case L1:
+                double l1 = 0;
+                for (int i = 0; i < dimension; i++) {
+                    l1 += Math.abs(a[aOffset + i] - b[bOffset + i]);
+                }
+                return l1;
+            default:
+                double l2 = 0;
+                for (int i = 0; i < dimension; i++) {
+                    double diff = a[aOffset + i] - b[bOffset + i];
+                    l2 += diff * diff;
+                }
+                return Math.sqrt(l2);
+        }
+    }
+
+    private static double meanVariance(double[] points, int dimension) {
+        int size = points.length / dimension;
+        double[] means = new double[dimension];
+        for (int i = 0; i < points.length; i++) {
+            means[i % dimension] += points[i];
+        }
+        for (int j = 0; j < dimension; j++) {
+            means[j] /= size;
+        }
+        double variance = 0;
+        for (int i = 0; i < points.length; i++) {
+            double diff = points[i] - means[i % dimension];
+            variance += diff * diff;
+        }
+        return variance / points.length;
+    }
+
+    private static int argMax(double[] values) {
+        int index = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > values[index]) {
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    private static double secondMax(double[] values, int maxIndex) {
+        double max = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i != maxIndex) {
+                max = Math.max(max, values[i]);
+            }
+        }
+        return max;
+    }
+
+    static double[][] toCentroids(double[] centroids, int dimension) {
+        double[][] result = new double[centroids.length / dimension][dimension];
+        for (int i = 0; i < result.length; i++) {
+            System.arraycopy(centroids, i * dimension, result[i], 0, dimension);
+        }
+        return result;
+    }
+
+    @Getter
+    static class Result {
+        private final double[][] centroids;
+        private final int[] assignments;
+        private final int iterations;
+
+        Result(double[][] centroids, int[] assignments, int iterations) {
+            this.centroids = centroids;
+            this.assignments = assignments;
+            this.iterations = iterations;
+        }
+    }
+}
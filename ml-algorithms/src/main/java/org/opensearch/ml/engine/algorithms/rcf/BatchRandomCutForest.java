@@ -6,45 +6,75 @@
 package org.opensearch.ml.engine.algorithms.rcf;
 
 import com.amazon.randomcutforest.RandomCutForest;
+import com.amazon.randomcutforest.config.Precision;
 import com.amazon.randomcutforest.state.RandomCutForestMapper;
 import com.amazon.randomcutforest.state.RandomCutForestState;
 import lombok.extern.log4j.Log4j2;
 import org.opensearch.ml.common.FunctionName;
 import org.opensearch.ml.common.Model;
+import org.opensearch.ml.common.dataframe.BooleanValue;
 import org.opensearch.ml.common.dataframe.ColumnMeta;
+import org.opensearch.ml.common.dataframe.ColumnType;
 import org.opensearch.ml.common.dataframe.ColumnValue;
 import org.opensearch.ml.common.dataframe.DataFrame;
-import org.opensearch.ml.common.dataframe.DataFrameBuilder;
+import org.opensearch.ml.common.dataframe.DefaultDataFrame;
+import org.opensearch.ml.common.dataframe.DoubleValue;
 import org.opensearch.ml.common.dataframe.Row;
 import org.opensearch.ml.common.input.parameter.MLAlgoParams;
 import org.opensearch.ml.common.input.parameter.rcf.BatchRCFParams;
 import org.opensearch.ml.common.output.MLOutput;
 import org.opensearch.ml.common.output.MLPredictionOutput;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.engine.CheckpointableTrainable;
+import org.opensearch.ml.engine.MemoryEstimable;
+import org.opensearch.ml.engine.SampledTrainable;
 import org.opensearch.ml.engine.TrainAndPredictable;
+import org.opensearch.ml.engine.TrainingCheckpoint;
 import org.opensearch.ml.engine.annotation.Function;
+import org.opensearch.ml.engine.utils.ParallelUtil;
+import org.opensearch.ml.engine.utils.ReservoirSampler;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * Use RCF to detect non-time-series data.
+ *
+ * Each tree only keeps sampleSize points, so with training_sample_size set, the forest is trained on a reservoir
+ * sample of the training data instead of all rows, which bounds training time by the sample size.
+ * Without sampling, the forest is updated with rows in row order, so its state can be checkpointed every few points.
  */
 @Log4j2
 @Function(FunctionName.BATCH_RCF)
-public class BatchRandomCutForest implements TrainAndPredictable {
+public class BatchRandomCutForest implements TrainAndPredictable, MemoryEstimable, SampledTrainable, CheckpointableTrainable {
     private static final int DEFAULT_NUMBER_OF_TREES = 30;
     private static final int DEFAULT_OUTPUT_AFTER = 32;
     private static final int DEFAULT_SAMPLES_SIZE = 256; // how many nodes per tree
     private static final double DEFAULT_ANOMALY_SCORE_THRESHOLD = 1.0;
+    // RCF defaults, which favor scoring speed over memory
+    private static final Precision DEFAULT_PRECISION = Precision.FLOAT_64;
+    private static final boolean DEFAULT_COMPACT = false;
+    private static final double DEFAULT_BOUNDING_BOX_CACHE_FRACTION = 1.0;
+    private static final double DEFAULT_TRAINING_SAMPLE_TIME_DECAY = 0.0;
+    // minimal number of points scored by one thread, smaller chunks cost more in scheduling than they save
+    static final int MIN_PREDICT_CHUNK_SIZE = 1024;
+    // reservoir entry with key, sequence, boxed row number and queue reference
+    static final int RESERVOIR_ENTRY_BYTES = 56;
 
     private Integer numberOfTrees = DEFAULT_NUMBER_OF_TREES;
     private Integer sampleSize = DEFAULT_SAMPLES_SIZE;
     private Integer outputAfter = DEFAULT_OUTPUT_AFTER;
     private Double anomalyScoreThreshold = DEFAULT_ANOMALY_SCORE_THRESHOLD;
     private Integer trainingDataSize;
+    private Precision precision = DEFAULT_PRECISION;
+    private Boolean compact = DEFAULT_COMPACT;
+    private Double boundingBoxCacheFraction = DEFAULT_BOUNDING_BOX_CACHE_FRACTION;
+    private Integer trainingSampleSize;
+    private Double trainingSampleTimeDecay = DEFAULT_TRAINING_SAMPLE_TIME_DECAY;
 
     private static final RandomCutForestMapper rcfMapper = new RandomCutForestMapper();
 
@@ -59,74 +89,252 @@ public class BatchRandomCutForest implements TrainAndPredictable {
             this.outputAfter = Optional.ofNullable(rcfParams.getOutputAfter()).orElse(DEFAULT_OUTPUT_AFTER);
             this.anomalyScoreThreshold = Optional.ofNullable(rcfParams.getAnomalyScoreThreshold()).orElse(DEFAULT_ANOMALY_SCORE_THRESHOLD);
             this.trainingDataSize = rcfParams.getTrainingDataSize();
+            this.precision = Optional.ofNullable(rcfParams.getPrecision())
+                    .map(p -> Precision.valueOf(p.name()))
+                    .orElse(DEFAULT_PRECISION);
+            this.compact = Optional.ofNullable(rcfParams.getCompact()).orElse(DEFAULT_COMPACT);
+            this.boundingBoxCacheFraction = Optional.ofNullable(rcfParams.getBoundingBoxCacheFraction())
+                    .orElse(DEFAULT_BOUNDING_BOX_CACHE_FRACTION);
+            this.trainingSampleSize = rcfParams.getTrainingSampleSize();
+            this.trainingSampleTimeDecay = Optional.ofNullable(rcfParams.getTrainingSampleTimeDecay())
+                    .orElse(DEFAULT_TRAINING_SAMPLE_TIME_DECAY);
+        }
+        validateParameters();
+    }
+
+    private void validateParameters() {
+        if (boundingBoxCacheFraction < 0 || boundingBoxCacheFraction > 1) {
+            throw new IllegalArgumentException("Bounding box cache fraction should be between 0 and 1.");
+        }
+        if (precision == Precision.FLOAT_32 && !compact) {
+            throw new IllegalArgumentException("FLOAT_32 precision is only supported by compact forest.");
+        }
+        if (trainingSampleSize != null && trainingSampleSize <= 0) {
+            throw new IllegalArgumentException("Training sample size should be positive.");
+        }
+        if (trainingSampleTimeDecay < 0) {
+            throw new IllegalArgumentException("Training sample time decay should not be negative.");
         }
     }
 
     @Override
     public MLOutput predict(DataFrame dataFrame, Model model) {
+        return predict(dataFrame, model, CancellationToken.NONE);
+    }
+
+    @Override
+    public MLOutput predict(DataFrame dataFrame, Model model, CancellationToken cancellationToken) {
         if (model == null) {
             throw new IllegalArgumentException("No model found for batch RCF prediction.");
         }
         RandomCutForestState state = RCFModelSerDeSer.deserializeRCF(model.getContent());
         RandomCutForest forest = rcfMapper.toModel(state);
-        List<Map<String, Object>> predictResult = process(dataFrame, forest, 0);
-        return MLPredictionOutput.builder().predictionResult(DataFrameBuilder.load(predictResult)).build();
+        return predictionOutput(process(dataFrame, forest, 0, cancellationToken));
+    }
+
+    /**
+     * Prediction doesn't update the forest, so points are scored concurrently in chunks.
+     */
+    @Override
+    public MLOutput predict(DataFrame dataFrame, Model model, CancellationToken cancellationToken, Executor executor, int parallelism) {
+        if (model == null) {
+            throw new IllegalArgumentException("No model found for batch RCF prediction.");
+        }
+        RandomCutForestState state = RCFModelSerDeSer.deserializeRCF(model.getContent());
+        RandomCutForest forest = rcfMapper.toModel(state);
+        return predictionOutput(scoreInParallel(dataFrame, forest, cancellationToken, executor, parallelism));
     }
 
     @Override
     public Model train(DataFrame dataFrame) {
+        return train(dataFrame, CancellationToken.NONE);
+    }
+
+    @Override
+    public Model train(DataFrame dataFrame, CancellationToken cancellationToken) {
         RandomCutForest forest = createRandomCutForest(dataFrame);
-        Integer actualTrainingDataSize = trainingDataSize == null ? dataFrame.size() : trainingDataSize;
-        process(dataFrame, forest, actualTrainingDataSize);
-        Model model = new Model();
-        model.setName(FunctionName.BATCH_RCF.name());
-        model.setVersion(1);
-        RandomCutForestState state = rcfMapper.toState(forest);
-        model.setContent(RCFModelSerDeSer.serializeRCF(state));
-        return model;
+        ReservoirSampler<Integer> sampler = createTrainingSampler();
+        if (sampler != null) {
+            update(dataFrame, forest, sampleRows(dataFrame, sampler, cancellationToken), cancellationToken);
+        } else {
+            Integer actualTrainingDataSize = trainingDataSize == null ? dataFrame.size() : trainingDataSize;
+            process(dataFrame, forest, actualTrainingDataSize, cancellationToken);
+        }
+        return toModel(forest);
+    }
+
+    /**
+     * A random sample differs from run to run, so training on a sample starts over and isn't checkpointed.
+     */
+    @Override
+    public Model train(DataFrame dataFrame, TrainingCheckpoint checkpoint, int checkpointPoints,
+                       Consumer<TrainingCheckpoint> checkpointConsumer, CancellationToken cancellationToken,
+                       Executor executor, int parallelism) {
+        if (trainingSampleSize != null) {
+            return train(dataFrame, cancellationToken);
+        }
+        RandomCutForest forest = checkpoint == null
+                ? createRandomCutForest(dataFrame)
+                : rcfMapper.toModel(RCFModelSerDeSer.deserializeRCF(checkpoint.getState()));
+        int trainingRows = trainingDataSize == null ? dataFrame.size() : Math.min(trainingDataSize, dataFrame.size());
+        double[] point = new double[dataFrame.columnMetas().length];
+        for (int rowNum = checkpoint == null ? 0 : checkpoint.getPoints(); rowNum < trainingRows; rowNum++) {
+            cancellationToken.ensureNotCancelled();
+            readPoint(dataFrame.getRow(rowNum), point);
+            forest.update(point);
+            int points = rowNum + 1;
+            if (checkpointPoints > 0 && points % checkpointPoints == 0 && points < trainingRows) {
+                checkpointConsumer.accept(new TrainingCheckpoint(points, RCFModelSerDeSer.serializeRCF(rcfMapper.toState(forest))));
+            }
+        }
+        return toModel(forest);
     }
 
     @Override
     public MLOutput trainAndPredict(DataFrame dataFrame) {
+        return trainAndPredict(dataFrame, CancellationToken.NONE);
+    }
+
+    @Override
+    public MLOutput trainAndPredict(DataFrame dataFrame, CancellationToken cancellationToken) {
+        return trainAndPredict(dataFrame, cancellationToken, null, 1);
+    }
+
+    /**
+     * Without sampling, every row is scored before the forest is updated with it, so rows are processed in order.
+     * With sampling, the forest is trained on the sample first, then all rows are scored concurrently in chunks.
+     */
+    @Override
+    public MLOutput trainAndPredict(DataFrame dataFrame, CancellationToken cancellationToken, Executor executor, int parallelism) {
         RandomCutForest forest = createRandomCutForest(dataFrame);
-        Integer actualTrainingDataSize = trainingDataSize == null ? dataFrame.size() : trainingDataSize;
-        List<Map<String, Object>> predictResult = process(dataFrame, forest, actualTrainingDataSize);
-        return MLPredictionOutput.builder().predictionResult(DataFrameBuilder.load(predictResult)).build();
+        ReservoirSampler<Integer> sampler = createTrainingSampler();
+        if (sampler == null) {
+            Integer actualTrainingDataSize = trainingDataSize == null ? dataFrame.size() : trainingDataSize;
+            return predictionOutput(process(dataFrame, forest, actualTrainingDataSize, cancellationToken));
+        }
+        update(dataFrame, forest, sampleRows(dataFrame, sampler, cancellationToken), cancellationToken);
+        return predictionOutput(scoreInParallel(dataFrame, forest, cancellationToken, executor, parallelism));
     }
 
-    private List<Map<String, Object>> process(DataFrame dataFrame, RandomCutForest forest, Integer actualTrainingDataSize) {
-        List<Double> pointList = new ArrayList<>();
-        ColumnMeta[] columnMetas = dataFrame.columnMetas();
-        List<Map<String, Object>> predictResult = new ArrayList<>();
+    /**
+     * The first training_data_size rows are sampled, later rows are ignored like without sampling.
+     */
+    @Override
+    public <T> ReservoirSampler<T> createTrainingSampler() {
+        if (trainingSampleSize == null) {
+            return null;
+        }
+        long limit = trainingDataSize == null ? Long.MAX_VALUE : trainingDataSize;
+        return new ReservoirSampler<>(trainingSampleSize, trainingSampleTimeDecay, limit, new Random());
+    }
 
-        for (int rowNum = 0; rowNum< dataFrame.size(); rowNum++) {
-            for (int i = 0; i < columnMetas.length; i++) {
-                Row row = dataFrame.getRow(rowNum);
-                ColumnValue value = row.getValue(i);
-                pointList.add(value.doubleValue());
-            }
-            double[] point = pointList.stream().mapToDouble(d -> d).toArray();
-            pointList.clear();
-            double anomalyScore = forest.getAnomalyScore(point);
+    @Override
+    public long estimateTrainingMemory(DataFrame dataFrame, int parallelism) {
+        // the forest is trained by one thread
+        long forest = RCFMemoryEstimator.estimateForest(numberOfTrees, sampleSize, dataFrame.columnMetas().length, precision,
+                boundingBoxCacheFraction, compact);
+        long reservoir = trainingSampleSize == null ? 0 : (long) Math.min(trainingSampleSize, dataFrame.size()) * RESERVOIR_ENTRY_BYTES;
+        return forest + reservoir;
+    }
+
+    /**
+     * Score points in row order, updating the forest with the first actualTrainingDataSize points. One point buffer
+     * is reused for all rows, RCF copies the points it keeps.
+     * @return anomaly scores indexed by row number
+     */
+    private double[] process(DataFrame dataFrame, RandomCutForest forest, Integer actualTrainingDataSize,
+                             CancellationToken cancellationToken) {
+        double[] point = new double[dataFrame.columnMetas().length];
+        double[] scores = new double[dataFrame.size()];
+        for (int rowNum = 0; rowNum < dataFrame.size(); rowNum++) {
+            cancellationToken.ensureNotCancelled();
+            readPoint(dataFrame.getRow(rowNum), point);
+            scores[rowNum] = forest.getAnomalyScore(point);
             if (actualTrainingDataSize == null || rowNum < actualTrainingDataSize) {
                 forest.update(point);
             }
-            Map<String, Object> result = new HashMap<>();
-            result.put("score", anomalyScore);
-            result.put("anomalous", anomalyScore > anomalyScoreThreshold);
-            predictResult.add(result);
         }
-        return predictResult;
+        return scores;
+    }
+
+    /**
+     * Sample row numbers of the data frame in one pass.
+     * @return sampled row numbers in row order
+     */
+    private List<Integer> sampleRows(DataFrame dataFrame, ReservoirSampler<Integer> sampler, CancellationToken cancellationToken) {
+        for (int rowNum = 0; rowNum < dataFrame.size() && !sampler.isLimitReached(); rowNum++) {
+            cancellationToken.ensureNotCancelled();
+            int sampledRowNum = rowNum;
+            sampler.add(() -> sampledRowNum);
+        }
+        return sampler.getSample();
+    }
+
+    private void update(DataFrame dataFrame, RandomCutForest forest, List<Integer> rowNums, CancellationToken cancellationToken) {
+        double[] point = new double[dataFrame.columnMetas().length];
+        for (int rowNum : rowNums) {
+            cancellationToken.ensureNotCancelled();
+            readPoint(dataFrame.getRow(rowNum), point);
+            forest.update(point);
+        }
+    }
+
+    /**
+     * Score points concurrently in chunks, the forest must not be updated meanwhile. Trees are not scored in
+     * parallel inside the forest, as that would pay a fork/join for every point.
+     * @return anomaly scores indexed by row number
+     */
+    private double[] scoreInParallel(DataFrame dataFrame, RandomCutForest forest, CancellationToken cancellationToken,
+                                     Executor executor, int parallelism) {
+        int dimensions = dataFrame.columnMetas().length;
+        double[] scores = new double[dataFrame.size()];
+        ParallelUtil.processInParallel(dataFrame.size(), MIN_PREDICT_CHUNK_SIZE, executor, parallelism, (start, end) -> {
+            double[] point = new double[dimensions];
+            for (int rowNum = start; rowNum < end; rowNum++) {
+                cancellationToken.ensureNotCancelled();
+                readPoint(dataFrame.getRow(rowNum), point);
+                scores[rowNum] = forest.getAnomalyScore(point);
+            }
+        });
+        return scores;
+    }
+
+    private static void readPoint(Row row, double[] point) {
+        for (int i = 0; i < point.length; i++) {
+            point[i] = row.getValue(i).doubleValue();
+        }
+    }
+
+    private MLOutput predictionOutput(double[] scores) {
+        ColumnMeta[] columnMetas = new ColumnMeta[]{
+                new ColumnMeta("score", ColumnType.DOUBLE),
+                new ColumnMeta("anomalous", ColumnType.BOOLEAN)};
+        List<Row> rows = new ArrayList<>(scores.length);
+        for (double anomalyScore : scores) {
+            rows.add(new Row(new ColumnValue[]{new DoubleValue(anomalyScore), new BooleanValue(anomalyScore > anomalyScoreThreshold)}));
+        }
+        return MLPredictionOutput.builder().predictionResult(new DefaultDataFrame(columnMetas, rows)).build();
+    }
+
+    private static Model toModel(RandomCutForest forest) {
+        Model model = new Model();
+        model.setName(FunctionName.BATCH_RCF.name());
+        model.setVersion(1);
+        RandomCutForestState state = rcfMapper.toState(forest);
+        model.setContent(RCFModelSerDeSer.serializeRCF(state));
+        return model;
     }
 
     private RandomCutForest createRandomCutForest(DataFrame dataFrame) {
-        //TODO: add memory estimation of RCF. Will be better if support memory estimation in RCF
         RandomCutForest forest = RandomCutForest
                 .builder()
                 .dimensions(dataFrame.columnMetas().length)
                 .numberOfTrees(numberOfTrees)
                 .sampleSize(sampleSize)
                 .outputAfter(outputAfter)
+                .precision(precision)
+                .compact(compact)
+                .boundingBoxCacheFraction(boundingBoxCacheFraction)
                 .parallelExecutionEnabled(false)
                 .build();
         return forest;
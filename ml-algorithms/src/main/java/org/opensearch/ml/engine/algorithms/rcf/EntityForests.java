@@ -0,0 +1,135 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine.algorithms.rcf;
+
+import lombok.extern.log4j.Log4j2;
+import org.opensearch.common.bytes.BytesReference;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.ml.common.exception.MLException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compact multi-forest model of FIT RCF, which keeps one serialized thresholded forest per entity. Forests stay
+ * serialized until their entity shows up in the data, so a model of many entities only deserializes the forests
+ * in use. The model is still stored and loaded as one document though, so loading it reads the serialized forests
+ * of all entities.
+ * At most maxEntities forests are kept. The least recently used forest is evicted first, and the cold entity is
+ * dropped from the model: its data is scored by a new forest at prediction.
+ * Serialized content starts with a format marker, so it can be told apart from the content of a single forest.
+ */
+@Log4j2
+public class EntityForests {
+    private static final byte[] FORMAT_MARKER = new byte[]{'M', 'L', 'E', 'F'};
+    // format version 1 kept the timestamp of the latest data point of every entity
+    private static final int FORMAT_VERSION = 2;
+
+    private final int maxEntities;
+    private final Map<String, byte[]> forests;
+    private long evictedEntities;
+
+    public EntityForests(int maxEntities) {
+        this.maxEntities = maxEntities;
+        // access order, the eldest entry is the least recently used forest
+        this.forests = new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                if (size() <= maxEntities) {
+                    return false;
+                }
+                evictedEntities++;
+                log.debug("Evicted forest of entity {}, at most {} entities are kept", eldest.getKey(), maxEntities);
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Get serialized forest of entity.
+     * @param entity entity name
+     * @return serialized thresholded forest state, or null if the entity has no forest
+     */
+    public synchronized byte[] get(String entity) {
+        return forests.get(entity);
+    }
+
+    /**
+     * Put serialized forest of entity, evicting the least recently used forest when there are more than
+     * maxEntities forests.
+     * @param entity entity name
+     * @param content serialized thresholded forest state
+     */
+    public synchronized void put(String entity, byte[] content) {
+        forests.put(entity, content);
+    }
+
+    public synchronized int size() {
+        return forests.size();
+    }
+
+    /**
+     * Get number of entities whose forest was evicted because there were more than maxEntities forests.
+     * @return evicted entity count
+     */
+    public synchronized long getEvictedEntities() {
+        return evictedEntities;
+    }
+
+    /**
+     * Check if serialized model content is an entity forests model.
+     * @param content serialized model content
+     * @return true if the content starts with the entity forests format marker
+     */
+    public static boolean isEntityForests(byte[] content) {
+        return content != null && content.length >= FORMAT_MARKER.length
+                && Arrays.equals(FORMAT_MARKER, Arrays.copyOf(content, FORMAT_MARKER.length));
+    }
+
+    public synchronized byte[] toBytes() {
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            out.writeBytes(FORMAT_MARKER);
+            out.writeVInt(FORMAT_VERSION);
+            out.writeVInt(maxEntities);
+            out.writeVInt(forests.size());
+            // least recently used first, so a loaded model keeps the access order
+            for (Map.Entry<String, byte[]> entry : forests.entrySet()) {
+                out.writeString(entry.getKey());
+                out.writeByteArray(entry.getValue());
+            }
+            return BytesReference.toBytes(out.bytes());
+        } catch (IOException e) {
+            throw new MLException(e);
+        }
+    }
+
+    public static EntityForests fromBytes(byte[] bytes) {
+        if (!isEntityForests(bytes)) {
+            throw new IllegalArgumentException("Model content is not an entity forests model.");
+        }
+        try (StreamInput in = StreamInput.wrap(bytes, FORMAT_MARKER.length, bytes.length - FORMAT_MARKER.length)) {
+            int formatVersion = in.readVInt();
+            if (formatVersion > FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported entity forests format version: " + formatVersion);
+            }
+            EntityForests entityForests = new EntityForests(in.readVInt());
+            int size = in.readVInt();
+            for (int i = 0; i < size; i++) {
+                String entity = in.readString();
+                if (formatVersion < 2) {
+                    in.readLong();
+                }
+                entityForests.forests.put(entity, in.readByteArray());
+            }
+            return entityForests;
+        } catch (IOException e) {
+            throw new MLException(e);
+        }
+    }
+}
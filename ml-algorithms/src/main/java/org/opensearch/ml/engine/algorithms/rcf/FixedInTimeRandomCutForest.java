@@ -18,34 +18,62 @@ import org.opensearch.ml.common.dataframe.ColumnMeta;
 import org.opensearch.ml.common.dataframe.ColumnType;
 import org.opensearch.ml.common.dataframe.ColumnValue;
 import org.opensearch.ml.common.dataframe.DataFrame;
-import org.opensearch.ml.common.dataframe.DataFrameBuilder;
+import org.opensearch.ml.common.dataframe.DefaultDataFrame;
+import org.opensearch.ml.common.dataframe.DoubleValue;
+import org.opensearch.ml.common.dataframe.LongValue;
 import org.opensearch.ml.common.dataframe.Row;
+import org.opensearch.ml.common.dataframe.StringValue;
 import org.opensearch.ml.common.exception.MLValidationException;
 import org.opensearch.ml.common.input.parameter.MLAlgoParams;
 import org.opensearch.ml.common.input.parameter.rcf.FitRCFParams;
 import org.opensearch.ml.common.output.MLOutput;
 import org.opensearch.ml.common.output.MLPredictionOutput;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.engine.CheckpointableTrainable;
+import org.opensearch.ml.engine.MemoryEstimable;
+import org.opensearch.ml.engine.StreamSession;
+import org.opensearch.ml.engine.Streamable;
 import org.opensearch.ml.engine.TrainAndPredictable;
+import org.opensearch.ml.engine.TrainingCheckpoint;
 import org.opensearch.ml.engine.annotation.Function;
+import org.opensearch.ml.engine.utils.ParallelUtil;
 
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
-import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 /**
  * MLCommons doesn't support update trained model. So the trained RCF model in MLCommons
  * will be fixed in some time rather than updated by prediction data. We call it FIT(fixed
  * in time) RCF.
+ * With a category field, rows are partitioned by entity and every entity gets its own forest. Entities are
+ * processed in parallel and the trained forests are stored as one compact {@link EntityForests} model.
+ * A model without category field can also be opened as a {@link StreamSession}, which keeps the forest in memory
+ * and updates it with every streamed point. Its training processes rows in time order, so the forest state can be
+ * checkpointed every few points.
  */
 @Log4j2
 @Function(FunctionName.FIT_RCF)
-public class FixedInTimeRandomCutForest implements TrainAndPredictable {
+public class FixedInTimeRandomCutForest implements TrainAndPredictable, MemoryEstimable, Streamable, CheckpointableTrainable {
     private static final int DEFAULT_NUMBER_OF_TREES = 30;
     private static final int DEFAULT_SHINGLE_SIZE = 8;
     private static final int DEFAULT_OUTPUT_AFTER = 32;
@@ -53,6 +81,15 @@ public class FixedInTimeRandomCutForest implements TrainAndPredictable {
     private static final double DEFAULT_TIME_DECAY = 0.0001;
     private static final double DEFAULT_ANOMALY_RATE = 0.005;
     private static final String DEFAULT_TIME_ZONE = "UTC";
+    private static final int DEFAULT_MAX_ENTITIES = 1000;
+    // favor memory, as forests of many entities may be kept in memory
+    private static final Precision DEFAULT_PRECISION = Precision.FLOAT_32;
+    private static final boolean DEFAULT_COMPACT = true;
+    private static final double DEFAULT_BOUNDING_BOX_CACHE_FRACTION = 1.0;
+    static final int ENTITY_FORESTS_MODEL_VERSION = 2;
+    private static final int MAX_CACHED_DATE_TIME_FORMATTERS = 100;
+    // formatters are immutable and thread safe, so requests with the same date format and time zone share one
+    private static final Map<String, DateTimeFormatter> dateTimeFormatters = new ConcurrentHashMap<>();
 
     private Integer numberOfTrees;
     private Integer shingleSize;
@@ -63,8 +100,14 @@ public class FixedInTimeRandomCutForest implements TrainAndPredictable {
     private String timeField;
     private String dateFormat;
     private String timeZone;
+    private String categoryField;
+    private Integer maxEntities;
+    private Precision precision;
+    private Boolean compact;
+    private Double boundingBoxCacheFraction;
 
-    private DateFormat simpleDateFormat;
+    private ZoneId zoneId;
+    private DateTimeFormatter dateTimeFormatter;
     private static final ThresholdedRandomCutForestMapper trcfMapper = new ThresholdedRandomCutForestMapper();
 
     public FixedInTimeRandomCutForest(){}
@@ -88,26 +131,176 @@ public class FixedInTimeRandomCutForest implements TrainAndPredictable {
         this.dateFormat = rcfParams.getDateFormat();
         this.timeZone = Optional.ofNullable(rcfParams.getTimeZone()).orElse(DEFAULT_TIME_ZONE);
         if (dateFormat != null) {
-            simpleDateFormat = new SimpleDateFormat(dateFormat);
-            simpleDateFormat.setTimeZone(TimeZone.getTimeZone(timeZone));
+            try {
+                this.zoneId = ZoneId.of(timeZone);
+                this.dateTimeFormatter = getDateTimeFormatter(dateFormat, zoneId);
+            } catch (DateTimeException | IllegalArgumentException e) {
+                throw new MLValidationException("Invalid date format " + dateFormat + " or time zone " + timeZone);
+            }
+        }
+        this.categoryField = rcfParams.getCategoryField();
+        this.maxEntities = Optional.ofNullable(rcfParams.getMaxEntities()).orElse(DEFAULT_MAX_ENTITIES);
+        if (maxEntities <= 0) {
+            throw new MLValidationException("Max entities should be positive");
+        }
+        this.precision = Optional.ofNullable(rcfParams.getPrecision())
+                .map(p -> Precision.valueOf(p.name()))
+                .orElse(DEFAULT_PRECISION);
+        this.compact = Optional.ofNullable(rcfParams.getCompact()).orElse(DEFAULT_COMPACT);
+        this.boundingBoxCacheFraction = Optional.ofNullable(rcfParams.getBoundingBoxCacheFraction())
+                .orElse(DEFAULT_BOUNDING_BOX_CACHE_FRACTION);
+        if (boundingBoxCacheFraction < 0 || boundingBoxCacheFraction > 1) {
+            throw new MLValidationException("Bounding box cache fraction should be between 0 and 1");
+        }
+        if (precision == Precision.FLOAT_32 && !compact) {
+            throw new MLValidationException("FLOAT_32 precision is only supported by compact forest");
         }
     }
 
     @Override
     public MLOutput predict(DataFrame dataFrame, Model model) {
+        return predict(dataFrame, model, CancellationToken.NONE);
+    }
+
+    @Override
+    public MLOutput predict(DataFrame dataFrame, Model model, CancellationToken cancellationToken) {
+        return predict(dataFrame, model, cancellationToken, null, 1);
+    }
+
+    @Override
+    public MLOutput predict(DataFrame dataFrame, Model model, CancellationToken cancellationToken, Executor executor, int parallelism) {
         if (model == null) {
             throw new IllegalArgumentException("No model found for FIT RCF prediction.");
         }
-        ThresholdedRandomCutForestState state = RCFModelSerDeSer.deserializeTRCF(model.getContent());
-        ThresholdedRandomCutForest forest = trcfMapper.toModel(state);
-        List<Map<String, Object>> predictResult = process(dataFrame, forest);
-        return MLPredictionOutput.builder().predictionResult(DataFrameBuilder.load(predictResult)).build();
+        boolean entityForestsModel = EntityForests.isEntityForests(model.getContent());
+        if (entityForestsModel != (categoryField != null)) {
+            throw new IllegalArgumentException(entityForestsModel
+                    ? "Category field is required to predict with FIT RCF model trained per entity."
+                    : "FIT RCF model is not trained per entity, can't predict with category field.");
+        }
+        Results results;
+        if (entityForestsModel) {
+            EntityForests entityForests = EntityForests.fromBytes(model.getContent());
+            results = processByEntity(dataFrame, entityForests, false, cancellationToken, executor, parallelism);
+        } else {
+            ThresholdedRandomCutForestState state = RCFModelSerDeSer.deserializeTRCF(model.getContent());
+            ThresholdedRandomCutForest forest = trcfMapper.toModel(state);
+            results = process(dataFrame, forest, cancellationToken);
+        }
+        return predictionOutput(results);
     }
 
     @Override
     public Model train(DataFrame dataFrame) {
+        return train(dataFrame, CancellationToken.NONE);
+    }
+
+    @Override
+    public Model train(DataFrame dataFrame, CancellationToken cancellationToken) {
+        return train(dataFrame, cancellationToken, null, 1);
+    }
+
+    @Override
+    public Model train(DataFrame dataFrame, CancellationToken cancellationToken, Executor executor, int parallelism) {
+        if (categoryField != null) {
+            EntityForests entityForests = new EntityForests(maxEntities);
+            processByEntity(dataFrame, entityForests, true, cancellationToken, executor, parallelism);
+            if (entityForests.getEvictedEntities() > 0) {
+                log.warn("Evicted forests of {} entities, FIT RCF model keeps forests of at most {} entities",
+                        entityForests.getEvictedEntities(), maxEntities);
+            }
+            Model model = new Model();
+            model.setName(FunctionName.FIT_RCF.name());
+            model.setVersion(ENTITY_FORESTS_MODEL_VERSION);
+            model.setContent(entityForests.toBytes());
+            return model;
+        }
         ThresholdedRandomCutForest forest = createThresholdedRandomCutForest(dataFrame);
-        process(dataFrame, forest);
+        process(dataFrame, forest, cancellationToken);
+        return toModel(forest);
+    }
+
+    /**
+     * Forests of entities are trained in parallel, so training per entity starts over and isn't checkpointed.
+     */
+    @Override
+    public Model train(DataFrame dataFrame, TrainingCheckpoint checkpoint, int checkpointPoints,
+                       Consumer<TrainingCheckpoint> checkpointConsumer, CancellationToken cancellationToken,
+                       Executor executor, int parallelism) {
+        if (categoryField != null) {
+            return train(dataFrame, cancellationToken, executor, parallelism);
+        }
+        ThresholdedRandomCutForest forest = checkpoint == null
+                ? createThresholdedRandomCutForest(dataFrame)
+                : trcfMapper.toModel(RCFModelSerDeSer.deserializeTRCF(checkpoint.getState()));
+        Results results = new Results(parseTimestamps(dataFrame), null);
+        int[] rows = IntStream.range(0, dataFrame.size()).toArray();
+        sortByTimestamp(rows, results.timestamps);
+        int[] featureIndices = featureIndices(dataFrame);
+        double[] point = new double[featureIndices.length];
+        int chunkSize = checkpointPoints > 0 ? checkpointPoints : rows.length;
+        for (int start = checkpoint == null ? 0 : checkpoint.getPoints(); start < rows.length; start += chunkSize) {
+            int end = (int) Math.min((long) start + chunkSize, rows.length);
+            processRows(dataFrame, Arrays.copyOfRange(rows, start, end), featureIndices, point, forest, cancellationToken, results);
+            if (end < rows.length) {
+                checkpointConsumer.accept(new TrainingCheckpoint(end, RCFModelSerDeSer.serializeTRCF(trcfMapper.toState(forest))));
+            }
+        }
+        return toModel(forest);
+    }
+
+    @Override
+    public MLOutput trainAndPredict(DataFrame dataFrame) {
+        return trainAndPredict(dataFrame, CancellationToken.NONE);
+    }
+
+    @Override
+    public MLOutput trainAndPredict(DataFrame dataFrame, CancellationToken cancellationToken) {
+        return trainAndPredict(dataFrame, cancellationToken, null, 1);
+    }
+
+    @Override
+    public MLOutput trainAndPredict(DataFrame dataFrame, CancellationToken cancellationToken, Executor executor, int parallelism) {
+        Results results;
+        if (categoryField != null) {
+            results = processByEntity(dataFrame, null, false, cancellationToken, executor, parallelism);
+        } else {
+            ThresholdedRandomCutForest forest = createThresholdedRandomCutForest(dataFrame);
+            results = process(dataFrame, forest, cancellationToken);
+        }
+        return predictionOutput(results);
+    }
+
+    @Override
+    public StreamSession openStreamSession(Model model) {
+        if (model == null) {
+            throw new IllegalArgumentException("No model found for FIT RCF stream session.");
+        }
+        if (EntityForests.isEntityForests(model.getContent()) || categoryField != null) {
+            throw new IllegalArgumentException("FIT RCF stream session doesn't support model trained per entity.");
+        }
+        ThresholdedRandomCutForestState state = RCFModelSerDeSer.deserializeTRCF(model.getContent());
+        return new ForestStreamSession(trcfMapper.toModel(state));
+    }
+
+    /**
+     * Without category field, one forest is trained. Per entity, every thread trains a forest at a time, and the
+     * serialized forests of up to max entities are kept until the model is saved.
+     */
+    @Override
+    public long estimateTrainingMemory(DataFrame dataFrame, int parallelism) {
+        int dimensions = dimensions(dataFrame);
+        long forest = RCFMemoryEstimator.estimateForest(numberOfTrees, sampleSize, dimensions, precision,
+                boundingBoxCacheFraction, compact);
+        if (categoryField == null) {
+            return forest;
+        }
+        int entities = groupRowsByEntity(dataFrame).size();
+        long forestState = RCFMemoryEstimator.estimateForestState(numberOfTrees, sampleSize, dimensions, precision);
+        return Math.min(parallelism, entities) * forest + Math.min(maxEntities, entities) * forestState;
+    }
+
+    private static Model toModel(ThresholdedRandomCutForest forest) {
         Model model = new Model();
         model.setName(FunctionName.FIT_RCF.name());
         model.setVersion(1);
@@ -116,69 +309,234 @@ public class FixedInTimeRandomCutForest implements TrainAndPredictable {
         return model;
     }
 
-    @Override
-    public MLOutput trainAndPredict(DataFrame dataFrame) {
-        ThresholdedRandomCutForest forest = createThresholdedRandomCutForest(dataFrame);
-        List<Map<String, Object>> predictResult = process(dataFrame, forest);
-        return MLPredictionOutput.builder().predictionResult(DataFrameBuilder.load(predictResult)).build();
+    private Results process(DataFrame dataFrame, ThresholdedRandomCutForest forest, CancellationToken cancellationToken) {
+        Results results = new Results(parseTimestamps(dataFrame), null);
+        int[] rows = IntStream.range(0, dataFrame.size()).toArray();
+        sortByTimestamp(rows, results.timestamps);
+        int[] featureIndices = featureIndices(dataFrame);
+        processRows(dataFrame, rows, featureIndices, new double[featureIndices.length], forest, cancellationToken, results);
+        return results;
     }
 
-    private List<Map<String, Object>> process(DataFrame dataFrame, ThresholdedRandomCutForest forest) {
-        List<Double> pointList = new ArrayList<>();
-        ColumnMeta[] columnMetas = dataFrame.columnMetas();
-        List<Map<String, Object>> predictResult = new ArrayList<>();
-        for (int rowNum = 0; rowNum< dataFrame.size(); rowNum++) {
-            Row row = dataFrame.getRow(rowNum);
-            long timestamp = -1;
-            for (int i = 0; i < columnMetas.length; i++) {
-                ColumnMeta columnMeta = columnMetas[i];
-                ColumnValue value = row.getValue(i);
-
-                // TODO: sort dataframe by time field with asc order. Currently consider the date already sorted by time.
-                if (timeField != null && timeField.equals(columnMeta.getName())) {
-                    ColumnType columnType = columnMeta.getColumnType();
-                    if (columnType == ColumnType.LONG ) {
-                        timestamp = value.longValue();
-                    } else if (columnType == ColumnType.STRING) {
-                        try {
-                            timestamp = simpleDateFormat.parse(value.stringValue()).getTime();
-                        } catch (ParseException e) {
-                            log.error("Failed to parse timestamp " + value.stringValue(), e);
-                            throw new MLValidationException("Failed to parse timestamp " + value.stringValue());
-                        }
-                    } else  {
-                        throw new MLValidationException("Wrong data type of time field. Should use LONG or STRING, but got " + columnType);
-                    }
-                } else {
-                    pointList.add(value.doubleValue());
+    /**
+     * Process rows of every entity with the forest of the entity. Entities are processed in parallel, rows of one
+     * entity are processed in time order by one thread. Results are written to preallocated arrays by row number.
+     * @param dataFrame data frame with category field
+     * @param entityForests trained forests of entities, null if no forest should be loaded or saved
+     * @param saveForests save forests of entities to entityForests once their rows are processed
+     */
+    private Results processByEntity(DataFrame dataFrame, EntityForests entityForests, boolean saveForests,
+                                    CancellationToken cancellationToken, Executor executor, int parallelism) {
+        Map<String, List<Integer>> entityRows = groupRowsByEntity(dataFrame);
+        List<String> entities = new ArrayList<>(entityRows.keySet());
+        Results results = new Results(parseTimestamps(dataFrame), new String[dataFrame.size()]);
+        int[] featureIndices = featureIndices(dataFrame);
+        ParallelUtil.processInParallel(entities.size(), 1, executor, parallelism, (start, end) -> {
+            double[] point = new double[featureIndices.length];
+            for (int i = start; i < end; i++) {
+                String entity = entities.get(i);
+                // forests are deserialized lazily, only for entities in the data
+                byte[] content = entityForests == null ? null : entityForests.get(entity);
+                ThresholdedRandomCutForest forest = content == null
+                        ? createThresholdedRandomCutForest(dataFrame)
+                        : trcfMapper.toModel(RCFModelSerDeSer.deserializeTRCF(content));
+                int[] rows = entityRows.get(entity).stream().mapToInt(Integer::intValue).toArray();
+                sortByTimestamp(rows, results.timestamps);
+                processRows(dataFrame, rows, featureIndices, point, forest, cancellationToken, results);
+                for (int rowNum : rows) {
+                    results.entities[rowNum] = entity;
+                }
+                if (saveForests) {
+                    entityForests.put(entity, RCFModelSerDeSer.serializeTRCF(trcfMapper.toState(forest)));
                 }
             }
-            double[] point = pointList.stream().mapToDouble(d -> d).toArray();
-            pointList.clear();
-            Map<String, Object> result = new HashMap<>();
+        });
+        return results;
+    }
+
+    private Map<String, List<Integer>> groupRowsByEntity(DataFrame dataFrame) {
+        int categoryIndex = columnIndex(dataFrame, categoryField);
+        if (categoryIndex < 0) {
+            throw new MLValidationException("Category field " + categoryField + " not found");
+        }
+        Map<String, List<Integer>> entityRows = new LinkedHashMap<>();
+        for (int rowNum = 0; rowNum < dataFrame.size(); rowNum++) {
+            Object entity = dataFrame.getRow(rowNum).getValue(categoryIndex).getValue();
+            if (entity == null) {
+                throw new MLValidationException("Category field " + categoryField + " can't be null");
+            }
+            entityRows.computeIfAbsent(entity.toString(), k -> new ArrayList<>()).add(rowNum);
+        }
+        return entityRows;
+    }
+
+    /**
+     * Process rows in given order, rows are referenced by their number in the data frame rather than copied.
+     * @param point point buffer reused for all rows, the forest copies the points it keeps into its shingle
+     */
+    private void processRows(DataFrame dataFrame, int[] rows, int[] featureIndices, double[] point,
+                             ThresholdedRandomCutForest forest, CancellationToken cancellationToken, Results results) {
+        for (int rowNum : rows) {
+            cancellationToken.ensureNotCancelled();
+            Row row = dataFrame.getRow(rowNum);
+            for (int i = 0; i < featureIndices.length; i++) {
+                point[i] = row.getValue(featureIndices[i]).doubleValue();
+            }
+            AnomalyDescriptor process = forest.process(point, results.timestamps[rowNum]);
+            results.scores[rowNum] = process.getRCFScore();
+            results.grades[rowNum] = process.getAnomalyGrade();
+        }
+    }
+
+    private MLOutput predictionOutput(Results results) {
+        // columns keep the key order of a HashMap of output fields, which clients reading columns by position rely on
+        Map<String, ColumnType> outputFields = new HashMap<>();
+        outputFields.put(timeField, ColumnType.LONG);
+        outputFields.put("score", ColumnType.DOUBLE);
+        outputFields.put("anomaly_grade", ColumnType.DOUBLE);
+        if (categoryField != null) {
+            outputFields.put(categoryField, ColumnType.STRING);
+        }
+        List<String> columns = new ArrayList<>(outputFields.keySet());
+        ColumnMeta[] columnMetas = columns.stream().map(c -> new ColumnMeta(c, outputFields.get(c))).toArray(ColumnMeta[]::new);
+        int timeColumn = columns.indexOf(timeField);
+        int scoreColumn = columns.indexOf("score");
+        int gradeColumn = columns.indexOf("anomaly_grade");
+        int categoryColumn = columns.indexOf(categoryField);
+        List<Row> rows = new ArrayList<>(results.scores.length);
+        for (int rowNum = 0; rowNum < results.scores.length; rowNum++) {
+            ColumnValue[] values = new ColumnValue[columnMetas.length];
+            values[timeColumn] = new LongValue(results.timestamps[rowNum]);
+            values[scoreColumn] = new DoubleValue(results.scores[rowNum]);
+            values[gradeColumn] = new DoubleValue(results.grades[rowNum]);
+            if (categoryColumn >= 0) {
+                values[categoryColumn] = new StringValue(results.entities[rowNum]);
+            }
+            rows.add(new Row(values));
+        }
+        return MLPredictionOutput.builder().predictionResult(new DefaultDataFrame(columnMetas, rows)).build();
+    }
+
+    /**
+     * Parse timestamps of all rows once, indexed by row number.
+     */
+    private long[] parseTimestamps(DataFrame dataFrame) {
+        int timeIndex = columnIndex(dataFrame, timeField);
+        if (timeIndex < 0) {
+            throw new MLValidationException("Time field " + timeField + " not found");
+        }
+        ColumnType columnType = dataFrame.columnMetas()[timeIndex].getColumnType();
+        if (columnType != ColumnType.LONG && columnType != ColumnType.STRING) {
+            throw new MLValidationException("Wrong data type of time field. Should use LONG or STRING, but got " + columnType);
+        }
+        if (columnType == ColumnType.STRING && dateTimeFormatter == null) {
+            throw new MLValidationException("Date format is required to parse STRING time field");
+        }
+        long[] timestamps = new long[dataFrame.size()];
+        for (int rowNum = 0; rowNum < timestamps.length; rowNum++) {
+            Row row = dataFrame.getRow(rowNum);
+            timestamps[rowNum] = columnType == ColumnType.LONG
+                    ? row.getValue(timeIndex).longValue()
+                    : parseTimestamp(row.getValue(timeIndex).stringValue());
+        }
+        return timestamps;
+    }
+
+    private long parseTimestamp(String value) {
+        try {
+            TemporalAccessor parsed = dateTimeFormatter.parse(value);
+            if (parsed.isSupported(ChronoField.INSTANT_SECONDS)) {
+                return Instant.from(parsed).toEpochMilli();
+            }
+            // date formats without time of day mean start of the day
+            LocalDate date = parsed.query(TemporalQueries.localDate());
+            LocalTime time = Optional.ofNullable(parsed.query(TemporalQueries.localTime())).orElse(LocalTime.MIDNIGHT);
+            return ZonedDateTime.of(date, time, zoneId).toInstant().toEpochMilli();
+        } catch (DateTimeException | NullPointerException e) {
+            log.error("Failed to parse timestamp " + value, e);
+            throw new MLValidationException("Failed to parse timestamp " + value);
+        }
+    }
+
+    private static DateTimeFormatter getDateTimeFormatter(String dateFormat, ZoneId zoneId) {
+        String key = dateFormat + "|" + zoneId.getId();
+        DateTimeFormatter formatter = dateTimeFormatters.get(key);
+        if (formatter == null) {
+            formatter = DateTimeFormatter.ofPattern(dateFormat, Locale.ROOT).withZone(zoneId);
+            // date formats come from requests, don't let uncommon ones grow the cache without bound
+            if (dateTimeFormatters.size() < MAX_CACHED_DATE_TIME_FORMATTERS) {
+                dateTimeFormatters.putIfAbsent(key, formatter);
+            }
+        }
+        return formatter;
+    }
+
+    /**
+     * Sort row numbers by timestamp, keeping the order of rows with the same timestamp. Rows are usually in time
+     * order already, which is checked in one pass without sorting.
+     * @param rows row numbers to sort
+     * @param timestamps timestamps indexed by row number
+     */
+    static void sortByTimestamp(int[] rows, long[] timestamps) {
+        for (int i = 1; i < rows.length; i++) {
+            if (timestamps[rows[i]] < timestamps[rows[i - 1]]) {
+                mergeSort(rows, new int[rows.length], 0, rows.length, timestamps);
+                return;
+            }
+        }
+    }
 
-            AnomalyDescriptor process = forest.process(point, timestamp);
-            result.put(timeField, timestamp);
-            result.put("score", process.getRCFScore());
-            result.put("anomaly_grade", process.getAnomalyGrade());
-            predictResult.add(result);
+    private static void mergeSort(int[] rows, int[] buffer, int from, int to, long[] timestamps) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(rows, buffer, from, mid, timestamps);
+        mergeSort(rows, buffer, mid, to, timestamps);
+        if (timestamps[rows[mid - 1]] <= timestamps[rows[mid]]) {
+            return;
+        }
+        System.arraycopy(rows, from, buffer, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < mid && timestamps[buffer[left]] <= timestamps[buffer[right]])) {
+                rows[i] = buffer[left++];
+            } else {
+                rows[i] = buffer[right++];
+            }
         }
-        return predictResult;
+    }
+
+    private int[] featureIndices(DataFrame dataFrame) {
+        ColumnMeta[] columnMetas = dataFrame.columnMetas();
+        return IntStream.range(0, columnMetas.length)
+                .filter(i -> !columnMetas[i].getName().equals(timeField) && !columnMetas[i].getName().equals(categoryField))
+                .toArray();
+    }
+
+    private static int columnIndex(DataFrame dataFrame, String columnName) {
+        ColumnMeta[] columnMetas = dataFrame.columnMetas();
+        for (int i = 0; i < columnMetas.length; i++) {
+            if (columnMetas[i].getName().equals(columnName)) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     private ThresholdedRandomCutForest createThresholdedRandomCutForest(DataFrame dataFrame) {
-        //TODO: add memory estimation of RCF. Will be better if support memory estimation in RCF
         ThresholdedRandomCutForest forest = ThresholdedRandomCutForest.builder()
-                .dimensions(shingleSize * (dataFrame.columnMetas().length - 1))
+                .dimensions(dimensions(dataFrame))
                 .sampleSize(sampleSize)
                 .numberOfTrees(numberOfTrees)
                 .timeDecay(timeDecay)
                 .outputAfter(outputAfter)
                 .initialAcceptFraction(outputAfter * 1.0d / sampleSize)
                 .parallelExecutionEnabled(false)
-                .compact(true)
-                .precision(Precision.FLOAT_32)
-                .boundingBoxCacheFraction(1)
+                .compact(compact)
+                .precision(precision)
+                .boundingBoxCacheFraction(boundingBoxCacheFraction)
                 .shingleSize(shingleSize)
                 .internalShinglingEnabled(true)
                 .anomalyRate(anomalyRate)
@@ -187,4 +545,45 @@ public class FixedInTimeRandomCutForest implements TrainAndPredictable {
         return forest;
     }
 
+    private int dimensions(DataFrame dataFrame) {
+        return shingleSize * (dataFrame.columnMetas().length - (categoryField == null ? 1 : 2));
+    }
+
+    /**
+     * Forest is not thread safe, points of one session are processed one request at a time.
+     */
+    private class ForestStreamSession implements StreamSession {
+        private final ThresholdedRandomCutForest forest;
+
+        ForestStreamSession(ThresholdedRandomCutForest forest) {
+            this.forest = forest;
+        }
+
+        @Override
+        public synchronized MLOutput process(DataFrame dataFrame, CancellationToken cancellationToken) {
+            return predictionOutput(FixedInTimeRandomCutForest.this.process(dataFrame, forest, cancellationToken));
+        }
+
+        @Override
+        public synchronized Model toModel() {
+            return FixedInTimeRandomCutForest.toModel(forest);
+        }
+    }
+
+    /**
+     * Timestamps, anomaly scores and grades of rows, indexed by row number.
+     */
+    private static class Results {
+        private final long[] timestamps;
+        private final double[] scores;
+        private final double[] grades;
+        private final String[] entities;
+
+        Results(long[] timestamps, String[] entities) {
+            this.timestamps = timestamps;
+            this.scores = new double[timestamps.length];
+            this.grades = new double[timestamps.length];
+            this.entities = entities;
+        }
+    }
 }
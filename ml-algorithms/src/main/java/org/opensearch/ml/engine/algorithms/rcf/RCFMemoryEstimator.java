@@ -0,0 +1,65 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine.algorithms.rcf;
+
+import com.amazon.randomcutforest.config.Precision;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Estimate memory of RCF forests from their configuration. A tree of sample size s has s - 1 internal nodes,
+ * each with a cut and child links, and caches bounding boxes of 2 * dimensions values for a fraction of them.
+ * Compact trees keep nodes in primitive arrays, other trees keep one object per node.
+ * The point store keeps every sampled point once; in the worst case no point is shared across trees.
+ */
+@UtilityClass
+public class RCFMemoryEstimator {
+    // cut dimension, cut value, left and right child, parent and mass of an internal node
+    static final int NODE_BYTES = 24;
+    // the same fields in a node object of a non-compact tree, with object header and references
+    static final int NODE_OBJECT_BYTES = 72;
+    // weight, point index and sequence number of a sampled point
+    static final int SAMPLER_ENTRY_BYTES = 16;
+    // object headers and bookkeeping of a forest which don't grow with its configuration
+    static final long FOREST_OVERHEAD_BYTES = 16 * 1024;
+
+    /**
+     * Estimate memory of a forest.
+     * @param numberOfTrees number of trees
+     * @param sampleSize number of points sampled per tree
+     * @param dimensions dimensions of points, shingle size included
+     * @param precision precision of point store and bounding boxes
+     * @param boundingBoxCacheFraction fraction of internal nodes caching their bounding box
+     * @param compact whether trees are compact
+     * @return estimated memory in bytes
+     */
+    public static long estimateForest(int numberOfTrees, int sampleSize, int dimensions, Precision precision,
+                                      double boundingBoxCacheFraction, boolean compact) {
+        long valueBytes = precision == Precision.FLOAT_32 ? Float.BYTES : Double.BYTES;
+        long internalNodes = Math.max(0, sampleSize - 1);
+        long boundingBoxes = (long) Math.ceil(boundingBoxCacheFraction * internalNodes) * 2 * dimensions * valueBytes;
+        long nodeBytes = compact ? NODE_BYTES : NODE_OBJECT_BYTES;
+        long tree = internalNodes * nodeBytes + boundingBoxes + (long) sampleSize * SAMPLER_ENTRY_BYTES;
+        return numberOfTrees * tree + estimatePointStore(numberOfTrees, sampleSize, dimensions, valueBytes) + FOREST_OVERHEAD_BYTES;
+    }
+
+    /**
+     * Estimate memory of a serialized forest state, which keeps samplers and point store but no tree nodes.
+     * @param numberOfTrees number of trees
+     * @param sampleSize number of points sampled per tree
+     * @param dimensions dimensions of points, shingle size included
+     * @param precision precision of point store
+     * @return estimated memory in bytes
+     */
+    public static long estimateForestState(int numberOfTrees, int sampleSize, int dimensions, Precision precision) {
+        long valueBytes = precision == Precision.FLOAT_32 ? Float.BYTES : Double.BYTES;
+        return (long) numberOfTrees * sampleSize * SAMPLER_ENTRY_BYTES
+                + estimatePointStore(numberOfTrees, sampleSize, dimensions, valueBytes);
+    }
+
+    private static long estimatePointStore(int numberOfTrees, int sampleSize, int dimensions, long valueBytes) {
+        return (long) numberOfTrees * sampleSize * dimensions * valueBytes;
+    }
+}
@@ -7,16 +7,20 @@ package org.opensearch.ml.engine.algorithms.regression;
 
 import org.opensearch.ml.common.dataframe.DataFrame;
 import org.opensearch.ml.common.dataframe.DataFrameBuilder;
+import org.opensearch.ml.common.dataframe.Row;
 import org.opensearch.ml.common.input.parameter.regression.LinearRegressionParams;
 import org.opensearch.ml.common.FunctionName;
 import org.opensearch.ml.common.input.parameter.MLAlgoParams;
 import org.opensearch.ml.common.output.MLOutput;
 import org.opensearch.ml.common.output.MLPredictionOutput;
 import org.opensearch.ml.common.Model;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.engine.DistributedTrainable;
 import org.opensearch.ml.engine.Predictable;
 import org.opensearch.ml.engine.Trainable;
 import org.opensearch.ml.engine.annotation.Function;
 import org.opensearch.ml.engine.contants.TribuoOutputType;
+import org.opensearch.ml.engine.utils.FeatureUtil;
 import org.opensearch.ml.engine.utils.ModelSerDeSer;
 import org.opensearch.ml.engine.utils.TribuoUtil;
 import org.tribuo.MutableDataset;
@@ -36,13 +40,14 @@ import org.tribuo.regression.sgd.objectives.Huber;
 import org.tribuo.regression.sgd.objectives.SquaredLoss;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 @Function(FunctionName.LINEAR_REGRESSION)
-public class LinearRegression implements Trainable, Predictable {
+public class LinearRegression implements Trainable, Predictable, DistributedTrainable {
 
     private static final LinearRegressionParams.ObjectiveType DEFAULT_OBJECTIVE_TYPE = LinearRegressionParams.ObjectiveType.SQUARED_LOSS;
     private static final LinearRegressionParams.OptimizerType DEFAULT_OPTIMIZER_TYPE = LinearRegressionParams.OptimizerType.SIMPLE_SGD;
@@ -61,10 +66,13 @@ public class LinearRegression implements Trainable, Predictable {
     private static final int DEFAULT_EPOCHS = 10;
     private static final int DEFAULT_INTERVAL = -1;
     private static final int DEFAULT_BATCH_SIZE = 1;
+    //Huber loss cost, same as Tribuo Huber default
+    private static final double DEFAULT_HUBER_COST = 5;
 
     private LinearRegressionParams parameters;
     private StochasticGradientOptimiser optimiser;
     private RegressionObjective objective;
+    private LinearRegressionParams.ObjectiveType objectiveType;
 
     private long seed = System.currentTimeMillis();
 
@@ -82,7 +90,7 @@ public class LinearRegression implements Trainable, Predictable {
     }
 
     private void createObjective() {
-        LinearRegressionParams.ObjectiveType objectiveType = Optional.ofNullable(parameters.getObjectiveType()).orElse(DEFAULT_OBJECTIVE_TYPE);
+        objectiveType = Optional.ofNullable(parameters.getObjectiveType()).orElse(DEFAULT_OBJECTIVE_TYPE);
         switch (objectiveType) {
             case ABSOLUTE_LOSS:
                 //Use l1 loss function.
@@ -185,7 +193,11 @@ public class LinearRegression implements Trainable, Predictable {
             throw new IllegalArgumentException("No model found for linear regression prediction.");
         }
 
-        org.tribuo.Model<Regressor> regressionModel = (org.tribuo.Model<Regressor>) ModelSerDeSer.deserialize(model.getContent());
+        Object regressionModelObject = ModelSerDeSer.deserialize(model.getContent());
+        if (regressionModelObject instanceof LinearWeights) {
+            return predict(dataFrame, (LinearWeights) regressionModelObject);
+        }
+        org.tribuo.Model<Regressor> regressionModel = (org.tribuo.Model<Regressor>) regressionModelObject;
         MutableDataset<Regressor> predictionDataset = TribuoUtil.generateDataset(dataFrame, new RegressionFactory(),
                 "Linear regression prediction data from opensearch", TribuoOutputType.REGRESSOR);
         List<Prediction<Regressor>> predictions = regressionModel.predict(predictionDataset);
@@ -197,8 +209,16 @@ public class LinearRegression implements Trainable, Predictable {
 
     @Override
     public Model train(DataFrame dataFrame) {
+        return train(dataFrame, CancellationToken.NONE);
+    }
+
+    @Override
+    public Model train(DataFrame dataFrame, CancellationToken cancellationToken) {
+        cancellationToken.ensureNotCancelled();
         MutableDataset<Regressor> trainDataset = TribuoUtil.generateDatasetWithTarget(dataFrame, new RegressionFactory(),
                 "Linear regression training data from opensearch", TribuoOutputType.REGRESSOR, parameters.getTarget());
+        // Tribuo LinearSGDTrainer has no epoch callback, so we can only check between phases.
+        cancellationToken.ensureNotCancelled();
         Integer epochs = Optional.ofNullable(parameters.getEpochs()).orElse(DEFAULT_EPOCHS);
         LinearSGDTrainer linearSGDTrainer = new LinearSGDTrainer(objective, optimiser, epochs, DEFAULT_INTERVAL, DEFAULT_BATCH_SIZE, seed);
         org.tribuo.Model<Regressor> regressionModel = linearSGDTrainer.train(trainDataset);
@@ -209,4 +229,101 @@ public class LinearRegression implements Trainable, Predictable {
 
         return model;
     }
+
+    private MLOutput predict(DataFrame dataFrame, LinearWeights linearWeights) {
+        int[] columnIndexes = FeatureUtil.columnIndexes(dataFrame, linearWeights.getFeatureNames());
+        double[] features = new double[columnIndexes.length];
+        List<Map<String, Object>> listPrediction = new ArrayList<>();
+        for (Row row : dataFrame) {
+            double value = linearWeights.predict(FeatureUtil.readFeatures(row, columnIndexes, features));
+            listPrediction.add(Collections.singletonMap(linearWeights.getTarget(), value));
+        }
+        return MLPredictionOutput.builder().predictionResult(DataFrameBuilder.load(listPrediction)).build();
+    }
+
+    @Override
+    public String[] getFeatureNames(DataFrame sample) {
+        if (parameters.getTarget() == null) {
+            throw new IllegalArgumentException("Empty target when generating dataset from data frame.");
+        }
+        // fail early if the target column is missing
+        FeatureUtil.columnIndexes(sample, new String[] { parameters.getTarget() });
+        return FeatureUtil.columnNames(sample, parameters.getTarget());
+    }
+
+    /**
+     * Model state is the feature weights followed by the bias, all starting from zero.
+     */
+    @Override
+    public double[] initState(DataFrame sample, String[] featureNames) {
+        return new double[featureNames.length + 1];
+    }
+
+    /**
+     * Partial statistics are the loss gradient sums of the weights and the bias, followed by the row count.
+     * Distributed training runs full batch gradient descent with the learning rate, other optimizer
+     * parameters only apply to training on a single node.
+     */
+    @Override
+    public double[] computePartialStats(DataFrame dataFrame, String[] featureNames, double[] state) {
+        int dimension = featureNames.length;
+        double[] weights = Arrays.copyOf(state, dimension);
+        double bias = state[dimension];
+        int[] columnIndexes = FeatureUtil.columnIndexes(dataFrame, featureNames);
+        int targetIndex = FeatureUtil.columnIndexes(dataFrame, new String[] { parameters.getTarget() })[0];
+        double[] stats = new double[dimension + 2];
+        double[] features = new double[dimension];
+        for (Row row : dataFrame) {
+            FeatureUtil.readFeatures(row, columnIndexes, features);
+            double residual = LinearWeights.predict(features, weights, bias) - row.getValue(targetIndex).doubleValue();
+            double gradient = lossGradient(residual);
+            for (int i = 0; i < dimension; i++) {
+                stats[i] += gradient * features[i];
+            }
+            stats[dimension] += gradient;
+            stats[dimension + 1]++;
+        }
+        return stats;
+    }
+
+    private double lossGradient(double residual) {
+        switch (objectiveType) {
+            case ABSOLUTE_LOSS:
+                return Math.signum(residual);
+            case HUBER:
+                return Math.max(-DEFAULT_HUBER_COST, Math.min(DEFAULT_HUBER_COST, residual));
+            default:
+                return residual;
+        }
+    }
+
+    @Override
+    public double[] updateState(double[] state, double[] stats) {
+        double count = stats[stats.length - 1];
+        if (count == 0) {
+            return state;
+        }
+        double learningRate = Optional.ofNullable(parameters.getLearningRate()).orElse(DEFAULT_LEARNING_RATE);
+        double[] newState = new double[state.length];
+        for (int i = 0; i < state.length; i++) {
+            newState[i] = state[i] - learningRate * stats[i] / count;
+        }
+        return newState;
+    }
+
+    @Override
+    public int getIterations() {
+        return Optional.ofNullable(parameters.getEpochs()).orElse(DEFAULT_EPOCHS);
+    }
+
+    @Override
+    public Model buildModel(String[] featureNames, double[] state) {
+        double[] weights = Arrays.copyOf(state, featureNames.length);
+        LinearWeights linearWeights = new LinearWeights(featureNames, parameters.getTarget(), weights, state[featureNames.length]);
+        Model model = new Model();
+        model.setName(FunctionName.LINEAR_REGRESSION.name());
+        model.setVersion(1);
+        model.setContent(ModelSerDeSer.serialize(linearWeights));
+        return model;
+    }
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine.algorithms.regression;
+
+import lombok.Getter;
+
+import java.io.Serializable;
+
+/**
+ * Linear regression model trained by distributed training. Tribuo can't build a linear model from given
+ * weights, so distributed training keeps weights in this class instead.
+ */
+@Getter
+public class LinearWeights implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String[] featureNames;
+    private final String target;
+    private final double[] weights;
+    private final double bias;
+
+    public LinearWeights(String[] featureNames, String target, double[] weights, double bias) {
+        this.featureNames = featureNames;
+        this.target = target;
+        this.weights = weights;
+        this.bias = bias;
+    }
+
+    /**
+     * Predict target value of a point.
+     * @param features feature values
+     * @return predicted target value
+     */
+    public double predict(double[] features) {
+        return predict(features, weights, bias);
+    }
+
+    static double predict(double[] features, double[] weights, double bias) {
+        double value = bias;
+        for (int i = 0; i < features.length; i++) {
+            value += weights[i] * features[i];
+        }
+        return value;
+    }
+}
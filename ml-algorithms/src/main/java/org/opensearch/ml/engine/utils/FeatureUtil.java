@@ -0,0 +1,67 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine.utils;
+
+import lombok.experimental.UtilityClass;
+import org.opensearch.ml.common.dataframe.ColumnMeta;
+import org.opensearch.ml.common.dataframe.DataFrame;
+import org.opensearch.ml.common.dataframe.Row;
+
+import java.util.Arrays;
+
+@UtilityClass
+public class FeatureUtil {
+    /**
+     * Get names of all columns except the excluded one.
+     * @param dataFrame data frame
+     * @param excludedColumn column to exclude, can be null
+     * @return column names
+     */
+    public static String[] columnNames(DataFrame dataFrame, String excludedColumn) {
+        return Arrays.stream(dataFrame.columnMetas())
+            .map(ColumnMeta::getName)
+            .filter(name -> !name.equals(excludedColumn))
+            .toArray(String[]::new);
+    }
+
+    /**
+     * Find column indexes of the given columns.
+     * @param dataFrame data frame
+     * @param columnNames column names
+     * @return column indexes in the same order as column names
+     */
+    public static int[] columnIndexes(DataFrame dataFrame, String[] columnNames) {
+        ColumnMeta[] columnMetas = dataFrame.columnMetas();
+        int[] indexes = new int[columnNames.length];
+        for (int i = 0; i < columnNames.length; i++) {
+            indexes[i] = -1;
+            for (int j = 0; j < columnMetas.length; j++) {
+                if (columnMetas[j].getName().equals(columnNames[i])) {
+                    indexes[i] = j;
+                    break;
+                }
+            }
+            if (indexes[i] < 0) {
+                throw new IllegalArgumentException("Column not found: " + columnNames[i]);
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * Read feature values of a row.
+     * @param row data frame row
+     * @param columnIndexes indexes of feature columns
+     * @param features array to fill with feature values
+     * @return the filled array
+     */
+    public static double[] readFeatures(Row row, int[] columnIndexes, double[] features) {
+        for (int i = 0; i < columnIndexes.length; i++) {
+            features[i] = row.getValue(columnIndexes[i]).doubleValue();
+        }
+        return features;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine.utils;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+@UtilityClass
+public class ParallelUtil {
+
+    /**
+     * Process a range of a data set, from start (inclusive) to end (exclusive).
+     */
+    @FunctionalInterface
+    public interface RangeProcessor {
+        void process(int start, int end);
+    }
+
+    /**
+     * Split [0, size) into chunks and process them on up to parallelism threads. The calling thread processes
+     * chunks too, and only waits for chunks already taken by other threads, so it never waits on tasks queued
+     * behind itself in a saturated executor.
+     * @param size data set size
+     * @param minChunkSize minimal number of items per chunk
+     * @param executor executor of helper threads
+     * @param parallelism maximal number of threads, including the calling thread
+     * @param processor range processor, must be safe to call concurrently for disjoint ranges
+     */
+    public static void processInParallel(int size, int minChunkSize, Executor executor, int parallelism, RangeProcessor processor) {
+        if (size <= 0) {
+            return;
+        }
+        int chunkSize = Math.max(minChunkSize, (size + parallelism * 4 - 1) / (parallelism * 4));
+        int chunks = (size + chunkSize - 1) / chunkSize;
+        if (executor == null || parallelism <= 1 || chunks <= 1) {
+            processor.process(0, size);
+            return;
+        }
+        AtomicInteger nextChunk = new AtomicInteger();
+        CountDownLatch finishedChunks = new CountDownLatch(chunks);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Runnable worker = () -> {
+            int chunk;
+            while ((chunk = nextChunk.getAndIncrement()) < chunks) {
+                try {
+                    if (failure.get() == null) {
+                        int start = chunk * chunkSize;
+                        processor.process(start, Math.min(start + chunkSize, size));
+                    }
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    finishedChunks.countDown();
+                }
+            }
+        };
+        int helpers = Math.min(parallelism, chunks) - 1;
+        for (int i = 0; i < helpers; i++) {
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                // the calling thread processes the remaining chunks
+                break;
+            }
+        }
+        worker.run();
+        try {
+            finishedChunks.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for parallel processing", e);
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Draw a fixed size sample of a stream of items in one pass, without knowing the number of items in advance.
+ *
+ * Every item gets a random key and the items with the smallest keys are kept. With a time decay of 0, every item
+ * is kept with the same probability. With a positive time decay, the item added at sequence i is weighted by
+ * exp(timeDecay * i), which favors later items like the time-decayed samplers of RCF trees. Keys are compared
+ * in log space, so the weights never overflow.
+ *
+ * @param <T> item type
+ */
+public class ReservoirSampler<T> {
+
+    private final int capacity;
+    private final double timeDecay;
+    private final long limit;
+    private final Random random;
+    // the entry with the largest key is on top, it's the first one replaced
+    private final PriorityQueue<Entry<T>> reservoir;
+    private long count;
+
+    /**
+     * @param capacity maximal number of sampled items
+     * @param timeDecay decay of the weight of earlier items, 0 samples items uniformly
+     * @param limit maximal number of items to sample from, later items are ignored
+     * @param random random number generator
+     */
+    public ReservoirSampler(int capacity, double timeDecay, long limit, Random random) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Sample size should be positive.");
+        }
+        if (timeDecay < 0) {
+            throw new IllegalArgumentException("Sample time decay should not be negative.");
+        }
+        this.capacity = capacity;
+        this.timeDecay = timeDecay;
+        this.limit = limit;
+        this.random = random;
+        this.reservoir = new PriorityQueue<>(capacity, Comparator.comparingDouble((Entry<T> entry) -> entry.key).reversed());
+    }
+
+    /**
+     * Add the next item of the stream. The item is only created if it's sampled, which saves creating items
+     * which are dropped right away, e.g. parsing search hits.
+     * @param item supplier of the item
+     */
+    public void add(Supplier<T> item) {
+        if (count >= limit) {
+            return;
+        }
+        long sequence = count++;
+        double key = nextKey(sequence);
+        if (reservoir.size() < capacity) {
+            reservoir.add(new Entry<>(key, sequence, item.get()));
+        } else if (key < reservoir.peek().key) {
+            reservoir.poll();
+            reservoir.add(new Entry<>(key, sequence, item.get()));
+        }
+    }
+
+    private double nextKey(long sequence) {
+        if (timeDecay == 0) {
+            return random.nextDouble();
+        }
+        // log(E / w) with E ~ Exp(1) and w = exp(timeDecay * sequence)
+        return Math.log(-Math.log(1 - random.nextDouble())) - timeDecay * sequence;
+    }
+
+    /**
+     * @return true if the limit of items is reached and later items are ignored
+     */
+    public boolean isLimitReached() {
+        return count >= limit;
+    }
+
+    /**
+     * @return number of items added, up to the limit
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return sampled items in the order they were added
+     */
+    public List<T> getSample() {
+        List<Entry<T>> entries = new ArrayList<>(reservoir);
+        entries.sort(Comparator.comparingLong(entry -> entry.sequence));
+        List<T> sample = new ArrayList<>(entries.size());
+        for (Entry<T> entry : entries) {
+            sample.add(entry.item);
+        }
+        return sample;
+    }
+
+    private static class Entry<T> {
+        private final double key;
+        private final long sequence;
+        private final T item;
+
+        private Entry(double key, long sequence, T item) {
+            this.key = key;
+            this.sequence = sequence;
+            this.item = item;
+        }
+    }
+}
@@ -210,6 +210,21 @@ public class MLEngineTest {
         MLEngine.execute(input);
     }
 
+    @Test
+    public void getDistributedTrainable() {
+        Assert.assertNotNull(MLEngine.getDistributedTrainable(FunctionName.KMEANS, KMeansParams.builder().build()));
+        Assert.assertNotNull(MLEngine.getDistributedTrainable(FunctionName.LINEAR_REGRESSION, LinearRegressionParams.builder().build()));
+        Assert.assertNull(MLEngine.getDistributedTrainable(FunctionName.BATCH_RCF, null));
+    }
+
+    @Test
+    public void openStreamSession_UnsupportedAlgorithm() {
+        exceptionRule.expect(IllegalArgumentException.class);
+        exceptionRule.expectMessage("Unsupported streaming algorithm: KMEANS");
+        Input mlInput = MLInput.builder().algorithm(FunctionName.KMEANS).parameters(KMeansParams.builder().build()).build();
+        MLEngine.openStreamSession(mlInput, trainKMeansModel());
+    }
+
     private Model trainKMeansModel() {
         KMeansParams parameters = KMeansParams.builder()
                 .centroids(2)
@@ -43,6 +43,7 @@ import org.opensearch.common.transport.TransportAddress;
 import org.opensearch.index.IndexNotFoundException;
 import org.opensearch.index.query.QueryBuilder;
 import org.opensearch.ml.common.input.execute.anomalylocalization.AnomalyLocalizationInput;
+import org.opensearch.ml.common.output.Output;
 import org.opensearch.ml.common.output.execute.anomalylocalization.AnomalyLocalizationOutput;
 import org.opensearch.search.aggregations.AggregationBuilder;
 import org.opensearch.search.aggregations.AggregationBuilders;
@@ -58,6 +59,7 @@ import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -425,6 +427,38 @@ public class AnomalyLocalizerImplTests {
         anomalyLocalizer.execute(input);
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testExecuteAsyncSucceed() {
+        when(clusterService.state()).thenReturn(testState);
+        when(indexNameExpressionResolver.concreteIndexNames(any(ClusterState.class),
+                any(IndicesOptions.class), anyString()))
+                .thenReturn(IndicesOptions);
+        ActionListener<Output> listener = mock(ActionListener.class);
+        anomalyLocalizer.execute(input, listener);
+
+        ArgumentCaptor<Output> outputCaptor = ArgumentCaptor.forClass(Output.class);
+        verify(listener).onResponse(outputCaptor.capture());
+        assertEquals(expectedOutput, outputCaptor.getValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testExecuteAsyncFail() {
+        doAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            ActionListener<MultiSearchResponse> listener = (ActionListener<MultiSearchResponse>) args[1];
+            listener.onFailure(new RuntimeException());
+            return null;
+        }
+        ).when(client).multiSearch(any(), any());
+        ActionListener<Output> listener = mock(ActionListener.class);
+        anomalyLocalizer.execute(input, listener);
+
+        verify(listener).onFailure(any(RuntimeException.class));
+        verify(listener, never()).onResponse(any());
+    }
+
     @Test(expected = RuntimeException.class)
     public void testExecuteInterrupted() {
         Thread.currentThread().interrupt();
@@ -11,10 +11,19 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.opensearch.ml.common.dataframe.DataFrame;
+import org.opensearch.ml.common.dataframe.DataFrameBuilder;
+import org.opensearch.ml.common.dataframe.Row;
 import org.opensearch.ml.common.input.parameter.clustering.KMeansParams;
 import org.opensearch.ml.common.FunctionName;
 import org.opensearch.ml.common.output.MLPredictionOutput;
 import org.opensearch.ml.common.Model;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.engine.MiniBatchTrainer;
+import org.opensearch.ml.engine.utils.ModelSerDeSer;
+import org.opensearch.tasks.TaskCancelledException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.opensearch.ml.engine.helper.MLTestHelper.constructTestDataFrame;
 
@@ -92,6 +101,211 @@ public class KMeansTest {
         Assert.assertEquals(trainSize, predictions.size());
     }
 
+    @Test
+    public void distributedTrain() {
+        DataFrame part1 = DataFrameBuilder.emptyDataFrame(trainDataFrame.columnMetas());
+        DataFrame part2 = DataFrameBuilder.emptyDataFrame(trainDataFrame.columnMetas());
+        for (int i = 0; i < trainDataFrame.size(); i++) {
+            (i % 2 == 0 ? part1 : part2).appendRow(trainDataFrame.getRow(i));
+        }
+        String[] featureNames = kMeans.getFeatureNames(trainDataFrame);
+        Assert.assertArrayEquals(new String[] { "f1", "f2" }, featureNames);
+        double[] state = kMeans.initState(trainDataFrame, featureNames);
+        Assert.assertEquals(4, state.length);
+        for (int i = 0; i < kMeans.getIterations(); i++) {
+            double[] stats1 = kMeans.computePartialStats(part1, featureNames, state);
+            double[] stats2 = kMeans.computePartialStats(part2, featureNames, state);
+            double[] stats = new double[stats1.length];
+            for (int j = 0; j < stats.length; j++) {
+                stats[j] = stats1[j] + stats2[j];
+            }
+            // partial statistics add up to the statistics of all data
+            Assert.assertArrayEquals(kMeans.computePartialStats(trainDataFrame, featureNames, state), stats, 1e-6);
+            Assert.assertEquals(trainSize, stats[4] + stats[5], 1e-6);
+            state = kMeans.updateState(state, stats);
+        }
+
+        Model model = kMeans.buildModel(featureNames, state);
+        Assert.assertEquals(FunctionName.KMEANS.name(), model.getName());
+        MLPredictionOutput output = (MLPredictionOutput) kMeans.predict(predictionDataFrame, model);
+        DataFrame predictions = output.getPredictionResult();
+        Assert.assertEquals(predictionSize, predictions.size());
+        predictions.forEach(row -> Assert.assertTrue(row.getValue(0).intValue() == 0 || row.getValue(0).intValue() == 1));
+    }
+
+    @Test
+    public void initStateWithSmallSample() {
+        exceptionRule.expect(IllegalArgumentException.class);
+        exceptionRule.expectMessage("Sample size 1 is less than the number of centroids 2");
+        DataFrame sample = constructTestDataFrame(1);
+        kMeans.initState(sample, kMeans.getFeatureNames(sample));
+    }
+
+    @Test
+    public void trainWithNativeEngine() {
+        kMeans = new KMeans(nativeParameters(KMeansParams.DistanceType.EUCLIDEAN));
+        Model model = kMeans.train(trainDataFrame);
+        Assert.assertEquals(FunctionName.KMEANS.name(), model.getName());
+        Assert.assertEquals(1, model.getVersion());
+        MLPredictionOutput output = (MLPredictionOutput) kMeans.predict(trainDataFrame, model);
+        DataFrame predictions = output.getPredictionResult();
+        Assert.assertEquals(trainSize, predictions.size());
+        // the gaussian clusters around (0, 0) and (10, 10) are far apart, so each of them gets its own centroid
+        for (int i = 0; i < trainSize; i++) {
+            boolean sameGaussian = isFirstGaussian(trainDataFrame.getRow(i)) == isFirstGaussian(trainDataFrame.getRow(0));
+            boolean sameCluster = predictions.getRow(i).getValue(0).intValue() == predictions.getRow(0).getValue(0).intValue();
+            Assert.assertEquals(sameGaussian, sameCluster);
+        }
+    }
+
+    @Test
+    public void trainAndPredictWithNativeEngine() {
+        for (KMeansParams.DistanceType distanceType : KMeansParams.DistanceType.values()) {
+            kMeans = new KMeans(nativeParameters(distanceType));
+            DataFrame predictions = ((MLPredictionOutput) kMeans.trainAndPredict(trainDataFrame)).getPredictionResult();
+            Assert.assertEquals(trainSize, predictions.size());
+            predictions.forEach(row -> Assert.assertTrue(row.getValue(0).intValue() == 0 || row.getValue(0).intValue() == 1));
+        }
+    }
+
+    @Test
+    public void trainAndPredictWithNativeEngineInParallel() {
+        DataFrame largeDataFrame = constructTestDataFrame(5000);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (KMeansParams.DistanceType distanceType : KMeansParams.DistanceType.values()) {
+                kMeans = new KMeans(nativeParameters(distanceType));
+                Model model = kMeans.train(largeDataFrame, () -> false, executor, 4);
+                DataFrame expected = ((MLPredictionOutput) kMeans.predict(largeDataFrame, model)).getPredictionResult();
+                // the same seed picks the same initial centroids
+                DataFrame actual = ((MLPredictionOutput) kMeans.trainAndPredict(largeDataFrame, () -> false, executor, 4))
+                    .getPredictionResult();
+                Assert.assertEquals(expected.size(), actual.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    Assert.assertEquals(expected.getRow(i), actual.getRow(i));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void nativeKMeansStopsEarly() {
+        double[] points = new double[200];
+        for (int i = 0; i < 100; i++) {
+            points[2 * i] = i < 50 ? i % 5 : 100 + i % 5;
+            points[2 * i + 1] = i < 50 ? i % 3 : 100 + i % 3;
+        }
+        NativeKMeans nativeKMeans = new NativeKMeans(2, 100, 1e-4, KMeansParams.DistanceType.EUCLIDEAN, 42);
+        NativeKMeans.Result result = nativeKMeans.train(points, 2, true, () -> false, null, 1);
+        Assert.assertTrue("Iterations: " + result.getIterations(), result.getIterations() < 100);
+        int[] assignments = result.getAssignments();
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i < 50, assignments[i] == assignments[0]);
+        }
+        double[] firstCentroid = result.getCentroids()[assignments[0]];
+        Assert.assertEquals(2.0, firstCentroid[0], 1e-6);
+        Assert.assertEquals(0.98, firstCentroid[1], 1e-6);
+    }
+
+    @Test
+    public void nativeKMeansWithSmallData() {
+        exceptionRule.expect(IllegalArgumentException.class);
+        exceptionRule.expectMessage("Training data size 1 is less than the number of centroids 2");
+        new KMeans(nativeParameters(KMeansParams.DistanceType.EUCLIDEAN)).train(constructTestDataFrame(1));
+    }
+
+    @Test
+    public void nativeKMeansWithCancelledToken() {
+        exceptionRule.expect(TaskCancelledException.class);
+        new KMeans(nativeParameters(KMeansParams.DistanceType.EUCLIDEAN)).train(trainDataFrame, () -> true);
+    }
+
+    @Test
+    public void trainWithMiniBatch() {
+        kMeans = new KMeans(miniBatchParameters(20));
+        Model model = kMeans.train(trainDataFrame);
+        Assert.assertEquals(FunctionName.KMEANS.name(), model.getName());
+        DataFrame predictions = ((MLPredictionOutput) kMeans.predict(trainDataFrame, model)).getPredictionResult();
+        Assert.assertEquals(trainSize, predictions.size());
+        for (int i = 0; i < trainSize; i++) {
+            boolean sameGaussian = isFirstGaussian(trainDataFrame.getRow(i)) == isFirstGaussian(trainDataFrame.getRow(0));
+            boolean sameCluster = predictions.getRow(i).getValue(0).intValue() == predictions.getRow(0).getValue(0).intValue();
+            Assert.assertEquals(sameGaussian, sameCluster);
+        }
+    }
+
+    @Test
+    public void trainAndPredictWithMiniBatch() {
+        kMeans = new KMeans(miniBatchParameters(30));
+        DataFrame predictions = ((MLPredictionOutput) kMeans.trainAndPredict(trainDataFrame, CancellationToken.NONE, null, 4))
+                .getPredictionResult();
+        Assert.assertEquals(trainSize, predictions.size());
+        predictions.forEach(row -> Assert.assertTrue(row.getValue(0).intValue() == 0 || row.getValue(0).intValue() == 1));
+    }
+
+    @Test
+    public void miniBatchTrainerWithSeparateBatches() {
+        kMeans = new KMeans(miniBatchParameters(25));
+        MiniBatchTrainer trainer = kMeans.createMiniBatchTrainer();
+        Assert.assertEquals(25, trainer.getBatchSize());
+        Assert.assertEquals(10, trainer.getPasses());
+        for (int pass = 0; pass < trainer.getPasses(); pass++) {
+            for (int batch = 0; batch < 4; batch++) {
+                trainer.update(constructTestDataFrame(trainer.getBatchSize()), CancellationToken.NONE);
+            }
+        }
+        Model model = trainer.buildModel();
+        KMeansCentroids centroids = (KMeansCentroids) ModelSerDeSer.deserialize(model.getContent());
+        Assert.assertArrayEquals(new String[] {"f1", "f2"}, centroids.getFeatureNames());
+        Assert.assertEquals(2, centroids.getCentroids().length);
+        // one centroid per gaussian, around (0, 0) and (10, 10)
+        double first = centroids.getCentroids()[0][0] + centroids.getCentroids()[0][1];
+        double second = centroids.getCentroids()[1][0] + centroids.getCentroids()[1][1];
+        Assert.assertEquals(20, Math.max(first, second), 4);
+        Assert.assertEquals(0, Math.min(first, second), 4);
+    }
+
+    @Test
+    public void miniBatchTrainerWithoutData() {
+        exceptionRule.expect(IllegalArgumentException.class);
+        exceptionRule.expectMessage("No training data found for KMeans.");
+        new KMeans(miniBatchParameters(25)).createMiniBatchTrainer().buildModel();
+    }
+
+    @Test
+    public void miniBatchTrainerWithCancelledToken() {
+        exceptionRule.expect(TaskCancelledException.class);
+        new KMeans(miniBatchParameters(25)).createMiniBatchTrainer().update(trainDataFrame, () -> true);
+    }
+
+    @Test
+    public void createMiniBatchTrainerWithoutMiniBatchSize() {
+        Assert.assertNull(new KMeans(parameters).createMiniBatchTrainer());
+    }
+
+    @Test
+    public void constructorWithNegtiveMiniBatchSize() {
+        exceptionRule.expect(IllegalArgumentException.class);
+        exceptionRule.expectMessage("Mini batch size should be positive");
+        new KMeans(KMeansParams.builder().miniBatchSize(-1).build());
+    }
+
+    @Test
+    public void constructorWithSmallMiniBatchSize() {
+        exceptionRule.expect(IllegalArgumentException.class);
+        exceptionRule.expectMessage("Mini batch size should not be less than K");
+        new KMeans(KMeansParams.builder().centroids(5).miniBatchSize(4).build());
+    }
+
+    @Test
+    public void constructorWithNegtiveTolerance() {
+        exceptionRule.expect(IllegalArgumentException.class);
+        exceptionRule.expectMessage("Tolerance should not be negative");
+        new KMeans(KMeansParams.builder().tolerance(-1.0).build());
+    }
+
     @Test
     public void constructorWithNegtiveCentroids() {
         exceptionRule.expect(IllegalArgumentException.class);
@@ -106,6 +320,27 @@ public class KMeansTest {
         new KMeans(KMeansParams.builder().iterations(-1).build());
     }
 
+    private boolean isFirstGaussian(Row row) {
+        return row.getValue(0).doubleValue() + row.getValue(1).doubleValue() < 10;
+    }
+
+    private KMeansParams nativeParameters(KMeansParams.DistanceType distanceType) {
+        return KMeansParams.builder()
+                .distanceType(distanceType)
+                .iterations(20)
+                .centroids(2)
+                .engine(KMeansParams.Engine.NATIVE)
+                .build();
+    }
+
+    private KMeansParams miniBatchParameters(int miniBatchSize) {
+        return KMeansParams.builder()
+                .distanceType(KMeansParams.DistanceType.EUCLIDEAN)
+                .centroids(2)
+                .miniBatchSize(miniBatchSize)
+                .build();
+    }
+
     private void constructKMeansPredictionDataFrame() {
         predictionDataFrame = constructTestDataFrame(predictionSize);
     }
@@ -16,10 +16,18 @@ import org.opensearch.ml.common.dataframe.DataFrame;
 import org.opensearch.ml.common.dataframe.DefaultDataFrame;
 import org.opensearch.ml.common.dataframe.Row;
 import org.opensearch.ml.common.input.parameter.rcf.BatchRCFParams;
+import org.opensearch.ml.common.input.parameter.rcf.RCFPrecision;
 import org.opensearch.ml.common.FunctionName;
 import org.opensearch.ml.common.output.MLPredictionOutput;
 import org.opensearch.ml.common.Model;
+import org.opensearch.ml.engine.TrainingCheckpoint;
+import org.opensearch.ml.engine.utils.ReservoirSampler;
+import org.opensearch.tasks.TaskCancelledException;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadLocalRandom;
 
 public class BatchRandomCutForestTest {
@@ -60,6 +68,34 @@ public class BatchRandomCutForestTest {
         verifyPredictionResult(output);
     }
 
+    @Test
+    public void predictInParallel() {
+        Model model = forest.train(trainDataFrame);
+        DataFrame largeDataFrame = new DefaultDataFrame(predictionDataFrame.columnMetas());
+        for (int i = 0; i < 10; i++) {
+            predictionDataFrame.forEach(row -> largeDataFrame.appendRow(row));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            DataFrame expected = ((MLPredictionOutput) forest.predict(largeDataFrame, model)).getPredictionResult();
+            DataFrame actual = ((MLPredictionOutput) forest.predict(largeDataFrame, model, () -> false, executor, 4))
+                .getPredictionResult();
+            Assert.assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                Assert.assertEquals(expected.getRow(i), actual.getRow(i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void predictInParallelWithCancelledToken() {
+        Model model = forest.train(trainDataFrame);
+        exceptionRule.expect(TaskCancelledException.class);
+        forest.predict(predictionDataFrame, model, () -> true, Runnable::run, 4);
+    }
+
     @Test
     public void predictWithNullModel() {
         exceptionRule.expect(IllegalArgumentException.class);
@@ -76,12 +112,181 @@ public class BatchRandomCutForestTest {
         Assert.assertNotNull(model.getContent());
     }
 
+    @Test
+    public void trainWithCheckpoints() {
+        List<TrainingCheckpoint> checkpoints = new ArrayList<>();
+        Model model = forest.train(trainDataFrame, null, 30, checkpoints::add, () -> false, null, 1);
+        Assert.assertEquals(FunctionName.BATCH_RCF.name(), model.getName());
+        // only the first training_data_size rows are trained
+        Assert.assertEquals(3, checkpoints.size());
+        Assert.assertEquals(30, checkpoints.get(0).getPoints());
+        Assert.assertEquals(90, checkpoints.get(2).getPoints());
+
+        List<TrainingCheckpoint> resumedCheckpoints = new ArrayList<>();
+        Model resumedModel = forest.train(trainDataFrame, checkpoints.get(1), 30, resumedCheckpoints::add, () -> false, null, 1);
+        Assert.assertEquals(1, resumedCheckpoints.size());
+        Assert.assertEquals(90, resumedCheckpoints.get(0).getPoints());
+        verifyPredictionResult((MLPredictionOutput) forest.predict(predictionDataFrame, resumedModel));
+    }
+
+    @Test
+    public void trainWithCheckpoints_Sampling() {
+        forest = new BatchRandomCutForest(sampleOptions(50, null));
+        List<TrainingCheckpoint> checkpoints = new ArrayList<>();
+        Model model = forest.train(trainDataFrame, null, 10, checkpoints::add, () -> false, null, 1);
+        Assert.assertNotNull(model.getContent());
+        Assert.assertTrue(checkpoints.isEmpty());
+    }
+
     @Test
     public void trainAndPredict() {
         MLPredictionOutput output = (MLPredictionOutput) forest.trainAndPredict(trainDataFrame);
         verifyPredictionResult(output);
     }
 
+    @Test
+    public void trainAndPredict_OutputColumns() {
+        DataFrame predictions = ((MLPredictionOutput) forest.trainAndPredict(trainDataFrame)).getPredictionResult();
+        ColumnMeta[] columnMetas = predictions.columnMetas();
+        Assert.assertEquals(2, columnMetas.length);
+        Assert.assertEquals("score", columnMetas[0].getName());
+        Assert.assertEquals(ColumnType.DOUBLE, columnMetas[0].getColumnType());
+        Assert.assertEquals("anomalous", columnMetas[1].getName());
+        Assert.assertEquals(ColumnType.BOOLEAN, columnMetas[1].getColumnType());
+        for (Row row : predictions) {
+            Assert.assertEquals(row.getValue(0).doubleValue() > 0.01, row.getValue(1).booleanValue());
+        }
+    }
+
+    @Test
+    public void estimateTrainingMemory() {
+        long memory = forest.estimateTrainingMemory(trainDataFrame, 4);
+        Assert.assertTrue(memory > 0);
+        Assert.assertEquals(memory, forest.estimateTrainingMemory(trainDataFrame, 1));
+    }
+
+    @Test
+    public void trainAndPredict_CompactFloat32() {
+        forest = new BatchRandomCutForest(forestOptions(RCFPrecision.FLOAT_32, true, 0.0));
+        trainAndPredict();
+    }
+
+    @Test
+    public void estimateTrainingMemory_ForestOptions() {
+        long memory = forest.estimateTrainingMemory(trainDataFrame, 1);
+        long compactMemory = new BatchRandomCutForest(forestOptions(RCFPrecision.FLOAT_32, true, 0.5))
+                .estimateTrainingMemory(trainDataFrame, 1);
+        Assert.assertTrue(compactMemory < memory);
+    }
+
+    @Test
+    public void constructor_WrongBoundingBoxCacheFraction() {
+        exceptionRule.expect(IllegalArgumentException.class);
+        exceptionRule.expectMessage("Bounding box cache fraction should be between 0 and 1.");
+        new BatchRandomCutForest(forestOptions(null, null, 1.5));
+    }
+
+    @Test
+    public void constructor_Float32NotCompact() {
+        exceptionRule.expect(IllegalArgumentException.class);
+        exceptionRule.expectMessage("FLOAT_32 precision is only supported by compact forest.");
+        new BatchRandomCutForest(forestOptions(RCFPrecision.FLOAT_32, false, null));
+    }
+
+    @Test
+    public void trainWithSample() {
+        forest = new BatchRandomCutForest(sampleOptions(200, 0.0));
+        Model model = forest.train(trainDataFrame);
+        MLPredictionOutput output = (MLPredictionOutput) forest.predict(predictionDataFrame, model);
+        verifyPredictionResult(output);
+    }
+
+    @Test
+    public void trainWithTimeDecayedSample() {
+        forest = new BatchRandomCutForest(sampleOptions(200, 0.01));
+        Model model = forest.train(trainDataFrame);
+        MLPredictionOutput output = (MLPredictionOutput) forest.predict(predictionDataFrame, model);
+        verifyPredictionResult(output);
+    }
+
+    @Test
+    public void trainAndPredictWithSampleInParallel() {
+        forest = new BatchRandomCutForest(sampleOptions(200, 0.0));
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            MLPredictionOutput output = (MLPredictionOutput) forest.trainAndPredict(predictionDataFrame, () -> false, executor, 4);
+            verifyPredictionResult(output);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void createTrainingSampler() {
+        Assert.assertNull(forest.createTrainingSampler());
+        ReservoirSampler<Integer> sampler = new BatchRandomCutForest(sampleOptions(200, 0.0)).createTrainingSampler();
+        for (int i = 0; i < dataSize; i++) {
+            int item = i;
+            sampler.add(() -> item);
+        }
+        // only the first training_data_size rows are sampled
+        Assert.assertTrue(sampler.isLimitReached());
+        Assert.assertEquals(400, sampler.getCount());
+        Assert.assertEquals(200, sampler.getSample().size());
+    }
+
+    @Test
+    public void estimateTrainingMemory_Sample() {
+        long memory = forest.estimateTrainingMemory(trainDataFrame, 1);
+        long sampleMemory = new BatchRandomCutForest(sampleOptions(200, 0.0)).estimateTrainingMemory(trainDataFrame, 1);
+        Assert.assertEquals(memory + 200L * BatchRandomCutForest.RESERVOIR_ENTRY_BYTES, sampleMemory);
+    }
+
+    @Test
+    public void constructor_WrongTrainingSampleSize() {
+        exceptionRule.expect(IllegalArgumentException.class);
+        exceptionRule.expectMessage("Training sample size should be positive.");
+        new BatchRandomCutForest(sampleOptions(0, null));
+    }
+
+    @Test
+    public void constructor_NegativeTrainingSampleTimeDecay() {
+        exceptionRule.expect(IllegalArgumentException.class);
+        exceptionRule.expectMessage("Training sample time decay should not be negative.");
+        new BatchRandomCutForest(sampleOptions(200, -0.1));
+    }
+
+    @Test
+    public void trainWithCancelledToken() {
+        exceptionRule.expect(TaskCancelledException.class);
+        forest.train(trainDataFrame, () -> true);
+    }
+
+    private BatchRCFParams forestOptions(RCFPrecision precision, Boolean compact, Double boundingBoxCacheFraction) {
+        return BatchRCFParams.builder()
+                .numberOfTrees(10)
+                .sampleSize(100)
+                .anomalyScoreThreshold(0.01)
+                .trainingDataSize(100)
+                .outputAfter(100)
+                .precision(precision)
+                .compact(compact)
+                .boundingBoxCacheFraction(boundingBoxCacheFraction)
+                .build();
+    }
+
+    private BatchRCFParams sampleOptions(Integer trainingSampleSize, Double trainingSampleTimeDecay) {
+        return BatchRCFParams.builder()
+                .numberOfTrees(10)
+                .sampleSize(100)
+                .anomalyScoreThreshold(0.01)
+                .trainingDataSize(400)
+                .outputAfter(100)
+                .trainingSampleSize(trainingSampleSize)
+                .trainingSampleTimeDecay(trainingSampleTimeDecay)
+                .build();
+    }
+
     private void verifyPredictionResult(MLPredictionOutput output) {
         DataFrame predictions = output.getPredictionResult();
         Assert.assertEquals(dataSize, predictions.size());
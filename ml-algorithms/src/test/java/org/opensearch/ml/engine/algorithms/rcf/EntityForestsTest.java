@@ -0,0 +1,83 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine.algorithms.rcf;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.opensearch.common.bytes.BytesReference;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+
+import java.io.IOException;
+
+public class EntityForestsTest {
+
+    @Test
+    public void put_EvictLeastRecentlyUsedEntity() {
+        EntityForests entityForests = new EntityForests(2);
+        entityForests.put("host1", new byte[]{1});
+        entityForests.put("host2", new byte[]{2});
+        Assert.assertArrayEquals(new byte[]{1}, entityForests.get("host1"));
+        entityForests.put("host3", new byte[]{3});
+        Assert.assertEquals(2, entityForests.size());
+        Assert.assertNull(entityForests.get("host2"));
+        Assert.assertArrayEquals(new byte[]{1}, entityForests.get("host1"));
+        Assert.assertArrayEquals(new byte[]{3}, entityForests.get("host3"));
+        Assert.assertEquals(1, entityForests.getEvictedEntities());
+    }
+
+    @Test
+    public void toBytes_FromBytes() {
+        EntityForests entityForests = new EntityForests(10);
+        entityForests.put("host1", new byte[]{1, 2});
+        entityForests.put("host2", new byte[]{3});
+        EntityForests parsed = EntityForests.fromBytes(entityForests.toBytes());
+        Assert.assertEquals(2, parsed.size());
+        Assert.assertArrayEquals(new byte[]{1, 2}, parsed.get("host1"));
+        Assert.assertArrayEquals(new byte[]{3}, parsed.get("host2"));
+        Assert.assertNull(parsed.get("host3"));
+    }
+
+    @Test
+    public void toBytes_FromBytes_KeepAccessOrder() {
+        EntityForests entityForests = new EntityForests(2);
+        entityForests.put("host1", new byte[]{1});
+        entityForests.put("host2", new byte[]{2});
+        entityForests.get("host1");
+        EntityForests parsed = EntityForests.fromBytes(entityForests.toBytes());
+        parsed.put("host3", new byte[]{3});
+        Assert.assertNull(parsed.get("host2"));
+        Assert.assertArrayEquals(new byte[]{1}, parsed.get("host1"));
+    }
+
+    @Test
+    public void fromBytes_FormatVersion1() throws IOException {
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            out.writeBytes(new byte[]{'M', 'L', 'E', 'F'});
+            out.writeVInt(1);
+            out.writeVInt(10);
+            out.writeVInt(1);
+            out.writeString("host1");
+            out.writeLong(200L);
+            out.writeByteArray(new byte[]{1, 2});
+            EntityForests parsed = EntityForests.fromBytes(BytesReference.toBytes(out.bytes()));
+            Assert.assertEquals(1, parsed.size());
+            Assert.assertArrayEquals(new byte[]{1, 2}, parsed.get("host1"));
+        }
+    }
+
+    @Test
+    public void isEntityForests() {
+        Assert.assertTrue(EntityForests.isEntityForests(new EntityForests(10).toBytes()));
+        Assert.assertFalse(EntityForests.isEntityForests(new byte[]{1, 2, 3, 4, 5}));
+        Assert.assertFalse(EntityForests.isEntityForests(new byte[]{1}));
+        Assert.assertFalse(EntityForests.isEntityForests(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fromBytes_NotEntityForests() {
+        EntityForests.fromBytes(new byte[]{1, 2, 3, 4, 5});
+    }
+}
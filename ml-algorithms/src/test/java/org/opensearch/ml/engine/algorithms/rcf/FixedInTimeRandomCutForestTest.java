@@ -7,7 +7,9 @@ package org.opensearch.ml.engine.algorithms.rcf;
 
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 import org.opensearch.ml.common.dataframe.ColumnMeta;
 import org.opensearch.ml.common.dataframe.ColumnType;
 import org.opensearch.ml.common.dataframe.DataFrame;
@@ -15,11 +17,23 @@ import org.opensearch.ml.common.dataframe.DefaultDataFrame;
 import org.opensearch.ml.common.FunctionName;
 import org.opensearch.ml.common.output.MLPredictionOutput;
 import org.opensearch.ml.common.Model;
+import org.opensearch.ml.common.exception.MLValidationException;
 import org.opensearch.ml.common.input.parameter.rcf.FitRCFParams;
+import org.opensearch.ml.common.input.parameter.rcf.RCFPrecision;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.engine.StreamSession;
+import org.opensearch.ml.engine.TrainingCheckpoint;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadLocalRandom;
 
 public class FixedInTimeRandomCutForestTest {
+    @Rule
+    public ExpectedException exceptionRule = ExpectedException.none();
 
     private FitRCFParams parameters;
     private FixedInTimeRandomCutForest forest;
@@ -66,6 +80,293 @@ public class FixedInTimeRandomCutForestTest {
         Assert.assertNotNull(model.getContent());
     }
 
+    @Test
+    public void trainWithCheckpoints() {
+        List<TrainingCheckpoint> checkpoints = new ArrayList<>();
+        Model model = forest.train(trainDataFrame, null, 200, checkpoints::add, CancellationToken.NONE, null, 1);
+        Assert.assertEquals(FunctionName.FIT_RCF.name(), model.getName());
+        Assert.assertEquals(2, checkpoints.size());
+        Assert.assertEquals(200, checkpoints.get(0).getPoints());
+        Assert.assertEquals(400, checkpoints.get(1).getPoints());
+
+        List<TrainingCheckpoint> resumedCheckpoints = new ArrayList<>();
+        Model resumedModel = forest.train(trainDataFrame, checkpoints.get(0), 200, resumedCheckpoints::add,
+                CancellationToken.NONE, null, 1);
+        Assert.assertEquals(1, resumedCheckpoints.size());
+        Assert.assertEquals(400, resumedCheckpoints.get(0).getPoints());
+        DataFrame predictions = ((MLPredictionOutput) forest.predict(predictionDataFrame, resumedModel)).getPredictionResult();
+        Assert.assertEquals(dataSize, predictions.size());
+    }
+
+    @Test
+    public void trainByEntityWithCheckpoints() {
+        List<TrainingCheckpoint> checkpoints = new ArrayList<>();
+        Model model = new FixedInTimeRandomCutForest(entityParameters(null))
+                .train(constructEntityDataFrame(false), null, 10, checkpoints::add, CancellationToken.NONE, null, 1);
+        Assert.assertTrue(EntityForests.isEntityForests(model.getContent()));
+        Assert.assertTrue(checkpoints.isEmpty());
+    }
+
+    @Test
+    public void trainAndPredict_UnsortedInput() {
+        DataFrame sorted = constructRCFDataFrame(true);
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < dataSize; i++) {
+            order.add(i);
+        }
+        Collections.shuffle(order);
+        DataFrame shuffled = new DefaultDataFrame(sorted.columnMetas());
+        for (int i : order) {
+            shuffled.appendRow(new Object[]{sorted.getRow(i).getValue(0).longValue(), sorted.getRow(i).getValue(1).intValue()});
+        }
+        DataFrame predictions = ((MLPredictionOutput) forest.trainAndPredict(shuffled)).getPredictionResult();
+        Assert.assertEquals(dataSize, predictions.size());
+        int timeIndex = columnIndex(predictions, "timestamp");
+        int gradeIndex = columnIndex(predictions, "anomaly_grade");
+        int anomalyCount = 0;
+        for (int i = 0; i < dataSize; i++) {
+            // results keep the row order of the input data frame, though points are processed in time order
+            Assert.assertEquals(shuffled.getRow(i).getValue(0).longValue(), predictions.getRow(i).getValue(timeIndex).longValue());
+            if (order.get(i) % 100 == 0 && predictions.getRow(i).getValue(gradeIndex).doubleValue() > 0.01) {
+                anomalyCount++;
+            }
+        }
+        Assert.assertTrue("Fewer anomaly detected: " + anomalyCount, anomalyCount > 1);
+    }
+
+    @Test
+    public void trainAndPredict_StringTimestamp() {
+        FixedInTimeRandomCutForest dateForest = new FixedInTimeRandomCutForest(dateParameters("yyyy-MM-dd HH:mm:ss"));
+        DataFrame dataFrame = new DefaultDataFrame(new ColumnMeta[]{
+                new ColumnMeta("timestamp", ColumnType.STRING), new ColumnMeta("value", ColumnType.INTEGER)});
+        dataFrame.appendRow(new Object[]{"2022-02-01 01:00:00", 1});
+        dataFrame.appendRow(new Object[]{"2022-02-01 00:59:00", 2});
+        DataFrame predictions = ((MLPredictionOutput) dateForest.trainAndPredict(dataFrame)).getPredictionResult();
+        int timeIndex = columnIndex(predictions, "timestamp");
+        Assert.assertEquals(1643677200000L, predictions.getRow(0).getValue(timeIndex).longValue());
+        Assert.assertEquals(1643677140000L, predictions.getRow(1).getValue(timeIndex).longValue());
+    }
+
+    @Test
+    public void trainAndPredict_DateOnlyTimestamp() {
+        FixedInTimeRandomCutForest dateForest = new FixedInTimeRandomCutForest(dateParameters("yyyy-MM-dd"));
+        DataFrame dataFrame = new DefaultDataFrame(new ColumnMeta[]{
+                new ColumnMeta("timestamp", ColumnType.STRING), new ColumnMeta("value", ColumnType.INTEGER)});
+        dataFrame.appendRow(new Object[]{"2022-02-01", 1});
+        DataFrame predictions = ((MLPredictionOutput) dateForest.trainAndPredict(dataFrame)).getPredictionResult();
+        Assert.assertEquals(1643673600000L, predictions.getRow(0).getValue(columnIndex(predictions, "timestamp")).longValue());
+    }
+
+    @Test
+    public void trainAndPredict_InvalidTimestamp() {
+        exceptionRule.expect(MLValidationException.class);
+        exceptionRule.expectMessage("Failed to parse timestamp 2022/02/01");
+        FixedInTimeRandomCutForest dateForest = new FixedInTimeRandomCutForest(dateParameters("yyyy-MM-dd"));
+        DataFrame dataFrame = new DefaultDataFrame(new ColumnMeta[]{
+                new ColumnMeta("timestamp", ColumnType.STRING), new ColumnMeta("value", ColumnType.INTEGER)});
+        dataFrame.appendRow(new Object[]{"2022/02/01", 1});
+        dateForest.trainAndPredict(dataFrame);
+    }
+
+    @Test
+    public void sortByTimestamp() {
+        long[] timestamps = new long[]{30, 10, 20, 10, 30, 0};
+        int[] rows = new int[]{0, 1, 2, 3, 4, 5};
+        FixedInTimeRandomCutForest.sortByTimestamp(rows, timestamps);
+        // rows with the same timestamp keep their order
+        Assert.assertArrayEquals(new int[]{5, 1, 3, 2, 0, 4}, rows);
+
+        int[] sortedRows = new int[]{5, 1, 3, 2, 0, 4};
+        FixedInTimeRandomCutForest.sortByTimestamp(sortedRows, timestamps);
+        Assert.assertArrayEquals(new int[]{5, 1, 3, 2, 0, 4}, sortedRows);
+    }
+
+    @Test
+    public void trainAndPredictByEntity() {
+        FixedInTimeRandomCutForest entityForest = new FixedInTimeRandomCutForest(entityParameters(null));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Model model = entityForest.train(constructEntityDataFrame(false), () -> false, executor, 3);
+            Assert.assertEquals(FixedInTimeRandomCutForest.ENTITY_FORESTS_MODEL_VERSION, model.getVersion());
+            Assert.assertEquals(3, EntityForests.fromBytes(model.getContent()).size());
+
+            MLPredictionOutput output = (MLPredictionOutput) entityForest
+                    .predict(constructEntityDataFrame(true), model, () -> false, executor, 3);
+            DataFrame predictions = output.getPredictionResult();
+            Assert.assertEquals(dataSize * 3, predictions.size());
+            int hostIndex = -1;
+            for (int i = 0; i < predictions.columnMetas().length; i++) {
+                if ("host".equals(predictions.columnMetas()[i].getName())) {
+                    hostIndex = i;
+                }
+            }
+            // results keep the row order of the input data frame
+            for (int i = 0; i < predictions.size(); i++) {
+                Assert.assertEquals("host" + (i % 3), predictions.getRow(i).getValue(hostIndex).stringValue());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void trainAndPredictByEntity_OutputColumns() {
+        FixedInTimeRandomCutForest entityForest = new FixedInTimeRandomCutForest(entityParameters(null));
+        DataFrame predictions = ((MLPredictionOutput) entityForest.trainAndPredict(constructEntityDataFrame(false)))
+                .getPredictionResult();
+        // same column order as a HashMap of the output fields
+        String[] names = new String[]{"score", "host", "anomaly_grade", "timestamp"};
+        ColumnType[] types = new ColumnType[]{ColumnType.DOUBLE, ColumnType.STRING, ColumnType.DOUBLE, ColumnType.LONG};
+        Assert.assertEquals(names.length, predictions.columnMetas().length);
+        for (int i = 0; i < names.length; i++) {
+            Assert.assertEquals(names[i], predictions.columnMetas()[i].getName());
+            Assert.assertEquals(types[i], predictions.columnMetas()[i].getColumnType());
+        }
+    }
+
+    @Test
+    public void trainByEntity_EvictColdEntities() {
+        Model model = new FixedInTimeRandomCutForest(entityParameters(2)).train(constructEntityDataFrame(false));
+        Assert.assertEquals(2, EntityForests.fromBytes(model.getContent()).size());
+    }
+
+    @Test
+    public void predictByEntity_ModelNotTrainedByEntity() {
+        exceptionRule.expect(IllegalArgumentException.class);
+        exceptionRule.expectMessage("FIT RCF model is not trained per entity");
+        Model model = forest.train(trainDataFrame);
+        new FixedInTimeRandomCutForest(entityParameters(null)).predict(constructEntityDataFrame(true), model);
+    }
+
+    @Test
+    public void trainByEntity_CategoryFieldNotFound() {
+        exceptionRule.expect(MLValidationException.class);
+        exceptionRule.expectMessage("Category field host not found");
+        new FixedInTimeRandomCutForest(entityParameters(null)).train(trainDataFrame);
+    }
+
+    @Test
+    public void trainAndPredict_Float64() {
+        FitRCFParams float64Parameters = FitRCFParams.builder()
+                .numberOfTrees(10)
+                .shingleSize(8)
+                .sampleSize(100)
+                .timeField("timestamp")
+                .precision(RCFPrecision.FLOAT_64)
+                .boundingBoxCacheFraction(0.5)
+                .build();
+        FixedInTimeRandomCutForest float64Forest = new FixedInTimeRandomCutForest(float64Parameters);
+        DataFrame predictions = ((MLPredictionOutput) float64Forest.trainAndPredict(trainDataFrame)).getPredictionResult();
+        Assert.assertEquals(dataSize, predictions.size());
+        Assert.assertTrue(float64Forest.estimateTrainingMemory(trainDataFrame, 1) > forest.estimateTrainingMemory(trainDataFrame, 1));
+    }
+
+    @Test
+    public void constructor_WrongBoundingBoxCacheFraction() {
+        exceptionRule.expect(MLValidationException.class);
+        exceptionRule.expectMessage("Bounding box cache fraction should be between 0 and 1");
+        new FixedInTimeRandomCutForest(FitRCFParams.builder().timeField("timestamp").boundingBoxCacheFraction(-0.1).build());
+    }
+
+    @Test
+    public void constructor_Float32NotCompact() {
+        exceptionRule.expect(MLValidationException.class);
+        exceptionRule.expectMessage("FLOAT_32 precision is only supported by compact forest");
+        new FixedInTimeRandomCutForest(FitRCFParams.builder().timeField("timestamp").compact(false).build());
+    }
+
+    @Test
+    public void streamSession() {
+        StreamSession session = forest.openStreamSession(forest.train(trainDataFrame));
+        int anomalyCount = 0;
+        for (int i = 0; i < dataSize; i++) {
+            DataFrame point = new DefaultDataFrame(predictionDataFrame.columnMetas());
+            point.appendRow(new Object[]{predictionDataFrame.getRow(i).getValue(0).longValue(),
+                    predictionDataFrame.getRow(i).getValue(1).intValue()});
+            DataFrame predictions = ((MLPredictionOutput) session.process(point, CancellationToken.NONE)).getPredictionResult();
+            Assert.assertEquals(1, predictions.size());
+            if (i % 100 == 0 && predictions.getRow(0).getValue(columnIndex(predictions, "anomaly_grade")).doubleValue() > 0.01) {
+                anomalyCount++;
+            }
+        }
+        Assert.assertTrue("Fewer anomaly detected: " + anomalyCount, anomalyCount > 1);
+
+        // snapshot of the session keeps the streamed points and can be opened again
+        Model snapshot = session.toModel();
+        Assert.assertEquals(FunctionName.FIT_RCF.name(), snapshot.getName());
+        Assert.assertEquals(1, snapshot.getVersion());
+        MLPredictionOutput output = (MLPredictionOutput) forest.openStreamSession(snapshot)
+                .process(constructRCFDataFrame(false), CancellationToken.NONE);
+        Assert.assertEquals(dataSize, output.getPredictionResult().size());
+    }
+
+    @Test
+    public void streamSession_ModelTrainedByEntity() {
+        exceptionRule.expect(IllegalArgumentException.class);
+        exceptionRule.expectMessage("FIT RCF stream session doesn't support model trained per entity");
+        Model model = new FixedInTimeRandomCutForest(entityParameters(null)).train(constructEntityDataFrame(false));
+        forest.openStreamSession(model);
+    }
+
+    @Test
+    public void estimateTrainingMemory() {
+        long forestMemory = forest.estimateTrainingMemory(trainDataFrame, 4);
+        Assert.assertTrue(forestMemory > 0);
+        // 3 entities trained by up to 2 threads, serialized forests of all 3 entities kept
+        long entityMemory = new FixedInTimeRandomCutForest(entityParameters(null))
+                .estimateTrainingMemory(constructEntityDataFrame(false), 2);
+        Assert.assertTrue(entityMemory > 2 * forestMemory);
+        Assert.assertTrue(entityMemory < 3 * forestMemory);
+    }
+
+    private FitRCFParams dateParameters(String dateFormat) {
+        return FitRCFParams.builder()
+                .numberOfTrees(10)
+                .shingleSize(8)
+                .sampleSize(100)
+                .timeField("timestamp")
+                .dateFormat(dateFormat)
+                .timeZone("UTC")
+                .build();
+    }
+
+    private int columnIndex(DataFrame dataFrame, String columnName) {
+        for (int i = 0; i < dataFrame.columnMetas().length; i++) {
+            if (columnName.equals(dataFrame.columnMetas()[i].getName())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private FitRCFParams entityParameters(Integer maxEntities) {
+        return FitRCFParams.builder()
+                .numberOfTrees(10)
+                .shingleSize(8)
+                .sampleSize(100)
+                .timeField("timestamp")
+                .categoryField("host")
+                .maxEntities(maxEntities)
+                .build();
+    }
+
+    private DataFrame constructEntityDataFrame(boolean predict) {
+        ColumnMeta[] columnMetas = new ColumnMeta[]{
+                new ColumnMeta("timestamp", ColumnType.LONG),
+                new ColumnMeta("host", ColumnType.STRING),
+                new ColumnMeta("value", ColumnType.INTEGER)};
+        DataFrame dataFrame = new DefaultDataFrame(columnMetas);
+        long startTime = 1643677200000l;
+        for (int i = 0; i < dataSize * 3; i++) {
+            long time = startTime + (i / 3) * 1000 * 60;//1 minute interval
+            int value = predict && i % 300 == 0
+                    ? ThreadLocalRandom.current().nextInt(100, 1000)
+                    : ThreadLocalRandom.current().nextInt(1, 10);
+            dataFrame.appendRow(new Object[]{time, "host" + (i % 3), value});
+        }
+        return dataFrame;
+    }
+
     private DataFrame constructRCFDataFrame(boolean predict) {
         ColumnMeta[] columnMetas = new ColumnMeta[]{new ColumnMeta("timestamp", ColumnType.LONG), new ColumnMeta("value", ColumnType.INTEGER)};
         DataFrame dataFrame = new DefaultDataFrame(columnMetas);
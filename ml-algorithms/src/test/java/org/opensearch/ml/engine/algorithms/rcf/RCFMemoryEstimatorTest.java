@@ -0,0 +1,46 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine.algorithms.rcf;
+
+import com.amazon.randomcutforest.config.Precision;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RCFMemoryEstimatorTest {
+
+    @Test
+    public void estimateForest() {
+        long forest = RCFMemoryEstimator.estimateForest(30, 256, 8, Precision.FLOAT_32, 1.0, true);
+        long nodes = 30L * 255 * RCFMemoryEstimator.NODE_BYTES;
+        long boundingBoxes = 30L * 255 * 2 * 8 * Float.BYTES;
+        long samplers = 30L * 256 * RCFMemoryEstimator.SAMPLER_ENTRY_BYTES;
+        long pointStore = 30L * 256 * 8 * Float.BYTES;
+        Assert.assertEquals(nodes + boundingBoxes + samplers + pointStore + RCFMemoryEstimator.FOREST_OVERHEAD_BYTES, forest);
+    }
+
+    @Test
+    public void estimateForest_GrowsWithConfiguration() {
+        long forest = RCFMemoryEstimator.estimateForest(30, 256, 8, Precision.FLOAT_32, 1.0, true);
+        Assert.assertTrue(forest < RCFMemoryEstimator.estimateForest(30, 256, 8, Precision.FLOAT_64, 1.0, true));
+        Assert.assertTrue(forest > RCFMemoryEstimator.estimateForest(30, 256, 8, Precision.FLOAT_32, 0.0, true));
+        Assert.assertTrue(forest < RCFMemoryEstimator.estimateForest(60, 256, 8, Precision.FLOAT_32, 1.0, true));
+        Assert.assertTrue(forest < RCFMemoryEstimator.estimateForest(30, 256, 8, Precision.FLOAT_32, 1.0, false));
+    }
+
+    @Test
+    public void estimateForest_NoOverflow() {
+        long forest = RCFMemoryEstimator.estimateForest(10000, 100000, 1000, Precision.FLOAT_64, 1.0, true);
+        Assert.assertTrue(forest > Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void estimateForestState() {
+        Assert.assertEquals(
+                30L * 256 * RCFMemoryEstimator.SAMPLER_ENTRY_BYTES + 30L * 256 * 8 * Float.BYTES,
+                RCFMemoryEstimator.estimateForestState(30, 256, 8, Precision.FLOAT_32)
+        );
+    }
+}
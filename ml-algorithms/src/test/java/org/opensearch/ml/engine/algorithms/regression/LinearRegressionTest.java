@@ -52,6 +52,33 @@ public class LinearRegressionTest {
         Assert.assertEquals(2, predictions.size());
     }
 
+    @Test
+    public void distributedTrain() {
+        LinearRegressionParams params = LinearRegressionParams.builder().learningRate(0.01).epochs(200).target("price").build();
+        LinearRegression regression = new LinearRegression(params);
+        String[] featureNames = regression.getFeatureNames(trainDataFrame);
+        Assert.assertArrayEquals(new String[] { "feet" }, featureNames);
+        double[] state = regression.initState(trainDataFrame, featureNames);
+        for (int i = 0; i < regression.getIterations(); i++) {
+            state = regression.updateState(state, regression.computePartialStats(trainDataFrame, featureNames, state));
+        }
+        Model model = regression.buildModel(featureNames, state);
+        Assert.assertEquals(FunctionName.LINEAR_REGRESSION.name(), model.getName());
+        MLPredictionOutput output = (MLPredictionOutput) regression.predict(predictionDataFrame, model);
+        DataFrame predictions = output.getPredictionResult();
+        Assert.assertEquals(2, predictions.size());
+        // price is 10 times feet
+        Assert.assertEquals(100, predictions.getRow(0).getValue(0).doubleValue(), 5);
+        Assert.assertEquals(200, predictions.getRow(1).getValue(0).doubleValue(), 10);
+    }
+
+    @Test
+    public void distributedTrainWithoutTargetColumn() {
+        exceptionRule.expect(IllegalArgumentException.class);
+        exceptionRule.expectMessage("Column not found: price");
+        new LinearRegression(parameters).getFeatureNames(predictionDataFrame);
+    }
+
     @Test
     public void predictWithoutModel() {
         exceptionRule.expect(IllegalArgumentException.class);
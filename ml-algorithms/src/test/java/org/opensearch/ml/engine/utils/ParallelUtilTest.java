@@ -0,0 +1,63 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine.utils;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class ParallelUtilTest {
+    @Rule
+    public ExpectedException exceptionRule = ExpectedException.none();
+
+    @Test
+    public void processInParallel() {
+        AtomicIntegerArray processed = new AtomicIntegerArray(10000);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            ParallelUtil.processInParallel(processed.length(), 100, executor, 4, (start, end) -> {
+                for (int i = start; i < end; i++) {
+                    processed.incrementAndGet(i);
+                }
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+        for (int i = 0; i < processed.length(); i++) {
+            Assert.assertEquals(1, processed.get(i));
+        }
+    }
+
+    @Test
+    public void processInParallel_Rejected() {
+        AtomicIntegerArray processed = new AtomicIntegerArray(1000);
+        ParallelUtil.processInParallel(processed.length(), 10, command -> { throw new RejectedExecutionException(); }, 4, (start, end) -> {
+            for (int i = start; i < end; i++) {
+                processed.incrementAndGet(i);
+            }
+        });
+        for (int i = 0; i < processed.length(); i++) {
+            Assert.assertEquals(1, processed.get(i));
+        }
+    }
+
+    @Test
+    public void processInParallel_Failure() {
+        exceptionRule.expect(IllegalArgumentException.class);
+        exceptionRule.expectMessage("wrong value");
+        ParallelUtil.processInParallel(1000, 10, Runnable::run, 4, (start, end) -> {
+            if (start > 500) {
+                throw new IllegalArgumentException("wrong value");
+            }
+        });
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.engine.utils;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReservoirSamplerTest {
+    @Rule
+    public ExpectedException exceptionRule = ExpectedException.none();
+
+    @Test
+    public void getSample_FewerItemsThanCapacity() {
+        ReservoirSampler<Integer> sampler = new ReservoirSampler<>(10, 0, Long.MAX_VALUE, new Random(42));
+        addItems(sampler, 5);
+        Assert.assertEquals(5, sampler.getCount());
+        Assert.assertEquals(List.of(0, 1, 2, 3, 4), sampler.getSample());
+    }
+
+    @Test
+    public void getSample_InOrder() {
+        ReservoirSampler<Integer> sampler = new ReservoirSampler<>(100, 0, Long.MAX_VALUE, new Random(42));
+        addItems(sampler, 10000);
+        List<Integer> sample = sampler.getSample();
+        Assert.assertEquals(100, sample.size());
+        for (int i = 1; i < sample.size(); i++) {
+            Assert.assertTrue(sample.get(i - 1) < sample.get(i));
+        }
+    }
+
+    @Test
+    public void getSample_Uniform() {
+        ReservoirSampler<Integer> sampler = new ReservoirSampler<>(1000, 0, Long.MAX_VALUE, new Random(42));
+        addItems(sampler, 100000);
+        long firstHalf = sampler.getSample().stream().filter(item -> item < 50000).count();
+        Assert.assertTrue("Sampled from first half: " + firstHalf, firstHalf > 400 && firstHalf < 600);
+    }
+
+    @Test
+    public void getSample_TimeDecay() {
+        ReservoirSampler<Integer> sampler = new ReservoirSampler<>(1000, 0.001, Long.MAX_VALUE, new Random(42));
+        addItems(sampler, 100000);
+        long firstHalf = sampler.getSample().stream().filter(item -> item < 50000).count();
+        Assert.assertEquals(0, firstHalf);
+    }
+
+    @Test
+    public void add_Limit() {
+        ReservoirSampler<Integer> sampler = new ReservoirSampler<>(10, 0, 20, new Random(42));
+        addItems(sampler, 100);
+        Assert.assertTrue(sampler.isLimitReached());
+        Assert.assertEquals(20, sampler.getCount());
+        Assert.assertTrue(sampler.getSample().stream().allMatch(item -> item < 20));
+    }
+
+    @Test
+    public void add_OnlyCreateSampledItems() {
+        ReservoirSampler<Integer> sampler = new ReservoirSampler<>(10, 0, Long.MAX_VALUE, new Random(42));
+        AtomicInteger created = new AtomicInteger();
+        for (int i = 0; i < 10000; i++) {
+            int item = i;
+            sampler.add(() -> {
+                created.incrementAndGet();
+                return item;
+            });
+        }
+        // about capacity * (1 + ln(items / capacity)) items enter the reservoir
+        Assert.assertTrue("Created items: " + created.get(), created.get() < 500);
+    }
+
+    @Test
+    public void constructor_WrongCapacity() {
+        exceptionRule.expect(IllegalArgumentException.class);
+        exceptionRule.expectMessage("Sample size should be positive.");
+        new ReservoirSampler<>(0, 0, Long.MAX_VALUE, new Random());
+    }
+
+    @Test
+    public void constructor_NegativeTimeDecay() {
+        exceptionRule.expect(IllegalArgumentException.class);
+        exceptionRule.expectMessage("Sample time decay should not be negative.");
+        new ReservoirSampler<>(10, -1, Long.MAX_VALUE, new Random());
+    }
+
+    private void addItems(ReservoirSampler<Integer> sampler, int count) {
+        for (int i = 0; i < count; i++) {
+            int item = i;
+            sampler.add(() -> item);
+        }
+    }
+}
@@ -42,6 +42,6 @@ public class TransportExecuteTaskAction extends HandledTransportAction<ActionReq
     @Override
     protected void doExecute(Task task, ActionRequest request, ActionListener<MLExecuteTaskResponse> listener) {
         MLExecuteTaskRequest mlPredictionTaskRequest = MLExecuteTaskRequest.fromActionRequest(request);
-        mlExecuteTaskRunner.run(mlPredictionTaskRequest, transportService, listener);
+        mlExecuteTaskRunner.run(task, mlPredictionTaskRequest, transportService, listener);
     }
 }
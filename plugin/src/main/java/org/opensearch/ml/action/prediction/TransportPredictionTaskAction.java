@@ -14,6 +14,7 @@ import org.opensearch.action.ActionRequest;
 import org.opensearch.action.support.ActionFilters;
 import org.opensearch.action.support.HandledTransportAction;
 import org.opensearch.common.inject.Inject;
+import org.opensearch.common.io.stream.NamedWriteableRegistry;
 import org.opensearch.ml.common.transport.MLTaskResponse;
 import org.opensearch.ml.common.transport.prediction.MLPredictionTaskAction;
 import org.opensearch.ml.common.transport.prediction.MLPredictionTaskRequest;
@@ -27,21 +28,24 @@ import org.opensearch.transport.TransportService;
 public class TransportPredictionTaskAction extends HandledTransportAction<ActionRequest, MLTaskResponse> {
     MLTaskRunner<MLPredictionTaskRequest, MLTaskResponse> mlPredictTaskRunner;
     TransportService transportService;
+    NamedWriteableRegistry namedWriteableRegistry;
 
     @Inject
     public TransportPredictionTaskAction(
         TransportService transportService,
         ActionFilters actionFilters,
-        MLPredictTaskRunner mlPredictTaskRunner
+        MLPredictTaskRunner mlPredictTaskRunner,
+        NamedWriteableRegistry namedWriteableRegistry
     ) {
         super(MLPredictionTaskAction.NAME, transportService, actionFilters, MLPredictionTaskRequest::new);
         this.mlPredictTaskRunner = mlPredictTaskRunner;
         this.transportService = transportService;
+        this.namedWriteableRegistry = namedWriteableRegistry;
     }
 
     @Override
     protected void doExecute(Task task, ActionRequest request, ActionListener<MLTaskResponse> listener) {
-        MLPredictionTaskRequest mlPredictionTaskRequest = MLPredictionTaskRequest.fromActionRequest(request);
-        mlPredictTaskRunner.run(mlPredictionTaskRequest, transportService, listener);
+        MLPredictionTaskRequest mlPredictionTaskRequest = MLPredictionTaskRequest.fromActionRequest(request, namedWriteableRegistry);
+        mlPredictTaskRunner.run(task, mlPredictionTaskRequest, transportService, listener);
     }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.action.prediction;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.log4j.Log4j2;
+
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.ActionRequest;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.HandledTransportAction;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.common.io.stream.NamedWriteableRegistry;
+import org.opensearch.ml.common.transport.MLTaskResponse;
+import org.opensearch.ml.common.transport.prediction.MLPredictionTaskRequest;
+import org.opensearch.ml.common.transport.prediction.MLStreamPredictionTaskAction;
+import org.opensearch.ml.task.MLStreamPredictTaskRunner;
+import org.opensearch.ml.task.MLTaskRunner;
+import org.opensearch.tasks.Task;
+import org.opensearch.transport.TransportService;
+
+@Log4j2
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class TransportStreamPredictionTaskAction extends HandledTransportAction<ActionRequest, MLTaskResponse> {
+    MLTaskRunner<MLPredictionTaskRequest, MLTaskResponse> mlStreamPredictTaskRunner;
+    TransportService transportService;
+    NamedWriteableRegistry namedWriteableRegistry;
+
+    @Inject
+    public TransportStreamPredictionTaskAction(
+        TransportService transportService,
+        ActionFilters actionFilters,
+        MLStreamPredictTaskRunner mlStreamPredictTaskRunner,
+        NamedWriteableRegistry namedWriteableRegistry
+    ) {
+        super(MLStreamPredictionTaskAction.NAME, transportService, actionFilters, MLPredictionTaskRequest::new);
+        this.mlStreamPredictTaskRunner = mlStreamPredictTaskRunner;
+        this.transportService = transportService;
+        this.namedWriteableRegistry = namedWriteableRegistry;
+    }
+
+    @Override
+    protected void doExecute(Task task, ActionRequest request, ActionListener<MLTaskResponse> listener) {
+        MLPredictionTaskRequest mlPredictionTaskRequest = MLPredictionTaskRequest.fromActionRequest(request, namedWriteableRegistry);
+        mlStreamPredictTaskRunner.run(task, mlPredictionTaskRequest, transportService, listener);
+    }
+}
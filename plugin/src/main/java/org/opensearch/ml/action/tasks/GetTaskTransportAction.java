@@ -27,6 +27,7 @@ import org.opensearch.ml.common.exception.MLResourceNotFoundException;
 import org.opensearch.ml.common.transport.task.MLTaskGetAction;
 import org.opensearch.ml.common.transport.task.MLTaskGetRequest;
 import org.opensearch.ml.common.transport.task.MLTaskGetResponse;
+import org.opensearch.ml.task.MLTaskManager;
 import org.opensearch.tasks.Task;
 import org.opensearch.transport.TransportService;
 
@@ -35,23 +36,32 @@ public class GetTaskTransportAction extends HandledTransportAction<ActionRequest
 
     Client client;
     NamedXContentRegistry xContentRegistry;
+    MLTaskManager mlTaskManager;
 
     @Inject
     public GetTaskTransportAction(
         TransportService transportService,
         ActionFilters actionFilters,
         Client client,
-        NamedXContentRegistry xContentRegistry
+        NamedXContentRegistry xContentRegistry,
+        MLTaskManager mlTaskManager
     ) {
         super(MLTaskGetAction.NAME, transportService, actionFilters, MLTaskGetRequest::new);
         this.client = client;
         this.xContentRegistry = xContentRegistry;
+        this.mlTaskManager = mlTaskManager;
     }
 
     @Override
     protected void doExecute(Task task, ActionRequest request, ActionListener<MLTaskGetResponse> actionListener) {
         MLTaskGetRequest mlTaskGetRequest = MLTaskGetRequest.fromActionRequest(request);
         String taskId = mlTaskGetRequest.getTaskId();
+        // task running on this node, the cache has the latest state which may not be persisted yet
+        MLTask cachedTask = mlTaskManager.get(taskId);
+        if (cachedTask != null) {
+            actionListener.onResponse(MLTaskGetResponse.builder().mlTask(cachedTask).build());
+            return;
+        }
         GetRequest getRequest = new GetRequest(ML_TASK_INDEX).id(taskId);
 
         try (ThreadContext.StoredContext context = client.threadPool().getThreadContext().stashContext()) {
@@ -62,6 +72,7 @@ public class GetTaskTransportAction extends HandledTransportAction<ActionRequest
                     try (XContentParser parser = createXContentParserFromRegistry(xContentRegistry, r.getSourceAsBytesRef())) {
                         ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.nextToken(), parser);
                         MLTask mlTask = MLTask.parse(parser);
+                        mlTaskManager.applyPendingUpdate(mlTask);
                         actionListener.onResponse(MLTaskGetResponse.builder().mlTask(mlTask).build());
                     } catch (Exception e) {
                         log.error("Failed to parse ml task" + r.getId(), e);
@@ -0,0 +1,39 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.action.training;
+
+import java.io.IOException;
+
+import lombok.Getter;
+
+import org.opensearch.action.support.nodes.BaseNodeRequest;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+
+public class MLPartialStatsNodeRequest extends BaseNodeRequest {
+    @Getter
+    private MLPartialStatsNodesRequest mlPartialStatsNodesRequest;
+
+    public MLPartialStatsNodeRequest(StreamInput in) throws IOException {
+        super(in);
+        this.mlPartialStatsNodesRequest = new MLPartialStatsNodesRequest(in);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param request MLPartialStatsNodesRequest
+     */
+    public MLPartialStatsNodeRequest(MLPartialStatsNodesRequest request) {
+        this.mlPartialStatsNodesRequest = request;
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        mlPartialStatsNodesRequest.writeTo(out);
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.action.training;
+
+import java.io.IOException;
+
+import lombok.Getter;
+
+import org.opensearch.action.support.nodes.BaseNodeResponse;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+
+public class MLPartialStatsNodeResponse extends BaseNodeResponse {
+    /**
+     * Partial statistics of the node's training data, empty if the node has no training data.
+     */
+    @Getter
+    private double[] stats;
+
+    public MLPartialStatsNodeResponse(StreamInput in) throws IOException {
+        super(in);
+        this.stats = in.readDoubleArray();
+    }
+
+    /**
+     * Constructor
+     *
+     * @param node node
+     * @param stats partial statistics
+     */
+    public MLPartialStatsNodeResponse(DiscoveryNode node, double[] stats) {
+        super(node);
+        this.stats = stats;
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeDoubleArray(stats);
+    }
+}
@@ -0,0 +1,22 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.action.training;
+
+import org.opensearch.action.ActionType;
+import org.opensearch.ml.constant.CommonValue;
+
+public class MLPartialStatsNodesAction extends ActionType<MLPartialStatsNodesResponse> {
+    // Internal Action which is not used for public facing RestAPIs.
+    public static final String NAME = CommonValue.ACTION_PREFIX + "training/partial_stats";
+    public static final MLPartialStatsNodesAction INSTANCE = new MLPartialStatsNodesAction();
+
+    /**
+     * Constructor
+     */
+    private MLPartialStatsNodesAction() {
+        super(NAME, MLPartialStatsNodesResponse::new);
+    }
+}
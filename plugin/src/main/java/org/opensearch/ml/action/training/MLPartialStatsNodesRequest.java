@@ -0,0 +1,116 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.action.training;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+
+import org.opensearch.action.support.nodes.BaseNodesRequest;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.index.shard.ShardId;
+import org.opensearch.ml.common.input.MLInput;
+
+/**
+ * Request to compute partial statistics of one distributed training iteration on the nodes holding the training data.
+ */
+@Getter
+public class MLPartialStatsNodesRequest extends BaseNodesRequest<MLPartialStatsNodesRequest> {
+    private final String taskId;
+    private final MLInput mlInput;
+    /**
+     * Node id to the shards whose data the node reads.
+     */
+    private final Map<String, List<ShardId>> shardAssignment;
+    private final String[] featureNames;
+    private final double[] state;
+    /**
+     * Nodes release the cached training data after the last iteration.
+     */
+    private final boolean lastIteration;
+    /**
+     * Nodes only release the cached training data, without computing statistics. Sent once training fails or is
+     * cancelled before its last iteration.
+     */
+    private final boolean release;
+
+    public MLPartialStatsNodesRequest(StreamInput in) throws IOException {
+        super(in);
+        this.taskId = in.readString();
+        this.mlInput = new MLInput(in);
+        this.shardAssignment = in.readMap(StreamInput::readString, input -> input.readList(ShardId::new));
+        this.featureNames = in.readStringArray();
+        this.state = in.readDoubleArray();
+        this.lastIteration = in.readBoolean();
+        this.release = in.readBoolean();
+    }
+
+    /**
+     * Constructor
+     *
+     * @param taskId ML task id
+     * @param mlInput ML input with search query input data
+     * @param shardAssignment node id to the shards whose data the node reads
+     * @param featureNames feature column names
+     * @param state current model state
+     * @param lastIteration whether this is the last iteration
+     */
+    public MLPartialStatsNodesRequest(
+        String taskId,
+        MLInput mlInput,
+        Map<String, List<ShardId>> shardAssignment,
+        String[] featureNames,
+        double[] state,
+        boolean lastIteration
+    ) {
+        this(taskId, mlInput, shardAssignment, featureNames, state, lastIteration, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param taskId ML task id
+     * @param mlInput ML input with search query input data
+     * @param shardAssignment node id to the shards whose data the node reads
+     * @param featureNames feature column names
+     * @param state current model state
+     * @param lastIteration whether this is the last iteration
+     * @param release whether nodes only release the cached training data
+     */
+    public MLPartialStatsNodesRequest(
+        String taskId,
+        MLInput mlInput,
+        Map<String, List<ShardId>> shardAssignment,
+        String[] featureNames,
+        double[] state,
+        boolean lastIteration,
+        boolean release
+    ) {
+        super(shardAssignment.keySet().toArray(new String[0]));
+        this.taskId = taskId;
+        this.mlInput = mlInput;
+        this.shardAssignment = shardAssignment;
+        this.featureNames = featureNames;
+        this.state = state;
+        this.lastIteration = lastIteration;
+        this.release = release;
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeString(taskId);
+        mlInput.writeTo(out);
+        out.writeMap(shardAssignment, StreamOutput::writeString, StreamOutput::writeList);
+        out.writeStringArray(featureNames);
+        out.writeDoubleArray(state);
+        out.writeBoolean(lastIteration);
+        out.writeBoolean(release);
+    }
+}
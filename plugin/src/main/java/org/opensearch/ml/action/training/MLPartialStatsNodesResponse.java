@@ -0,0 +1,47 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.action.training;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.opensearch.action.FailedNodeException;
+import org.opensearch.action.support.nodes.BaseNodesResponse;
+import org.opensearch.cluster.ClusterName;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+
+public class MLPartialStatsNodesResponse extends BaseNodesResponse<MLPartialStatsNodeResponse> {
+
+    public MLPartialStatsNodesResponse(StreamInput in) throws IOException {
+        super(new ClusterName(in), in.readList(MLPartialStatsNodeResponse::new), in.readList(FailedNodeException::new));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param clusterName name of cluster
+     * @param nodes List of MLPartialStatsNodeResponse from nodes
+     * @param failures List of failures from nodes
+     */
+    public MLPartialStatsNodesResponse(
+        ClusterName clusterName,
+        List<MLPartialStatsNodeResponse> nodes,
+        List<FailedNodeException> failures
+    ) {
+        super(clusterName, nodes, failures);
+    }
+
+    @Override
+    public void writeNodesTo(StreamOutput out, List<MLPartialStatsNodeResponse> nodes) throws IOException {
+        out.writeList(nodes);
+    }
+
+    @Override
+    public List<MLPartialStatsNodeResponse> readNodesFrom(StreamInput in) throws IOException {
+        return in.readList(MLPartialStatsNodeResponse::new);
+    }
+}
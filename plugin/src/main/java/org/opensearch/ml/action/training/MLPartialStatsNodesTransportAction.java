@@ -0,0 +1,117 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.action.training;
+
+import static org.opensearch.ml.plugin.MachineLearningPlugin.TRAIN_THREAD_POOL;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.ActionListenerResponseHandler;
+import org.opensearch.action.FailedNodeException;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.ChannelActionListener;
+import org.opensearch.action.support.HandledTransportAction;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.cluster.node.DiscoveryNodes;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.common.util.concurrent.CountDown;
+import org.opensearch.ml.task.MLDistributedTrainer;
+import org.opensearch.tasks.Task;
+import org.opensearch.transport.TransportChannel;
+import org.opensearch.transport.TransportRequestOptions;
+import org.opensearch.transport.TransportService;
+
+/**
+ * Computes partial statistics of distributed training on the nodes holding the training data.
+ *
+ * Nodes read their training data with async scroll requests and respond once the statistics are computed, so
+ * no thread is blocked while the data is read. TransportNodesAction only supports blocking node operations, so
+ * the requests are sent to the nodes here.
+ */
+public class MLPartialStatsNodesTransportAction extends HandledTransportAction<MLPartialStatsNodesRequest, MLPartialStatsNodesResponse> {
+    static final String NODE_ACTION_NAME = MLPartialStatsNodesAction.NAME + "[n]";
+
+    private final ClusterService clusterService;
+    private final TransportService transportService;
+    private final MLDistributedTrainer mlDistributedTrainer;
+
+    @Inject
+    public MLPartialStatsNodesTransportAction(
+        ClusterService clusterService,
+        TransportService transportService,
+        ActionFilters actionFilters,
+        MLDistributedTrainer mlDistributedTrainer
+    ) {
+        super(MLPartialStatsNodesAction.NAME, transportService, actionFilters, MLPartialStatsNodesRequest::new);
+        this.clusterService = clusterService;
+        this.transportService = transportService;
+        this.mlDistributedTrainer = mlDistributedTrainer;
+        transportService
+            .registerRequestHandler(
+                NODE_ACTION_NAME,
+                TRAIN_THREAD_POOL,
+                MLPartialStatsNodeRequest::new,
+                (request, channel, task) -> nodeOperation(request, channel)
+            );
+    }
+
+    @Override
+    protected void doExecute(Task task, MLPartialStatsNodesRequest request, ActionListener<MLPartialStatsNodesResponse> listener) {
+        String[] nodeIds = request.nodesIds();
+        List<MLPartialStatsNodeResponse> responses = Collections.synchronizedList(new ArrayList<>());
+        List<FailedNodeException> failures = Collections.synchronizedList(new ArrayList<>());
+        if (nodeIds.length == 0) {
+            listener.onResponse(new MLPartialStatsNodesResponse(clusterService.getClusterName(), responses, failures));
+            return;
+        }
+        CountDown countDown = new CountDown(nodeIds.length);
+        Runnable onNodeDone = () -> {
+            if (countDown.countDown()) {
+                listener.onResponse(new MLPartialStatsNodesResponse(clusterService.getClusterName(), responses, failures));
+            }
+        };
+        TransportRequestOptions.Builder options = TransportRequestOptions.builder();
+        if (request.timeout() != null) {
+            options.withTimeout(request.timeout());
+        }
+        DiscoveryNodes nodes = clusterService.state().nodes();
+        for (String nodeId : nodeIds) {
+            DiscoveryNode node = nodes.get(nodeId);
+            if (node == null) {
+                failures.add(new FailedNodeException(nodeId, "Node [" + nodeId + "] left the cluster", null));
+                onNodeDone.run();
+                continue;
+            }
+            ActionListener<MLPartialStatsNodeResponse> nodeListener = ActionListener.wrap(response -> {
+                responses.add(response);
+                onNodeDone.run();
+            }, e -> {
+                failures.add(new FailedNodeException(nodeId, "Failed to compute partial statistics on node [" + nodeId + "]", e));
+                onNodeDone.run();
+            });
+            transportService
+                .sendChildRequest(
+                    node,
+                    NODE_ACTION_NAME,
+                    new MLPartialStatsNodeRequest(request),
+                    task,
+                    options.build(),
+                    new ActionListenerResponseHandler<>(nodeListener, MLPartialStatsNodeResponse::new)
+                );
+        }
+    }
+
+    private void nodeOperation(MLPartialStatsNodeRequest request, TransportChannel channel) {
+        ActionListener<MLPartialStatsNodeResponse> listener = new ChannelActionListener<>(channel, NODE_ACTION_NAME, request);
+        ActionListener<double[]> statsListener = ActionListener
+            .wrap(stats -> listener.onResponse(new MLPartialStatsNodeResponse(clusterService.localNode(), stats)), listener::onFailure);
+        mlDistributedTrainer.computePartialStats(request.getMlPartialStatsNodesRequest(), statsListener);
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.action.training;
+
+import org.opensearch.action.ActionType;
+import org.opensearch.action.support.master.AcknowledgedResponse;
+import org.opensearch.ml.constant.CommonValue;
+
+public class MLResumeTrainingTaskAction extends ActionType<AcknowledgedResponse> {
+    // Internal Action which is not used for public facing RestAPIs.
+    public static final String NAME = CommonValue.ACTION_PREFIX + "training/resume";
+    public static final MLResumeTrainingTaskAction INSTANCE = new MLResumeTrainingTaskAction();
+
+    /**
+     * Constructor
+     */
+    private MLResumeTrainingTaskAction() {
+        super(NAME, AcknowledgedResponse::new);
+    }
+}
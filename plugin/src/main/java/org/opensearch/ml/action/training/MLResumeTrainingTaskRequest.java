@@ -0,0 +1,62 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.action.training;
+
+import java.io.IOException;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.opensearch.action.ActionRequest;
+import org.opensearch.action.ActionRequestValidationException;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.ml.common.input.MLInput;
+
+/**
+ * Request to resume an async training task from its checkpoint, after the node running the task left the cluster.
+ * The request carries the ML input of the checkpoint, so the task can be dispatched by its cost and source indices;
+ * the node resuming the task reads the checkpoint itself.
+ */
+@Getter
+public class MLResumeTrainingTaskRequest extends ActionRequest {
+    private final String taskId;
+    private final MLInput mlInput;
+    @Setter
+    private boolean dispatchTask;
+
+    public MLResumeTrainingTaskRequest(StreamInput in) throws IOException {
+        super(in);
+        this.taskId = in.readString();
+        this.mlInput = new MLInput(in);
+        this.dispatchTask = in.readBoolean();
+    }
+
+    /**
+     * Constructor
+     *
+     * @param taskId ML task id
+     * @param mlInput ML input of the task checkpoint
+     */
+    public MLResumeTrainingTaskRequest(String taskId, MLInput mlInput) {
+        this.taskId = taskId;
+        this.mlInput = mlInput;
+        this.dispatchTask = true;
+    }
+
+    @Override
+    public ActionRequestValidationException validate() {
+        return null;
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeString(taskId);
+        mlInput.writeTo(out);
+        out.writeBoolean(dispatchTask);
+    }
+}
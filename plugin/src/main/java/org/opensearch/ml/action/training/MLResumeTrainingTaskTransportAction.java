@@ -0,0 +1,40 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.action.training;
+
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.HandledTransportAction;
+import org.opensearch.action.support.master.AcknowledgedResponse;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.ml.task.MLTrainingTaskRunner;
+import org.opensearch.tasks.Task;
+import org.opensearch.transport.TransportService;
+
+/**
+ * Resumes an orphaned async training task. The master node dispatches the task like a new training request, and
+ * the node it's dispatched to resumes the task once its admission controller admits it.
+ */
+public class MLResumeTrainingTaskTransportAction extends HandledTransportAction<MLResumeTrainingTaskRequest, AcknowledgedResponse> {
+    private final TransportService transportService;
+    private final MLTrainingTaskRunner mlTrainingTaskRunner;
+
+    @Inject
+    public MLResumeTrainingTaskTransportAction(
+        TransportService transportService,
+        ActionFilters actionFilters,
+        MLTrainingTaskRunner mlTrainingTaskRunner
+    ) {
+        super(MLResumeTrainingTaskAction.NAME, transportService, actionFilters, MLResumeTrainingTaskRequest::new);
+        this.transportService = transportService;
+        this.mlTrainingTaskRunner = mlTrainingTaskRunner;
+    }
+
+    @Override
+    protected void doExecute(Task task, MLResumeTrainingTaskRequest request, ActionListener<AcknowledgedResponse> listener) {
+        mlTrainingTaskRunner.resumeTrainingTask(request, transportService, listener);
+    }
+}
@@ -12,6 +12,7 @@ import org.opensearch.action.ActionRequest;
 import org.opensearch.action.support.ActionFilters;
 import org.opensearch.action.support.HandledTransportAction;
 import org.opensearch.common.inject.Inject;
+import org.opensearch.common.io.stream.NamedWriteableRegistry;
 import org.opensearch.ml.common.transport.MLTaskResponse;
 import org.opensearch.ml.common.transport.training.MLTrainingTaskAction;
 import org.opensearch.ml.common.transport.training.MLTrainingTaskRequest;
@@ -24,21 +25,24 @@ import org.opensearch.transport.TransportService;
 public class TransportTrainingTaskAction extends HandledTransportAction<ActionRequest, MLTaskResponse> {
     MLTaskRunner<MLTrainingTaskRequest, MLTaskResponse> mlTrainingTaskRunner;
     TransportService transportService;
+    NamedWriteableRegistry namedWriteableRegistry;
 
     @Inject
     public TransportTrainingTaskAction(
         TransportService transportService,
         ActionFilters actionFilters,
-        MLTrainingTaskRunner mlTrainingTaskRunner
+        MLTrainingTaskRunner mlTrainingTaskRunner,
+        NamedWriteableRegistry namedWriteableRegistry
     ) {
         super(MLTrainingTaskAction.NAME, transportService, actionFilters, MLTrainingTaskRequest::new);
         this.mlTrainingTaskRunner = mlTrainingTaskRunner;
         this.transportService = transportService;
+        this.namedWriteableRegistry = namedWriteableRegistry;
     }
 
     @Override
     protected void doExecute(Task task, ActionRequest request, ActionListener<MLTaskResponse> listener) {
-        MLTrainingTaskRequest trainingRequest = MLTrainingTaskRequest.fromActionRequest(request);
-        mlTrainingTaskRunner.run(trainingRequest, transportService, listener);
+        MLTrainingTaskRequest trainingRequest = MLTrainingTaskRequest.fromActionRequest(request, namedWriteableRegistry);
+        mlTrainingTaskRunner.run(task, trainingRequest, transportService, listener);
     }
 }
@@ -10,6 +10,7 @@ import org.opensearch.action.ActionRequest;
 import org.opensearch.action.support.ActionFilters;
 import org.opensearch.action.support.HandledTransportAction;
 import org.opensearch.common.inject.Inject;
+import org.opensearch.common.io.stream.NamedWriteableRegistry;
 import org.opensearch.ml.common.transport.MLTaskResponse;
 import org.opensearch.ml.common.transport.training.MLTrainingTaskRequest;
 import org.opensearch.ml.common.transport.trainpredict.MLTrainAndPredictionTaskAction;
@@ -19,22 +20,25 @@ import org.opensearch.transport.TransportService;
 
 public class TransportTrainAndPredictionTaskAction extends HandledTransportAction<ActionRequest, MLTaskResponse> {
     private final MLTrainAndPredictTaskRunner mlTrainAndPredictTaskRunner;
+    private final NamedWriteableRegistry namedWriteableRegistry;
     private final TransportService transportService;
 
     @Inject
     public TransportTrainAndPredictionTaskAction(
         ActionFilters actionFilters,
         TransportService transportService,
-        MLTrainAndPredictTaskRunner mlTrainAndPredictTaskRunner
+        MLTrainAndPredictTaskRunner mlTrainAndPredictTaskRunner,
+        NamedWriteableRegistry namedWriteableRegistry
     ) {
         super(MLTrainAndPredictionTaskAction.NAME, transportService, actionFilters, MLTrainingTaskRequest::new);
         this.mlTrainAndPredictTaskRunner = mlTrainAndPredictTaskRunner;
         this.transportService = transportService;
+        this.namedWriteableRegistry = namedWriteableRegistry;
     }
 
     @Override
     protected void doExecute(Task task, ActionRequest request, ActionListener<MLTaskResponse> listener) {
-        MLTrainingTaskRequest trainingRequest = MLTrainingTaskRequest.fromActionRequest(request);
-        mlTrainAndPredictTaskRunner.run(trainingRequest, transportService, listener);
+        MLTrainingTaskRequest trainingRequest = MLTrainingTaskRequest.fromActionRequest(request, namedWriteableRegistry);
+        mlTrainAndPredictTaskRunner.run(task, trainingRequest, transportService, listener);
     }
 }
@@ -23,13 +23,15 @@ import org.opensearch.common.util.concurrent.ThreadContext;
 public class MLIndicesHandler {
     public static final String ML_MODEL_INDEX = ".plugins-ml-model";
     public static final String ML_TASK_INDEX = ".plugins-ml-task";
+    public static final String ML_CHECKPOINT_INDEX = ".plugins-ml-checkpoint";
     private static final String ML_MODEL_INDEX_MAPPING = "{\n"
         + "    \"properties\": {\n"
         + "      \"task_id\": { \"type\": \"keyword\" },\n"
         + "      \"algorithm\": {\"type\": \"keyword\"},\n"
         + "      \"model_name\" : { \"type\": \"keyword\"},\n"
         + "      \"model_version\" : { \"type\": \"keyword\"},\n"
-        + "      \"model_content\" : { \"type\": \"binary\"}\n"
+        + "      \"model_content\" : { \"type\": \"binary\"},\n"
+        + "      \"memory_estimate_in_bytes\" : { \"type\": \"long\"}\n"
         + "    }\n"
         + "}";
 
@@ -46,6 +48,7 @@ public class MLIndicesHandler {
         + "      \"create_time\": {\"type\": \"date\", \"format\": \"strict_date_time||epoch_millis\"},\n"
         + "      \"last_update_time\": {\"type\": \"date\", \"format\": \"strict_date_time||epoch_millis\"},\n"
         + "      \"error\": {\"type\": \"text\"},\n"
+        + "      \"memory_estimate_in_bytes\": {\"type\": \"long\"},\n"
         + "      \"user\": {\n"
         + "        \"type\": \"nested\",\n"
         + "        \"properties\": {\n"
@@ -58,6 +61,17 @@ public class MLIndicesHandler {
         + "    }\n"
         + "}";
 
+    private static final String ML_CHECKPOINT_INDEX_MAPPING = "{\n"
+        + "    \"properties\": {\n"
+        + "      \"task_id\": { \"type\": \"keyword\" },\n"
+        + "      \"algorithm\": {\"type\": \"keyword\"},\n"
+        + "      \"format_version\": {\"type\": \"integer\"},\n"
+        + "      \"node_version\": {\"type\": \"integer\"},\n"
+        + "      \"checkpoint_content\": {\"type\": \"binary\"},\n"
+        + "      \"last_update_time\": {\"type\": \"date\", \"format\": \"strict_date_time||epoch_millis\"}\n"
+        + "    }\n"
+        + "}";
+
     ClusterService clusterService;
     Client client;
 
@@ -86,6 +100,10 @@ public class MLIndicesHandler {
         initMLIndexIfAbsent(ML_TASK_INDEX, ML_TASK_INDEX_MAPPING, listener);
     }
 
+    public void initCheckpointIndexIfAbsent(ActionListener<Boolean> listener) {
+        initMLIndexIfAbsent(ML_CHECKPOINT_INDEX, ML_CHECKPOINT_INDEX_MAPPING, listener);
+    }
+
     public void initMLIndexIfAbsent(String indexName, String mapping, ActionListener<Boolean> listener) {
         if (!clusterService.state().metadata().hasIndex(indexName)) {
             try (ThreadContext.StoredContext threadContext = client.threadPool().getThreadContext().stashContext()) {
@@ -8,6 +8,7 @@ package org.opensearch.ml.indices;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -15,16 +16,24 @@ import lombok.experimental.FieldDefaults;
 import lombok.extern.log4j.Log4j2;
 
 import org.opensearch.action.ActionListener;
+import org.opensearch.action.search.ClearScrollRequest;
 import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.search.SearchScrollRequest;
+import org.opensearch.action.support.ThreadedActionListener;
 import org.opensearch.client.Client;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.ml.common.dataframe.DataFrame;
 import org.opensearch.ml.common.dataframe.DataFrameBuilder;
 import org.opensearch.ml.common.dataset.DataFrameInputDataset;
 import org.opensearch.ml.common.dataset.MLInputDataType;
 import org.opensearch.ml.common.dataset.MLInputDataset;
 import org.opensearch.ml.common.dataset.SearchQueryInputDataset;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.engine.utils.ReservoirSampler;
 import org.opensearch.search.SearchHit;
 import org.opensearch.search.SearchHits;
+import org.opensearch.search.builder.SearchSourceBuilder;
 
 /**
  * Convert MLInputDataset to Dataframe
@@ -33,6 +42,9 @@ import org.opensearch.search.SearchHits;
 @RequiredArgsConstructor
 @Log4j2
 public class MLInputDatasetHandler {
+    public static final int SAMPLE_PAGE_SIZE = 1000;
+    public static final TimeValue SAMPLE_SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(1);
+
     Client client;
 
     /**
@@ -85,4 +97,151 @@ public class MLInputDatasetHandler {
         }));
         return;
     }
+
+    /**
+     * Create DataFrame from a sample of all documents matching given search query. Documents are read page by
+     * page with a scroll and only the sample is kept in memory, so the size of the search query is ignored.
+     * Every page is sampled on the given executor, not on the transport thread which received it.
+     * @param mlInputDataset MLInputDataset
+     * @param sampler sampler of documents
+     * @param cancellationToken cancellation token, checked for every page
+     * @param executor name of the thread pool sampling the pages
+     * @param listener ActionListener
+     */
+    public void sampleSearchQueryInput(
+        MLInputDataset mlInputDataset,
+        ReservoirSampler<Map<String, Object>> sampler,
+        CancellationToken cancellationToken,
+        String executor,
+        ActionListener<DataFrame> listener
+    ) {
+        if (!mlInputDataset.getInputDataType().equals(MLInputDataType.SEARCH_QUERY)) {
+            throw new IllegalArgumentException("Input dataset is not SEARCH_QUERY type.");
+        }
+        SearchQueryInputDataset inputDataset = (SearchQueryInputDataset) mlInputDataset;
+        SearchSourceBuilder searchSourceBuilder = inputDataset.getSearchSourceBuilder().shallowCopy().from(0).size(SAMPLE_PAGE_SIZE);
+        SearchRequest searchRequest = new SearchRequest(inputDataset.getIndices().toArray(new String[0]))
+            .source(searchSourceBuilder)
+            .scroll(SAMPLE_SCROLL_KEEP_ALIVE);
+        client.search(searchRequest, samplePageListener(sampler, cancellationToken, executor, listener));
+    }
+
+    private ActionListener<SearchResponse> samplePageListener(
+        ReservoirSampler<Map<String, Object>> sampler,
+        CancellationToken cancellationToken,
+        String executor,
+        ActionListener<DataFrame> listener
+    ) {
+        ActionListener<SearchResponse> pageListener = ActionListener.wrap(r -> {
+            String scrollId = r.getScrollId();
+            SearchHit[] searchHits = r.getHits() == null ? new SearchHit[0] : r.getHits().getHits();
+            try {
+                cancellationToken.ensureNotCancelled();
+                for (SearchHit hit : searchHits) {
+                    // only sampled documents are parsed
+                    sampler.add(hit::getSourceAsMap);
+                }
+            } catch (Exception e) {
+                clearScroll(scrollId);
+                listener.onFailure(e);
+                return;
+            }
+            if (searchHits.length > 0 && !sampler.isLimitReached() && scrollId != null) {
+                SearchScrollRequest scrollRequest = new SearchScrollRequest(scrollId).scroll(SAMPLE_SCROLL_KEEP_ALIVE);
+                client.searchScroll(scrollRequest, samplePageListener(sampler, cancellationToken, executor, listener));
+                return;
+            }
+            clearScroll(scrollId);
+            if (sampler.getCount() == 0) {
+                listener.onFailure(new IllegalArgumentException("No document found"));
+                return;
+            }
+            log.debug("Sampled {} documents", sampler.getCount());
+            listener.onResponse(DataFrameBuilder.load(sampler.getSample()));
+        }, e -> {
+            log.error("Failed to search", e);
+            listener.onFailure(e);
+        });
+        return new ThreadedActionListener<>(log, client.threadPool(), executor, pageListener, false);
+    }
+
+    /**
+     * Read all documents matching given search query page by page with a scroll, and pass every page as a DataFrame
+     * to the consumer. Only one page is kept in memory, so the size of the search query is ignored. Every page is
+     * consumed on the given executor, not on the transport thread which received it, and the next page is only
+     * requested once the page is consumed.
+     * @param mlInputDataset MLInputDataset
+     * @param pageSize number of documents of a page
+     * @param cancellationToken cancellation token, checked for every page
+     * @param executor name of the thread pool consuming the pages
+     * @param pageConsumer consumer of pages
+     * @param listener ActionListener of the number of documents read
+     */
+    public void scanSearchQueryInput(
+        MLInputDataset mlInputDataset,
+        int pageSize,
+        CancellationToken cancellationToken,
+        String executor,
+        Consumer<DataFrame> pageConsumer,
+        ActionListener<Long> listener
+    ) {
+        if (!mlInputDataset.getInputDataType().equals(MLInputDataType.SEARCH_QUERY)) {
+            throw new IllegalArgumentException("Input dataset is not SEARCH_QUERY type.");
+        }
+        SearchQueryInputDataset inputDataset = (SearchQueryInputDataset) mlInputDataset;
+        SearchSourceBuilder searchSourceBuilder = inputDataset.getSearchSourceBuilder().shallowCopy().from(0).size(pageSize);
+        SearchRequest searchRequest = new SearchRequest(inputDataset.getIndices().toArray(new String[0]))
+            .source(searchSourceBuilder)
+            .scroll(SAMPLE_SCROLL_KEEP_ALIVE);
+        client.search(searchRequest, scanPageListener(0, cancellationToken, executor, pageConsumer, listener));
+    }
+
+    private ActionListener<SearchResponse> scanPageListener(
+        long count,
+        CancellationToken cancellationToken,
+        String executor,
+        Consumer<DataFrame> pageConsumer,
+        ActionListener<Long> listener
+    ) {
+        ActionListener<SearchResponse> pageListener = ActionListener.wrap(r -> {
+            String scrollId = r.getScrollId();
+            SearchHit[] searchHits = r.getHits() == null ? new SearchHit[0] : r.getHits().getHits();
+            try {
+                if (searchHits.length > 0) {
+                    cancellationToken.ensureNotCancelled();
+                    List<Map<String, Object>> page = new ArrayList<>(searchHits.length);
+                    for (SearchHit hit : searchHits) {
+                        page.add(hit.getSourceAsMap());
+                    }
+                    pageConsumer.accept(DataFrameBuilder.load(page));
+                }
+            } catch (Exception e) {
+                clearScroll(scrollId);
+                listener.onFailure(e);
+                return;
+            }
+            long scanned = count + searchHits.length;
+            if (searchHits.length > 0 && scrollId != null) {
+                SearchScrollRequest scrollRequest = new SearchScrollRequest(scrollId).scroll(SAMPLE_SCROLL_KEEP_ALIVE);
+                client.searchScroll(scrollRequest, scanPageListener(scanned, cancellationToken, executor, pageConsumer, listener));
+                return;
+            }
+            clearScroll(scrollId);
+            log.debug("Scanned {} documents", scanned);
+            listener.onResponse(scanned);
+        }, e -> {
+            log.error("Failed to search", e);
+            listener.onFailure(e);
+        });
+        return new ThreadedActionListener<>(log, client.threadPool(), executor, pageListener, false);
+    }
+
+    private void clearScroll(String scrollId) {
+        if (scrollId == null) {
+            return;
+        }
+        ClearScrollRequest clearScrollRequest = new ClearScrollRequest();
+        clearScrollRequest.addScrollId(scrollId);
+        client.clearScroll(clearScrollRequest, ActionListener.wrap(r -> {}, e -> log.warn("Failed to clear scroll", e)));
+    }
 }
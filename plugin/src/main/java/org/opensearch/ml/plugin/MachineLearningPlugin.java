@@ -6,9 +6,9 @@
 package org.opensearch.ml.plugin;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
@@ -25,6 +25,7 @@ import org.opensearch.common.settings.IndexScopedSettings;
 import org.opensearch.common.settings.Setting;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.common.settings.SettingsFilter;
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
 import org.opensearch.common.xcontent.NamedXContentRegistry;
 import org.opensearch.env.Environment;
 import org.opensearch.env.NodeEnvironment;
@@ -34,11 +35,16 @@ import org.opensearch.ml.action.models.DeleteModelTransportAction;
 import org.opensearch.ml.action.models.GetModelTransportAction;
 import org.opensearch.ml.action.models.SearchModelTransportAction;
 import org.opensearch.ml.action.prediction.TransportPredictionTaskAction;
+import org.opensearch.ml.action.prediction.TransportStreamPredictionTaskAction;
 import org.opensearch.ml.action.stats.MLStatsNodesAction;
 import org.opensearch.ml.action.stats.MLStatsNodesTransportAction;
 import org.opensearch.ml.action.tasks.DeleteTaskTransportAction;
 import org.opensearch.ml.action.tasks.GetTaskTransportAction;
 import org.opensearch.ml.action.tasks.SearchTaskTransportAction;
+import org.opensearch.ml.action.training.MLPartialStatsNodesAction;
+import org.opensearch.ml.action.training.MLPartialStatsNodesTransportAction;
+import org.opensearch.ml.action.training.MLResumeTrainingTaskAction;
+import org.opensearch.ml.action.training.MLResumeTrainingTaskTransportAction;
 import org.opensearch.ml.action.training.TransportTrainingTaskAction;
 import org.opensearch.ml.action.trainpredict.TransportTrainAndPredictionTaskAction;
 import org.opensearch.ml.common.FunctionName;
@@ -56,6 +62,7 @@ import org.opensearch.ml.common.transport.model.MLModelDeleteAction;
 import org.opensearch.ml.common.transport.model.MLModelGetAction;
 import org.opensearch.ml.common.transport.model.MLModelSearchAction;
 import org.opensearch.ml.common.transport.prediction.MLPredictionTaskAction;
+import org.opensearch.ml.common.transport.prediction.MLStreamPredictionTaskAction;
 import org.opensearch.ml.common.transport.task.MLTaskDeleteAction;
 import org.opensearch.ml.common.transport.task.MLTaskGetAction;
 import org.opensearch.ml.common.transport.task.MLTaskSearchAction;
@@ -67,15 +74,26 @@ import org.opensearch.ml.engine.algorithms.sample.LocalSampleCalculator;
 import org.opensearch.ml.indices.MLIndicesHandler;
 import org.opensearch.ml.indices.MLInputDatasetHandler;
 import org.opensearch.ml.rest.*;
+import org.opensearch.ml.settings.MLCommonsSettings;
 import org.opensearch.ml.stats.MLStat;
 import org.opensearch.ml.stats.MLStats;
 import org.opensearch.ml.stats.StatNames;
 import org.opensearch.ml.stats.suppliers.CounterSupplier;
+import org.opensearch.ml.stats.suppliers.ThreadPoolStatSupplier;
+import org.opensearch.ml.task.MLDetectorSessionManager;
+import org.opensearch.ml.task.MLDistributedTrainer;
 import org.opensearch.ml.task.MLExecuteTaskRunner;
 import org.opensearch.ml.task.MLPredictTaskRunner;
+import org.opensearch.ml.task.MLPredictMicroBatcher;
+import org.opensearch.ml.task.MLPredictRequestCoalescer;
+import org.opensearch.ml.task.MLStreamPredictTaskRunner;
+import org.opensearch.ml.task.MLTaskAdmissionController;
 import org.opensearch.ml.task.MLTaskDispatcher;
 import org.opensearch.ml.task.MLTaskManager;
+import org.opensearch.ml.task.MLTaskUpdateBuffer;
 import org.opensearch.ml.task.MLTrainAndPredictTaskRunner;
+import org.opensearch.ml.task.MLTrainingCheckpointManager;
+import org.opensearch.ml.task.MLTrainingTaskResumer;
 import org.opensearch.ml.task.MLTrainingTaskRunner;
 import org.opensearch.monitor.jvm.JvmService;
 import org.opensearch.plugins.ActionPlugin;
@@ -87,12 +105,16 @@ import org.opensearch.script.ScriptService;
 import org.opensearch.threadpool.ExecutorBuilder;
 import org.opensearch.threadpool.FixedExecutorBuilder;
 import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.threadpool.ThreadPoolStats;
 import org.opensearch.watcher.ResourceWatcherService;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 
 public class MachineLearningPlugin extends Plugin implements ActionPlugin {
-    public static final String TASK_THREAD_POOL = "OPENSEARCH_ML_TASK_THREAD_POOL";
+    public static final String TRAIN_THREAD_POOL = "ml_train";
+    public static final String PREDICT_THREAD_POOL = "ml_predict";
+    public static final String EXECUTE_THREAD_POOL = "ml_execute";
     public static final String ML_BASE_URI = "/_plugins/_ml";
 
     private MLStats mlStats;
@@ -101,6 +123,7 @@ public class MachineLearningPlugin extends Plugin implements ActionPlugin {
     private MLInputDatasetHandler mlInputDatasetHandler;
     private MLTrainingTaskRunner mlTrainingTaskRunner;
     private MLPredictTaskRunner mlPredictTaskRunner;
+    private MLStreamPredictTaskRunner mlStreamPredictTaskRunner;
     private MLTrainAndPredictTaskRunner mlTrainAndPredictTaskRunner;
     private MLExecuteTaskRunner mlExecuteTaskRunner;
 
@@ -124,6 +147,7 @@ public class MachineLearningPlugin extends Plugin implements ActionPlugin {
                 new ActionHandler<>(MLStatsNodesAction.INSTANCE, MLStatsNodesTransportAction.class),
                 new ActionHandler<>(MLExecuteTaskAction.INSTANCE, TransportExecuteTaskAction.class),
                 new ActionHandler<>(MLPredictionTaskAction.INSTANCE, TransportPredictionTaskAction.class),
+                new ActionHandler<>(MLStreamPredictionTaskAction.INSTANCE, TransportStreamPredictionTaskAction.class),
                 new ActionHandler<>(MLTrainingTaskAction.INSTANCE, TransportTrainingTaskAction.class),
                 new ActionHandler<>(MLTrainAndPredictionTaskAction.INSTANCE, TransportTrainAndPredictionTaskAction.class),
                 new ActionHandler<>(MLModelGetAction.INSTANCE, GetModelTransportAction.class),
@@ -131,7 +155,9 @@ public class MachineLearningPlugin extends Plugin implements ActionPlugin {
                 new ActionHandler<>(MLModelSearchAction.INSTANCE, SearchModelTransportAction.class),
                 new ActionHandler<>(MLTaskGetAction.INSTANCE, GetTaskTransportAction.class),
                 new ActionHandler<>(MLTaskDeleteAction.INSTANCE, DeleteTaskTransportAction.class),
-                new ActionHandler<>(MLTaskSearchAction.INSTANCE, SearchTaskTransportAction.class)
+                new ActionHandler<>(MLTaskSearchAction.INSTANCE, SearchTaskTransportAction.class),
+                new ActionHandler<>(MLPartialStatsNodesAction.INSTANCE, MLPartialStatsNodesTransportAction.class),
+                new ActionHandler<>(MLResumeTrainingTaskAction.INSTANCE, MLResumeTrainingTaskTransportAction.class)
             );
     }
 
@@ -163,13 +189,44 @@ public class MachineLearningPlugin extends Plugin implements ActionPlugin {
         stats.put(StatNames.ML_TOTAL_FAILURE_COUNT, new MLStat<>(false, new CounterSupplier()));
         stats.put(StatNames.ML_TOTAL_MODEL_COUNT, new MLStat<>(false, new CounterSupplier()));
         stats.put(StatNames.ML_TOTAL_CIRCUIT_BREAKER_TRIGGER_COUNT, new MLStat<>(false, new CounterSupplier()));
+        stats.put(StatNames.ML_PREDICT_COALESCED_REQUEST_COUNT, new MLStat<>(false, new CounterSupplier()));
+        stats.put(StatNames.ML_PREDICT_RESULT_CACHE_HIT_COUNT, new MLStat<>(false, new CounterSupplier()));
+        stats.put(StatNames.ML_PREDICT_BATCH_COUNT, new MLStat<>(false, new CounterSupplier()));
+        stats.put(StatNames.ML_PREDICT_BATCHED_REQUEST_COUNT, new MLStat<>(false, new CounterSupplier()));
+        stats.put(StatNames.ML_PREDICT_BATCHED_ROW_COUNT, new MLStat<>(false, new CounterSupplier()));
+        stats.put(StatNames.ML_PREDICT_BATCH_QUEUE_DELAY_MILLIS, new MLStat<>(false, new CounterSupplier()));
+        stats.put(StatNames.ML_OUTSTANDING_TASK_COST, new MLStat<>(false, new CounterSupplier()));
+        for (String threadPoolName : ImmutableList.of(TRAIN_THREAD_POOL, PREDICT_THREAD_POOL, EXECUTE_THREAD_POOL)) {
+            addThreadPoolStats(stats, threadPool, threadPoolName);
+        }
         this.mlStats = new MLStats(stats);
 
         mlIndicesHandler = new MLIndicesHandler(clusterService, client);
-        mlTaskManager = new MLTaskManager(client, mlIndicesHandler);
+        MLTaskUpdateBuffer mlTaskUpdateBuffer = new MLTaskUpdateBuffer(settings, clusterService, client, threadPool);
+        mlTaskManager = new MLTaskManager(client, mlIndicesHandler, mlTaskUpdateBuffer);
         mlInputDatasetHandler = new MLInputDatasetHandler(client);
 
-        MLTaskDispatcher mlTaskDispatcher = new MLTaskDispatcher(clusterService, client);
+        MLTaskDispatcher mlTaskDispatcher = new MLTaskDispatcher(clusterService, client, settings);
+        MLTaskAdmissionController mlTaskAdmissionController = new MLTaskAdmissionController(settings, clusterService, threadPool);
+        MLPredictRequestCoalescer mlPredictRequestCoalescer = new MLPredictRequestCoalescer(settings, clusterService, client, mlStats);
+        MLPredictMicroBatcher mlPredictMicroBatcher = new MLPredictMicroBatcher(settings, clusterService, client, threadPool, mlStats);
+        MLTrainingCheckpointManager mlTrainingCheckpointManager = new MLTrainingCheckpointManager(
+            settings,
+            clusterService,
+            client,
+            threadPool,
+            mlIndicesHandler,
+            namedWriteableRegistry
+        );
+        MLDistributedTrainer mlDistributedTrainer = new MLDistributedTrainer(
+            settings,
+            clusterService,
+            client,
+            threadPool,
+            mlInputDatasetHandler,
+            mlCircuitBreakerService,
+            mlTrainingCheckpointManager
+        );
         mlTrainingTaskRunner = new MLTrainingTaskRunner(
             threadPool,
             clusterService,
@@ -179,8 +236,18 @@ public class MachineLearningPlugin extends Plugin implements ActionPlugin {
             mlIndicesHandler,
             mlInputDatasetHandler,
             mlTaskDispatcher,
-            mlCircuitBreakerService
+            mlCircuitBreakerService,
+            mlTaskAdmissionController,
+            mlDistributedTrainer,
+            mlTrainingCheckpointManager
         );
+        MLTrainingTaskResumer mlTrainingTaskResumer = new MLTrainingTaskResumer(
+            client,
+            threadPool,
+            xContentRegistry,
+            mlTrainingCheckpointManager
+        );
+        clusterService.addListener(mlTrainingTaskResumer);
         mlPredictTaskRunner = new MLPredictTaskRunner(
             threadPool,
             clusterService,
@@ -190,8 +257,29 @@ public class MachineLearningPlugin extends Plugin implements ActionPlugin {
             mlInputDatasetHandler,
             mlTaskDispatcher,
             mlCircuitBreakerService,
+            mlTaskAdmissionController,
+            mlPredictRequestCoalescer,
+            mlPredictMicroBatcher,
+            xContentRegistry
+        );
+        MLDetectorSessionManager mlDetectorSessionManager = new MLDetectorSessionManager(
+            settings,
+            clusterService,
+            client,
+            threadPool,
             xContentRegistry
         );
+        mlStreamPredictTaskRunner = new MLStreamPredictTaskRunner(
+            threadPool,
+            clusterService,
+            mlTaskManager,
+            mlStats,
+            mlInputDatasetHandler,
+            mlTaskDispatcher,
+            mlCircuitBreakerService,
+            mlTaskAdmissionController,
+            mlDetectorSessionManager
+        );
         mlTrainAndPredictTaskRunner = new MLTrainAndPredictTaskRunner(
             threadPool,
             clusterService,
@@ -200,7 +288,8 @@ public class MachineLearningPlugin extends Plugin implements ActionPlugin {
             mlStats,
             mlInputDatasetHandler,
             mlTaskDispatcher,
-            mlCircuitBreakerService
+            mlCircuitBreakerService,
+            mlTaskAdmissionController
         );
         mlExecuteTaskRunner = new MLExecuteTaskRunner(
             threadPool,
@@ -210,7 +299,8 @@ public class MachineLearningPlugin extends Plugin implements ActionPlugin {
             mlStats,
             mlInputDatasetHandler,
             mlTaskDispatcher,
-            mlCircuitBreakerService
+            mlCircuitBreakerService,
+            mlTaskAdmissionController
         );
 
         // Register thread-safe ML objects here.
@@ -230,9 +320,39 @@ public class MachineLearningPlugin extends Plugin implements ActionPlugin {
                 mlInputDatasetHandler,
                 mlTrainingTaskRunner,
                 mlPredictTaskRunner,
+                mlStreamPredictTaskRunner,
                 mlTrainAndPredictTaskRunner,
                 mlExecuteTaskRunner,
-                mlSearchHandler
+                mlSearchHandler,
+                mlDistributedTrainer
+            );
+    }
+
+    private void addThreadPoolStats(Map<String, MLStat<?>> stats, ThreadPool threadPool, String threadPoolName) {
+        stats
+            .put(
+                StatNames.threadPoolStat(threadPoolName, "threads"),
+                new MLStat<>(false, new ThreadPoolStatSupplier(threadPool, threadPoolName, ThreadPoolStats.Stats::getThreads))
+            );
+        stats
+            .put(
+                StatNames.threadPoolStat(threadPoolName, "active"),
+                new MLStat<>(false, new ThreadPoolStatSupplier(threadPool, threadPoolName, ThreadPoolStats.Stats::getActive))
+            );
+        stats
+            .put(
+                StatNames.threadPoolStat(threadPoolName, "queue"),
+                new MLStat<>(false, new ThreadPoolStatSupplier(threadPool, threadPoolName, ThreadPoolStats.Stats::getQueue))
+            );
+        stats
+            .put(
+                StatNames.threadPoolStat(threadPoolName, "rejected"),
+                new MLStat<>(false, new ThreadPoolStatSupplier(threadPool, threadPoolName, ThreadPoolStats.Stats::getRejected))
+            );
+        stats
+            .put(
+                StatNames.threadPoolStat(threadPoolName, "completed"),
+                new MLStat<>(false, new ThreadPoolStatSupplier(threadPool, threadPoolName, ThreadPoolStats.Stats::getCompleted))
             );
     }
 
@@ -250,6 +370,7 @@ public class MachineLearningPlugin extends Plugin implements ActionPlugin {
         RestMLTrainingAction restMLTrainingAction = new RestMLTrainingAction();
         RestMLTrainAndPredictAction restMLTrainAndPredictAction = new RestMLTrainAndPredictAction();
         RestMLPredictionAction restMLPredictionAction = new RestMLPredictionAction();
+        RestMLStreamPredictionAction restMLStreamPredictionAction = new RestMLStreamPredictionAction();
         RestMLExecuteAction restMLExecuteAction = new RestMLExecuteAction();
         RestMLGetModelAction restMLGetModelAction = new RestMLGetModelAction();
         RestMLDeleteModelAction restMLDeleteModelAction = new RestMLDeleteModelAction();
@@ -263,6 +384,7 @@ public class MachineLearningPlugin extends Plugin implements ActionPlugin {
                 restStatsMLAction,
                 restMLTrainingAction,
                 restMLPredictionAction,
+                restMLStreamPredictionAction,
                 restMLExecuteAction,
                 restMLTrainAndPredictAction,
                 restMLGetModelAction,
@@ -276,9 +398,72 @@ public class MachineLearningPlugin extends Plugin implements ActionPlugin {
 
     @Override
     public List<ExecutorBuilder<?>> getExecutorBuilders(Settings settings) {
-        FixedExecutorBuilder ml = new FixedExecutorBuilder(settings, TASK_THREAD_POOL, 4, 4, "ml.task_thread_pool", false);
+        // Pool sizes and queue lengths can be tuned with the node settings thread_pool.<pool name>.size and
+        // thread_pool.<pool name>.queue_size, which FixedExecutorBuilder registers.
+        int allocatedProcessors = OpenSearchExecutors.allocatedProcessors(settings);
+        FixedExecutorBuilder trainThreadPool = new FixedExecutorBuilder(
+            settings,
+            TRAIN_THREAD_POOL,
+            Math.max(1, allocatedProcessors / 2),
+            10,
+            "thread_pool." + TRAIN_THREAD_POOL,
+            false
+        );
+        FixedExecutorBuilder predictThreadPool = new FixedExecutorBuilder(
+            settings,
+            PREDICT_THREAD_POOL,
+            allocatedProcessors,
+            100,
+            "thread_pool." + PREDICT_THREAD_POOL,
+            false
+        );
+        FixedExecutorBuilder executeThreadPool = new FixedExecutorBuilder(
+            settings,
+            EXECUTE_THREAD_POOL,
+            Math.max(1, allocatedProcessors / 2),
+            10,
+            "thread_pool." + EXECUTE_THREAD_POOL,
+            false
+        );
+
+        return ImmutableList.<ExecutorBuilder<?>>of(trainThreadPool, predictThreadPool, executeThreadPool);
+    }
+
+    @Override
+    public List<Setting<?>> getSettings() {
+        return ImmutableList
+            .of(
+                MLCommonsSettings.ML_COMMONS_MAX_ML_TASK_PER_NODE,
+                MLCommonsSettings.ML_COMMONS_MAX_TRAINING_TASK_PER_NODE,
+                MLCommonsSettings.ML_COMMONS_MAX_PREDICTION_TASK_PER_NODE,
+                MLCommonsSettings.ML_COMMONS_MAX_EXECUTION_TASK_PER_NODE,
+                MLCommonsSettings.ML_COMMONS_PREDICT_QUEUE_SIZE,
+                MLCommonsSettings.ML_COMMONS_PREDICT_QUEUE_TIMEOUT,
+                MLCommonsSettings.ML_COMMONS_PREDICT_COALESCING_ENABLED,
+                MLCommonsSettings.ML_COMMONS_PREDICT_RESULT_CACHE_TTL,
+                MLCommonsSettings.ML_COMMONS_PREDICT_RESULT_CACHE_SIZE,
+                MLCommonsSettings.ML_COMMONS_PREDICT_BATCH_WINDOW,
+                MLCommonsSettings.ML_COMMONS_PREDICT_BATCH_SIZE,
+                MLCommonsSettings.ML_COMMONS_TASK_UPDATE_FLUSH_INTERVAL,
+                MLCommonsSettings.ML_COMMONS_TASK_INDEX_REFRESH_POLICY,
+                MLCommonsSettings.ML_COMMONS_NODE_LOAD_REFRESH_INTERVAL,
+                MLCommonsSettings.ML_COMMONS_NODE_LOAD_MAX_STALENESS,
+                MLCommonsSettings.ML_COMMONS_DISPATCH_FALLBACK_TO_DATA_NODE,
+                MLCommonsSettings.ML_COMMONS_DISPATCH_POLICY,
+                MLCommonsSettings.ML_COMMONS_DISPATCH_DATA_LOCALITY_ENABLED,
+                MLCommonsSettings.ML_COMMONS_DISTRIBUTED_TRAINING_ENABLED,
+                MLCommonsSettings.ML_COMMONS_TRAINING_CHECKPOINT_INTERVAL,
+                MLCommonsSettings.ML_COMMONS_TRAINING_CHECKPOINT_POINTS,
+                MLCommonsSettings.ML_COMMONS_DISTRIBUTED_TRAINING_DATA_CACHE_SIZE,
+                MLCommonsSettings.ML_COMMONS_MAX_DETECTOR_SESSIONS_PER_NODE,
+                MLCommonsSettings.ML_COMMONS_DETECTOR_SESSION_IDLE_TIMEOUT,
+                MLCommonsSettings.ML_COMMONS_DETECTOR_SESSION_SNAPSHOT_INTERVAL
+            );
+    }
 
-        return Collections.singletonList(ml);
+    @Override
+    public Set<DiscoveryNodeRole> getRoles() {
+        return ImmutableSet.of(ML_ROLE);
     }
 
     @Override
@@ -9,6 +9,7 @@ import static org.opensearch.common.xcontent.XContentParserUtils.ensureExpectedT
 import static org.opensearch.ml.plugin.MachineLearningPlugin.ML_BASE_URI;
 import static org.opensearch.ml.utils.RestActionUtils.PARAMETER_ALGORITHM;
 import static org.opensearch.ml.utils.RestActionUtils.getAlgorithm;
+import static org.opensearch.ml.utils.RestActionUtils.getTimeout;
 
 import java.io.IOException;
 import java.util.List;
@@ -67,6 +68,8 @@ public class RestMLExecuteAction extends BaseRestHandler {
         ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.nextToken(), parser);
         Input input = parser.namedObject(Input.class, algorithm, null);
 
-        return new MLExecuteTaskRequest(functionName, input);
+        MLExecuteTaskRequest mlExecuteTaskRequest = new MLExecuteTaskRequest(functionName, input);
+        mlExecuteTaskRequest.setTimeout(getTimeout(request));
+        return mlExecuteTaskRequest;
     }
 }
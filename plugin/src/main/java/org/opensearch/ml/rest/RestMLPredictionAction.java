@@ -11,6 +11,7 @@ import static org.opensearch.ml.utils.RestActionUtils.PARAMETER_ALGORITHM;
 import static org.opensearch.ml.utils.RestActionUtils.PARAMETER_MODEL_ID;
 import static org.opensearch.ml.utils.RestActionUtils.getAlgorithm;
 import static org.opensearch.ml.utils.RestActionUtils.getParameterId;
+import static org.opensearch.ml.utils.RestActionUtils.getTimeout;
 
 import java.io.IOException;
 import java.util.List;
@@ -73,6 +74,8 @@ public class RestMLPredictionAction extends BaseRestHandler {
         ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.nextToken(), parser);
         MLInput mlInput = MLInput.parse(parser, algorithm);
 
-        return new MLPredictionTaskRequest(modelId, mlInput);
+        MLPredictionTaskRequest mlPredictionTaskRequest = new MLPredictionTaskRequest(modelId, mlInput);
+        mlPredictionTaskRequest.setTimeout(getTimeout(request));
+        return mlPredictionTaskRequest;
     }
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.rest;
+
+import static org.opensearch.common.xcontent.XContentParserUtils.ensureExpectedToken;
+import static org.opensearch.ml.plugin.MachineLearningPlugin.ML_BASE_URI;
+import static org.opensearch.ml.utils.RestActionUtils.PARAMETER_ALGORITHM;
+import static org.opensearch.ml.utils.RestActionUtils.PARAMETER_MODEL_ID;
+import static org.opensearch.ml.utils.RestActionUtils.getAlgorithm;
+import static org.opensearch.ml.utils.RestActionUtils.getParameterId;
+import static org.opensearch.ml.utils.RestActionUtils.getTimeout;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+import org.opensearch.client.node.NodeClient;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.ml.common.input.MLInput;
+import org.opensearch.ml.common.transport.prediction.MLPredictionTaskRequest;
+import org.opensearch.ml.common.transport.prediction.MLStreamPredictionTaskAction;
+import org.opensearch.rest.BaseRestHandler;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.rest.action.RestToXContentListener;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Appends points to the detector session of a trained model and returns their results. Points of a model must
+ * be sent in time order, every point updates the model kept in memory.
+ */
+public class RestMLStreamPredictionAction extends BaseRestHandler {
+    private static final String ML_STREAM_PREDICTION_ACTION = "ml_stream_prediction_action";
+
+    /**
+     * Constructor
+     */
+    public RestMLStreamPredictionAction() {}
+
+    @Override
+    public String getName() {
+        return ML_STREAM_PREDICTION_ACTION;
+    }
+
+    @Override
+    public List<Route> routes() {
+        return ImmutableList
+            .of(
+                new Route(
+                    RestRequest.Method.POST,
+                    String.format(Locale.ROOT, "%s/_stream_predict/{%s}/{%s}", ML_BASE_URI, PARAMETER_ALGORITHM, PARAMETER_MODEL_ID)
+                )
+            );
+    }
+
+    @Override
+    public RestChannelConsumer prepareRequest(RestRequest request, NodeClient client) throws IOException {
+        MLPredictionTaskRequest mlPredictionTaskRequest = getRequest(request);
+        return channel -> client
+            .execute(MLStreamPredictionTaskAction.INSTANCE, mlPredictionTaskRequest, new RestToXContentListener<>(channel));
+    }
+
+    /**
+     * Creates a MLPredictionTaskRequest from a RestRequest
+     *
+     * @param request RestRequest
+     * @return MLPredictionTaskRequest
+     */
+    @VisibleForTesting
+    MLPredictionTaskRequest getRequest(RestRequest request) throws IOException {
+        String algorithm = getAlgorithm(request);
+        String modelId = getParameterId(request, PARAMETER_MODEL_ID);
+
+        XContentParser parser = request.contentParser();
+        ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.nextToken(), parser);
+        MLInput mlInput = MLInput.parse(parser, algorithm);
+
+        MLPredictionTaskRequest mlPredictionTaskRequest = new MLPredictionTaskRequest(modelId, mlInput);
+        mlPredictionTaskRequest.setTimeout(getTimeout(request));
+        return mlPredictionTaskRequest;
+    }
+}
@@ -9,6 +9,7 @@ import static org.opensearch.common.xcontent.XContentParserUtils.ensureExpectedT
 import static org.opensearch.ml.plugin.MachineLearningPlugin.ML_BASE_URI;
 import static org.opensearch.ml.utils.RestActionUtils.PARAMETER_ALGORITHM;
 import static org.opensearch.ml.utils.RestActionUtils.getAlgorithm;
+import static org.opensearch.ml.utils.RestActionUtils.getTimeout;
 import static org.opensearch.ml.utils.RestActionUtils.isAsync;
 
 import java.io.IOException;
@@ -67,6 +68,8 @@ public class RestMLTrainingAction extends BaseRestHandler {
         ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.nextToken(), parser);
         MLInput mlInput = MLInput.parse(parser, algorithm);
 
-        return new MLTrainingTaskRequest(mlInput, async);
+        MLTrainingTaskRequest mlTrainingTaskRequest = new MLTrainingTaskRequest(mlInput, async);
+        mlTrainingTaskRequest.setTimeout(getTimeout(request));
+        return mlTrainingTaskRequest;
     }
 }
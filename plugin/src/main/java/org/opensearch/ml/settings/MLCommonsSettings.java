@@ -0,0 +1,232 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.settings;
+
+import org.opensearch.action.support.WriteRequest;
+import org.opensearch.common.settings.Setting;
+import org.opensearch.common.unit.ByteSizeValue;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.ml.task.MLTaskDispatcher;
+
+/**
+ * Settings of ML commons plugin.
+ */
+public final class MLCommonsSettings {
+
+    private MLCommonsSettings() {}
+
+    /**
+     * Max number of ML tasks which can run on one node at the same time, regardless of task type.
+     */
+    public static final Setting<Integer> ML_COMMONS_MAX_ML_TASK_PER_NODE = Setting
+        .intSetting("plugins.ml_commons.max_ml_task_per_node", 10, 0, Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    /**
+     * Max number of training and train-and-predict tasks which can run on one node at the same time.
+     */
+    public static final Setting<Integer> ML_COMMONS_MAX_TRAINING_TASK_PER_NODE = Setting
+        .intSetting("plugins.ml_commons.max_training_task_per_node", 10, 0, Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    /**
+     * Max number of prediction tasks which can run on one node at the same time.
+     */
+    public static final Setting<Integer> ML_COMMONS_MAX_PREDICTION_TASK_PER_NODE = Setting
+        .intSetting("plugins.ml_commons.max_prediction_task_per_node", 10, 0, Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    /**
+     * Max number of execute tasks which can run on one node at the same time.
+     */
+    public static final Setting<Integer> ML_COMMONS_MAX_EXECUTION_TASK_PER_NODE = Setting
+        .intSetting("plugins.ml_commons.max_execution_task_per_node", 10, 0, Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    /**
+     * Max number of prediction tasks which can wait for a free slot when the node is saturated.
+     */
+    public static final Setting<Integer> ML_COMMONS_PREDICT_QUEUE_SIZE = Setting
+        .intSetting("plugins.ml_commons.predict_queue_size", 100, 0, Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    /**
+     * Max time a prediction task waits for a free slot before it's rejected. Zero disables waiting.
+     */
+    public static final Setting<TimeValue> ML_COMMONS_PREDICT_QUEUE_TIMEOUT = Setting
+        .positiveTimeSetting(
+            "plugins.ml_commons.predict_queue_timeout",
+            TimeValue.timeValueMillis(500),
+            Setting.Property.NodeScope,
+            Setting.Property.Dynamic
+        );
+
+    /**
+     * Whether concurrent identical predict requests share one execution.
+     */
+    public static final Setting<Boolean> ML_COMMONS_PREDICT_COALESCING_ENABLED = Setting
+        .boolSetting("plugins.ml_commons.predict_coalescing_enabled", true, Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    /**
+     * How long successful predict responses are cached for identical requests. Zero disables the cache.
+     */
+    public static final Setting<TimeValue> ML_COMMONS_PREDICT_RESULT_CACHE_TTL = Setting
+        .positiveTimeSetting(
+            "plugins.ml_commons.predict_result_cache_ttl",
+            TimeValue.ZERO,
+            Setting.Property.NodeScope,
+            Setting.Property.Dynamic
+        );
+
+    /**
+     * Max number of predict responses kept in the result cache.
+     */
+    public static final Setting<Integer> ML_COMMONS_PREDICT_RESULT_CACHE_SIZE = Setting
+        .intSetting("plugins.ml_commons.predict_result_cache_size", 100, 0, Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    /**
+     * Max time a predict request waits for other requests against the same model to be batched with. Zero disables
+     * micro-batching.
+     */
+    public static final Setting<TimeValue> ML_COMMONS_PREDICT_BATCH_WINDOW = Setting
+        .positiveTimeSetting(
+            "plugins.ml_commons.predict_batch_window",
+            TimeValue.ZERO,
+            Setting.Property.NodeScope,
+            Setting.Property.Dynamic
+        );
+
+    /**
+     * Max number of rows in one predict micro-batch.
+     */
+    public static final Setting<Integer> ML_COMMONS_PREDICT_BATCH_SIZE = Setting
+        .intSetting("plugins.ml_commons.predict_batch_size", 100, 1, Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    /**
+     * How long ML task updates are buffered before they are written to the ML task index with one bulk request.
+     * Zero writes them right away, still merging updates buffered while the previous bulk request is running.
+     */
+    public static final Setting<TimeValue> ML_COMMONS_TASK_UPDATE_FLUSH_INTERVAL = Setting
+        .positiveTimeSetting(
+            "plugins.ml_commons.task_update_flush_interval",
+            TimeValue.timeValueMillis(500),
+            Setting.Property.NodeScope,
+            Setting.Property.Dynamic
+        );
+
+    /**
+     * Refresh policy used when creating and updating ML tasks: "false", "true" or "wait_for".
+     * Getting a task by id doesn't need refresh, searching tasks does.
+     */
+    public static final Setting<WriteRequest.RefreshPolicy> ML_COMMONS_TASK_INDEX_REFRESH_POLICY = new Setting<>(
+        "plugins.ml_commons.task_index_refresh_policy",
+        WriteRequest.RefreshPolicy.NONE.getValue(),
+        WriteRequest.RefreshPolicy::parse,
+        Setting.Property.NodeScope,
+        Setting.Property.Dynamic
+    );
+
+    /**
+     * How often the dispatcher refreshes its cached view of ML node load while tasks are being dispatched.
+     * Zero reads node load from all nodes for every dispatched task.
+     */
+    public static final Setting<TimeValue> ML_COMMONS_NODE_LOAD_REFRESH_INTERVAL = Setting
+        .positiveTimeSetting(
+            "plugins.ml_commons.node_load_refresh_interval",
+            TimeValue.timeValueSeconds(1),
+            Setting.Property.NodeScope,
+            Setting.Property.Dynamic
+        );
+
+    /**
+     * Max age of the cached ML node load view. Dispatching waits for a refresh when the view is older.
+     */
+    public static final Setting<TimeValue> ML_COMMONS_NODE_LOAD_MAX_STALENESS = Setting
+        .positiveTimeSetting(
+            "plugins.ml_commons.node_load_max_staleness",
+            TimeValue.timeValueSeconds(10),
+            Setting.Property.NodeScope,
+            Setting.Property.Dynamic
+        );
+
+    /**
+     * ML tasks are dispatched to nodes with the ML role when the cluster has any. Without ML nodes, tasks are
+     * dispatched to data nodes if this is enabled, otherwise they are rejected.
+     */
+    public static final Setting<Boolean> ML_COMMONS_DISPATCH_FALLBACK_TO_DATA_NODE = Setting
+        .boolSetting("plugins.ml_commons.dispatch_fallback_to_data_node", true, Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    /**
+     * How the dispatcher picks a node among the nodes under the task and memory limits: "least_cost" picks the
+     * node with least outstanding task cost, "power_of_two_choices" picks the cheaper of two random nodes and
+     * "least_task" picks the node with least executing tasks.
+     */
+    public static final Setting<MLTaskDispatcher.DispatchPolicy> ML_COMMONS_DISPATCH_POLICY = new Setting<>(
+        "plugins.ml_commons.dispatch_policy",
+        MLTaskDispatcher.DispatchPolicy.LEAST_COST.getValue(),
+        MLTaskDispatcher.DispatchPolicy::from,
+        Setting.Property.NodeScope,
+        Setting.Property.Dynamic
+    );
+
+    /**
+     * Whether ML tasks reading a search query input prefer nodes holding shards of the source indices when
+     * node load is comparable.
+     */
+    public static final Setting<Boolean> ML_COMMONS_DISPATCH_DATA_LOCALITY_ENABLED = Setting
+        .boolSetting("plugins.ml_commons.dispatch_data_locality_enabled", true, Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    /**
+     * Whether search query input of algorithms supporting distributed training is trained on the nodes holding
+     * the data, instead of reading the data into one node.
+     */
+    public static final Setting<Boolean> ML_COMMONS_DISTRIBUTED_TRAINING_ENABLED = Setting
+        .boolSetting("plugins.ml_commons.distributed_training_enabled", false, Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    /**
+     * Number of iterations between checkpoints of async distributed training tasks, 0 disables checkpoints.
+     */
+    public static final Setting<Integer> ML_COMMONS_TRAINING_CHECKPOINT_INTERVAL = Setting
+        .intSetting("plugins.ml_commons.training_checkpoint_interval", 1, 0, Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    /**
+     * Number of trained points between checkpoints of async training tasks of algorithms training point by point,
+     * 0 disables checkpoints.
+     */
+    public static final Setting<Integer> ML_COMMONS_TRAINING_CHECKPOINT_POINTS = Setting
+        .intSetting("plugins.ml_commons.training_checkpoint_points", 10000, 0, Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    /**
+     * Max heap one node uses to keep the training data of its shards between distributed training iterations.
+     * Data which doesn't fit is read again in every iteration.
+     */
+    public static final Setting<ByteSizeValue> ML_COMMONS_DISTRIBUTED_TRAINING_DATA_CACHE_SIZE = Setting
+        .memorySizeSetting("plugins.ml_commons.distributed_training_data_cache_size", "10%", Setting.Property.NodeScope);
+
+    /**
+     * Max number of detector sessions one node keeps in memory. Points of a model without a session on its owner
+     * node are rejected once the limit is reached, until idle sessions are closed.
+     */
+    public static final Setting<Integer> ML_COMMONS_MAX_DETECTOR_SESSIONS_PER_NODE = Setting
+        .intSetting("plugins.ml_commons.max_detector_sessions_per_node", 100, 0, Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    /**
+     * Detector sessions which receive no point for this long are snapshotted and closed.
+     */
+    public static final Setting<TimeValue> ML_COMMONS_DETECTOR_SESSION_IDLE_TIMEOUT = Setting
+        .positiveTimeSetting(
+            "plugins.ml_commons.detector_session_idle_timeout",
+            TimeValue.timeValueMinutes(10),
+            Setting.Property.NodeScope,
+            Setting.Property.Dynamic
+        );
+
+    /**
+     * Interval of writing the state of detector sessions with new points back to the model index.
+     */
+    public static final Setting<TimeValue> ML_COMMONS_DETECTOR_SESSION_SNAPSHOT_INTERVAL = Setting
+        .positiveTimeSetting(
+            "plugins.ml_commons.detector_session_snapshot_interval",
+            TimeValue.timeValueMinutes(1),
+            Setting.Property.NodeScope,
+            Setting.Property.Dynamic
+        );
+}
@@ -8,5 +8,6 @@ package org.opensearch.ml.stats;
 public enum ActionName {
     TRAIN,
     PREDICT,
-    TRAIN_PREDICT;
+    TRAIN_PREDICT,
+    STREAM_PREDICT;
 }
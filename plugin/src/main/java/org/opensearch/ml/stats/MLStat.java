@@ -61,6 +61,17 @@ public class MLStat<T> {
         }
     }
 
+    /**
+     * Adds the given value to the supplier if it can be incremented
+     *
+     * @param value value to add
+     */
+    public void add(long value) {
+        if (supplier instanceof CounterSupplier) {
+            ((CounterSupplier) supplier).add(value);
+        }
+    }
+
     /**
      * Decrease the supplier if it can be decreased.
      */
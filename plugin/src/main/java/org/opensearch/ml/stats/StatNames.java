@@ -18,6 +18,13 @@ public class StatNames {
     public static String ML_TOTAL_FAILURE_COUNT = "ml_total_failure_count";
     public static String ML_TOTAL_MODEL_COUNT = "ml_total_model_count";
     public static String ML_TOTAL_CIRCUIT_BREAKER_TRIGGER_COUNT = "ml_total_circuit_breaker_trigger_count";
+    public static String ML_PREDICT_COALESCED_REQUEST_COUNT = "ml_predict_coalesced_request_count";
+    public static String ML_PREDICT_RESULT_CACHE_HIT_COUNT = "ml_predict_result_cache_hit_count";
+    public static String ML_PREDICT_BATCH_COUNT = "ml_predict_batch_count";
+    public static String ML_PREDICT_BATCHED_REQUEST_COUNT = "ml_predict_batched_request_count";
+    public static String ML_PREDICT_BATCHED_ROW_COUNT = "ml_predict_batched_row_count";
+    public static String ML_PREDICT_BATCH_QUEUE_DELAY_MILLIS = "ml_predict_batch_queue_delay_millis";
+    public static String ML_OUTSTANDING_TASK_COST = "ml_outstanding_task_cost";
 
     public static String requestCountStat(FunctionName functionName, ActionName actionName) {
         return String.format(Locale.ROOT, "ml_%s_%s_request_count", functionName, actionName).toLowerCase(Locale.ROOT);
@@ -31,6 +38,10 @@ public class StatNames {
         return String.format(Locale.ROOT, "ml_%s_%s_executing_request_count", functionName, actionName).toLowerCase(Locale.ROOT);
     }
 
+    public static String threadPoolStat(String threadPoolName, String metric) {
+        return String.format(Locale.ROOT, "%s_thread_pool_%s", threadPoolName, metric).toLowerCase(Locale.ROOT);
+    }
+
     public static String modelCountStat(FunctionName functionName) {
         return String.format(Locale.ROOT, "ml_%s_model_count", functionName).toLowerCase(Locale.ROOT);
     }
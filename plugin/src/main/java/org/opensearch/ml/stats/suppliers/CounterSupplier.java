@@ -33,6 +33,15 @@ public class CounterSupplier implements Supplier<Long> {
         counter.increment();
     }
 
+    /**
+     * Adds the given value to the counter
+     *
+     * @param value value to add
+     */
+    public void add(long value) {
+        counter.add(value);
+    }
+
     /**
      * Decrease the value of the counter by 1
      */
@@ -0,0 +1,44 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.stats.suppliers;
+
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.threadpool.ThreadPoolStats;
+
+/**
+ * Supplier which reads one metric of a thread pool from the node's thread pool stats.
+ */
+public class ThreadPoolStatSupplier implements Supplier<Long> {
+    private final ThreadPool threadPool;
+    private final String threadPoolName;
+    private final ToLongFunction<ThreadPoolStats.Stats> metric;
+
+    /**
+     * Constructor
+     *
+     * @param threadPool thread pool service
+     * @param threadPoolName name of the thread pool
+     * @param metric function to read the metric from thread pool stats
+     */
+    public ThreadPoolStatSupplier(ThreadPool threadPool, String threadPoolName, ToLongFunction<ThreadPoolStats.Stats> metric) {
+        this.threadPool = threadPool;
+        this.threadPoolName = threadPoolName;
+        this.metric = metric;
+    }
+
+    @Override
+    public Long get() {
+        for (ThreadPoolStats.Stats stats : threadPool.stats()) {
+            if (threadPoolName.equals(stats.getName())) {
+                return metric.applyAsLong(stats);
+            }
+        }
+        return 0L;
+    }
+}
@@ -0,0 +1,408 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import static org.opensearch.common.xcontent.XContentParserUtils.ensureExpectedToken;
+import static org.opensearch.ml.indices.MLIndicesHandler.ML_MODEL_INDEX;
+import static org.opensearch.ml.permission.AccessController.checkUserPermissions;
+import static org.opensearch.ml.permission.AccessController.getUserContext;
+import static org.opensearch.ml.plugin.MachineLearningPlugin.PREDICT_THREAD_POOL;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_DETECTOR_SESSION_IDLE_TIMEOUT;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_DETECTOR_SESSION_SNAPSHOT_INTERVAL;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_MAX_DETECTOR_SESSIONS_PER_NODE;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import lombok.extern.log4j.Log4j2;
+
+import org.opensearch.ExceptionsHelper;
+import org.opensearch.OpenSearchException;
+import org.opensearch.ResourceNotFoundException;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.update.UpdateRequest;
+import org.opensearch.action.update.UpdateResponse;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.ClusterSettings;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.common.xcontent.LoggingDeprecationHandler;
+import org.opensearch.common.xcontent.NamedXContentRegistry;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.commons.authuser.User;
+import org.opensearch.index.engine.DocumentMissingException;
+import org.opensearch.ml.common.FunctionName;
+import org.opensearch.ml.common.MLModel;
+import org.opensearch.ml.common.Model;
+import org.opensearch.ml.common.dataframe.DataFrame;
+import org.opensearch.ml.common.exception.MLLimitExceededException;
+import org.opensearch.ml.common.input.MLInput;
+import org.opensearch.ml.common.output.MLOutput;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.engine.MLEngine;
+import org.opensearch.ml.engine.StreamSession;
+import org.opensearch.threadpool.ThreadPool;
+
+/**
+ * MLDetectorSessionManager keeps the detector sessions of the models this node owns. A session is opened from the
+ * model index when the first points of its model arrive, with the algorithm parameters of that request, and every
+ * later point is scored and learned by the model kept in memory. Sessions with new points are written back to the
+ * model index periodically, and sessions without points for the idle timeout are snapshotted and closed.
+ */
+@Log4j2
+public class MLDetectorSessionManager {
+    private final Client client;
+    private final ThreadPool threadPool;
+    private final NamedXContentRegistry xContentRegistry;
+    private final LongSupplier nanoTimeSupplier;
+    private final Map<String, DetectorSession> sessions = new ConcurrentHashMap<>();
+
+    // guarded by this
+    private boolean maintenanceScheduled;
+
+    private volatile int maxSessions;
+    private volatile TimeValue idleTimeout;
+    private volatile TimeValue snapshotInterval;
+
+    public MLDetectorSessionManager(
+        Settings settings,
+        ClusterService clusterService,
+        Client client,
+        ThreadPool threadPool,
+        NamedXContentRegistry xContentRegistry
+    ) {
+        this(settings, clusterService, client, threadPool, xContentRegistry, System::nanoTime);
+    }
+
+    MLDetectorSessionManager(
+        Settings settings,
+        ClusterService clusterService,
+        Client client,
+        ThreadPool threadPool,
+        NamedXContentRegistry xContentRegistry,
+        LongSupplier nanoTimeSupplier
+    ) {
+        this.client = client;
+        this.threadPool = threadPool;
+        this.xContentRegistry = xContentRegistry;
+        this.nanoTimeSupplier = nanoTimeSupplier;
+
+        this.maxSessions = ML_COMMONS_MAX_DETECTOR_SESSIONS_PER_NODE.get(settings);
+        this.idleTimeout = ML_COMMONS_DETECTOR_SESSION_IDLE_TIMEOUT.get(settings);
+        this.snapshotInterval = ML_COMMONS_DETECTOR_SESSION_SNAPSHOT_INTERVAL.get(settings);
+        ClusterSettings clusterSettings = clusterService.getClusterSettings();
+        clusterSettings.addSettingsUpdateConsumer(ML_COMMONS_MAX_DETECTOR_SESSIONS_PER_NODE, it -> maxSessions = it);
+        clusterSettings.addSettingsUpdateConsumer(ML_COMMONS_DETECTOR_SESSION_IDLE_TIMEOUT, it -> idleTimeout = it);
+        clusterSettings.addSettingsUpdateConsumer(ML_COMMONS_DETECTOR_SESSION_SNAPSHOT_INTERVAL, it -> snapshotInterval = it);
+    }
+
+    /**
+     * Predict with the detector session of the model and update the session with the points. The session is
+     * opened from the model index if this node has none.
+     * @param modelId model id
+     * @param mlInput ML input of the points, its parameters are used if the session is opened
+     * @param dataFrame points in time order
+     * @param cancellationToken cancellation token of the request
+     * @param listener action listener
+     */
+    public void process(
+        String modelId,
+        MLInput mlInput,
+        DataFrame dataFrame,
+        CancellationToken cancellationToken,
+        ActionListener<MLOutput> listener
+    ) {
+        process(modelId, getUserContext(client), mlInput, dataFrame, cancellationToken, listener);
+    }
+
+    private void process(
+        String modelId,
+        User requestUser,
+        MLInput mlInput,
+        DataFrame dataFrame,
+        CancellationToken cancellationToken,
+        ActionListener<MLOutput> listener
+    ) {
+        // the limit is checked while creating the session, so a session which already exists is never rejected
+        DetectorSession detectorSession = sessions
+            .computeIfAbsent(modelId, id -> sessions.size() >= maxSessions ? null : new DetectorSession(id));
+        if (detectorSession == null) {
+            listener.onFailure(new MLLimitExceededException("Exceed max detector sessions per node: " + maxSessions));
+            return;
+        }
+        detectorSession.lastAccessTimeInNanos = nanoTimeSupplier.getAsLong();
+        boolean retry = false;
+        boolean load = false;
+        MLOutput output = null;
+        Exception failure = null;
+        synchronized (detectorSession) {
+            if (detectorSession.closed) {
+                // the session was closed after it was looked up, retry with a new session
+                retry = true;
+            } else if (detectorSession.session != null) {
+                // points of a session are processed in order
+                try {
+                    output = predict(detectorSession, requestUser, mlInput, dataFrame, cancellationToken);
+                } catch (Exception e) {
+                    failure = e;
+                }
+            } else {
+                if (detectorSession.pendingListeners == null) {
+                    detectorSession.pendingListeners = new ArrayList<>();
+                    load = true;
+                }
+                detectorSession.pendingListeners
+                    .add(
+                        ActionListener
+                            .wrap(
+                                opened -> process(modelId, requestUser, mlInput, dataFrame, cancellationToken, listener),
+                                e -> listener.onFailure(e)
+                            )
+                    );
+            }
+        }
+        if (failure != null) {
+            listener.onFailure(failure);
+        } else if (output != null) {
+            listener.onResponse(output);
+        } else if (retry) {
+            process(modelId, requestUser, mlInput, dataFrame, cancellationToken, listener);
+        } else if (load) {
+            loadSession(detectorSession, mlInput);
+        }
+    }
+
+    /**
+     * Must be called while holding the lock of the detector session.
+     */
+    private MLOutput predict(
+        DetectorSession detectorSession,
+        User requestUser,
+        MLInput mlInput,
+        DataFrame dataFrame,
+        CancellationToken cancellationToken
+    ) {
+        String modelId = detectorSession.modelId;
+        if (!checkUserPermissions(requestUser, detectorSession.modelUser, modelId)) {
+            // The backend roles of request user and resource user doesn't have intersection
+            throw new OpenSearchException(
+                "User: " + requestUser.getName() + " does not have permissions to run predict by model: " + modelId
+            );
+        }
+        if (detectorSession.algorithm != mlInput.getAlgorithm()) {
+            throw new IllegalArgumentException("Model " + modelId + " is not a " + mlInput.getAlgorithm() + " model");
+        }
+        cancellationToken.ensureNotCancelled();
+        MLOutput output = detectorSession.session.process(dataFrame, cancellationToken);
+        detectorSession.unsavedPoints += dataFrame.size();
+        return output;
+    }
+
+    private void loadSession(DetectorSession detectorSession, MLInput mlInput) {
+        String modelId = detectorSession.modelId;
+        try (ThreadContext.StoredContext context = client.threadPool().getThreadContext().stashContext()) {
+            ActionListener<MLModel> modelListener = ActionListener.wrap(mlModel -> {
+                // deserializing the model is too heavy for the transport thread
+                threadPool.executor(PREDICT_THREAD_POOL).execute(() -> openSession(detectorSession, mlInput, mlModel));
+            }, e -> failLoading(detectorSession, e));
+            client.get(new GetRequest(ML_MODEL_INDEX, modelId), ActionListener.runBefore(ActionListener.wrap(r -> {
+                if (r == null || !r.isExists()) {
+                    throw new ResourceNotFoundException("No model found, please check the modelId.");
+                }
+                try (
+                    XContentParser parser = XContentType.JSON
+                        .xContent()
+                        .createParser(xContentRegistry, LoggingDeprecationHandler.INSTANCE, r.getSourceAsString())
+                ) {
+                    ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.nextToken(), parser);
+                    modelListener.onResponse(MLModel.parse(parser));
+                }
+            }, modelListener::onFailure), () -> context.restore()));
+        } catch (Exception e) {
+            failLoading(detectorSession, e);
+        }
+    }
+
+    private void openSession(DetectorSession detectorSession, MLInput mlInput, MLModel mlModel) {
+        List<ActionListener<DetectorSession>> listeners;
+        try {
+            if (mlModel.getAlgorithm() != mlInput.getAlgorithm()) {
+                throw new IllegalArgumentException("Model " + detectorSession.modelId + " is not a " + mlInput.getAlgorithm() + " model");
+            }
+            Model model = new Model();
+            model.setName(mlModel.getName());
+            model.setVersion(mlModel.getVersion());
+            model.setContent(Base64.getDecoder().decode(mlModel.getContent()));
+            StreamSession session = MLEngine.openStreamSession(mlInput, model);
+            synchronized (detectorSession) {
+                detectorSession.session = session;
+                detectorSession.algorithm = mlModel.getAlgorithm();
+                detectorSession.modelUser = mlModel.getUser();
+                listeners = detectorSession.pendingListeners;
+                detectorSession.pendingListeners = null;
+            }
+        } catch (Exception e) {
+            failLoading(detectorSession, e);
+            return;
+        }
+        log.info("Opened detector session of model {}", detectorSession.modelId);
+        scheduleMaintenance();
+        for (ActionListener<DetectorSession> listener : listeners) {
+            listener.onResponse(detectorSession);
+        }
+    }
+
+    private void failLoading(DetectorSession detectorSession, Exception e) {
+        log.error("Failed to open detector session of model " + detectorSession.modelId, e);
+        sessions.remove(detectorSession.modelId, detectorSession);
+        List<ActionListener<DetectorSession>> listeners;
+        synchronized (detectorSession) {
+            listeners = detectorSession.pendingListeners;
+            detectorSession.pendingListeners = null;
+        }
+        if (listeners != null) {
+            for (ActionListener<DetectorSession> listener : listeners) {
+                listener.onFailure(e);
+            }
+        }
+    }
+
+    private void scheduleMaintenance() {
+        synchronized (this) {
+            if (maintenanceScheduled) {
+                return;
+            }
+            maintenanceScheduled = true;
+        }
+        threadPool.schedule(this::maintain, snapshotInterval, ThreadPool.Names.GENERIC);
+    }
+
+    /**
+     * Snapshot sessions with new points and close idle sessions. Runs every snapshot interval while this node
+     * has sessions.
+     */
+    void maintain() {
+        try {
+            long now = nanoTimeSupplier.getAsLong();
+            for (DetectorSession detectorSession : sessions.values()) {
+                if (now - detectorSession.lastAccessTimeInNanos > idleTimeout.nanos()) {
+                    close(detectorSession);
+                } else {
+                    snapshot(detectorSession);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to maintain detector sessions", e);
+        } finally {
+            synchronized (this) {
+                maintenanceScheduled = false;
+            }
+            if (!sessions.isEmpty()) {
+                scheduleMaintenance();
+            }
+        }
+    }
+
+    private void snapshot(DetectorSession detectorSession) {
+        Model model;
+        long points;
+        synchronized (detectorSession) {
+            if (detectorSession.closed || detectorSession.session == null || detectorSession.unsavedPoints == 0) {
+                return;
+            }
+            model = detectorSession.session.toModel();
+            points = detectorSession.unsavedPoints;
+            detectorSession.unsavedPoints = 0;
+        }
+        saveSnapshot(detectorSession, model, ActionListener.wrap(r -> {}, e -> {
+            synchronized (detectorSession) {
+                // snapshot again at the next interval
+                detectorSession.unsavedPoints += points;
+            }
+        }));
+    }
+
+    private void close(DetectorSession detectorSession) {
+        Model model = null;
+        synchronized (detectorSession) {
+            if (detectorSession.session == null) {
+                // still opening
+                return;
+            }
+            sessions.remove(detectorSession.modelId, detectorSession);
+            detectorSession.closed = true;
+            if (detectorSession.unsavedPoints > 0) {
+                model = detectorSession.session.toModel();
+            }
+            detectorSession.session = null;
+        }
+        log.info("Closed idle detector session of model {}", detectorSession.modelId);
+        if (model != null) {
+            saveSnapshot(detectorSession, model, ActionListener.wrap(r -> {}, e -> {}));
+        }
+    }
+
+    private void saveSnapshot(DetectorSession detectorSession, Model model, ActionListener<UpdateResponse> listener) {
+        String modelId = detectorSession.modelId;
+        Map<String, Object> updatedFields = new HashMap<>();
+        updatedFields.put(MLModel.MODEL_CONTENT, Base64.getEncoder().encodeToString(model.getContent()));
+        UpdateRequest updateRequest = new UpdateRequest(ML_MODEL_INDEX, modelId).doc(updatedFields);
+        try (ThreadContext.StoredContext context = client.threadPool().getThreadContext().stashContext()) {
+            client.update(updateRequest, ActionListener.runBefore(ActionListener.wrap(r -> {
+                log.debug("Saved snapshot of detector session of model {}", modelId);
+                listener.onResponse(r);
+            }, e -> {
+                if (ExceptionsHelper.unwrapCause(e) instanceof DocumentMissingException) {
+                    // the model was deleted, stop keeping its session
+                    log.info("Model {} was deleted, close its detector session", modelId);
+                    synchronized (detectorSession) {
+                        sessions.remove(modelId, detectorSession);
+                        detectorSession.closed = true;
+                        detectorSession.session = null;
+                    }
+                } else {
+                    log.error("Failed to save snapshot of detector session of model " + modelId, e);
+                }
+                listener.onFailure(e);
+            }), () -> context.restore()));
+        }
+    }
+
+    /**
+     * Number of detector sessions on this node, including sessions being opened.
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Detector session of a model, guarded by itself. A session is being opened while it has pending listeners,
+     * and is closed once it's removed from the sessions of this node.
+     */
+    private static class DetectorSession {
+        private final String modelId;
+        private StreamSession session;
+        private FunctionName algorithm;
+        private User modelUser;
+        private List<ActionListener<DetectorSession>> pendingListeners;
+        private volatile boolean closed;
+        private long unsavedPoints;
+        private volatile long lastAccessTimeInNanos;
+
+        DetectorSession(String modelId) {
+            this.modelId = modelId;
+        }
+    }
+}
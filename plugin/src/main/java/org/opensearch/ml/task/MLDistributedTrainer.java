@@ -0,0 +1,571 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import static org.opensearch.ml.plugin.MachineLearningPlugin.TRAIN_THREAD_POOL;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_DISTRIBUTED_TRAINING_DATA_CACHE_SIZE;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_DISTRIBUTED_TRAINING_ENABLED;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_TRAINING_CHECKPOINT_INTERVAL;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import lombok.extern.log4j.Log4j2;
+
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.ActionRunnable;
+import org.opensearch.action.index.IndexResponse;
+import org.opensearch.action.search.ClearScrollRequest;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.search.SearchScrollRequest;
+import org.opensearch.action.support.ThreadedActionListener;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.ClusterState;
+import org.opensearch.cluster.routing.IndexRoutingTable;
+import org.opensearch.cluster.routing.IndexShardRoutingTable;
+import org.opensearch.cluster.routing.ShardRouting;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.cache.Cache;
+import org.opensearch.common.cache.CacheBuilder;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.ByteSizeValue;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.index.shard.ShardId;
+import org.opensearch.ml.action.training.MLPartialStatsNodeResponse;
+import org.opensearch.ml.action.training.MLPartialStatsNodesAction;
+import org.opensearch.ml.action.training.MLPartialStatsNodesRequest;
+import org.opensearch.ml.action.training.MLPartialStatsNodesResponse;
+import org.opensearch.ml.common.Model;
+import org.opensearch.ml.common.breaker.MLCircuitBreakerService;
+import org.opensearch.ml.common.dataframe.DataFrame;
+import org.opensearch.ml.common.dataframe.DataFrameBuilder;
+import org.opensearch.ml.common.dataset.MLInputDataType;
+import org.opensearch.ml.common.dataset.SearchQueryInputDataset;
+import org.opensearch.ml.common.exception.MLException;
+import org.opensearch.ml.common.exception.MLLimitExceededException;
+import org.opensearch.ml.common.input.MLInput;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.engine.DistributedTrainable;
+import org.opensearch.ml.engine.MLEngine;
+import org.opensearch.ml.indices.MLInputDatasetHandler;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.threadpool.ThreadPool;
+
+/**
+ * MLDistributedTrainer trains models on the nodes holding the training data instead of reading all data into
+ * one node. One started copy of every shard of the input indices is assigned to the node holding it. In each
+ * iteration, every node computes partial statistics of the data in its assigned shards, and the coordinating
+ * node sums them up and updates the model state.
+ *
+ * Distributed training reads all documents matching the search query, the size of the search query only limits
+ * the sample used to initialize the model state. Nodes read the data of their shards with async scroll requests
+ * and keep it in a cache bounded by size between iterations. The data is dropped after the last iteration, once
+ * training fails or is cancelled, or once it's not accessed for a while. Reading fails if the data doesn't fit
+ * under the ML memory circuit breaker.
+ *
+ * Async training tasks checkpoint the model state to the checkpoint index every few iterations, so that
+ * training can be resumed on another node if the coordinating node leaves the cluster.
+ */
+@Log4j2
+public class MLDistributedTrainer {
+    static final int SCROLL_SIZE = 1000;
+    static final TimeValue SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(1);
+    static final TimeValue LOCAL_DATA_EXPIRE_AFTER_ACCESS = TimeValue.timeValueMinutes(10);
+    // rough heap used by one parsed document and by each of its values
+    static final long ROW_OVERHEAD_BYTES = 64;
+    static final long VALUE_BYTES = 32;
+
+    private final ClusterService clusterService;
+    private final Client client;
+    private final ThreadPool threadPool;
+    private final MLInputDatasetHandler mlInputDatasetHandler;
+    private final MLCircuitBreakerService mlCircuitBreakerService;
+    private final MLTrainingCheckpointManager mlTrainingCheckpointManager;
+    // training data of the local shards, by task id and shards
+    private final Cache<String, DataFrame> localData;
+    private final long localDataCacheSize;
+
+    private volatile boolean enabled;
+    private volatile int checkpointInterval;
+
+    public MLDistributedTrainer(
+        Settings settings,
+        ClusterService clusterService,
+        Client client,
+        ThreadPool threadPool,
+        MLInputDatasetHandler mlInputDatasetHandler,
+        MLCircuitBreakerService mlCircuitBreakerService,
+        MLTrainingCheckpointManager mlTrainingCheckpointManager
+    ) {
+        this.clusterService = clusterService;
+        this.client = client;
+        this.threadPool = threadPool;
+        this.mlInputDatasetHandler = mlInputDatasetHandler;
+        this.mlCircuitBreakerService = mlCircuitBreakerService;
+        this.mlTrainingCheckpointManager = mlTrainingCheckpointManager;
+        this.localDataCacheSize = ML_COMMONS_DISTRIBUTED_TRAINING_DATA_CACHE_SIZE.get(settings).getBytes();
+        this.localData = CacheBuilder
+            .<String, DataFrame>builder()
+            .setMaximumWeight(localDataCacheSize)
+            .weigher((key, dataFrame) -> estimateDataBytes(dataFrame.size(), dataFrame.columnMetas().length))
+            .setExpireAfterAccess(LOCAL_DATA_EXPIRE_AFTER_ACCESS)
+            .build();
+        this.enabled = ML_COMMONS_DISTRIBUTED_TRAINING_ENABLED.get(settings);
+        this.checkpointInterval = ML_COMMONS_TRAINING_CHECKPOINT_INTERVAL.get(settings);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(ML_COMMONS_DISTRIBUTED_TRAINING_ENABLED, it -> enabled = it);
+        clusterService
+            .getClusterSettings()
+            .addSettingsUpdateConsumer(ML_COMMONS_TRAINING_CHECKPOINT_INTERVAL, it -> checkpointInterval = it);
+    }
+
+    /**
+     * Check if the ML input should be trained with distributed training. Only search query input of
+     * algorithms supporting distributed training is trained distributed.
+     * @param mlInput ML input
+     * @return true if distributed training is enabled and supported for the input
+     */
+    public boolean canTrain(MLInput mlInput) {
+        return enabled
+            && mlInput.getInputDataset().getInputDataType() == MLInputDataType.SEARCH_QUERY
+            && MLEngine.getDistributedTrainable(mlInput.getAlgorithm(), mlInput.getParameters()) != null;
+    }
+
+    /**
+     * Train model with the data of all shards of the input indices.
+     * @param taskId ML task id
+     * @param mlInput ML input with search query input data
+     * @param checkpoint whether to checkpoint the model state, so that training can be resumed by another node
+     * @param cancellationToken cancellation token
+     * @param listener notified with the trained model
+     */
+    public void train(
+        String taskId,
+        MLInput mlInput,
+        boolean checkpoint,
+        CancellationToken cancellationToken,
+        ActionListener<Model> listener
+    ) {
+        try {
+            DistributedTrainable trainable = getDistributedTrainable(mlInput);
+            SearchQueryInputDataset inputDataset = (SearchQueryInputDataset) mlInput.getInputDataset();
+            Map<String, List<ShardId>> shardAssignment = assignShards(clusterService.state(), inputDataset.getIndices());
+            if (shardAssignment.isEmpty()) {
+                throw new IllegalArgumentException("No shard found for indices " + inputDataset.getIndices());
+            }
+            ActionListener<DataFrame> sampleListener = ActionListener.wrap(sample -> {
+                String[] featureNames = trainable.getFeatureNames(sample);
+                double[] state = trainable.initState(sample, featureNames);
+                DistributedTraining training = new DistributedTraining(
+                    taskId,
+                    mlInput,
+                    trainable,
+                    shardAssignment,
+                    featureNames,
+                    checkpoint,
+                    cancellationToken,
+                    listener
+                );
+                try {
+                    runIteration(training, 0, state);
+                } catch (Exception e) {
+                    fail(training, e);
+                }
+            }, listener::onFailure);
+            mlInputDatasetHandler
+                .parseSearchQueryInput(
+                    inputDataset,
+                    new ThreadedActionListener<>(log, threadPool, TRAIN_THREAD_POOL, sampleListener, false)
+                );
+        } catch (Exception e) {
+            listener.onFailure(e);
+        }
+    }
+
+    /**
+     * Resume training from a checkpoint. Shards are assigned again, as the nodes may have changed since the
+     * checkpoint was written.
+     * @param checkpoint training checkpoint
+     * @param cancellationToken cancellation token
+     * @param listener notified with the trained model
+     */
+    public void resume(MLTrainingCheckpoint checkpoint, CancellationToken cancellationToken, ActionListener<Model> listener) {
+        try {
+            MLInput mlInput = checkpoint.getMlInput();
+            DistributedTrainable trainable = getDistributedTrainable(mlInput);
+            SearchQueryInputDataset inputDataset = (SearchQueryInputDataset) mlInput.getInputDataset();
+            Map<String, List<ShardId>> shardAssignment = assignShards(clusterService.state(), inputDataset.getIndices());
+            if (shardAssignment.isEmpty()) {
+                throw new IllegalArgumentException("No shard found for indices " + inputDataset.getIndices());
+            }
+            DistributedTraining training = new DistributedTraining(
+                checkpoint.getTaskId(),
+                mlInput,
+                trainable,
+                shardAssignment,
+                checkpoint.getFeatureNames(),
+                true,
+                cancellationToken,
+                listener
+            );
+            log.info("Resume distributed training task {} from iteration {}", checkpoint.getTaskId(), checkpoint.getIteration());
+            threadPool
+                .executor(TRAIN_THREAD_POOL)
+                .execute(
+                    ActionRunnable
+                        .wrap(
+                            ActionListener.wrap(listener::onResponse, e -> fail(training, e)),
+                            l -> runIteration(training, checkpoint.getIteration(), checkpoint.getState())
+                        )
+                );
+        } catch (Exception e) {
+            listener.onFailure(e);
+        }
+    }
+
+    private DistributedTrainable getDistributedTrainable(MLInput mlInput) {
+        DistributedTrainable trainable = MLEngine.getDistributedTrainable(mlInput.getAlgorithm(), mlInput.getParameters());
+        if (trainable == null) {
+            throw new IllegalArgumentException("Distributed training is not supported for " + mlInput.getAlgorithm());
+        }
+        return trainable;
+    }
+
+    private void runIteration(DistributedTraining training, int iteration, double[] state) {
+        training.cancellationToken.ensureNotCancelled();
+        boolean lastIteration = iteration + 1 >= training.trainable.getIterations();
+        MLPartialStatsNodesRequest request = new MLPartialStatsNodesRequest(
+            training.taskId,
+            training.mlInput,
+            training.shardAssignment,
+            training.featureNames,
+            state,
+            lastIteration
+        );
+        ActionListener<MLPartialStatsNodesResponse> responseListener = ActionListener.wrap(response -> {
+            if (response.hasFailures()) {
+                throw response.failures().get(0);
+            }
+            double[] stats = sumStats(response.getNodes());
+            double[] nextState = training.trainable.updateState(state, stats);
+            log.debug("Finished iteration {} of distributed training task {}", iteration, training.taskId);
+            if (lastIteration) {
+                training.listener.onResponse(training.trainable.buildModel(training.featureNames, nextState));
+            } else if (training.checkpoint && checkpointInterval > 0 && (iteration + 1) % checkpointInterval == 0) {
+                MLTrainingCheckpoint checkpoint = new MLTrainingCheckpoint(
+                    training.taskId,
+                    training.mlInput,
+                    iteration + 1,
+                    training.featureNames,
+                    nextState
+                );
+                // a failed checkpoint only loses progress if the node leaves later, keep training
+                ActionListener<IndexResponse> checkpointListener = ActionListener
+                    .wrap(
+                        r -> log.debug("Checkpointed distributed training task {} at iteration {}", training.taskId, iteration + 1),
+                        e -> log.warn("Failed to checkpoint distributed training task " + training.taskId, e)
+                    );
+                mlTrainingCheckpointManager.writeCheckpoint(checkpoint, ActionListener.runAfter(checkpointListener, () -> {
+                    try {
+                        runIteration(training, iteration + 1, nextState);
+                    } catch (Exception e) {
+                        fail(training, e);
+                    }
+                }));
+            } else {
+                runIteration(training, iteration + 1, nextState);
+            }
+        }, e -> fail(training, e));
+        training.statsRequested = true;
+        client
+            .execute(
+                MLPartialStatsNodesAction.INSTANCE,
+                request,
+                new ThreadedActionListener<>(log, threadPool, TRAIN_THREAD_POOL, responseListener, false)
+            );
+    }
+
+    /**
+     * Fail training. Nodes which already read the training data of the task release it, instead of keeping it
+     * until it expires.
+     */
+    private void fail(DistributedTraining training, Exception e) {
+        if (training.statsRequested) {
+            MLPartialStatsNodesRequest releaseRequest = new MLPartialStatsNodesRequest(
+                training.taskId,
+                training.mlInput,
+                training.shardAssignment,
+                training.featureNames,
+                new double[0],
+                false,
+                true
+            );
+            ActionListener<MLPartialStatsNodesResponse> releaseListener = ActionListener
+                .wrap(
+                    r -> log.debug("Released training data of distributed training task {}", training.taskId),
+                    ex -> log.warn("Failed to release training data of distributed training task " + training.taskId, ex)
+                );
+            try {
+                client.execute(MLPartialStatsNodesAction.INSTANCE, releaseRequest, releaseListener);
+            } catch (Exception ex) {
+                releaseListener.onFailure(ex);
+            }
+        }
+        training.listener.onFailure(e);
+    }
+
+    static double[] sumStats(List<MLPartialStatsNodeResponse> responses) {
+        double[] sum = null;
+        for (MLPartialStatsNodeResponse response : responses) {
+            double[] stats = response.getStats();
+            if (stats.length == 0) {
+                continue;
+            }
+            if (sum == null) {
+                sum = stats.clone();
+            } else {
+                for (int i = 0; i < sum.length; i++) {
+                    sum[i] += stats[i];
+                }
+            }
+        }
+        if (sum == null) {
+            throw new IllegalArgumentException("No document found");
+        }
+        return sum;
+    }
+
+    /**
+     * Compute partial statistics of the data in the shards assigned to the local node. The data is read once and
+     * cached for the next iterations if it fits into the cache. Release requests only drop the cached data.
+     * @param request partial statistics request
+     * @param listener notified with partial statistics, empty if the local node has no training data
+     */
+    public void computePartialStats(MLPartialStatsNodesRequest request, ActionListener<double[]> listener) {
+        try {
+            List<ShardId> shardIds = request.getShardAssignment().get(clusterService.localNode().getId());
+            if (shardIds == null || shardIds.isEmpty()) {
+                listener.onResponse(new double[0]);
+                return;
+            }
+            // a resumed task may assign different shards to this node
+            String cacheKey = request.getTaskId() + shardIds;
+            if (request.isRelease()) {
+                localData.invalidate(cacheKey);
+                listener.onResponse(new double[0]);
+                return;
+            }
+            MLInput mlInput = request.getMlInput();
+            DistributedTrainable trainable = getDistributedTrainable(mlInput);
+            // the training fails with this iteration, so the data is released on failure too
+            ActionListener<DataFrame> dataListener = ActionListener.wrap(dataFrame -> {
+                if (dataFrame == null) {
+                    listener.onResponse(new double[0]);
+                    return;
+                }
+                double[] stats = trainable.computePartialStats(dataFrame, request.getFeatureNames(), request.getState());
+                if (request.isLastIteration()) {
+                    localData.invalidate(cacheKey);
+                }
+                listener.onResponse(stats);
+            }, e -> {
+                localData.invalidate(cacheKey);
+                listener.onFailure(e);
+            });
+            DataFrame dataFrame = localData.get(cacheKey);
+            if (dataFrame != null) {
+                dataListener.onResponse(dataFrame);
+                return;
+            }
+            readLocalShards((SearchQueryInputDataset) mlInput.getInputDataset(), shardIds, ActionListener.wrap(data -> {
+                if (data != null && !request.isLastIteration()) {
+                    cacheLocalData(request.getTaskId(), cacheKey, data);
+                }
+                dataListener.onResponse(data);
+            }, dataListener::onFailure));
+        } catch (Exception e) {
+            listener.onFailure(e);
+        }
+    }
+
+    private void cacheLocalData(String taskId, String cacheKey, DataFrame dataFrame) {
+        long dataBytes = estimateDataBytes(dataFrame.size(), dataFrame.columnMetas().length);
+        if (dataBytes > localDataCacheSize) {
+            log
+                .warn(
+                    "Training data of task {} needs about {}, more than the cache size {}, it's read again in every iteration",
+                    taskId,
+                    new ByteSizeValue(dataBytes),
+                    new ByteSizeValue(localDataCacheSize)
+                );
+            return;
+        }
+        localData.put(cacheKey, dataFrame);
+    }
+
+    static long estimateDataBytes(long rows, int columns) {
+        return rows * (ROW_OVERHEAD_BYTES + columns * VALUE_BYTES);
+    }
+
+    /**
+     * Read all documents matching the search query from the local copies of the given shards, one index after
+     * another.
+     * @param listener notified with the data frame, or null if no document found
+     */
+    private void readLocalShards(SearchQueryInputDataset inputDataset, List<ShardId> shardIds, ActionListener<DataFrame> listener) {
+        Map<String, List<Integer>> shardsByIndex = shardIds
+            .stream()
+            .collect(Collectors.groupingBy(ShardId::getIndexName, Collectors.mapping(ShardId::id, Collectors.toList())));
+        readLocalShards(inputDataset, shardsByIndex.entrySet().iterator(), new ArrayList<>(), listener);
+    }
+
+    private void readLocalShards(
+        SearchQueryInputDataset inputDataset,
+        Iterator<Map.Entry<String, List<Integer>>> shardsByIndex,
+        List<Map<String, Object>> rows,
+        ActionListener<DataFrame> listener
+    ) {
+        if (!shardsByIndex.hasNext()) {
+            listener.onResponse(rows.isEmpty() ? null : DataFrameBuilder.load(rows));
+            return;
+        }
+        Map.Entry<String, List<Integer>> entry = shardsByIndex.next();
+        SearchSourceBuilder searchSourceBuilder = inputDataset.getSearchSourceBuilder().shallowCopy().from(0).size(SCROLL_SIZE);
+        String shards = entry.getValue().stream().map(String::valueOf).collect(Collectors.joining(","));
+        SearchRequest searchRequest = new SearchRequest(entry.getKey())
+            .source(searchSourceBuilder)
+            .scroll(SCROLL_KEEP_ALIVE)
+            .preference("_shards:" + shards + "|_only_local");
+        ActionListener<Void> indexListener = ActionListener
+            .wrap(r -> readLocalShards(inputDataset, shardsByIndex, rows, listener), listener::onFailure);
+        client.search(searchRequest, scrollListener(rows, indexListener));
+    }
+
+    /**
+     * Add every page of a scroll to the rows. Pages are parsed on the training thread pool, not on the transport
+     * thread which received them.
+     */
+    private ActionListener<SearchResponse> scrollListener(List<Map<String, Object>> rows, ActionListener<Void> listener) {
+        ActionListener<SearchResponse> pageListener = ActionListener.wrap(response -> {
+            String scrollId = response.getScrollId();
+            SearchHit[] searchHits = response.getHits() == null ? new SearchHit[0] : response.getHits().getHits();
+            try {
+                checkMemory(searchHits);
+                for (SearchHit hit : searchHits) {
+                    rows.add(hit.getSourceAsMap());
+                }
+            } catch (Exception e) {
+                clearScroll(scrollId);
+                listener.onFailure(e);
+                return;
+            }
+            if (searchHits.length > 0 && scrollId != null) {
+                client.searchScroll(new SearchScrollRequest(scrollId).scroll(SCROLL_KEEP_ALIVE), scrollListener(rows, listener));
+                return;
+            }
+            clearScroll(scrollId);
+            listener.onResponse(null);
+        }, listener::onFailure);
+        return new ThreadedActionListener<>(log, threadPool, TRAIN_THREAD_POOL, pageListener, false);
+    }
+
+    /**
+     * Check that a page of documents fits under the ML memory circuit breaker. Pages read before are already
+     * part of the used heap.
+     */
+    private void checkMemory(SearchHit[] searchHits) {
+        if (searchHits.length == 0) {
+            return;
+        }
+        Map<String, Object> source = searchHits[0].getSourceAsMap();
+        long pageBytes = estimateDataBytes(searchHits.length, source == null ? 0 : source.size());
+        long availableMemory = mlCircuitBreakerService.getAvailableMemoryInBytes();
+        if (pageBytes > availableMemory) {
+            throw new MLLimitExceededException(
+                "Training data of the local shards needs about "
+                    + new ByteSizeValue(pageBytes)
+                    + " of memory for the next page, but only "
+                    + new ByteSizeValue(availableMemory)
+                    + " is available under the ML memory circuit breaker"
+            );
+        }
+    }
+
+    private void clearScroll(String scrollId) {
+        if (scrollId == null) {
+            return;
+        }
+        ClearScrollRequest clearScrollRequest = new ClearScrollRequest();
+        clearScrollRequest.addScrollId(scrollId);
+        client.clearScroll(clearScrollRequest, ActionListener.wrap(r -> {}, e -> log.warn("Failed to clear scroll", e)));
+    }
+
+    /**
+     * Assign one started copy of each shard of the indices to the node holding it, preferring primary shards.
+     * @param state cluster state
+     * @param indices index names, aliases or wildcard patterns
+     * @return node id to assigned shards
+     */
+    static Map<String, List<ShardId>> assignShards(ClusterState state, List<String> indices) {
+        Map<String, List<ShardId>> shardAssignment = new HashMap<>();
+        for (String index : MLTaskDispatcher.concreteIndices(state, indices)) {
+            IndexRoutingTable indexRoutingTable = state.routingTable().index(index);
+            if (indexRoutingTable == null) {
+                continue;
+            }
+            for (IndexShardRoutingTable shardRoutingTable : indexRoutingTable) {
+                ShardRouting shardRouting = shardRoutingTable.primaryShard();
+                if (shardRouting == null || !shardRouting.started()) {
+                    shardRouting = shardRoutingTable.activeShards().stream().filter(ShardRouting::started).findFirst().orElse(null);
+                }
+                // training on part of the data would silently produce a different model
+                if (shardRouting == null) {
+                    throw new MLException("No started copy of shard " + shardRoutingTable.shardId());
+                }
+                shardAssignment.computeIfAbsent(shardRouting.currentNodeId(), it -> new ArrayList<>()).add(shardRouting.shardId());
+            }
+        }
+        return shardAssignment;
+    }
+
+    private static class DistributedTraining {
+        private final String taskId;
+        private final MLInput mlInput;
+        private final DistributedTrainable trainable;
+        private final Map<String, List<ShardId>> shardAssignment;
+        private final String[] featureNames;
+        private final boolean checkpoint;
+        private final CancellationToken cancellationToken;
+        private final ActionListener<Model> listener;
+        // nodes may cache the training data once statistics are requested
+        private volatile boolean statsRequested;
+
+        DistributedTraining(
+            String taskId,
+            MLInput mlInput,
+            DistributedTrainable trainable,
+            Map<String, List<ShardId>> shardAssignment,
+            String[] featureNames,
+            boolean checkpoint,
+            CancellationToken cancellationToken,
+            ActionListener<Model> listener
+        ) {
+            this.taskId = taskId;
+            this.mlInput = mlInput;
+            this.trainable = trainable;
+            this.shardAssignment = shardAssignment;
+            this.featureNames = featureNames;
+            this.checkpoint = checkpoint;
+            this.cancellationToken = cancellationToken;
+            this.listener = listener;
+        }
+    }
+}
@@ -5,7 +5,7 @@
 
 package org.opensearch.ml.task;
 
-import static org.opensearch.ml.plugin.MachineLearningPlugin.TASK_THREAD_POOL;
+import static org.opensearch.ml.plugin.MachineLearningPlugin.EXECUTE_THREAD_POOL;
 
 import lombok.extern.log4j.Log4j2;
 
@@ -14,12 +14,13 @@ import org.opensearch.action.ActionListenerResponseHandler;
 import org.opensearch.client.Client;
 import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.ml.common.FunctionName;
+import org.opensearch.ml.common.MLTaskType;
 import org.opensearch.ml.common.breaker.MLCircuitBreakerService;
 import org.opensearch.ml.common.input.Input;
-import org.opensearch.ml.common.output.Output;
 import org.opensearch.ml.common.transport.execute.MLExecuteTaskAction;
 import org.opensearch.ml.common.transport.execute.MLExecuteTaskRequest;
 import org.opensearch.ml.common.transport.execute.MLExecuteTaskResponse;
+import org.opensearch.ml.engine.CancellationToken;
 import org.opensearch.ml.engine.MLEngine;
 import org.opensearch.ml.indices.MLInputDatasetHandler;
 import org.opensearch.ml.stats.MLStats;
@@ -44,9 +45,10 @@ public class MLExecuteTaskRunner extends MLTaskRunner<MLExecuteTaskRequest, MLEx
         MLStats mlStats,
         MLInputDatasetHandler mlInputDatasetHandler,
         MLTaskDispatcher mlTaskDispatcher,
-        MLCircuitBreakerService mlCircuitBreakerService
+        MLCircuitBreakerService mlCircuitBreakerService,
+        MLTaskAdmissionController mlTaskAdmissionController
     ) {
-        super(mlTaskManager, mlStats, mlTaskDispatcher, mlCircuitBreakerService, clusterService);
+        super(mlTaskManager, mlStats, mlTaskDispatcher, mlCircuitBreakerService, mlTaskAdmissionController, clusterService);
         this.threadPool = threadPool;
         this.clusterService = clusterService;
         this.client = client;
@@ -66,17 +68,41 @@ public class MLExecuteTaskRunner extends MLTaskRunner<MLExecuteTaskRequest, MLEx
     /**
      * Execute algorithm and return result.
      * @param request MLExecuteTaskRequest
+     * @param cancellationToken cancellation token
      * @param listener Action listener
      */
     @Override
-    protected void executeTask(MLExecuteTaskRequest request, ActionListener<MLExecuteTaskResponse> listener) {
-        threadPool.executor(TASK_THREAD_POOL).execute(() -> {
+    protected void executeTask(
+        MLExecuteTaskRequest request,
+        CancellationToken cancellationToken,
+        ActionListener<MLExecuteTaskResponse> listener
+    ) {
+        admitTask(
+            MLTaskType.EXECUTION,
+            request.getTimeout(),
+            listener,
+            admittedListener -> startExecuteTask(request, cancellationToken, admittedListener)
+        );
+    }
+
+    private void startExecuteTask(
+        MLExecuteTaskRequest request,
+        CancellationToken cancellationToken,
+        ActionListener<MLExecuteTaskResponse> listener
+    ) {
+        threadPool.executor(EXECUTE_THREAD_POOL).execute(() -> {
             try {
+                cancellationToken.ensureNotCancelled();
                 Input input = request.getInput();
                 FunctionName functionName = request.getFunctionName();
-                Output output = MLEngine.execute(input);
-                MLExecuteTaskResponse response = new MLExecuteTaskResponse(functionName, output);
-                listener.onResponse(response);
+                // I/O bound functions complete the listener from their search callbacks, so this thread is
+                // released as soon as the function has sent its requests.
+                MLEngine
+                    .execute(
+                        input,
+                        ActionListener
+                            .wrap(output -> listener.onResponse(new MLExecuteTaskResponse(functionName, output)), listener::onFailure)
+                    );
             } catch (Exception e) {
                 listener.onFailure(e);
             }
@@ -0,0 +1,395 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import static org.opensearch.ml.permission.AccessController.getUserStr;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_PREDICT_BATCH_SIZE;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_PREDICT_BATCH_WINDOW;
+import static org.opensearch.ml.stats.StatNames.ML_PREDICT_BATCHED_REQUEST_COUNT;
+import static org.opensearch.ml.stats.StatNames.ML_PREDICT_BATCHED_ROW_COUNT;
+import static org.opensearch.ml.stats.StatNames.ML_PREDICT_BATCH_COUNT;
+import static org.opensearch.ml.stats.StatNames.ML_PREDICT_BATCH_QUEUE_DELAY_MILLIS;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.log4j.Log4j2;
+
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.support.ContextPreservingActionListener;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.bytes.BytesReference;
+import org.opensearch.common.hash.MessageDigests;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.settings.ClusterSettings;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.ml.common.FunctionName;
+import org.opensearch.ml.common.dataframe.DataFrame;
+import org.opensearch.ml.common.dataframe.DataFrameBuilder;
+import org.opensearch.ml.common.dataframe.Row;
+import org.opensearch.ml.common.dataset.DataFrameInputDataset;
+import org.opensearch.ml.common.dataset.MLInputDataType;
+import org.opensearch.ml.common.input.MLInput;
+import org.opensearch.ml.common.output.MLOutput;
+import org.opensearch.ml.common.output.MLPredictionOutput;
+import org.opensearch.ml.common.transport.MLTaskResponse;
+import org.opensearch.ml.common.transport.prediction.MLPredictionTaskRequest;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.stats.MLStats;
+import org.opensearch.threadpool.Scheduler;
+import org.opensearch.threadpool.ThreadPool;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * MLPredictMicroBatcher collects small predict requests against the same model for up to the batch
+ * window or until the batch size is reached, runs them as one prediction and splits the prediction
+ * result back to each request.
+ *
+ * Requests are batched together only if they use the same model, algorithm, parameters and columns and
+ * come from the same user. Only algorithms whose prediction of a row doesn't depend on other rows are
+ * batched. Micro-batching is disabled when the batch window is zero.
+ *
+ * Every batched request still fails at its own deadline or once its caller cancels it, and requests
+ * which already failed are dropped from the batch before it runs.
+ */
+@Log4j2
+public class MLPredictMicroBatcher {
+    private static final Set<FunctionName> BATCHABLE_ALGORITHMS = ImmutableSet
+        .of(FunctionName.KMEANS, FunctionName.LINEAR_REGRESSION, FunctionName.BATCH_RCF);
+
+    /**
+     * Runs a predict request, either a single request or a batch of requests merged into one.
+     */
+    @FunctionalInterface
+    public interface PredictExecutor {
+        void execute(MLPredictionTaskRequest request, CancellationToken cancellationToken, ActionListener<MLTaskResponse> listener);
+    }
+
+    private final Client client;
+    private final ThreadPool threadPool;
+    private final MLStats mlStats;
+    // guarded by this
+    private final Map<BatchKey, PendingBatch> pendingBatches;
+
+    private volatile TimeValue batchWindow;
+    private volatile int batchSize;
+
+    public MLPredictMicroBatcher(Settings settings, ClusterService clusterService, Client client, ThreadPool threadPool, MLStats mlStats) {
+        this.client = client;
+        this.threadPool = threadPool;
+        this.mlStats = mlStats;
+        this.pendingBatches = new HashMap<>();
+
+        this.batchWindow = ML_COMMONS_PREDICT_BATCH_WINDOW.get(settings);
+        this.batchSize = ML_COMMONS_PREDICT_BATCH_SIZE.get(settings);
+        ClusterSettings clusterSettings = clusterService.getClusterSettings();
+        clusterSettings.addSettingsUpdateConsumer(ML_COMMONS_PREDICT_BATCH_WINDOW, it -> batchWindow = it);
+        clusterSettings.addSettingsUpdateConsumer(ML_COMMONS_PREDICT_BATCH_SIZE, it -> batchSize = it);
+    }
+
+    /**
+     * Run predict request, batched with other requests against the same model if possible.
+     * @param request predict request
+     * @param cancellationToken cancellation token of the request
+     * @param listener action listener
+     * @param executor runs the single or merged predict request
+     */
+    public void execute(
+        MLPredictionTaskRequest request,
+        CancellationToken cancellationToken,
+        ActionListener<MLTaskResponse> listener,
+        PredictExecutor executor
+    ) {
+        TimeValue window = batchWindow;
+        int maxRows = batchSize;
+        BatchKey key = window.nanos() > 0 ? batchKey(request, maxRows) : null;
+        if (key == null) {
+            executor.execute(request, cancellationToken, listener);
+            return;
+        }
+
+        PendingRequest pendingRequest = new PendingRequest(
+            request,
+            new MLWaitingListener<>(
+                cancellationToken,
+                ContextPreservingActionListener.wrapPreservingContext(listener, client.threadPool().getThreadContext())
+            )
+        );
+        PendingBatch fullBatch = null;
+        PendingBatch overflowBatch = null;
+        PendingBatch newBatch = null;
+        synchronized (this) {
+            PendingBatch batch = pendingBatches.get(key);
+            if (batch != null && batch.rows + pendingRequest.rows > maxRows) {
+                // flush the current batch first so batches never exceed the batch size
+                pendingBatches.remove(key);
+                overflowBatch = batch;
+                batch = null;
+            }
+            if (batch == null) {
+                batch = new PendingBatch(key, executor);
+                pendingBatches.put(key, batch);
+                newBatch = batch;
+            }
+            batch.add(pendingRequest);
+            if (batch.rows >= maxRows) {
+                pendingBatches.remove(key);
+                fullBatch = batch;
+                newBatch = null;
+            }
+        }
+        pendingRequest.listener.watch(threadPool);
+        if (overflowBatch != null) {
+            flush(overflowBatch);
+        }
+        if (fullBatch != null) {
+            flush(fullBatch);
+        }
+        if (newBatch != null) {
+            PendingBatch batch = newBatch;
+            batch.timeout = threadPool.schedule(() -> onBatchWindowExpired(batch), window, ThreadPool.Names.SAME);
+        }
+    }
+
+    /**
+     * Get number of requests waiting for their batch to be flushed.
+     * @return pending request count
+     */
+    public synchronized int getPendingRequestCount() {
+        int count = 0;
+        for (PendingBatch batch : pendingBatches.values()) {
+            count += batch.requests.size();
+        }
+        return count;
+    }
+
+    private void onBatchWindowExpired(PendingBatch batch) {
+        synchronized (this) {
+            if (pendingBatches.get(batch.key) != batch) {
+                // already flushed because the batch was full
+                return;
+            }
+            pendingBatches.remove(batch.key);
+        }
+        flush(batch);
+    }
+
+    private void flush(PendingBatch batch) {
+        if (batch.timeout != null) {
+            batch.timeout.cancel();
+        }
+        // requests which failed at their deadline while waiting don't run
+        List<PendingRequest> requests = new ArrayList<>();
+        for (PendingRequest pendingRequest : batch.requests) {
+            if (!pendingRequest.listener.isDone()) {
+                requests.add(pendingRequest);
+            }
+        }
+        if (requests.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long queueDelayMillis = 0;
+        int rows = 0;
+        for (PendingRequest pendingRequest : requests) {
+            queueDelayMillis += TimeUnit.NANOSECONDS.toMillis(now - pendingRequest.enqueueTimeNanos);
+            rows += pendingRequest.rows;
+        }
+        mlStats.getStat(ML_PREDICT_BATCH_COUNT).increment();
+        mlStats.getStat(ML_PREDICT_BATCHED_REQUEST_COUNT).add(requests.size());
+        mlStats.getStat(ML_PREDICT_BATCHED_ROW_COUNT).add(rows);
+        mlStats.getStat(ML_PREDICT_BATCH_QUEUE_DELAY_MILLIS).add(queueDelayMillis);
+
+        try {
+            if (requests.size() == 1) {
+                PendingRequest pendingRequest = requests.get(0);
+                batch.executor.execute(pendingRequest.request, pendingRequest.listener.getCancellationToken(), pendingRequest.listener);
+                return;
+            }
+            log.debug("Run batched prediction of {} requests, {} rows", requests.size(), rows);
+            int batchRows = rows;
+            batch.executor
+                .execute(
+                    mergedRequest(requests),
+                    // the batch keeps running as long as one of its requests still waits for it
+                    () -> requests.stream().allMatch(r -> r.listener.isDone() || r.listener.getCancellationToken().isCancelled()),
+                    ActionListener.wrap(response -> onBatchResponse(batch, requests, batchRows, response), e -> {
+                        for (PendingRequest pendingRequest : requests) {
+                            pendingRequest.listener.onFailure(e);
+                        }
+                    })
+                );
+        } catch (Exception e) {
+            log.error("Failed to run batched prediction", e);
+            for (PendingRequest pendingRequest : requests) {
+                pendingRequest.listener.onFailure(e);
+            }
+        }
+    }
+
+    private MLPredictionTaskRequest mergedRequest(List<PendingRequest> requests) {
+        MLPredictionTaskRequest first = requests.get(0).request;
+        DataFrame mergedDataFrame = DataFrameBuilder.emptyDataFrame(first.getMlInput().getDataFrame().columnMetas());
+        TimeValue timeout = null;
+        boolean unbounded = false;
+        for (PendingRequest pendingRequest : requests) {
+            for (Row row : pendingRequest.request.getMlInput().getDataFrame()) {
+                mergedDataFrame.appendRow(row);
+            }
+            // use the longest time budget, the batch runs until its last request is cancelled. A request
+            // without timeout makes the batch run without timeout, other requests fail at their own deadline.
+            TimeValue requestTimeout = pendingRequest.request.getTimeout();
+            if (requestTimeout == null) {
+                unbounded = true;
+            } else if (timeout == null || requestTimeout.compareTo(timeout) > 0) {
+                timeout = requestTimeout;
+            }
+        }
+        if (unbounded) {
+            timeout = null;
+        }
+        MLPredictionTaskRequest mergedRequest = MLPredictionTaskRequest
+            .builder()
+            .modelId(first.getModelId())
+            .mlInput(first.getMlInput().toBuilder().inputDataset(new DataFrameInputDataset(mergedDataFrame)).build())
+            .dispatchTask(false)
+            .build();
+        mergedRequest.setTimeout(timeout);
+        return mergedRequest;
+    }
+
+    private void onBatchResponse(PendingBatch batch, List<PendingRequest> requests, int rows, MLTaskResponse response) {
+        MLOutput output = response.getOutput();
+        DataFrame predictionResult = output instanceof MLPredictionOutput ? ((MLPredictionOutput) output).getPredictionResult() : null;
+        if (predictionResult == null || predictionResult.size() != rows) {
+            // can't tell which result row belongs to which request, run the requests one by one
+            log.warn("Batched prediction returned unexpected result, run {} requests separately", requests.size());
+            for (PendingRequest pendingRequest : requests) {
+                if (!pendingRequest.listener.isDone()) {
+                    batch.executor.execute(pendingRequest.request, pendingRequest.listener.getCancellationToken(), pendingRequest.listener);
+                }
+            }
+            return;
+        }
+        MLPredictionOutput predictionOutput = (MLPredictionOutput) output;
+        int offset = 0;
+        for (PendingRequest pendingRequest : requests) {
+            if (pendingRequest.listener.isDone()) {
+                // failed at its deadline while the batch was running, drop its rows
+                offset += pendingRequest.rows;
+                continue;
+            }
+            DataFrame result = DataFrameBuilder.emptyDataFrame(predictionResult.columnMetas());
+            for (int i = offset; i < offset + pendingRequest.rows; i++) {
+                result.appendRow(predictionResult.getRow(i));
+            }
+            offset += pendingRequest.rows;
+            MLPredictionOutput requestOutput = MLPredictionOutput
+                .builder()
+                .taskId(predictionOutput.getTaskId())
+                .status(predictionOutput.getStatus())
+                .predictionResult(result)
+                .build();
+            pendingRequest.listener.onResponse(MLTaskResponse.builder().output(requestOutput).build());
+        }
+    }
+
+    private BatchKey batchKey(MLPredictionTaskRequest request, int maxRows) {
+        MLInput mlInput = request.getMlInput();
+        if (request.getModelId() == null
+            || mlInput == null
+            || !BATCHABLE_ALGORITHMS.contains(mlInput.getAlgorithm())
+            || mlInput.getInputDataset() == null
+            || mlInput.getInputDataset().getInputDataType() != MLInputDataType.DATA_FRAME) {
+            return null;
+        }
+        DataFrame dataFrame = mlInput.getDataFrame();
+        if (dataFrame == null || dataFrame.size() == 0 || dataFrame.size() >= maxRows) {
+            return null;
+        }
+        // algorithm, parameters and column metas, without the rows
+        DataFrame emptyDataFrame = DataFrameBuilder.emptyDataFrame(dataFrame.columnMetas());
+        MLInput batchInput = mlInput.toBuilder().inputDataset(new DataFrameInputDataset(emptyDataFrame)).build();
+        try (BytesStreamOutput output = new BytesStreamOutput()) {
+            batchInput.writeTo(output);
+            String inputHash = MessageDigests.toHexString(MessageDigests.sha256().digest(BytesReference.toBytes(output.bytes())));
+            return new BatchKey(request.getModelId(), inputHash, getUserStr(client));
+        } catch (IOException e) {
+            log.warn("Failed to hash predict input of model " + request.getModelId() + ", won't batch it", e);
+            return null;
+        }
+    }
+
+    private static class PendingRequest {
+        private final MLPredictionTaskRequest request;
+        private final MLWaitingListener<MLTaskResponse> listener;
+        private final int rows;
+        private final long enqueueTimeNanos;
+
+        PendingRequest(MLPredictionTaskRequest request, MLWaitingListener<MLTaskResponse> listener) {
+            this.request = request;
+            this.listener = listener;
+            this.rows = request.getMlInput().getDataFrame().size();
+            this.enqueueTimeNanos = System.nanoTime();
+        }
+    }
+
+    private static class PendingBatch {
+        private final BatchKey key;
+        private final PredictExecutor executor;
+        private final List<PendingRequest> requests = new ArrayList<>();
+        private int rows;
+        private volatile Scheduler.ScheduledCancellable timeout;
+
+        PendingBatch(BatchKey key, PredictExecutor executor) {
+            this.key = key;
+            this.executor = executor;
+        }
+
+        void add(PendingRequest pendingRequest) {
+            requests.add(pendingRequest);
+            rows += pendingRequest.rows;
+        }
+    }
+
+    private static class BatchKey {
+        private final String modelId;
+        private final String inputHash;
+        private final String user;
+
+        BatchKey(String modelId, String inputHash, String user) {
+            this.modelId = modelId;
+            this.inputHash = inputHash;
+            this.user = user;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BatchKey that = (BatchKey) o;
+            return modelId.equals(that.modelId) && inputHash.equals(that.inputHash) && Objects.equals(user, that.user);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(modelId, inputHash, user);
+        }
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import static org.opensearch.ml.permission.AccessController.getUserStr;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_PREDICT_COALESCING_ENABLED;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_PREDICT_RESULT_CACHE_SIZE;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_PREDICT_RESULT_CACHE_TTL;
+import static org.opensearch.ml.stats.StatNames.ML_PREDICT_COALESCED_REQUEST_COUNT;
+import static org.opensearch.ml.stats.StatNames.ML_PREDICT_RESULT_CACHE_HIT_COUNT;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.extern.log4j.Log4j2;
+
+import org.opensearch.ExceptionsHelper;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.support.ContextPreservingActionListener;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.bytes.BytesReference;
+import org.opensearch.common.cache.Cache;
+import org.opensearch.common.cache.CacheBuilder;
+import org.opensearch.common.hash.MessageDigests;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.settings.ClusterSettings;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.ml.common.dataset.MLInputDataType;
+import org.opensearch.ml.common.input.MLInput;
+import org.opensearch.ml.common.transport.MLTaskResponse;
+import org.opensearch.ml.common.transport.prediction.MLPredictionTaskRequest;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.stats.MLStats;
+import org.opensearch.tasks.TaskCancelledException;
+
+/**
+ * MLPredictRequestCoalescer makes concurrent identical predict requests share one execution.
+ * Requests are identical if they have the same model id, the same ML input (algorithm, parameters
+ * and data frame) and come from the same user. Successful responses can optionally be cached for a
+ * short time, so identical requests arriving right after the execution completes can reuse them too.
+ *
+ * Only data frame inputs are coalesced, search query inputs may return different data on every run.
+ * Requests may have different timeouts, so every request waits only until its own deadline, and a
+ * cancelled or timed out running request doesn't fail the requests waiting for it.
+ */
+@Log4j2
+public class MLPredictRequestCoalescer {
+    private final Client client;
+    private final MLStats mlStats;
+    private final Map<RequestKey, List<Waiter>> inFlightRequests;
+
+    private volatile boolean enabled;
+    private volatile TimeValue resultCacheTtl;
+    private volatile int resultCacheSize;
+    private volatile Cache<RequestKey, MLTaskResponse> resultCache;
+
+    public MLPredictRequestCoalescer(Settings settings, ClusterService clusterService, Client client, MLStats mlStats) {
+        this.client = client;
+        this.mlStats = mlStats;
+        this.inFlightRequests = new ConcurrentHashMap<>();
+
+        this.enabled = ML_COMMONS_PREDICT_COALESCING_ENABLED.get(settings);
+        this.resultCacheTtl = ML_COMMONS_PREDICT_RESULT_CACHE_TTL.get(settings);
+        this.resultCacheSize = ML_COMMONS_PREDICT_RESULT_CACHE_SIZE.get(settings);
+        this.resultCache = buildResultCache();
+        ClusterSettings clusterSettings = clusterService.getClusterSettings();
+        clusterSettings.addSettingsUpdateConsumer(ML_COMMONS_PREDICT_COALESCING_ENABLED, it -> enabled = it);
+        clusterSettings.addSettingsUpdateConsumer(ML_COMMONS_PREDICT_RESULT_CACHE_TTL, it -> {
+            resultCacheTtl = it;
+            resultCache = buildResultCache();
+        });
+        clusterSettings.addSettingsUpdateConsumer(ML_COMMONS_PREDICT_RESULT_CACHE_SIZE, it -> {
+            resultCacheSize = it;
+            resultCache = buildResultCache();
+        });
+    }
+
+    /**
+     * Run predict request. If an identical request is already running, the listener waits for its
+     * response instead of running the request again. A waiting request still fails at its own deadline
+     * or once its caller cancels it. If the running request fails because it was cancelled or timed out,
+     * it runs again for the requests still waiting for it.
+     * @param request predict request
+     * @param cancellationToken cancellation token of the request
+     * @param listener action listener
+     * @param execution runs the predict request and notifies the given listener
+     */
+    public void execute(
+        MLPredictionTaskRequest request,
+        CancellationToken cancellationToken,
+        ActionListener<MLTaskResponse> listener,
+        MLPredictMicroBatcher.PredictExecutor execution
+    ) {
+        RequestKey key = enabled ? requestKey(request) : null;
+        if (key == null) {
+            execution.execute(request, cancellationToken, listener);
+            return;
+        }
+
+        Cache<RequestKey, MLTaskResponse> cache = resultCache;
+        if (cache != null) {
+            MLTaskResponse cachedResponse = cache.get(key);
+            if (cachedResponse != null) {
+                mlStats.getStat(ML_PREDICT_RESULT_CACHE_HIT_COUNT).increment();
+                listener.onResponse(cachedResponse);
+                return;
+            }
+        }
+
+        boolean[] leader = new boolean[1];
+        Waiter waiter = new Waiter(
+            request,
+            new MLWaitingListener<>(
+                cancellationToken,
+                ContextPreservingActionListener.wrapPreservingContext(listener, client.threadPool().getThreadContext())
+            )
+        );
+        inFlightRequests.compute(key, (k, waiters) -> {
+            if (waiters == null) {
+                leader[0] = true;
+                waiters = new ArrayList<>();
+            }
+            waiters.add(waiter);
+            return waiters;
+        });
+        waiter.listener.watch(client.threadPool());
+        if (!leader[0]) {
+            log.debug("Coalesced predict request of model {} with running request", request.getModelId());
+            mlStats.getStat(ML_PREDICT_COALESCED_REQUEST_COUNT).increment();
+            return;
+        }
+
+        try {
+            run(key, waiter, cache, execution);
+        } catch (Exception e) {
+            List<Waiter> waiters = complete(key);
+            waiters.remove(waiter);
+            for (Waiter w : waiters) {
+                w.listener.onFailure(e);
+            }
+            throw e;
+        }
+    }
+
+    private void run(
+        RequestKey key,
+        Waiter leader,
+        Cache<RequestKey, MLTaskResponse> cache,
+        MLPredictMicroBatcher.PredictExecutor execution
+    ) {
+        execution.execute(leader.request, leader.listener.getCancellationToken(), ActionListener.wrap(response -> {
+            if (cache != null) {
+                cache.put(key, response);
+            }
+            for (Waiter w : complete(key)) {
+                w.listener.onResponse(response);
+            }
+        }, e -> {
+            if (ExceptionsHelper.unwrapCause(e) instanceof TaskCancelledException) {
+                rerun(key, leader, e, cache, execution);
+                return;
+            }
+            for (Waiter w : complete(key)) {
+                w.listener.onFailure(e);
+            }
+        }));
+    }
+
+    /**
+     * The running request was cancelled or timed out, which must not fail identical requests waiting for it.
+     * Fail the cancelled requests and run the request again for the first one still waiting.
+     */
+    private void rerun(
+        RequestKey key,
+        Waiter cancelledLeader,
+        Exception e,
+        Cache<RequestKey, MLTaskResponse> cache,
+        MLPredictMicroBatcher.PredictExecutor execution
+    ) {
+        cancelledLeader.listener.onFailure(e);
+        Waiter[] nextLeader = new Waiter[1];
+        List<Waiter> cancelledWaiters = new ArrayList<>();
+        inFlightRequests.computeIfPresent(key, (k, waiters) -> {
+            waiters.remove(cancelledLeader);
+            for (Waiter w : waiters) {
+                if (w.listener.getCancellationToken().isCancelled()) {
+                    cancelledWaiters.add(w);
+                }
+            }
+            waiters.removeAll(cancelledWaiters);
+            waiters.removeIf(w -> w.listener.isDone());
+            if (waiters.isEmpty()) {
+                return null;
+            }
+            nextLeader[0] = waiters.get(0);
+            return waiters;
+        });
+        for (Waiter w : cancelledWaiters) {
+            w.listener.failIfCancelled();
+        }
+        if (nextLeader[0] == null) {
+            return;
+        }
+        log.debug("Predict request of model {} was cancelled, run it again for waiting requests", nextLeader[0].request.getModelId());
+        try {
+            run(key, nextLeader[0], cache, execution);
+        } catch (Exception ex) {
+            for (Waiter w : complete(key)) {
+                w.listener.onFailure(ex);
+            }
+        }
+    }
+
+    /**
+     * Get number of distinct predict requests currently running through the coalescer.
+     * @return in-flight request count
+     */
+    public int getInFlightRequestCount() {
+        return inFlightRequests.size();
+    }
+
+    private List<Waiter> complete(RequestKey key) {
+        // once removed, new identical requests start a new execution, so the waiter list is no longer modified
+        List<Waiter> waiters = inFlightRequests.remove(key);
+        return waiters == null ? new ArrayList<>() : waiters;
+    }
+
+    private RequestKey requestKey(MLPredictionTaskRequest request) {
+        MLInput mlInput = request.getMlInput();
+        if (request.getModelId() == null
+            || mlInput == null
+            || mlInput.getInputDataset() == null
+            || mlInput.getInputDataset().getInputDataType() != MLInputDataType.DATA_FRAME) {
+            return null;
+        }
+        try (BytesStreamOutput output = new BytesStreamOutput()) {
+            mlInput.writeTo(output);
+            String inputHash = MessageDigests.toHexString(MessageDigests.sha256().digest(BytesReference.toBytes(output.bytes())));
+            return new RequestKey(request.getModelId(), inputHash, getUserStr(client));
+        } catch (IOException e) {
+            log.warn("Failed to hash predict input of model " + request.getModelId() + ", won't coalesce it", e);
+            return null;
+        }
+    }
+
+    private Cache<RequestKey, MLTaskResponse> buildResultCache() {
+        if (resultCacheTtl.nanos() <= 0 || resultCacheSize <= 0) {
+            return null;
+        }
+        return CacheBuilder
+            .<RequestKey, MLTaskResponse>builder()
+            .setMaximumWeight(resultCacheSize)
+            .setExpireAfterWrite(resultCacheTtl)
+            .build();
+    }
+
+    private static class Waiter {
+        private final MLPredictionTaskRequest request;
+        private final MLWaitingListener<MLTaskResponse> listener;
+
+        Waiter(MLPredictionTaskRequest request, MLWaitingListener<MLTaskResponse> listener) {
+            this.request = request;
+            this.listener = listener;
+        }
+    }
+
+    private static class RequestKey {
+        private final String modelId;
+        private final String inputHash;
+        private final String user;
+
+        RequestKey(String modelId, String inputHash, String user) {
+            this.modelId = modelId;
+            this.inputHash = inputHash;
+            this.user = user;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            RequestKey that = (RequestKey) o;
+            return modelId.equals(that.modelId) && inputHash.equals(that.inputHash) && Objects.equals(user, that.user);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(modelId, inputHash, user);
+        }
+    }
+}
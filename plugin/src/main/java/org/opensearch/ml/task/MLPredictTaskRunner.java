@@ -9,8 +9,9 @@ import static org.opensearch.common.xcontent.XContentParserUtils.ensureExpectedT
 import static org.opensearch.ml.indices.MLIndicesHandler.ML_MODEL_INDEX;
 import static org.opensearch.ml.permission.AccessController.checkUserPermissions;
 import static org.opensearch.ml.permission.AccessController.getUserContext;
-import static org.opensearch.ml.plugin.MachineLearningPlugin.TASK_THREAD_POOL;
+import static org.opensearch.ml.plugin.MachineLearningPlugin.PREDICT_THREAD_POOL;
 import static org.opensearch.ml.stats.StatNames.ML_EXECUTING_TASK_COUNT;
+import static org.opensearch.ml.stats.StatNames.ML_OUTSTANDING_TASK_COST;
 import static org.opensearch.ml.stats.StatNames.ML_TOTAL_FAILURE_COUNT;
 import static org.opensearch.ml.stats.StatNames.ML_TOTAL_REQUEST_COUNT;
 import static org.opensearch.ml.stats.StatNames.failureCountStat;
@@ -18,6 +19,7 @@ import static org.opensearch.ml.stats.StatNames.requestCountStat;
 
 import java.time.Instant;
 import java.util.Base64;
+import java.util.List;
 import java.util.UUID;
 
 import lombok.extern.log4j.Log4j2;
@@ -52,6 +54,7 @@ import org.opensearch.ml.common.output.MLPredictionOutput;
 import org.opensearch.ml.common.transport.MLTaskResponse;
 import org.opensearch.ml.common.transport.prediction.MLPredictionTaskAction;
 import org.opensearch.ml.common.transport.prediction.MLPredictionTaskRequest;
+import org.opensearch.ml.engine.CancellationToken;
 import org.opensearch.ml.engine.MLEngine;
 import org.opensearch.ml.indices.MLInputDatasetHandler;
 import org.opensearch.ml.stats.ActionName;
@@ -68,6 +71,8 @@ public class MLPredictTaskRunner extends MLTaskRunner<MLPredictionTaskRequest, M
     private final ClusterService clusterService;
     private final Client client;
     private final MLInputDatasetHandler mlInputDatasetHandler;
+    private final MLPredictRequestCoalescer mlPredictRequestCoalescer;
+    private final MLPredictMicroBatcher mlPredictMicroBatcher;
     private final NamedXContentRegistry xContentRegistry;
 
     public MLPredictTaskRunner(
@@ -79,13 +84,18 @@ public class MLPredictTaskRunner extends MLTaskRunner<MLPredictionTaskRequest, M
         MLInputDatasetHandler mlInputDatasetHandler,
         MLTaskDispatcher mlTaskDispatcher,
         MLCircuitBreakerService mlCircuitBreakerService,
+        MLTaskAdmissionController mlTaskAdmissionController,
+        MLPredictRequestCoalescer mlPredictRequestCoalescer,
+        MLPredictMicroBatcher mlPredictMicroBatcher,
         NamedXContentRegistry xContentRegistry
     ) {
-        super(mlTaskManager, mlStats, mlTaskDispatcher, mlCircuitBreakerService, clusterService);
+        super(mlTaskManager, mlStats, mlTaskDispatcher, mlCircuitBreakerService, mlTaskAdmissionController, clusterService);
         this.threadPool = threadPool;
         this.clusterService = clusterService;
         this.client = client;
         this.mlInputDatasetHandler = mlInputDatasetHandler;
+        this.mlPredictRequestCoalescer = mlPredictRequestCoalescer;
+        this.mlPredictMicroBatcher = mlPredictMicroBatcher;
         this.xContentRegistry = xContentRegistry;
     }
 
@@ -99,13 +109,54 @@ public class MLPredictTaskRunner extends MLTaskRunner<MLPredictionTaskRequest, M
         return new ActionListenerResponseHandler<>(listener, MLTaskResponse::new);
     }
 
+    @Override
+    protected long estimateTaskCost(MLPredictionTaskRequest request) {
+        return mlTaskDispatcher.estimateTaskCost(MLTaskType.PREDICTION, request.getMlInput(), request.getModelId());
+    }
+
+    @Override
+    protected List<String> getSourceIndices(MLPredictionTaskRequest request) {
+        return searchQueryIndices(request.getMlInput());
+    }
+
     /**
      * Start prediction task
      * @param request MLPredictionTaskRequest
+     * @param cancellationToken cancellation token
      * @param listener Action listener
      */
     @Override
-    protected void executeTask(MLPredictionTaskRequest request, ActionListener<MLTaskResponse> listener) {
+    protected void executeTask(
+        MLPredictionTaskRequest request,
+        CancellationToken cancellationToken,
+        ActionListener<MLTaskResponse> listener
+    ) {
+        // identical requests waiting for a running one and batched requests don't take their own admission slot
+        mlPredictRequestCoalescer
+            .execute(
+                request,
+                cancellationToken,
+                listener,
+                (coalescedRequest, coalescedCancellationToken, coalescedListener) -> mlPredictMicroBatcher
+                    .execute(
+                        coalescedRequest,
+                        coalescedCancellationToken,
+                        coalescedListener,
+                        (batchRequest, batchCancellationToken, batchListener) -> admitTask(
+                            MLTaskType.PREDICTION,
+                            batchRequest.getTimeout(),
+                            batchListener,
+                            admittedListener -> startPredictionTask(batchRequest, batchCancellationToken, admittedListener)
+                        )
+                    )
+            );
+    }
+
+    private void startPredictionTask(
+        MLPredictionTaskRequest request,
+        CancellationToken cancellationToken,
+        ActionListener<MLTaskResponse> listener
+    ) {
         MLInputDataType inputDataType = request.getMlInput().getInputDataset().getInputDataType();
         Instant now = Instant.now();
         MLTask mlTask = MLTask
@@ -124,7 +175,7 @@ public class MLPredictTaskRunner extends MLTaskRunner<MLPredictionTaskRequest, M
         MLInput mlInput = request.getMlInput();
         if (mlInput.getInputDataset().getInputDataType().equals(MLInputDataType.SEARCH_QUERY)) {
             ActionListener<DataFrame> dataFrameActionListener = ActionListener
-                .wrap(dataFrame -> { predict(mlTask, dataFrame, request, listener); }, e -> {
+                .wrap(dataFrame -> { predict(mlTask, dataFrame, request, cancellationToken, listener); }, e -> {
                     log.error("Failed to generate DataFrame from search query", e);
                     handleAsyncMLTaskFailure(mlTask, e);
                     listener.onFailure(e);
@@ -132,11 +183,11 @@ public class MLPredictTaskRunner extends MLTaskRunner<MLPredictionTaskRequest, M
             mlInputDatasetHandler
                 .parseSearchQueryInput(
                     mlInput.getInputDataset(),
-                    new ThreadedActionListener<>(log, threadPool, TASK_THREAD_POOL, dataFrameActionListener, false)
+                    new ThreadedActionListener<>(log, threadPool, PREDICT_THREAD_POOL, dataFrameActionListener, false)
                 );
         } else {
             DataFrame inputDataFrame = mlInputDatasetHandler.parseDataFrameInput(mlInput.getInputDataset());
-            threadPool.executor(TASK_THREAD_POOL).execute(() -> { predict(mlTask, inputDataFrame, request, listener); });
+            threadPool.executor(PREDICT_THREAD_POOL).execute(() -> { predict(mlTask, inputDataFrame, request, cancellationToken, listener); });
         }
     }
 
@@ -144,11 +195,14 @@ public class MLPredictTaskRunner extends MLTaskRunner<MLPredictionTaskRequest, M
         MLTask mlTask,
         DataFrame inputDataFrame,
         MLPredictionTaskRequest request,
+        CancellationToken cancellationToken,
         ActionListener<MLTaskResponse> listener
     ) {
-        ActionListener<MLTaskResponse> internalListener = wrappedCleanupListener(listener, mlTask.getTaskId());
+        long taskCost = estimateTaskCost(request);
+        ActionListener<MLTaskResponse> internalListener = wrappedCleanupListener(listener, mlTask.getTaskId(), taskCost);
         // track ML task count and add ML task into cache
         mlStats.getStat(ML_EXECUTING_TASK_COUNT).increment();
+        mlStats.getStat(ML_OUTSTANDING_TASK_COST).add(taskCost);
         mlStats.getStat(ML_TOTAL_REQUEST_COUNT).increment();
         mlStats.createCounterStatIfAbsent(requestCountStat(mlTask.getFunctionName(), ActionName.PREDICT)).increment();
         mlTaskManager.add(mlTask);
@@ -188,11 +242,19 @@ public class MLPredictTaskRunner extends MLTaskRunner<MLPredictionTaskRequest, M
                         model.setVersion(mlModel.getVersion());
                         byte[] decoded = Base64.getDecoder().decode(mlModel.getContent());
                         model.setContent(decoded);
+                        mlTaskDispatcher.recordModelSize(request.getModelId(), decoded.length);
 
                         // run predict
+                        cancellationToken.ensureNotCancelled();
                         mlTaskManager.updateTaskState(mlTask.getTaskId(), MLTaskState.RUNNING, mlTask.isAsync());
                         MLOutput output = MLEngine
-                            .predict(mlInput.toBuilder().inputDataset(new DataFrameInputDataset(inputDataFrame)).build(), model);
+                            .predict(
+                                mlInput.toBuilder().inputDataset(new DataFrameInputDataset(inputDataFrame)).build(),
+                                model,
+                                cancellationToken,
+                                threadPool.executor(PREDICT_THREAD_POOL),
+                                parallelism(threadPool, PREDICT_THREAD_POOL)
+                            );
                         if (output instanceof MLPredictionOutput) {
                             ((MLPredictionOutput) output).setStatus(MLTaskState.COMPLETED.name());
                         }
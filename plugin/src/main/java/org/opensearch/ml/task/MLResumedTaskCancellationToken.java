@@ -0,0 +1,96 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import static org.opensearch.ml.indices.MLIndicesHandler.ML_TASK_INDEX;
+
+import lombok.extern.log4j.Log4j2;
+
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.client.Client;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.ml.common.MLTask;
+import org.opensearch.ml.common.MLTaskState;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.tasks.TaskCancelledException;
+import org.opensearch.threadpool.Scheduler;
+import org.opensearch.threadpool.ThreadPool;
+
+/**
+ * MLResumedTaskCancellationToken stops a resumed ML task. A resumed task has no OpenSearch task which could be
+ * cancelled, so the ML task is read from the ML task index periodically, and the task stops once it's deleted
+ * or marked done by another node.
+ */
+@Log4j2
+public class MLResumedTaskCancellationToken implements CancellationToken {
+    static final TimeValue CHECK_INTERVAL = TimeValue.timeValueSeconds(30);
+
+    private final Client client;
+    private final String taskId;
+    private volatile String cancelReason;
+    private volatile Scheduler.Cancellable check;
+
+    /**
+     * Constructor.
+     * @param client client
+     * @param taskId ML task id
+     */
+    public MLResumedTaskCancellationToken(Client client, String taskId) {
+        this.client = client;
+        this.taskId = taskId;
+    }
+
+    /**
+     * Start checking the ML task periodically until stopped.
+     * @param threadPool thread pool to schedule the check
+     */
+    public void watch(ThreadPool threadPool) {
+        check = threadPool.scheduleWithFixedDelay(this::checkTask, CHECK_INTERVAL, ThreadPool.Names.GENERIC);
+    }
+
+    /**
+     * Stop checking the ML task once it's done.
+     */
+    public void stop() {
+        Scheduler.Cancellable scheduledCheck = check;
+        if (scheduledCheck != null) {
+            scheduledCheck.cancel();
+        }
+    }
+
+    void checkTask() {
+        GetRequest getRequest = new GetRequest(ML_TASK_INDEX).id(taskId).realtime(true);
+        try (ThreadContext.StoredContext context = client.threadPool().getThreadContext().stashContext()) {
+            client.get(getRequest, ActionListener.runBefore(ActionListener.wrap(r -> {
+                if (r == null || !r.isExists()) {
+                    cancelReason = "ML task deleted";
+                    return;
+                }
+                Object state = r.getSourceAsMap().get(MLTask.STATE_FIELD);
+                if (MLTaskState.COMPLETED.name().equals(state)
+                    || MLTaskState.FAILED.name().equals(state)
+                    || MLTaskState.CANCELLED.name().equals(state)) {
+                    cancelReason = "ML task marked " + state + " by another node";
+                }
+            }, e -> log.debug("Failed to check resumed ML task " + taskId, e)), () -> context.restore()));
+        }
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelReason != null;
+    }
+
+    @Override
+    public void ensureNotCancelled() {
+        String reason = cancelReason;
+        if (reason != null) {
+            throw new TaskCancelledException(reason);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import static org.opensearch.ml.plugin.MachineLearningPlugin.PREDICT_THREAD_POOL;
+import static org.opensearch.ml.stats.StatNames.ML_TOTAL_FAILURE_COUNT;
+import static org.opensearch.ml.stats.StatNames.ML_TOTAL_REQUEST_COUNT;
+import static org.opensearch.ml.stats.StatNames.failureCountStat;
+import static org.opensearch.ml.stats.StatNames.requestCountStat;
+
+import lombok.extern.log4j.Log4j2;
+
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.ActionListenerResponseHandler;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.ml.common.FunctionName;
+import org.opensearch.ml.common.MLTaskState;
+import org.opensearch.ml.common.breaker.MLCircuitBreakerService;
+import org.opensearch.ml.common.dataframe.DataFrame;
+import org.opensearch.ml.common.dataset.MLInputDataType;
+import org.opensearch.ml.common.input.MLInput;
+import org.opensearch.ml.common.output.MLPredictionOutput;
+import org.opensearch.ml.common.transport.MLTaskResponse;
+import org.opensearch.ml.common.transport.prediction.MLPredictionTaskRequest;
+import org.opensearch.ml.common.transport.prediction.MLStreamPredictionTaskAction;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.indices.MLInputDatasetHandler;
+import org.opensearch.ml.stats.ActionName;
+import org.opensearch.ml.stats.MLStats;
+import org.opensearch.tasks.Task;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.TransportResponseHandler;
+import org.opensearch.transport.TransportService;
+
+/**
+ * MLStreamPredictTaskRunner is responsible for running stream predict tasks. Points of a model always run on the
+ * node owning the model, which keeps the detector session of the model in memory. Stream predict tasks are small
+ * and don't load the model, so they aren't tracked as ML tasks or queued by the admission controller.
+ */
+@Log4j2
+public class MLStreamPredictTaskRunner extends MLTaskRunner<MLPredictionTaskRequest, MLTaskResponse> {
+    private final ThreadPool threadPool;
+    private final MLInputDatasetHandler mlInputDatasetHandler;
+    private final MLDetectorSessionManager mlDetectorSessionManager;
+
+    public MLStreamPredictTaskRunner(
+        ThreadPool threadPool,
+        ClusterService clusterService,
+        MLTaskManager mlTaskManager,
+        MLStats mlStats,
+        MLInputDatasetHandler mlInputDatasetHandler,
+        MLTaskDispatcher mlTaskDispatcher,
+        MLCircuitBreakerService mlCircuitBreakerService,
+        MLTaskAdmissionController mlTaskAdmissionController,
+        MLDetectorSessionManager mlDetectorSessionManager
+    ) {
+        super(mlTaskManager, mlStats, mlTaskDispatcher, mlCircuitBreakerService, mlTaskAdmissionController, clusterService);
+        this.threadPool = threadPool;
+        this.mlInputDatasetHandler = mlInputDatasetHandler;
+        this.mlDetectorSessionManager = mlDetectorSessionManager;
+    }
+
+    @Override
+    protected String getTransportActionName() {
+        return MLStreamPredictionTaskAction.NAME;
+    }
+
+    @Override
+    protected TransportResponseHandler<MLTaskResponse> getResponseHandler(ActionListener<MLTaskResponse> listener) {
+        return new ActionListenerResponseHandler<>(listener, MLTaskResponse::new);
+    }
+
+    @Override
+    protected void dispatchTask(
+        Task task,
+        MLPredictionTaskRequest request,
+        TransportService transportService,
+        ActionListener<MLTaskResponse> listener
+    ) {
+        if (request.getModelId() == null) {
+            listener.onFailure(new IllegalArgumentException("ModelId is invalid"));
+            return;
+        }
+        mlTaskDispatcher
+            .dispatchTaskToOwner(
+                request.getModelId(),
+                ActionListener.wrap(node -> runOnNode(node, task, request, transportService, listener), e -> listener.onFailure(e))
+            );
+    }
+
+    /**
+     * Start stream prediction task
+     * @param request MLPredictionTaskRequest
+     * @param cancellationToken cancellation token
+     * @param listener Action listener
+     */
+    @Override
+    protected void executeTask(
+        MLPredictionTaskRequest request,
+        CancellationToken cancellationToken,
+        ActionListener<MLTaskResponse> listener
+    ) {
+        MLInput mlInput = request.getMlInput();
+        ActionListener<MLTaskResponse> internalListener = withFailureStats(mlInput.getAlgorithm(), listener);
+        mlStats.getStat(ML_TOTAL_REQUEST_COUNT).increment();
+        mlStats.createCounterStatIfAbsent(requestCountStat(mlInput.getAlgorithm(), ActionName.STREAM_PREDICT)).increment();
+        try {
+            if (request.getModelId() == null) {
+                throw new IllegalArgumentException("ModelId is invalid");
+            }
+            if (mlInput.getInputDataset() == null || mlInput.getInputDataset().getInputDataType() != MLInputDataType.DATA_FRAME) {
+                throw new IllegalArgumentException("Stream prediction only supports data frame input");
+            }
+            DataFrame dataFrame = mlInputDatasetHandler.parseDataFrameInput(mlInput.getInputDataset());
+            if (dataFrame == null || dataFrame.size() == 0) {
+                throw new IllegalArgumentException("Input data frame should not be null or empty");
+            }
+            threadPool
+                .executor(PREDICT_THREAD_POOL)
+                .execute(
+                    () -> mlDetectorSessionManager
+                        .process(request.getModelId(), mlInput, dataFrame, cancellationToken, ActionListener.wrap(output -> {
+                            if (output instanceof MLPredictionOutput) {
+                                ((MLPredictionOutput) output).setStatus(MLTaskState.COMPLETED.name());
+                            }
+                            internalListener.onResponse(MLTaskResponse.builder().output(output).build());
+                        }, internalListener::onFailure))
+                );
+        } catch (Exception e) {
+            log.error("Failed to stream predict model " + request.getModelId(), e);
+            internalListener.onFailure(e);
+        }
+    }
+
+    private ActionListener<MLTaskResponse> withFailureStats(FunctionName functionName, ActionListener<MLTaskResponse> listener) {
+        return ActionListener.wrap(r -> listener.onResponse(r), e -> {
+            mlStats.createCounterStatIfAbsent(failureCountStat(functionName, ActionName.STREAM_PREDICT)).increment();
+            mlStats.getStat(ML_TOTAL_FAILURE_COUNT).increment();
+            listener.onFailure(e);
+        });
+    }
+}
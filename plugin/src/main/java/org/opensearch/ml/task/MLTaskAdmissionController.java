@@ -0,0 +1,247 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_MAX_EXECUTION_TASK_PER_NODE;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_MAX_ML_TASK_PER_NODE;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_MAX_PREDICTION_TASK_PER_NODE;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_MAX_TRAINING_TASK_PER_NODE;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_PREDICT_QUEUE_SIZE;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_PREDICT_QUEUE_TIMEOUT;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import lombok.extern.log4j.Log4j2;
+
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.action.ActionListener;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.lease.Releasable;
+import org.opensearch.common.settings.ClusterSettings;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.ml.common.MLTaskType;
+import org.opensearch.rest.RestStatus;
+import org.opensearch.threadpool.Scheduler;
+import org.opensearch.threadpool.ThreadPool;
+
+/**
+ * MLTaskAdmissionController limits how many ML tasks run on the local node, both in total and per task type.
+ * When the node is saturated, prediction tasks can wait for a short time in a bounded queue ordered by deadline;
+ * other tasks are rejected right away. Rejections are reported as 429 with a Retry-After hint.
+ */
+@Log4j2
+public class MLTaskAdmissionController {
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
+    public static final int RETRY_AFTER_SECONDS = 1;
+
+    private final ThreadPool threadPool;
+    // guarded by this
+    private final Map<MLTaskType, Integer> runningTasks;
+    private int totalRunningTasks;
+    private final PriorityQueue<PendingTask> pendingTasks;
+    private long pendingTaskSequence;
+
+    private volatile int maxMLTaskPerNode;
+    private volatile int maxTrainingTaskPerNode;
+    private volatile int maxPredictionTaskPerNode;
+    private volatile int maxExecutionTaskPerNode;
+    private volatile int predictQueueSize;
+    private volatile TimeValue predictQueueTimeout;
+
+    public MLTaskAdmissionController(Settings settings, ClusterService clusterService, ThreadPool threadPool) {
+        this.threadPool = threadPool;
+        this.runningTasks = new EnumMap<>(MLTaskType.class);
+        this.pendingTasks = new PriorityQueue<>(
+            Comparator.comparingLong((PendingTask t) -> t.deadlineNanos).thenComparingLong(t -> t.sequence)
+        );
+
+        this.maxMLTaskPerNode = ML_COMMONS_MAX_ML_TASK_PER_NODE.get(settings);
+        this.maxTrainingTaskPerNode = ML_COMMONS_MAX_TRAINING_TASK_PER_NODE.get(settings);
+        this.maxPredictionTaskPerNode = ML_COMMONS_MAX_PREDICTION_TASK_PER_NODE.get(settings);
+        this.maxExecutionTaskPerNode = ML_COMMONS_MAX_EXECUTION_TASK_PER_NODE.get(settings);
+        this.predictQueueSize = ML_COMMONS_PREDICT_QUEUE_SIZE.get(settings);
+        this.predictQueueTimeout = ML_COMMONS_PREDICT_QUEUE_TIMEOUT.get(settings);
+        ClusterSettings clusterSettings = clusterService.getClusterSettings();
+        clusterSettings.addSettingsUpdateConsumer(ML_COMMONS_MAX_ML_TASK_PER_NODE, it -> maxMLTaskPerNode = it);
+        clusterSettings.addSettingsUpdateConsumer(ML_COMMONS_MAX_TRAINING_TASK_PER_NODE, it -> maxTrainingTaskPerNode = it);
+        clusterSettings.addSettingsUpdateConsumer(ML_COMMONS_MAX_PREDICTION_TASK_PER_NODE, it -> maxPredictionTaskPerNode = it);
+        clusterSettings.addSettingsUpdateConsumer(ML_COMMONS_MAX_EXECUTION_TASK_PER_NODE, it -> maxExecutionTaskPerNode = it);
+        clusterSettings.addSettingsUpdateConsumer(ML_COMMONS_PREDICT_QUEUE_SIZE, it -> predictQueueSize = it);
+        clusterSettings.addSettingsUpdateConsumer(ML_COMMONS_PREDICT_QUEUE_TIMEOUT, it -> predictQueueTimeout = it);
+    }
+
+    /**
+     * Admit ML task. The listener receives a {@link Releasable} which must be closed once the task
+     * completes. Prediction tasks wait in the queue for at most the predict queue timeout, or the
+     * request timeout if it's shorter, when the node is saturated.
+     * @param taskType ML task type
+     * @param requestTimeout time budget of the request, can be null
+     * @param listener action listener
+     */
+    public void admit(MLTaskType taskType, TimeValue requestTimeout, ActionListener<Releasable> listener) {
+        boolean admitted;
+        PendingTask pendingTask = null;
+        synchronized (this) {
+            admitted = tryAcquire(taskType);
+            if (!admitted) {
+                TimeValue maxWait = maxWaitTime(taskType, requestTimeout);
+                if (maxWait.nanos() > 0 && pendingTasks.size() < predictQueueSize) {
+                    pendingTask = new PendingTask(taskType, maxWait, pendingTaskSequence++, listener);
+                    pendingTasks.add(pendingTask);
+                }
+            }
+        }
+        if (admitted) {
+            listener.onResponse(releasable(taskType));
+        } else if (pendingTask != null) {
+            PendingTask task = pendingTask;
+            task.timeout = threadPool.schedule(() -> onTimeout(task), task.maxWait, ThreadPool.Names.SAME);
+        } else {
+            listener.onFailure(rejection(taskType));
+        }
+    }
+
+    /**
+     * Get running task count of the given type.
+     * @param taskType ML task type
+     * @return running task count
+     */
+    public synchronized int getRunningTaskCount(MLTaskType taskType) {
+        return runningTasks.getOrDefault(taskType, 0);
+    }
+
+    /**
+     * Get number of tasks waiting for a free slot.
+     * @return pending task count
+     */
+    public synchronized int getPendingTaskCount() {
+        return pendingTasks.size();
+    }
+
+    /**
+     * Create exception telling the client that the ML node is saturated and the request can be retried later.
+     * @param message error message
+     * @return 429 exception with Retry-After header
+     */
+    public static OpenSearchStatusException throttledException(String message) {
+        OpenSearchStatusException exception = new OpenSearchStatusException(message, RestStatus.TOO_MANY_REQUESTS);
+        exception.addHeader(RETRY_AFTER_HEADER, String.valueOf(RETRY_AFTER_SECONDS));
+        return exception;
+    }
+
+    private TimeValue maxWaitTime(MLTaskType taskType, TimeValue requestTimeout) {
+        if (taskType != MLTaskType.PREDICTION) {
+            return TimeValue.ZERO;
+        }
+        TimeValue queueTimeout = predictQueueTimeout;
+        if (requestTimeout != null && requestTimeout.compareTo(queueTimeout) < 0) {
+            return requestTimeout;
+        }
+        return queueTimeout;
+    }
+
+    // must hold the lock
+    private boolean tryAcquire(MLTaskType taskType) {
+        if (totalRunningTasks >= maxMLTaskPerNode || getRunningTaskCountOfSameLimit(taskType) >= getTaskTypeLimit(taskType)) {
+            return false;
+        }
+        runningTasks.merge(taskType, 1, Integer::sum);
+        totalRunningTasks++;
+        return true;
+    }
+
+    // training and train-and-predict tasks share the training limit
+    private int getRunningTaskCountOfSameLimit(MLTaskType taskType) {
+        if (taskType == MLTaskType.TRAINING || taskType == MLTaskType.TRAINING_AND_PREDICTION) {
+            return runningTasks.getOrDefault(MLTaskType.TRAINING, 0) + runningTasks.getOrDefault(MLTaskType.TRAINING_AND_PREDICTION, 0);
+        }
+        return runningTasks.getOrDefault(taskType, 0);
+    }
+
+    private int getTaskTypeLimit(MLTaskType taskType) {
+        switch (taskType) {
+            case PREDICTION:
+                return maxPredictionTaskPerNode;
+            case EXECUTION:
+                return maxExecutionTaskPerNode;
+            default:
+                return maxTrainingTaskPerNode;
+        }
+    }
+
+    private Releasable releasable(MLTaskType taskType) {
+        AtomicBoolean released = new AtomicBoolean(false);
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                release(taskType);
+            }
+        };
+    }
+
+    private void release(MLTaskType taskType) {
+        List<PendingTask> admittedTasks = new ArrayList<>();
+        synchronized (this) {
+            runningTasks.merge(taskType, -1, Integer::sum);
+            totalRunningTasks--;
+            while (!pendingTasks.isEmpty() && tryAcquire(pendingTasks.peek().taskType)) {
+                PendingTask pendingTask = pendingTasks.poll();
+                pendingTask.done = true;
+                admittedTasks.add(pendingTask);
+            }
+        }
+        for (PendingTask pendingTask : admittedTasks) {
+            if (pendingTask.timeout != null) {
+                pendingTask.timeout.cancel();
+            }
+            pendingTask.listener.onResponse(releasable(pendingTask.taskType));
+        }
+    }
+
+    private void onTimeout(PendingTask pendingTask) {
+        synchronized (this) {
+            if (pendingTask.done) {
+                return;
+            }
+            pendingTask.done = true;
+            pendingTasks.remove(pendingTask);
+        }
+        log.debug("ML {} task waited {} without getting a free slot", pendingTask.taskType, pendingTask.maxWait);
+        pendingTask.listener.onFailure(rejection(pendingTask.taskType));
+    }
+
+    private OpenSearchStatusException rejection(MLTaskType taskType) {
+        return throttledException(
+            String.format(Locale.ROOT, "Too many ML tasks running on this node, rejected %s task", taskType.name().toLowerCase(Locale.ROOT))
+        );
+    }
+
+    private static class PendingTask {
+        private final MLTaskType taskType;
+        private final TimeValue maxWait;
+        private final long deadlineNanos;
+        private final long sequence;
+        private final ActionListener<Releasable> listener;
+        // guarded by the controller lock
+        private boolean done;
+        private volatile Scheduler.ScheduledCancellable timeout;
+
+        PendingTask(MLTaskType taskType, TimeValue maxWait, long sequence, ActionListener<Releasable> listener) {
+            this.taskType = taskType;
+            this.maxWait = maxWait;
+            this.deadlineNanos = System.nanoTime() + maxWait.nanos();
+            this.sequence = sequence;
+            this.listener = listener;
+        }
+    }
+}
@@ -6,16 +6,22 @@
 package org.opensearch.ml.task;
 
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
 
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 
 import org.opensearch.ml.common.MLTask;
+import org.opensearch.ml.common.MLTaskState;
 
 @Getter
 public class MLTaskCache {
     MLTask mlTask;
     Semaphore updateTaskIndexSemaphore;
+    // latest state and error of the task, replaced as a whole with CAS on every transition
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<TaskStatus> status;
 
     @Builder
     public MLTaskCache(MLTask mlTask) {
@@ -23,5 +29,82 @@ public class MLTaskCache {
         if (mlTask.isAsync()) {
             updateTaskIndexSemaphore = new Semaphore(1);
         }
+        this.status = new AtomicReference<>(new TaskStatus(mlTask.getState(), mlTask.getError(), false));
+    }
+
+    /**
+     * Get latest status of the task.
+     * @return task status
+     */
+    public TaskStatus getStatus() {
+        return status.get();
+    }
+
+    /**
+     * Atomically update state and error of the task. Null state or error keeps the current value.
+     * @param state new task state, can be null
+     * @param error new error message, can be null
+     * @return status before the update, or null if the task is already removed
+     */
+    public TaskStatus updateStatus(MLTaskState state, String error) {
+        while (true) {
+            TaskStatus current = status.get();
+            if (current.isRemoved()) {
+                return null;
+            }
+            TaskStatus updated = new TaskStatus(
+                state == null ? current.getState() : state,
+                error == null ? current.getError() : error,
+                false
+            );
+            if (status.compareAndSet(current, updated)) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Mark the task as removed, so later updates are ignored.
+     * @return status before removal, or null if the task is already removed
+     */
+    public TaskStatus markRemoved() {
+        while (true) {
+            TaskStatus current = status.get();
+            if (current.isRemoved()) {
+                return null;
+            }
+            if (status.compareAndSet(current, new TaskStatus(current.getState(), current.getError(), true))) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Build a copy of the ML task with latest state and error.
+     * @return ML task
+     */
+    public MLTask snapshot() {
+        TaskStatus current = status.get();
+        return mlTask.toBuilder().state(current.getState()).error(current.getError()).build();
+    }
+
+    /**
+     * Immutable state and error of a cached task.
+     */
+    @Getter
+    public static final class TaskStatus {
+        private final MLTaskState state;
+        private final String error;
+        private final boolean removed;
+
+        TaskStatus(MLTaskState state, String error, boolean removed) {
+            this.state = state;
+            this.error = error;
+            this.removed = removed;
+        }
+
+        public boolean isRunning() {
+            return state == MLTaskState.RUNNING;
+        }
     }
 }
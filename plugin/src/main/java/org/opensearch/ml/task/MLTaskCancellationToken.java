@@ -0,0 +1,92 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import java.util.concurrent.TimeUnit;
+
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.ml.common.transport.MLCancellableTask;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.tasks.CancellableTask;
+import org.opensearch.tasks.TaskCancelledException;
+
+/**
+ * MLTaskCancellationToken stops an ML task when the OpenSearch task is cancelled or
+ * the time budget of the ML request runs out.
+ */
+public class MLTaskCancellationToken implements CancellationToken {
+    private final CancellableTask task;
+    private final TimeValue timeout;
+    private final long deadlineNanos;
+
+    /**
+     * Constructor.
+     * @param task cancellable task, can be null
+     * @param timeout time budget, null means no time limit
+     */
+    public MLTaskCancellationToken(CancellableTask task, TimeValue timeout) {
+        this.task = task;
+        this.timeout = timeout;
+        this.deadlineNanos = timeout == null ? Long.MAX_VALUE : System.nanoTime() + timeout.nanos();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return isTaskCancelled() || isTimedOut();
+    }
+
+    @Override
+    public void ensureNotCancelled() {
+        if (isTaskCancelled()) {
+            throw new TaskCancelledException("ML task cancelled, reason: " + task.getReasonCancelled());
+        }
+        if (isTimedOut()) {
+            throw new TaskCancelledException("ML task timed out after " + timeout);
+        }
+    }
+
+    /**
+     * Get the time left until the time budget runs out, rounded up to milliseconds, so the token is timed out once
+     * the remaining time has elapsed.
+     * @return remaining time, null means no time limit
+     */
+    public TimeValue getRemainingTime() {
+        if (timeout == null) {
+            return null;
+        }
+        long remainingNanos = deadlineNanos - System.nanoTime();
+        return TimeValue.timeValueMillis(Math.max(0, TimeUnit.NANOSECONDS.toMillis(remainingNanos) + 1));
+    }
+
+    /**
+     * Add listener which runs once when the OpenSearch task is cancelled. Nothing happens if the task doesn't
+     * notify about cancellation.
+     * @param listener cancellation listener
+     */
+    public void addCancellationListener(Runnable listener) {
+        if (task instanceof MLCancellableTask) {
+            ((MLCancellableTask) task).addCancellationListener(listener);
+        }
+    }
+
+    /**
+     * Remove cancellation listener which isn't needed anymore.
+     * @param listener cancellation listener
+     */
+    public void removeCancellationListener(Runnable listener) {
+        if (task instanceof MLCancellableTask) {
+            ((MLCancellableTask) task).removeCancellationListener(listener);
+        }
+    }
+
+    private boolean isTaskCancelled() {
+        return task != null && task.isCancelled();
+    }
+
+    private boolean isTimedOut() {
+        return timeout != null && System.nanoTime() - deadlineNanos >= 0;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.opensearch.common.cache.Cache;
+import org.opensearch.common.cache.CacheBuilder;
+import org.opensearch.ml.common.FunctionName;
+import org.opensearch.ml.common.MLTaskType;
+import org.opensearch.ml.common.dataframe.DataFrame;
+import org.opensearch.ml.common.dataset.DataFrameInputDataset;
+import org.opensearch.ml.common.dataset.MLInputDataset;
+import org.opensearch.ml.common.dataset.SearchQueryInputDataset;
+import org.opensearch.ml.common.input.MLInput;
+
+/**
+ * MLTaskCostEstimator estimates how much work an ML task takes, so tasks can be dispatched by outstanding
+ * work instead of task count. The cost is rows x columns x a per algorithm factor, plus the model size for
+ * prediction tasks whose model was loaded on this node before. Costs are relative units, not time.
+ */
+public class MLTaskCostEstimator {
+    // OpenSearch returns 10 hits when the search query doesn't set size
+    static final int DEFAULT_SEARCH_ROW_COUNT = 10;
+    // column count of search query input is only known once the data is read
+    static final int DEFAULT_SEARCH_COLUMN_COUNT = 10;
+    // model bytes deserialized per cost unit
+    static final int MODEL_BYTES_PER_COST_UNIT = 100;
+    private static final int MAX_CACHED_MODEL_SIZES = 1000;
+
+    private static final Map<FunctionName, Integer> TRAINING_COST_FACTORS = new EnumMap<>(FunctionName.class);
+    private static final Map<FunctionName, Integer> PREDICTION_COST_FACTORS = new EnumMap<>(FunctionName.class);
+
+    static {
+        TRAINING_COST_FACTORS.put(FunctionName.LINEAR_REGRESSION, 10);
+        TRAINING_COST_FACTORS.put(FunctionName.KMEANS, 20);
+        TRAINING_COST_FACTORS.put(FunctionName.FIT_RCF, 50);
+        TRAINING_COST_FACTORS.put(FunctionName.BATCH_RCF, 50);
+        TRAINING_COST_FACTORS.put(FunctionName.AD_LIBSVM, 100);
+        PREDICTION_COST_FACTORS.put(FunctionName.FIT_RCF, 10);
+        PREDICTION_COST_FACTORS.put(FunctionName.BATCH_RCF, 10);
+        PREDICTION_COST_FACTORS.put(FunctionName.AD_LIBSVM, 5);
+    }
+
+    private final Cache<String, Long> modelSizes;
+
+    public MLTaskCostEstimator() {
+        this.modelSizes = CacheBuilder.<String, Long>builder().setMaximumWeight(MAX_CACHED_MODEL_SIZES).build();
+    }
+
+    /**
+     * Estimate cost of ML task.
+     * @param taskType ML task type
+     * @param mlInput ML input
+     * @param modelId model id of prediction task, can be null
+     * @return estimated cost, at least 1
+     */
+    public long estimate(MLTaskType taskType, MLInput mlInput, String modelId) {
+        long rows = DEFAULT_SEARCH_ROW_COUNT;
+        long columns = DEFAULT_SEARCH_COLUMN_COUNT;
+        MLInputDataset inputDataset = mlInput.getInputDataset();
+        if (inputDataset instanceof DataFrameInputDataset) {
+            DataFrame dataFrame = ((DataFrameInputDataset) inputDataset).getDataFrame();
+            rows = dataFrame.size();
+            columns = dataFrame.columnMetas().length;
+        } else if (inputDataset instanceof SearchQueryInputDataset) {
+            int size = ((SearchQueryInputDataset) inputDataset).getSearchSourceBuilder().size();
+            rows = size >= 0 ? size : DEFAULT_SEARCH_ROW_COUNT;
+        }
+        long cost = rows * columns * costFactor(taskType, mlInput.getAlgorithm());
+        if (taskType == MLTaskType.TRAINING_AND_PREDICTION) {
+            cost += rows * columns * costFactor(MLTaskType.PREDICTION, mlInput.getAlgorithm());
+        }
+        if (modelId != null) {
+            Long modelSize = modelSizes.get(modelId);
+            if (modelSize != null) {
+                cost += modelSize / MODEL_BYTES_PER_COST_UNIT;
+            }
+        }
+        return Math.max(1, cost);
+    }
+
+    /**
+     * Remember size of a loaded model, so later prediction tasks of the model include the cost of loading it.
+     * @param modelId model id
+     * @param sizeInBytes model content size in bytes
+     */
+    public void recordModelSize(String modelId, long sizeInBytes) {
+        modelSizes.put(modelId, sizeInBytes);
+    }
+
+    private int costFactor(MLTaskType taskType, FunctionName functionName) {
+        Map<FunctionName, Integer> factors = taskType == MLTaskType.PREDICTION ? PREDICTION_COST_FACTORS : TRAINING_COST_FACTORS;
+        return factors.getOrDefault(functionName, 1);
+    }
+}
@@ -5,32 +5,67 @@
 
 package org.opensearch.ml.task;
 
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_DISPATCH_DATA_LOCALITY_ENABLED;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_DISPATCH_FALLBACK_TO_DATA_NODE;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_DISPATCH_POLICY;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_MAX_ML_TASK_PER_NODE;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_NODE_LOAD_MAX_STALENESS;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_NODE_LOAD_REFRESH_INTERVAL;
 import static org.opensearch.ml.stats.InternalStatNames.JVM_HEAP_USAGE;
 import static org.opensearch.ml.stats.StatNames.ML_EXECUTING_TASK_COUNT;
+import static org.opensearch.ml.stats.StatNames.ML_OUTSTANDING_TASK_COST;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
-import javax.naming.LimitExceededException;
-
+import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
 
 import org.opensearch.action.ActionListener;
 import org.opensearch.client.Client;
 import org.opensearch.cluster.ClusterState;
+import org.opensearch.cluster.metadata.IndexAbstraction;
+import org.opensearch.cluster.metadata.IndexMetadata;
 import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.cluster.routing.IndexRoutingTable;
+import org.opensearch.cluster.routing.IndexShardRoutingTable;
+import org.opensearch.cluster.routing.Murmur3HashFunction;
+import org.opensearch.cluster.routing.ShardRouting;
 import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.regex.Regex;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.ml.action.stats.MLStatsNodeResponse;
 import org.opensearch.ml.action.stats.MLStatsNodesAction;
 import org.opensearch.ml.action.stats.MLStatsNodesRequest;
+import org.opensearch.ml.common.MLTaskType;
+import org.opensearch.ml.common.exception.MLResourceNotFoundException;
+import org.opensearch.ml.common.input.MLInput;
+import org.opensearch.ml.utils.MLNodeUtils;
 
 import com.google.common.collect.ImmutableSet;
 
 /**
  * MLTaskDispatcher is responsible for dispatching the ml tasks.
- * TODO: Add more test
+ * Tasks run on nodes with the ML role if the cluster has any, otherwise on data nodes when fallback is enabled.
+ * Among nodes under the task and memory limits, the node is picked by the dispatch policy, by default the one
+ * with least outstanding task cost. Tasks reading a search query input prefer nodes holding shards of the source
+ * indices when their load is comparable, so less training data is pulled across the network.
+ * Node load is read from a cached view of all eligible nodes. The view is refreshed in the background
+ * once it's older than the refresh interval, and dispatching only waits for a refresh when the view is
+ * empty or older than the max staleness.
  */
 @Log4j2
 public class MLTaskDispatcher {
@@ -38,12 +73,67 @@ public class MLTaskDispatcher {
     private final short DEFAULT_JVM_HEAP_USAGE_THRESHOLD = 85;
     private final ClusterService clusterService;
     private final Client client;
+    private final LongSupplier nanoTimeSupplier;
     private volatile Integer maxMLBatchTaskPerNode;
+    private volatile TimeValue nodeLoadRefreshInterval;
+    private volatile TimeValue nodeLoadMaxStaleness;
+    private volatile boolean fallbackToDataNode;
+    private volatile DispatchPolicy dispatchPolicy;
+    private volatile boolean dataLocalityEnabled;
+    private final MLTaskCostEstimator mlTaskCostEstimator;
+
+    private volatile NodeLoadView nodeLoadView;
+    // guarded by this, listeners waiting for the running node load refresh
+    private List<ActionListener<NodeLoadView>> refreshListeners;
+
+    public MLTaskDispatcher(ClusterService clusterService, Client client, Settings settings) {
+        this(clusterService, client, settings, System::nanoTime);
+    }
 
-    public MLTaskDispatcher(ClusterService clusterService, Client client) {
+    MLTaskDispatcher(ClusterService clusterService, Client client, Settings settings, LongSupplier nanoTimeSupplier) {
         this.clusterService = clusterService;
         this.client = client;
-        this.maxMLBatchTaskPerNode = MLTaskManager.MAX_ML_TASK_PER_NODE;
+        this.nanoTimeSupplier = nanoTimeSupplier;
+        this.maxMLBatchTaskPerNode = ML_COMMONS_MAX_ML_TASK_PER_NODE.get(settings);
+        this.nodeLoadRefreshInterval = ML_COMMONS_NODE_LOAD_REFRESH_INTERVAL.get(settings);
+        this.nodeLoadMaxStaleness = ML_COMMONS_NODE_LOAD_MAX_STALENESS.get(settings);
+        this.fallbackToDataNode = ML_COMMONS_DISPATCH_FALLBACK_TO_DATA_NODE.get(settings);
+        this.dispatchPolicy = ML_COMMONS_DISPATCH_POLICY.get(settings);
+        this.dataLocalityEnabled = ML_COMMONS_DISPATCH_DATA_LOCALITY_ENABLED.get(settings);
+        this.mlTaskCostEstimator = new MLTaskCostEstimator();
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(ML_COMMONS_MAX_ML_TASK_PER_NODE, it -> maxMLBatchTaskPerNode = it);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(ML_COMMONS_NODE_LOAD_REFRESH_INTERVAL, it -> {
+            nodeLoadRefreshInterval = it;
+            nodeLoadView = null;
+        });
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(ML_COMMONS_NODE_LOAD_MAX_STALENESS, it -> nodeLoadMaxStaleness = it);
+        clusterService
+            .getClusterSettings()
+            .addSettingsUpdateConsumer(ML_COMMONS_DISPATCH_FALLBACK_TO_DATA_NODE, it -> fallbackToDataNode = it);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(ML_COMMONS_DISPATCH_POLICY, it -> dispatchPolicy = it);
+        clusterService
+            .getClusterSettings()
+            .addSettingsUpdateConsumer(ML_COMMONS_DISPATCH_DATA_LOCALITY_ENABLED, it -> dataLocalityEnabled = it);
+    }
+
+    /**
+     * Estimate cost of ML task.
+     * @param taskType ML task type
+     * @param mlInput ML input
+     * @param modelId model id of prediction task, can be null
+     * @return estimated cost
+     */
+    public long estimateTaskCost(MLTaskType taskType, MLInput mlInput, String modelId) {
+        return mlTaskCostEstimator.estimate(taskType, mlInput, modelId);
+    }
+
+    /**
+     * Remember size of a loaded model, so prediction tasks of the model are estimated with the model size.
+     * @param modelId model id
+     * @param sizeInBytes model content size in bytes
+     */
+    public void recordModelSize(String modelId, long sizeInBytes) {
+        mlTaskCostEstimator.recordModelSize(modelId, sizeInBytes);
     }
 
     /**
@@ -51,71 +141,388 @@ public class MLTaskDispatcher {
      * @param listener Action listener
      */
     public void dispatchTask(ActionListener<DiscoveryNode> listener) {
-        // todo: add ML node type setting check
-        // DiscoveryNode[] mlNodes = getEligibleMLNodes();
-        DiscoveryNode[] mlNodes = getEligibleDataNodes();
-        MLStatsNodesRequest MLStatsNodesRequest = new MLStatsNodesRequest(mlNodes);
-        MLStatsNodesRequest.addAll(ImmutableSet.of(ML_EXECUTING_TASK_COUNT, JVM_HEAP_USAGE.getName()));
-
-        client.execute(MLStatsNodesAction.INSTANCE, MLStatsNodesRequest, ActionListener.wrap(mlStatsResponse -> {
-            // Check JVM pressure
-            List<MLStatsNodeResponse> candidateNodeResponse = mlStatsResponse
-                .getNodes()
-                .stream()
-                .filter(stat -> (long) stat.getStatsMap().get(JVM_HEAP_USAGE.getName()) < DEFAULT_JVM_HEAP_USAGE_THRESHOLD)
-                .collect(Collectors.toList());
-
-            if (candidateNodeResponse.size() == 0) {
-                String errorMessage = "All nodes' memory usage exceeds limitation "
-                    + DEFAULT_JVM_HEAP_USAGE_THRESHOLD
-                    + ". No eligible node available to run ml jobs ";
-                log.warn(errorMessage);
-                listener.onFailure(new LimitExceededException(errorMessage));
+        dispatchTask(1, listener);
+    }
+
+    /**
+     * Select node to run ML task with the given cost. Nodes exceeding JVM_HEAP_USAGE or ML_EXECUTING_TASK_COUNT
+     * limits are skipped, and the node is picked from the rest by the dispatch policy.
+     * @param taskCost estimated cost of the task
+     * @param listener Action listener
+     */
+    public void dispatchTask(long taskCost, ActionListener<DiscoveryNode> listener) {
+        dispatchTask(taskCost, Collections.emptyList(), listener);
+    }
+
+    /**
+     * Select node to run ML task with the given cost which reads data from the source indices. Among nodes with
+     * comparable load, the node holding most shards of the source indices is preferred.
+     * @param taskCost estimated cost of the task
+     * @param sourceIndices indices the task reads input data from, can be empty
+     * @param listener Action listener
+     */
+    public void dispatchTask(long taskCost, List<String> sourceIndices, ActionListener<DiscoveryNode> listener) {
+        DiscoveryNode[] mlNodes = getEligibleNodes();
+        if (mlNodes.length == 0) {
+            String errorMessage = fallbackToDataNode
+                ? "No ML node or data node available to run ML task"
+                : "No ML node available to run ML task";
+            log.warn(errorMessage);
+            listener.onFailure(new MLResourceNotFoundException(errorMessage));
+            return;
+        }
+        NodeLoadView view = nodeLoadView;
+        long refreshIntervalInNanos = nodeLoadRefreshInterval.nanos();
+        if (refreshIntervalInNanos > 0 && view != null) {
+            long age = nanoTimeSupplier.getAsLong() - view.getCreateTimeInNanos();
+            List<NodeLoad> nodeLoads = view.getNodeLoads(mlNodes);
+            if (age <= nodeLoadMaxStaleness.nanos() && nodeLoads.size() > 0) {
+                if (age > refreshIntervalInNanos || nodeLoads.size() < mlNodes.length) {
+                    // refresh ahead, this dispatch still uses the cached view
+                    refreshNodeLoads(mlNodes, ActionListener.wrap(r -> {}, e -> log.warn("Failed to refresh ML node load", e)));
+                }
+                selectNode(nodeLoads, taskCost, sourceIndices, listener);
                 return;
             }
+        }
+        refreshNodeLoads(
+            mlNodes,
+            ActionListener.wrap(r -> selectNode(r.getNodeLoads(mlNodes), taskCost, sourceIndices, listener), exception -> {
+                log.error("Failed to get node's task stats", exception);
+                listener.onFailure(exception);
+            })
+        );
+    }
 
-            // Check # of executing ML task
-            candidateNodeResponse = candidateNodeResponse
-                .stream()
-                .filter(stat -> (Long) stat.getStatsMap().get(ML_EXECUTING_TASK_COUNT) < maxMLBatchTaskPerNode)
-                .collect(Collectors.toList());
-            if (candidateNodeResponse.size() == 0) {
-                String errorMessage = "All nodes' executing ML task count reach limitation.";
-                log.warn(errorMessage);
-                listener.onFailure(new LimitExceededException(errorMessage));
-                return;
+    /**
+     * Select the node owning the key, so that all ML tasks of the key run on the same node while the eligible
+     * nodes don't change. Nodes are ranked by rendezvous hashing, so a node joining or leaving the cluster only
+     * moves the keys owned by that node.
+     * @param key key of the ML tasks, like model id
+     * @param listener Action listener
+     */
+    public void dispatchTaskToOwner(String key, ActionListener<DiscoveryNode> listener) {
+        DiscoveryNode[] mlNodes = getEligibleNodes();
+        if (mlNodes.length == 0) {
+            String errorMessage = fallbackToDataNode
+                ? "No ML node or data node available to run ML task"
+                : "No ML node available to run ML task";
+            log.warn(errorMessage);
+            listener.onFailure(new MLResourceNotFoundException(errorMessage));
+            return;
+        }
+        DiscoveryNode owner = null;
+        int ownerHash = 0;
+        for (DiscoveryNode node : mlNodes) {
+            int hash = Murmur3HashFunction.hash(key + "#" + node.getId());
+            if (owner == null || hash > ownerHash || (hash == ownerHash && node.getId().compareTo(owner.getId()) < 0)) {
+                owner = node;
+                ownerHash = hash;
+            }
+        }
+        listener.onResponse(owner);
+    }
+
+    private void selectNode(
+        List<NodeLoad> nodeLoads,
+        long taskCost,
+        List<String> sourceIndices,
+        ActionListener<DiscoveryNode> listener
+    ) {
+        // Check JVM pressure
+        List<NodeLoad> candidateNodes = nodeLoads
+            .stream()
+            .filter(load -> load.getJvmHeapUsage() < DEFAULT_JVM_HEAP_USAGE_THRESHOLD)
+            .collect(Collectors.toList());
+
+        if (candidateNodes.size() == 0) {
+            String errorMessage = "All nodes' memory usage exceeds limitation "
+                + DEFAULT_JVM_HEAP_USAGE_THRESHOLD
+                + ". No eligible node available to run ml jobs ";
+            log.warn(errorMessage);
+            listener.onFailure(MLTaskAdmissionController.throttledException(errorMessage));
+            return;
+        }
+
+        // Check # of executing ML task
+        candidateNodes = candidateNodes
+            .stream()
+            .filter(load -> load.getExecutingTaskCount() < maxMLBatchTaskPerNode)
+            .collect(Collectors.toList());
+        if (candidateNodes.size() == 0) {
+            String errorMessage = "All nodes' executing ML task count reach limitation.";
+            log.warn(errorMessage);
+            listener.onFailure(MLTaskAdmissionController.throttledException(errorMessage));
+            return;
+        }
+
+        NodeLoad targetNode = pickNode(candidateNodes, dispatchPolicy);
+        if (dataLocalityEnabled && sourceIndices.size() > 0) {
+            Map<String, Integer> localShardCounts = localShardCounts(clusterService.state(), sourceIndices);
+            targetNode = preferDataLocalNode(candidateNodes, targetNode, taskCost, localShardCounts);
+        }
+        // count the dispatched task until the next refresh, so tasks dispatched from the same view spread out
+        targetNode.dispatched(taskCost);
+        listener.onResponse(targetNode.getNode());
+    }
+
+    static NodeLoad pickNode(List<NodeLoad> candidateNodes, DispatchPolicy policy) {
+        // if multiple nodes have same running task count, choose the one with least JVM heap usage.
+        Comparator<NodeLoad> leastTask = Comparator
+            .comparingLong(NodeLoad::getExecutingTaskCount)
+            .thenComparingLong(NodeLoad::getJvmHeapUsage);
+        Comparator<NodeLoad> leastCost = Comparator.comparingLong(NodeLoad::getOutstandingCost).thenComparing(leastTask);
+        switch (policy) {
+            case LEAST_TASK:
+                return candidateNodes.stream().min(leastTask).get();
+            case POWER_OF_TWO_CHOICES:
+                if (candidateNodes.size() > 2) {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    int first = random.nextInt(candidateNodes.size());
+                    int second = random.nextInt(candidateNodes.size() - 1);
+                    if (second >= first) {
+                        second++;
+                    }
+                    NodeLoad firstNode = candidateNodes.get(first);
+                    NodeLoad secondNode = candidateNodes.get(second);
+                    return leastCost.compare(firstNode, secondNode) <= 0 ? firstNode : secondNode;
+                }
+                return candidateNodes.stream().min(leastCost).get();
+            default:
+                return candidateNodes.stream().min(leastCost).get();
+        }
+    }
+
+    /**
+     * Pick the node holding most shards of the source indices among nodes whose load is comparable with the target
+     * node: outstanding cost within the cost of the task and at most one more executing task.
+     */
+    static NodeLoad preferDataLocalNode(
+        List<NodeLoad> candidateNodes,
+        NodeLoad targetNode,
+        long taskCost,
+        Map<String, Integer> localShardCounts
+    ) {
+        NodeLoad preferredNode = targetNode;
+        int preferredShardCount = localShardCounts.getOrDefault(targetNode.getNode().getId(), 0);
+        long maxCost = targetNode.getOutstandingCost() + taskCost;
+        long maxTaskCount = targetNode.getExecutingTaskCount() + 1;
+        for (NodeLoad load : candidateNodes) {
+            int shardCount = localShardCounts.getOrDefault(load.getNode().getId(), 0);
+            if (shardCount > preferredShardCount && load.getOutstandingCost() <= maxCost && load.getExecutingTaskCount() <= maxTaskCount) {
+                preferredNode = load;
+                preferredShardCount = shardCount;
             }
+        }
+        return preferredNode;
+    }
 
-            // sort nodes by JVM usage percentage and # of executing ML task
-            Optional<MLStatsNodeResponse> targetNode = candidateNodeResponse
-                .stream()
-                .sorted((MLStatsNodeResponse r1, MLStatsNodeResponse r2) -> {
-                    int result = ((Long) r1.getStatsMap().get(ML_EXECUTING_TASK_COUNT))
-                        .compareTo((Long) r2.getStatsMap().get(ML_EXECUTING_TASK_COUNT));
-                    if (result == 0) {
-                        // if multiple nodes have same running task count, choose the one with least
-                        // JVM heap usage.
-                        return ((Long) r1.getStatsMap().get(JVM_HEAP_USAGE.getName()))
-                            .compareTo((Long) r2.getStatsMap().get(JVM_HEAP_USAGE.getName()));
+    /**
+     * Count started shards of the indices on each node. Index names can be aliases or wildcard patterns.
+     * @param state cluster state
+     * @param indices index names
+     * @return node id to number of shards of the indices on the node
+     */
+    static Map<String, Integer> localShardCounts(ClusterState state, List<String> indices) {
+        Map<String, Integer> shardCounts = new HashMap<>();
+        for (String index : concreteIndices(state, indices)) {
+            IndexRoutingTable indexRoutingTable = state.routingTable().index(index);
+            if (indexRoutingTable == null) {
+                continue;
+            }
+            for (IndexShardRoutingTable shardRoutingTable : indexRoutingTable) {
+                for (ShardRouting shardRouting : shardRoutingTable) {
+                    if (shardRouting.started()) {
+                        shardCounts.merge(shardRouting.currentNodeId(), 1, Integer::sum);
                     }
-                    return result;
-                })
-                .findFirst();
-            listener.onResponse(targetNode.get().getNode());
-        }, exception -> {
-            log.error("Failed to get node's task stats", exception);
-            listener.onFailure(exception);
-        }));
+                }
+            }
+        }
+        return shardCounts;
     }
 
-    private DiscoveryNode[] getEligibleDataNodes() {
+    /**
+     * Resolve index names, aliases and wildcard patterns to concrete index names.
+     * @param state cluster state
+     * @param indices index names, aliases or wildcard patterns
+     * @return concrete index names
+     */
+    static Set<String> concreteIndices(ClusterState state, List<String> indices) {
+        Map<String, IndexAbstraction> indicesLookup = state.metadata().getIndicesLookup();
+        Set<String> concreteIndices = new HashSet<>();
+        for (String name : indices) {
+            if (Regex.isSimpleMatchPattern(name)) {
+                for (Map.Entry<String, IndexAbstraction> entry : indicesLookup.entrySet()) {
+                    if (Regex.simpleMatch(name, entry.getKey())) {
+                        addConcreteIndices(entry.getValue(), concreteIndices);
+                    }
+                }
+            } else if (indicesLookup.containsKey(name)) {
+                addConcreteIndices(indicesLookup.get(name), concreteIndices);
+            }
+        }
+        return concreteIndices;
+    }
+
+    private static void addConcreteIndices(IndexAbstraction indexAbstraction, Set<String> concreteIndices) {
+        for (IndexMetadata indexMetadata : indexAbstraction.getIndices()) {
+            concreteIndices.add(indexMetadata.getIndex().getName());
+        }
+    }
+
+    private void refreshNodeLoads(DiscoveryNode[] mlNodes, ActionListener<NodeLoadView> listener) {
+        synchronized (this) {
+            if (refreshListeners != null) {
+                refreshListeners.add(listener);
+                return;
+            }
+            refreshListeners = new ArrayList<>();
+            refreshListeners.add(listener);
+        }
+        MLStatsNodesRequest MLStatsNodesRequest = new MLStatsNodesRequest(mlNodes);
+        MLStatsNodesRequest.addAll(ImmutableSet.of(ML_EXECUTING_TASK_COUNT, JVM_HEAP_USAGE.getName(), ML_OUTSTANDING_TASK_COST));
+        long requestTimeInNanos = nanoTimeSupplier.getAsLong();
+        try {
+            client.execute(MLStatsNodesAction.INSTANCE, MLStatsNodesRequest, ActionListener.wrap(mlStatsResponse -> {
+                Map<String, NodeLoad> nodeLoads = new HashMap<>();
+                for (MLStatsNodeResponse response : mlStatsResponse.getNodes()) {
+                    // nodes of older versions don't report outstanding cost
+                    Object outstandingCost = response.getStatsMap().get(ML_OUTSTANDING_TASK_COST);
+                    NodeLoad nodeLoad = new NodeLoad(
+                        response.getNode(),
+                        (Long) response.getStatsMap().get(ML_EXECUTING_TASK_COUNT),
+                        (Long) response.getStatsMap().get(JVM_HEAP_USAGE.getName()),
+                        outstandingCost == null ? 0 : (Long) outstandingCost
+                    );
+                    nodeLoads.put(response.getNode().getId(), nodeLoad);
+                }
+                NodeLoadView view = new NodeLoadView(requestTimeInNanos, nodeLoads);
+                if (nodeLoadRefreshInterval.nanos() > 0) {
+                    nodeLoadView = view;
+                }
+                onRefreshDone(l -> l.onResponse(view));
+            }, e -> onRefreshDone(l -> l.onFailure(e))));
+        } catch (Exception e) {
+            onRefreshDone(l -> l.onFailure(e));
+        }
+    }
+
+    private void onRefreshDone(Consumer<ActionListener<NodeLoadView>> notifier) {
+        List<ActionListener<NodeLoadView>> listeners;
+        synchronized (this) {
+            listeners = refreshListeners;
+            refreshListeners = null;
+        }
+        if (listeners == null) {
+            return;
+        }
+        for (ActionListener<NodeLoadView> listener : listeners) {
+            notifier.accept(listener);
+        }
+    }
+
+    /**
+     * Get nodes which can run ML tasks. Nodes with the ML role are preferred, data nodes are only used when the
+     * cluster has no ML node and fallback to data node is enabled.
+     * @return eligible nodes
+     */
+    DiscoveryNode[] getEligibleNodes() {
         ClusterState state = this.clusterService.state();
+        final List<DiscoveryNode> eligibleMLNodes = new ArrayList<>();
         final List<DiscoveryNode> eligibleDataNodes = new ArrayList<>();
         for (DiscoveryNode node : state.nodes()) {
-            if (node.isDataNode()) {
+            if (MLNodeUtils.isMLNode(node)) {
+                eligibleMLNodes.add(node);
+            } else if (node.isDataNode()) {
                 eligibleDataNodes.add(node);
             }
         }
+        if (eligibleMLNodes.size() > 0 || !fallbackToDataNode) {
+            return eligibleMLNodes.toArray(new DiscoveryNode[0]);
+        }
         return eligibleDataNodes.toArray(new DiscoveryNode[0]);
     }
+
+    /**
+     * Load of all eligible nodes read at the same time.
+     */
+    static class NodeLoadView {
+        @Getter
+        private final long createTimeInNanos;
+        private final Map<String, NodeLoad> nodeLoads;
+
+        NodeLoadView(long createTimeInNanos, Map<String, NodeLoad> nodeLoads) {
+            this.createTimeInNanos = createTimeInNanos;
+            this.nodeLoads = Collections.unmodifiableMap(nodeLoads);
+        }
+
+        /**
+         * Get load of the given nodes, nodes not in the view are skipped.
+         */
+        List<NodeLoad> getNodeLoads(DiscoveryNode[] nodes) {
+            List<NodeLoad> loads = new ArrayList<>(nodes.length);
+            for (DiscoveryNode node : nodes) {
+                NodeLoad load = nodeLoads.get(node.getId());
+                if (load != null) {
+                    loads.add(load);
+                }
+            }
+            return loads;
+        }
+    }
+
+    /**
+     * Load of one node, including tasks dispatched to the node since the load was read.
+     */
+    static class NodeLoad {
+        @Getter
+        private final DiscoveryNode node;
+        private final long executingTaskCount;
+        @Getter
+        private final long jvmHeapUsage;
+        private final long outstandingCost;
+        private final AtomicLong dispatchedTaskCount = new AtomicLong();
+        private final AtomicLong dispatchedCost = new AtomicLong();
+
+        NodeLoad(DiscoveryNode node, long executingTaskCount, long jvmHeapUsage, long outstandingCost) {
+            this.node = node;
+            this.executingTaskCount = executingTaskCount;
+            this.jvmHeapUsage = jvmHeapUsage;
+            this.outstandingCost = outstandingCost;
+        }
+
+        long getExecutingTaskCount() {
+            return executingTaskCount + dispatchedTaskCount.get();
+        }
+
+        long getOutstandingCost() {
+            return outstandingCost + dispatchedCost.get();
+        }
+
+        void dispatched(long taskCost) {
+            dispatchedTaskCount.incrementAndGet();
+            dispatchedCost.addAndGet(taskCost);
+        }
+    }
+
+    /**
+     * Policy to pick a node among the nodes which can run the task.
+     */
+    public enum DispatchPolicy {
+        LEAST_TASK,
+        LEAST_COST,
+        POWER_OF_TWO_CHOICES;
+
+        public String getValue() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public static DispatchPolicy from(String value) {
+            try {
+                return DispatchPolicy.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (Exception e) {
+                throw new IllegalArgumentException("Wrong dispatch policy: " + value);
+            }
+        }
+    }
 }
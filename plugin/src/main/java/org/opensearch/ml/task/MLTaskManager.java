@@ -9,11 +9,14 @@ import static org.opensearch.ml.common.MLTask.LAST_UPDATE_TIME_FIELD;
 import static org.opensearch.ml.indices.MLIndicesHandler.ML_TASK_INDEX;
 
 import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import lombok.extern.log4j.Log4j2;
 
@@ -30,6 +33,7 @@ import org.opensearch.common.xcontent.XContentBuilder;
 import org.opensearch.common.xcontent.XContentFactory;
 import org.opensearch.ml.common.MLTask;
 import org.opensearch.ml.common.MLTaskState;
+import org.opensearch.ml.common.MLTaskType;
 import org.opensearch.ml.indices.MLIndicesHandler;
 import org.opensearch.rest.RestStatus;
 
@@ -39,10 +43,12 @@ import org.opensearch.rest.RestStatus;
 @Log4j2
 public class MLTaskManager {
     private final Map<String, MLTaskCache> taskCaches;
-    // TODO: make this value configurable as cluster setting
-    public final static int MAX_ML_TASK_PER_NODE = 10;
     private final Client client;
     private final MLIndicesHandler mlIndicesHandler;
+    private final MLTaskUpdateBuffer mlTaskUpdateBuffer;
+    // maintained on every state transition so reading them doesn't scan the cache
+    private final AtomicInteger runningTaskCount;
+    private final Map<MLTaskType, AtomicInteger> runningTaskCountByType;
 
     /**
      * Constructor to create ML task manager.
@@ -51,9 +57,27 @@ public class MLTaskManager {
      * @param mlIndicesHandler ML indices handler
      */
     public MLTaskManager(Client client, MLIndicesHandler mlIndicesHandler) {
+        this(client, mlIndicesHandler, null);
+    }
+
+    /**
+     * Constructor to create ML task manager which persists task updates in the background.
+     *
+     * @param client client
+     * @param mlIndicesHandler ML indices handler
+     * @param mlTaskUpdateBuffer buffer of ML task updates, null means write each update right away
+     */
+    public MLTaskManager(Client client, MLIndicesHandler mlIndicesHandler, MLTaskUpdateBuffer mlTaskUpdateBuffer) {
         this.client = client;
         this.mlIndicesHandler = mlIndicesHandler;
+        this.mlTaskUpdateBuffer = mlTaskUpdateBuffer;
         taskCaches = new ConcurrentHashMap<>();
+        runningTaskCount = new AtomicInteger();
+        Map<MLTaskType, AtomicInteger> countByType = new EnumMap<>(MLTaskType.class);
+        for (MLTaskType taskType : MLTaskType.values()) {
+            countByType.put(taskType, new AtomicInteger());
+        }
+        runningTaskCountByType = Collections.unmodifiableMap(countByType);
     }
 
     /**
@@ -62,14 +86,15 @@ public class MLTaskManager {
      *
      * @param mlTask ML task
      */
-    public synchronized void add(MLTask mlTask) {
-        // todo: once circuit break is in place, we need to add those checks
-        // to make sure we have some limitation while adding new tasks.
+    public void add(MLTask mlTask) {
         String taskId = mlTask.getTaskId();
-        if (contains(taskId)) {
+        MLTaskCache mlTaskCache = new MLTaskCache(mlTask);
+        if (taskCaches.putIfAbsent(taskId, mlTaskCache) != null) {
             throw new IllegalArgumentException("Duplicate taskId");
         }
-        taskCaches.put(taskId, new MLTaskCache(mlTask));
+        if (mlTaskCache.getStatus().isRunning()) {
+            updateRunningTaskCount(mlTask, 1);
+        }
         log.info("add ML task to cache " + taskId);
     }
 
@@ -79,7 +104,7 @@ public class MLTaskManager {
      * @param state MLTaskState
      * @param isAsyncTask is async task or not
      */
-    public synchronized void updateTaskState(String taskId, MLTaskState state, boolean isAsyncTask) {
+    public void updateTaskState(String taskId, MLTaskState state, boolean isAsyncTask) {
         updateTaskStateAndError(taskId, state, null, isAsyncTask);
     }
 
@@ -89,17 +114,26 @@ public class MLTaskManager {
      * @param error error message
      * @param isAsyncTask is async task
      */
-    public synchronized void updateTaskError(String taskId, String error, boolean isAsyncTask) {
+    public void updateTaskError(String taskId, String error, boolean isAsyncTask) {
         updateTaskStateAndError(taskId, null, error, isAsyncTask);
     }
 
-    public synchronized void updateTaskStateAndError(String taskId, MLTaskState state, String error, boolean isAsyncTask) {
-        if (!contains(taskId)) {
+    /**
+     * Update task state and error. Null state or error keeps the current value.
+     * @param taskId task id
+     * @param state MLTaskState
+     * @param error error message
+     * @param isAsyncTask is async task
+     */
+    public void updateTaskStateAndError(String taskId, MLTaskState state, String error, boolean isAsyncTask) {
+        MLTaskCache mlTaskCache = taskCaches.get(taskId);
+        MLTaskCache.TaskStatus previous = mlTaskCache == null ? null : mlTaskCache.updateStatus(state, error);
+        if (previous == null) {
             throw new IllegalArgumentException("Task not found");
         }
-        MLTask task = get(taskId);
-        task.setState(state);
-        task.setError(error);
+        if (state != null && previous.isRunning() != (state == MLTaskState.RUNNING)) {
+            updateRunningTaskCount(mlTaskCache.getMlTask(), state == MLTaskState.RUNNING ? 1 : -1);
+        }
         if (isAsyncTask) {
             Map<String, Object> updatedFields = new HashMap<>();
             if (state != null) {
@@ -128,8 +162,12 @@ public class MLTaskManager {
      * @param taskId ML task id
      */
     public void remove(String taskId) {
-        if (contains(taskId)) {
-            taskCaches.remove(taskId);
+        MLTaskCache mlTaskCache = taskCaches.remove(taskId);
+        if (mlTaskCache != null) {
+            MLTaskCache.TaskStatus previous = mlTaskCache.markRemoved();
+            if (previous != null && previous.isRunning()) {
+                updateRunningTaskCount(mlTaskCache.getMlTask(), -1);
+            }
             log.info("remove ML task from cache " + taskId);
         }
     }
@@ -138,13 +176,33 @@ public class MLTaskManager {
      * Get task from cache.
      *
      * @param taskId ML task id
-     * @return ML task
+     * @return copy of ML task with latest state
      */
     public MLTask get(String taskId) {
-        if (contains(taskId)) {
-            return taskCaches.get(taskId).getMlTask();
+        MLTaskCache mlTaskCache = taskCaches.get(taskId);
+        return mlTaskCache == null ? null : mlTaskCache.snapshot();
+    }
+
+    /**
+     * Apply updates of the task which are not persisted yet, so a task read from the ML task index
+     * shows its latest state.
+     *
+     * @param mlTask ML task read from index
+     */
+    public void applyPendingUpdate(MLTask mlTask) {
+        if (mlTaskUpdateBuffer == null) {
+            return;
+        }
+        Map<String, Object> pendingUpdate = mlTaskUpdateBuffer.getPendingUpdate(mlTask.getTaskId());
+        if (pendingUpdate.containsKey(MLTask.STATE_FIELD)) {
+            mlTask.setState(MLTaskState.valueOf(pendingUpdate.get(MLTask.STATE_FIELD).toString()));
+        }
+        if (pendingUpdate.containsKey(MLTask.ERROR_FIELD)) {
+            mlTask.setError((String) pendingUpdate.get(MLTask.ERROR_FIELD));
+        }
+        if (pendingUpdate.containsKey(MLTask.MODEL_ID_FIELD)) {
+            mlTask.setModelId((String) pendingUpdate.get(MLTask.MODEL_ID_FIELD));
         }
-        return null;
     }
 
     /**
@@ -153,21 +211,33 @@ public class MLTaskManager {
      * @return running task count
      */
     public int getRunningTaskCount() {
-        int res = 0;
-        for (Map.Entry<String, MLTaskCache> entry : taskCaches.entrySet()) {
-            MLTask mlTask = entry.getValue().getMlTask();
-            if (mlTask.getState() != null && mlTask.getState() == MLTaskState.RUNNING) {
-                res++;
-            }
-        }
-        return res;
+        return runningTaskCount.get();
+    }
+
+    /**
+     * Get running task count of the given task type in cache.
+     *
+     * @param taskType ML task type
+     * @return running task count
+     */
+    public int getRunningTaskCount(MLTaskType taskType) {
+        return runningTaskCountByType.get(taskType).get();
     }
 
     /**
      * Clear all tasks.
      */
     public void clear() {
-        taskCaches.clear();
+        for (String taskId : taskCaches.keySet()) {
+            remove(taskId);
+        }
+    }
+
+    private void updateRunningTaskCount(MLTask mlTask, int delta) {
+        runningTaskCount.addAndGet(delta);
+        if (mlTask.getTaskType() != null) {
+            runningTaskCountByType.get(mlTask.getTaskType()).addAndGet(delta);
+        }
     }
 
     /**
@@ -186,7 +256,7 @@ public class MLTaskManager {
                 XContentBuilder builder = XContentFactory.jsonBuilder();
                 ThreadContext.StoredContext context = client.threadPool().getThreadContext().stashContext()
             ) {
-                request.source(mlTask.toXContent(builder, ToXContent.EMPTY_PARAMS)).setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
+                request.source(mlTask.toXContent(builder, ToXContent.EMPTY_PARAMS)).setRefreshPolicy(getRefreshPolicy());
                 client.index(request, ActionListener.runBefore(listener, () -> context.restore()));
             } catch (Exception e) {
                 log.error("Failed to create AD task for " + mlTask.getFunctionName() + ", " + mlTask.getTaskType(), e);
@@ -227,11 +297,21 @@ public class MLTaskManager {
         ActionListener<UpdateResponse> listener,
         long timeoutInMillis
     ) {
-        if (!taskCaches.containsKey(taskId)) {
+        MLTaskCache mlTaskCache = taskCaches.get(taskId);
+        if (mlTaskCache == null) {
             listener.onFailure(new RuntimeException("Can't find task"));
             return;
         }
-        Semaphore semaphore = taskCaches.get(taskId).getUpdateTaskIndexSemaphore();
+        if (mlTaskUpdateBuffer != null) {
+            // the buffer writes updates of a task in order, no need to wait for the previous update
+            if (updatedFields == null || updatedFields.size() == 0) {
+                listener.onFailure(new IllegalArgumentException("Updated fields is null or empty"));
+                return;
+            }
+            mlTaskUpdateBuffer.update(taskId, updatedFields, listener);
+            return;
+        }
+        Semaphore semaphore = mlTaskCache.getUpdateTaskIndexSemaphore();
         try {
             if (semaphore != null && !semaphore.tryAcquire(timeoutInMillis, TimeUnit.MILLISECONDS)) {
                 listener.onFailure(new RuntimeException("Other updating request not finished yet"));
@@ -252,7 +332,7 @@ public class MLTaskManager {
             updatedContent.putAll(updatedFields);
             updatedContent.put(LAST_UPDATE_TIME_FIELD, Instant.now().toEpochMilli());
             updateRequest.doc(updatedContent);
-            updateRequest.setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
+            updateRequest.setRefreshPolicy(getRefreshPolicy());
             ActionListener<UpdateResponse> actionListener = semaphore == null
                 ? listener
                 : ActionListener.runAfter(listener, () -> semaphore.release());
@@ -267,4 +347,8 @@ public class MLTaskManager {
             listener.onFailure(e);
         }
     }
+
+    private WriteRequest.RefreshPolicy getRefreshPolicy() {
+        return mlTaskUpdateBuffer == null ? WriteRequest.RefreshPolicy.IMMEDIATE : mlTaskUpdateBuffer.getRefreshPolicy();
+    }
 }
@@ -6,22 +6,42 @@
 package org.opensearch.ml.task;
 
 import static org.opensearch.ml.stats.StatNames.ML_EXECUTING_TASK_COUNT;
+import static org.opensearch.ml.stats.StatNames.ML_OUTSTANDING_TASK_COST;
 import static org.opensearch.ml.stats.StatNames.ML_TOTAL_CIRCUIT_BREAKER_TRIGGER_COUNT;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import lombok.extern.log4j.Log4j2;
 
 import org.opensearch.action.ActionListener;
+import org.opensearch.cluster.node.DiscoveryNode;
 import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.lease.Releasable;
+import org.opensearch.common.unit.ByteSizeValue;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.ml.common.MLTask;
 import org.opensearch.ml.common.MLTaskState;
+import org.opensearch.ml.common.MLTaskType;
 import org.opensearch.ml.common.breaker.MLCircuitBreakerService;
+import org.opensearch.ml.common.dataframe.DataFrame;
+import org.opensearch.ml.common.dataset.SearchQueryInputDataset;
 import org.opensearch.ml.common.exception.MLLimitExceededException;
+import org.opensearch.ml.common.input.MLInput;
 import org.opensearch.ml.common.transport.MLTaskRequest;
 import org.opensearch.ml.common.transport.MLTaskResponse;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.engine.MLEngine;
+import org.opensearch.ml.engine.MemoryEstimable;
 import org.opensearch.ml.stats.MLStats;
+import org.opensearch.tasks.CancellableTask;
+import org.opensearch.tasks.Task;
+import org.opensearch.tasks.TaskCancelledException;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.TransportRequestOptions;
 import org.opensearch.transport.TransportResponse;
 import org.opensearch.transport.TransportResponseHandler;
 import org.opensearch.transport.TransportService;
@@ -40,6 +60,7 @@ public abstract class MLTaskRunner<Request extends MLTaskRequest, Response exten
     protected final MLStats mlStats;
     protected final MLTaskDispatcher mlTaskDispatcher;
     protected final MLCircuitBreakerService mlCircuitBreakerService;
+    protected final MLTaskAdmissionController mlTaskAdmissionController;
     private final ClusterService clusterService;
 
     protected static final String TASK_ID = "task_id";
@@ -54,12 +75,14 @@ public abstract class MLTaskRunner<Request extends MLTaskRequest, Response exten
         MLStats mlStats,
         MLTaskDispatcher mlTaskDispatcher,
         MLCircuitBreakerService mlCircuitBreakerService,
+        MLTaskAdmissionController mlTaskAdmissionController,
         ClusterService clusterService
     ) {
         this.mlTaskManager = mlTaskManager;
         this.mlStats = mlStats;
         this.mlTaskDispatcher = mlTaskDispatcher;
         this.mlCircuitBreakerService = mlCircuitBreakerService;
+        this.mlTaskAdmissionController = mlTaskAdmissionController;
         this.clusterService = clusterService;
     }
 
@@ -67,8 +90,8 @@ public abstract class MLTaskRunner<Request extends MLTaskRequest, Response exten
         // update task state to MLTaskState.FAILED
         // update task error
         if (mlTask.isAsync()) {
-            Map<String, Object> updatedFields = ImmutableMap
-                .of(MLTask.STATE_FIELD, MLTaskState.FAILED.name(), MLTask.ERROR_FIELD, e.getMessage());
+            MLTaskState state = e instanceof TaskCancelledException ? MLTaskState.CANCELLED : MLTaskState.FAILED;
+            Map<String, Object> updatedFields = ImmutableMap.of(MLTask.STATE_FIELD, state.name(), MLTask.ERROR_FIELD, e.getMessage());
             // wait for 2 seconds to make sure failed state persisted
             mlTaskManager.updateMLTask(mlTask.getTaskId(), updatedFields, TIMEOUT_IN_MILLIS);
         }
@@ -87,45 +110,252 @@ public abstract class MLTaskRunner<Request extends MLTaskRequest, Response exten
         }
     }
 
+    /**
+     * Estimate training memory of the ML task, and fail fast if it doesn't fit under the ML memory breaker, before
+     * the model is built. The estimate is recorded in the ML task, so it's reported in the task and the model.
+     * @param mlTask ML task
+     * @param mlInput ML input
+     * @param dataFrame training data
+     * @param parallelism maximal number of threads the task trains on
+     */
+    protected void checkTrainingMemory(MLTask mlTask, MLInput mlInput, DataFrame dataFrame, int parallelism) {
+        MemoryEstimable memoryEstimable = MLEngine.getMemoryEstimable(mlInput.getAlgorithm(), mlInput.getParameters());
+        if (memoryEstimable == null) {
+            return;
+        }
+        long memoryEstimate = memoryEstimable.estimateTrainingMemory(dataFrame, parallelism);
+        mlTask.setMemoryEstimate(memoryEstimate);
+        if (mlTask.isAsync()) {
+            mlTaskManager.updateMLTask(mlTask.getTaskId(), ImmutableMap.of(MLTask.MEMORY_ESTIMATE_FIELD, memoryEstimate), 0);
+        }
+        long availableMemory = mlCircuitBreakerService.getAvailableMemoryInBytes();
+        if (memoryEstimate > availableMemory) {
+            mlStats.getStat(ML_TOTAL_CIRCUIT_BREAKER_TRIGGER_COUNT).increment();
+            throw new MLLimitExceededException(
+                mlInput.getAlgorithm()
+                    + " model needs about "
+                    + new ByteSizeValue(memoryEstimate)
+                    + " of memory to train, but only "
+                    + new ByteSizeValue(availableMemory)
+                    + " is available under the ML memory circuit breaker"
+            );
+        }
+    }
+
     public void run(Request request, TransportService transportService, ActionListener<Response> listener) {
+        run(null, request, transportService, listener);
+    }
+
+    /**
+     * Run ML task locally or dispatch it to the least loaded node.
+     * @param task OpenSearch task of the request, used to cancel the ML task; can be null
+     * @param request ML task request
+     * @param transportService transport service
+     * @param listener action listener
+     */
+    public void run(Task task, Request request, TransportService transportService, ActionListener<Response> listener) {
         if (mlCircuitBreakerService.isOpen()) {
             mlStats.getStat(ML_TOTAL_CIRCUIT_BREAKER_TRIGGER_COUNT).increment();
             throw new MLLimitExceededException("Circuit breaker is open");
         }
         if (!request.isDispatchTask()) {
             log.info("Run ML request {} locally", request.getRequestID());
-            executeTask(request, listener);
+            executeTask(request, createCancellationToken(task, request), listener);
             return;
         }
-        dispatchTask(request, transportService, listener);
+        dispatchTask(task, request, transportService, listener);
+    }
+
+    /**
+     * Create cancellation token which will stop the ML task once the OpenSearch task is
+     * cancelled or the request timeout is reached.
+     * @param task OpenSearch task, can be null
+     * @param request ML task request
+     * @return cancellation token
+     */
+    protected CancellationToken createCancellationToken(Task task, Request request) {
+        CancellableTask cancellableTask = task instanceof CancellableTask ? (CancellableTask) task : null;
+        if (cancellableTask == null && request.getTimeout() == null) {
+            return CancellationToken.NONE;
+        }
+        return new MLTaskCancellationToken(cancellableTask, request.getTimeout());
+    }
+
+    /**
+     * Run ML task once the admission controller admits it. The admitted slot is released when the
+     * listener is notified, or right away if the task fails to start.
+     * @param taskType ML task type
+     * @param timeout request timeout, can be null
+     * @param listener action listener
+     * @param task function to start the task with the admitted listener
+     * @param <T> response type
+     */
+    protected <T> void admitTask(MLTaskType taskType, TimeValue timeout, ActionListener<T> listener, Consumer<ActionListener<T>> task) {
+        mlTaskAdmissionController.admit(taskType, timeout, new ActionListener<Releasable>() {
+            @Override
+            public void onResponse(Releasable releasable) {
+                boolean started = false;
+                try {
+                    task.accept(ActionListener.runAfter(listener, releasable::close));
+                    started = true;
+                } finally {
+                    if (!started) {
+                        releasable.close();
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                log.warn("ML {} task rejected: {}", taskType, e.getMessage());
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Admit an ML task which keeps running after its request is answered, like async training. A rejection fails
+     * the listener, so the request is answered with 429 before any task is created. Otherwise the task gets the
+     * permit and must close it once it completes.
+     * @param taskType ML task type
+     * @param listener listener of the request
+     * @param task function to start the task with the permit
+     */
+    protected void admitAsyncTask(MLTaskType taskType, ActionListener<?> listener, Consumer<Releasable> task) {
+        mlTaskAdmissionController.admit(taskType, null, new ActionListener<Releasable>() {
+            @Override
+            public void onResponse(Releasable releasable) {
+                boolean started = false;
+                try {
+                    task.accept(releasable);
+                    started = true;
+                } finally {
+                    if (!started) {
+                        releasable.close();
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                log.warn("ML {} task rejected: {}", taskType, e.getMessage());
+                listener.onFailure(e);
+            }
+        });
     }
 
-    protected ActionListener<MLTaskResponse> wrappedCleanupListener(ActionListener<MLTaskResponse> listener, String taskId) {
+    /**
+     * Wrap listener to stop tracking the ML task once it completes.
+     * @param listener action listener
+     * @param taskId ML task id
+     * @param taskCost estimated cost of the task, added to ML_OUTSTANDING_TASK_COST when the task started
+     * @return wrapped listener
+     */
+    protected ActionListener<MLTaskResponse> wrappedCleanupListener(ActionListener<MLTaskResponse> listener, String taskId, long taskCost) {
         ActionListener<MLTaskResponse> internalListener = ActionListener.runAfter(listener, () -> {
             mlStats.getStat(ML_EXECUTING_TASK_COUNT).decrement();
+            mlStats.getStat(ML_OUTSTANDING_TASK_COST).add(-taskCost);
             mlTaskManager.remove(taskId);
         });
         return internalListener;
     }
 
+    /**
+     * Estimate cost of the ML task, so tasks are dispatched by outstanding work rather than task count.
+     * @param request ML task request
+     * @return estimated cost
+     */
+    protected long estimateTaskCost(Request request) {
+        return 1;
+    }
+
+    /**
+     * Get indices the ML task reads input data from, so the task can be dispatched to a node holding the data.
+     * @param request ML task request
+     * @return source indices, empty if the task doesn't read data from indices
+     */
+    protected List<String> getSourceIndices(Request request) {
+        return Collections.emptyList();
+    }
+
+    protected static List<String> searchQueryIndices(MLInput mlInput) {
+        if (mlInput.getInputDataset() instanceof SearchQueryInputDataset) {
+            return ((SearchQueryInputDataset) mlInput.getInputDataset()).getIndices();
+        }
+        return Collections.emptyList();
+    }
+
     protected void dispatchTask(Request request, TransportService transportService, ActionListener<Response> listener) {
-        mlTaskDispatcher.dispatchTask(ActionListener.wrap(node -> {
-            if (clusterService.localNode().getId().equals(node.getId())) {
-                // Execute ML task locally
-                log.info("Execute ML request {} locally on node {}", request.getRequestID(), node.getId());
-                executeTask(request, listener);
-            } else {
-                // Execute ML task remotely
-                log.info("Execute ML request {} remotely on node {}", request.getRequestID(), node.getId());
-                request.setDispatchTask(false);
+        dispatchTask(null, request, transportService, listener);
+    }
+
+    protected void dispatchTask(Task task, Request request, TransportService transportService, ActionListener<Response> listener) {
+        mlTaskDispatcher
+            .dispatchTask(
+                estimateTaskCost(request),
+                getSourceIndices(request),
+                ActionListener.wrap(node -> runOnNode(node, task, request, transportService, listener), e -> listener.onFailure(e))
+            );
+    }
+
+    /**
+     * Execute ML task locally if the node is the local node, otherwise send it to the node.
+     * @param node node to run the ML task on
+     * @param task OpenSearch task of the request, can be null
+     * @param request ML task request
+     * @param transportService transport service
+     * @param listener action listener
+     */
+    protected void runOnNode(
+        DiscoveryNode node,
+        Task task,
+        Request request,
+        TransportService transportService,
+        ActionListener<Response> listener
+    ) {
+        if (clusterService.localNode().getId().equals(node.getId())) {
+            // Execute ML task locally
+            log.info("Execute ML request {} locally on node {}", request.getRequestID(), node.getId());
+            executeTask(request, createCancellationToken(task, request), listener);
+        } else {
+            // Execute ML task remotely
+            log.info("Execute ML request {} remotely on node {}", request.getRequestID(), node.getId());
+            request.setDispatchTask(false);
+            if (task == null) {
                 transportService.sendRequest(node, getTransportActionName(), request, getResponseHandler(listener));
+            } else {
+                // send as child request, so cancelling the parent task cancels the remote ML task too
+                transportService
+                    .sendChildRequest(
+                        node,
+                        getTransportActionName(),
+                        request,
+                        task,
+                        TransportRequestOptions.EMPTY,
+                        getResponseHandler(listener)
+                    );
             }
-        }, e -> listener.onFailure(e)));
+        }
+    }
+
+    protected void executeTask(Request request, ActionListener<Response> listener) {
+        executeTask(request, CancellationToken.NONE, listener);
     }
 
     protected abstract String getTransportActionName();
 
     protected abstract TransportResponseHandler<Response> getResponseHandler(ActionListener<Response> listener);
 
-    protected abstract void executeTask(Request request, ActionListener<Response> listener);
+    protected abstract void executeTask(Request request, CancellationToken cancellationToken, ActionListener<Response> listener);
+
+    /**
+     * Maximal number of threads one ML task can use, all threads of the thread pool it runs on.
+     * @param threadPool thread pool service
+     * @param threadPoolName name of the thread pool which runs the ML task
+     * @return parallelism of the ML task
+     */
+    protected static int parallelism(ThreadPool threadPool, String threadPoolName) {
+        ThreadPool.Info info = threadPool.info(threadPoolName);
+        return info == null ? 1 : Math.max(1, info.getMax());
+    }
 }
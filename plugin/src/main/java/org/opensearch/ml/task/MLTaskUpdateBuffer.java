@@ -0,0 +1,208 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import static org.opensearch.ml.common.MLTask.LAST_UPDATE_TIME_FIELD;
+import static org.opensearch.ml.indices.MLIndicesHandler.ML_TASK_INDEX;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_TASK_INDEX_REFRESH_POLICY;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_TASK_UPDATE_FLUSH_INTERVAL;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.extern.log4j.Log4j2;
+
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.bulk.BulkItemResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.support.WriteRequest;
+import org.opensearch.action.update.UpdateRequest;
+import org.opensearch.action.update.UpdateResponse;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.ClusterSettings;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.threadpool.ThreadPool;
+
+/**
+ * MLTaskUpdateBuffer persists ML task updates in the background. Updates of the same task are merged
+ * until the next flush, and all buffered updates are written with one bulk request. Only one bulk request
+ * is in flight at a time, so updates of a task are applied in order.
+ */
+@Log4j2
+public class MLTaskUpdateBuffer {
+    private final Client client;
+    private final ThreadPool threadPool;
+
+    // guarded by this
+    private Map<String, PendingUpdate> pendingUpdates;
+    private Map<String, PendingUpdate> inFlightUpdates;
+    private boolean flushScheduled;
+    private boolean flushing;
+
+    private volatile TimeValue flushInterval;
+    private volatile WriteRequest.RefreshPolicy refreshPolicy;
+
+    public MLTaskUpdateBuffer(Settings settings, ClusterService clusterService, Client client, ThreadPool threadPool) {
+        this.client = client;
+        this.threadPool = threadPool;
+        this.pendingUpdates = new LinkedHashMap<>();
+        this.inFlightUpdates = Collections.emptyMap();
+
+        this.flushInterval = ML_COMMONS_TASK_UPDATE_FLUSH_INTERVAL.get(settings);
+        this.refreshPolicy = ML_COMMONS_TASK_INDEX_REFRESH_POLICY.get(settings);
+        ClusterSettings clusterSettings = clusterService.getClusterSettings();
+        clusterSettings.addSettingsUpdateConsumer(ML_COMMONS_TASK_UPDATE_FLUSH_INTERVAL, it -> flushInterval = it);
+        clusterSettings.addSettingsUpdateConsumer(ML_COMMONS_TASK_INDEX_REFRESH_POLICY, it -> refreshPolicy = it);
+    }
+
+    /**
+     * Buffer ML task update. Fields of a task updated again before the next flush are overwritten.
+     * @param taskId task id
+     * @param updatedFields updated field and values
+     * @param listener notified once the update is persisted
+     */
+    public void update(String taskId, Map<String, Object> updatedFields, ActionListener<UpdateResponse> listener) {
+        boolean scheduleFlush;
+        synchronized (this) {
+            pendingUpdates.computeIfAbsent(taskId, PendingUpdate::new).merge(updatedFields, listener);
+            scheduleFlush = !flushScheduled && !flushing;
+            if (scheduleFlush) {
+                flushScheduled = true;
+            }
+        }
+        if (scheduleFlush) {
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Get fields of the task which are updated but not persisted yet.
+     * @param taskId task id
+     * @return updated fields, empty if the task has no pending update
+     */
+    public synchronized Map<String, Object> getPendingUpdate(String taskId) {
+        Map<String, Object> fields = new HashMap<>();
+        PendingUpdate inFlightUpdate = inFlightUpdates.get(taskId);
+        if (inFlightUpdate != null) {
+            fields.putAll(inFlightUpdate.fields);
+        }
+        PendingUpdate pendingUpdate = pendingUpdates.get(taskId);
+        if (pendingUpdate != null) {
+            fields.putAll(pendingUpdate.fields);
+        }
+        return fields;
+    }
+
+    /**
+     * Get refresh policy used when writing ML task index.
+     * @return refresh policy
+     */
+    public WriteRequest.RefreshPolicy getRefreshPolicy() {
+        return refreshPolicy;
+    }
+
+    private void scheduleFlush() {
+        TimeValue interval = flushInterval;
+        if (interval.nanos() <= 0) {
+            flush();
+        } else {
+            threadPool.schedule(this::flush, interval, ThreadPool.Names.GENERIC);
+        }
+    }
+
+    void flush() {
+        List<PendingUpdate> updates;
+        synchronized (this) {
+            flushScheduled = false;
+            if (flushing || pendingUpdates.isEmpty()) {
+                return;
+            }
+            flushing = true;
+            inFlightUpdates = pendingUpdates;
+            pendingUpdates = new LinkedHashMap<>();
+            updates = new ArrayList<>(inFlightUpdates.values());
+        }
+
+        BulkRequest bulkRequest = new BulkRequest().setRefreshPolicy(refreshPolicy);
+        long now = Instant.now().toEpochMilli();
+        for (PendingUpdate update : updates) {
+            Map<String, Object> updatedContent = new HashMap<>(update.fields);
+            updatedContent.put(LAST_UPDATE_TIME_FIELD, now);
+            bulkRequest.add(new UpdateRequest(ML_TASK_INDEX, update.taskId).doc(updatedContent));
+        }
+        ActionListener<BulkResponse> listener = ActionListener.runAfter(ActionListener.wrap(r -> {
+            BulkItemResponse[] items = r.getItems();
+            for (int i = 0; i < items.length; i++) {
+                if (items[i].isFailed()) {
+                    updates.get(i).onFailure(items[i].getFailure().getCause());
+                } else {
+                    updates.get(i).onResponse(items[i].getResponse());
+                }
+            }
+        }, e -> {
+            log.error("Failed to persist " + updates.size() + " ML task updates", e);
+            for (PendingUpdate update : updates) {
+                update.onFailure(e);
+            }
+        }), this::onFlushDone);
+        try (ThreadContext.StoredContext context = client.threadPool().getThreadContext().stashContext()) {
+            client.bulk(bulkRequest, ActionListener.runBefore(listener, () -> context.restore()));
+        } catch (Exception e) {
+            listener.onFailure(e);
+        }
+    }
+
+    private void onFlushDone() {
+        boolean scheduleFlush;
+        synchronized (this) {
+            flushing = false;
+            inFlightUpdates = Collections.emptyMap();
+            scheduleFlush = !pendingUpdates.isEmpty() && !flushScheduled;
+            if (scheduleFlush) {
+                flushScheduled = true;
+            }
+        }
+        if (scheduleFlush) {
+            scheduleFlush();
+        }
+    }
+
+    private static class PendingUpdate {
+        private final String taskId;
+        private final Map<String, Object> fields = new HashMap<>();
+        private final List<ActionListener<UpdateResponse>> listeners = new ArrayList<>();
+
+        PendingUpdate(String taskId) {
+            this.taskId = taskId;
+        }
+
+        void merge(Map<String, Object> updatedFields, ActionListener<UpdateResponse> listener) {
+            fields.putAll(updatedFields);
+            listeners.add(listener);
+        }
+
+        void onResponse(UpdateResponse response) {
+            for (ActionListener<UpdateResponse> listener : listeners) {
+                listener.onResponse(response);
+            }
+        }
+
+        void onFailure(Exception e) {
+            for (ActionListener<UpdateResponse> listener : listeners) {
+                listener.onFailure(e);
+            }
+        }
+    }
+}
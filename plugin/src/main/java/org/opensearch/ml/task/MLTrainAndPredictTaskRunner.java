@@ -5,14 +5,16 @@
 
 package org.opensearch.ml.task;
 
-import static org.opensearch.ml.plugin.MachineLearningPlugin.TASK_THREAD_POOL;
+import static org.opensearch.ml.plugin.MachineLearningPlugin.TRAIN_THREAD_POOL;
 import static org.opensearch.ml.stats.StatNames.ML_EXECUTING_TASK_COUNT;
+import static org.opensearch.ml.stats.StatNames.ML_OUTSTANDING_TASK_COST;
 import static org.opensearch.ml.stats.StatNames.ML_TOTAL_FAILURE_COUNT;
 import static org.opensearch.ml.stats.StatNames.ML_TOTAL_REQUEST_COUNT;
 import static org.opensearch.ml.stats.StatNames.failureCountStat;
 import static org.opensearch.ml.stats.StatNames.requestCountStat;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 import lombok.extern.log4j.Log4j2;
@@ -35,6 +37,7 @@ import org.opensearch.ml.common.output.MLPredictionOutput;
 import org.opensearch.ml.common.transport.MLTaskResponse;
 import org.opensearch.ml.common.transport.training.MLTrainingTaskRequest;
 import org.opensearch.ml.common.transport.trainpredict.MLTrainAndPredictionTaskAction;
+import org.opensearch.ml.engine.CancellationToken;
 import org.opensearch.ml.engine.MLEngine;
 import org.opensearch.ml.indices.MLInputDatasetHandler;
 import org.opensearch.ml.stats.ActionName;
@@ -60,9 +63,10 @@ public class MLTrainAndPredictTaskRunner extends MLTaskRunner<MLTrainingTaskRequ
         MLStats mlStats,
         MLInputDatasetHandler mlInputDatasetHandler,
         MLTaskDispatcher mlTaskDispatcher,
-        MLCircuitBreakerService mlCircuitBreakerService
+        MLCircuitBreakerService mlCircuitBreakerService,
+        MLTaskAdmissionController mlTaskAdmissionController
     ) {
-        super(mlTaskManager, mlStats, mlTaskDispatcher, mlCircuitBreakerService, clusterService);
+        super(mlTaskManager, mlStats, mlTaskDispatcher, mlCircuitBreakerService, mlTaskAdmissionController, clusterService);
         this.threadPool = threadPool;
         this.clusterService = clusterService;
         this.client = client;
@@ -79,13 +83,41 @@ public class MLTrainAndPredictTaskRunner extends MLTaskRunner<MLTrainingTaskRequ
         return new ActionListenerResponseHandler<>(listener, MLTaskResponse::new);
     }
 
+    @Override
+    protected long estimateTaskCost(MLTrainingTaskRequest request) {
+        return mlTaskDispatcher.estimateTaskCost(MLTaskType.TRAINING_AND_PREDICTION, request.getMlInput(), null);
+    }
+
+    @Override
+    protected List<String> getSourceIndices(MLTrainingTaskRequest request) {
+        return searchQueryIndices(request.getMlInput());
+    }
+
     /**
      * Start prediction task
      * @param request MLPredictionTaskRequest
+     * @param cancellationToken cancellation token
      * @param listener Action listener
      */
     @Override
-    protected void executeTask(MLTrainingTaskRequest request, ActionListener<MLTaskResponse> listener) {
+    protected void executeTask(
+        MLTrainingTaskRequest request,
+        CancellationToken cancellationToken,
+        ActionListener<MLTaskResponse> listener
+    ) {
+        admitTask(
+            MLTaskType.TRAINING_AND_PREDICTION,
+            request.getTimeout(),
+            listener,
+            admittedListener -> startTrainAndPredictionTask(request, cancellationToken, admittedListener)
+        );
+    }
+
+    private void startTrainAndPredictionTask(
+        MLTrainingTaskRequest request,
+        CancellationToken cancellationToken,
+        ActionListener<MLTaskResponse> listener
+    ) {
         MLInputDataType inputDataType = request.getMlInput().getInputDataset().getInputDataType();
         Instant now = Instant.now();
         MLTask mlTask = MLTask
@@ -104,18 +136,20 @@ public class MLTrainAndPredictTaskRunner extends MLTaskRunner<MLTrainingTaskRequ
 
         if (mlInput.getInputDataset().getInputDataType().equals(MLInputDataType.SEARCH_QUERY)) {
             ActionListener<DataFrame> dataFrameActionListener = ActionListener
-                .wrap(dataFrame -> { trainAndPredict(mlTask, dataFrame, request, listener); }, e -> {
+                .wrap(dataFrame -> { trainAndPredict(mlTask, dataFrame, request, cancellationToken, listener); }, e -> {
                     log.error("Failed to generate DataFrame from search query", e);
                     handlePredictFailure(mlTask, listener, e, false);
                 });
             mlInputDatasetHandler
                 .parseSearchQueryInput(
                     mlInput.getInputDataset(),
-                    new ThreadedActionListener<>(log, threadPool, TASK_THREAD_POOL, dataFrameActionListener, false)
+                    new ThreadedActionListener<>(log, threadPool, TRAIN_THREAD_POOL, dataFrameActionListener, false)
                 );
         } else {
             DataFrame inputDataFrame = mlInputDatasetHandler.parseDataFrameInput(mlInput.getInputDataset());
-            threadPool.executor(TASK_THREAD_POOL).execute(() -> { trainAndPredict(mlTask, inputDataFrame, request, listener); });
+            threadPool
+                .executor(TRAIN_THREAD_POOL)
+                .execute(() -> { trainAndPredict(mlTask, inputDataFrame, request, cancellationToken, listener); });
         }
     }
 
@@ -123,11 +157,14 @@ public class MLTrainAndPredictTaskRunner extends MLTaskRunner<MLTrainingTaskRequ
         MLTask mlTask,
         DataFrame inputDataFrame,
         MLTrainingTaskRequest request,
+        CancellationToken cancellationToken,
         ActionListener<MLTaskResponse> listener
     ) {
-        ActionListener<MLTaskResponse> internalListener = wrappedCleanupListener(listener, mlTask.getTaskId());
+        long taskCost = estimateTaskCost(request);
+        ActionListener<MLTaskResponse> internalListener = wrappedCleanupListener(listener, mlTask.getTaskId(), taskCost);
         // track ML task count and add ML task into cache
         mlStats.getStat(ML_EXECUTING_TASK_COUNT).increment();
+        mlStats.getStat(ML_OUTSTANDING_TASK_COST).add(taskCost);
         mlStats.getStat(ML_TOTAL_REQUEST_COUNT).increment();
         mlStats.createCounterStatIfAbsent(requestCountStat(mlTask.getFunctionName(), ActionName.TRAIN_PREDICT)).increment();
         mlTaskManager.add(mlTask);
@@ -135,8 +172,17 @@ public class MLTrainAndPredictTaskRunner extends MLTaskRunner<MLTrainingTaskRequ
 
         // run train and predict
         try {
+            cancellationToken.ensureNotCancelled();
+            int parallelism = parallelism(threadPool, TRAIN_THREAD_POOL);
+            checkTrainingMemory(mlTask, mlInput, inputDataFrame, parallelism);
             mlTaskManager.updateTaskState(mlTask.getTaskId(), MLTaskState.RUNNING, mlTask.isAsync());
-            MLOutput output = MLEngine.trainAndPredict(mlInput.toBuilder().inputDataset(new DataFrameInputDataset(inputDataFrame)).build());
+            MLOutput output = MLEngine
+                .trainAndPredict(
+                    mlInput.toBuilder().inputDataset(new DataFrameInputDataset(inputDataFrame)).build(),
+                    cancellationToken,
+                    threadPool.executor(TRAIN_THREAD_POOL),
+                    parallelism
+                );
             handleAsyncMLTaskComplete(mlTask);
             if (output instanceof MLPredictionOutput) {
                 ((MLPredictionOutput) output).setStatus(MLTaskState.COMPLETED.name());
@@ -0,0 +1,122 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import java.io.IOException;
+
+import lombok.Getter;
+
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.io.stream.Writeable;
+import org.opensearch.ml.common.input.MLInput;
+
+/**
+ * Checkpoint of an async training task, which another node can resume training from. Every async task starts with
+ * a checkpoint of its ML input only, so a task without progress is trained again from scratch. Distributed training
+ * checkpoints the model state every few iterations, algorithms training point by point checkpoint their serialized
+ * model state every few points.
+ * Checkpoints are stored in the checkpoint index with the format version of the payload and the version of
+ * the node writing it, so that nodes only read payloads they understand.
+ */
+@Getter
+public class MLTrainingCheckpoint implements Writeable {
+    /**
+     * Format version 2 added the serialized model state.
+     */
+    public static final int FORMAT_VERSION = 2;
+    public static final String TASK_ID_FIELD = "task_id";
+    public static final String ALGORITHM_FIELD = "algorithm";
+    public static final String FORMAT_VERSION_FIELD = "format_version";
+    public static final String NODE_VERSION_FIELD = "node_version";
+    public static final String CHECKPOINT_CONTENT_FIELD = "checkpoint_content";
+    public static final String LAST_UPDATE_TIME_FIELD = "last_update_time";
+
+    private final String taskId;
+    private final MLInput mlInput;
+    /**
+     * Number of finished iterations, or number of trained points of checkpoints with serialized model state.
+     */
+    private final int iteration;
+    private final String[] featureNames;
+    private final double[] state;
+    /**
+     * Serialized model state of algorithms training point by point, null for other checkpoints.
+     */
+    private final byte[] modelState;
+
+    public MLTrainingCheckpoint(String taskId, MLInput mlInput, int iteration, String[] featureNames, double[] state) {
+        this(taskId, mlInput, iteration, featureNames, state, null);
+    }
+
+    public MLTrainingCheckpoint(
+        String taskId,
+        MLInput mlInput,
+        int iteration,
+        String[] featureNames,
+        double[] state,
+        byte[] modelState
+    ) {
+        this.taskId = taskId;
+        this.mlInput = mlInput;
+        this.iteration = iteration;
+        this.featureNames = featureNames;
+        this.state = state;
+        this.modelState = modelState;
+    }
+
+    public MLTrainingCheckpoint(StreamInput in) throws IOException {
+        this(in, FORMAT_VERSION);
+    }
+
+    /**
+     * Read checkpoint written in given format version.
+     * @param in stream input
+     * @param formatVersion format version of the payload
+     * @throws IOException if the payload can't be read
+     */
+    public MLTrainingCheckpoint(StreamInput in, int formatVersion) throws IOException {
+        this.taskId = in.readString();
+        this.mlInput = new MLInput(in);
+        this.iteration = in.readVInt();
+        this.featureNames = in.readStringArray();
+        this.state = in.readDoubleArray();
+        this.modelState = formatVersion >= 2 && in.readBoolean() ? in.readByteArray() : null;
+    }
+
+    /**
+     * Checkpoint of an async task which has no training progress yet.
+     * @param taskId ML task id
+     * @param mlInput ML input
+     * @return checkpoint without model state
+     */
+    public static MLTrainingCheckpoint initialCheckpoint(String taskId, MLInput mlInput) {
+        return new MLTrainingCheckpoint(taskId, mlInput, 0, new String[0], new double[0]);
+    }
+
+    /**
+     * Check if training can continue from this checkpoint rather than start over.
+     * @return true if the checkpoint has training progress
+     */
+    public boolean hasProgress() {
+        return iteration > 0;
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeString(taskId);
+        mlInput.writeTo(out);
+        out.writeVInt(iteration);
+        out.writeStringArray(featureNames);
+        out.writeDoubleArray(state);
+        if (modelState != null) {
+            out.writeBoolean(true);
+            out.writeByteArray(modelState);
+        } else {
+            out.writeBoolean(false);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import static org.opensearch.ml.indices.MLIndicesHandler.ML_CHECKPOINT_INDEX;
+import static org.opensearch.ml.plugin.MachineLearningPlugin.TRAIN_THREAD_POOL;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_TRAINING_CHECKPOINT_POINTS;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.extern.log4j.Log4j2;
+
+import org.opensearch.Version;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.delete.DeleteRequest;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.action.index.IndexResponse;
+import org.opensearch.action.support.ThreadedActionListener;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.bytes.BytesReference;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.io.stream.NamedWriteableAwareStreamInput;
+import org.opensearch.common.io.stream.NamedWriteableRegistry;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.index.IndexNotFoundException;
+import org.opensearch.index.VersionType;
+import org.opensearch.ml.common.exception.MLException;
+import org.opensearch.ml.indices.MLIndicesHandler;
+import org.opensearch.threadpool.ThreadPool;
+
+/**
+ * MLTrainingCheckpointManager stores training checkpoints in the checkpoint index, one document per ML task with
+ * the task id as document id. Checkpoints are kept apart from the model index, so they never show up as models.
+ *
+ * The document keeps the format version of the payload and the version of the node writing it. Checkpoints are
+ * indexed with the training progress as external version, so a checkpoint of a node which is still training after
+ * its task was resumed elsewhere can't overwrite a newer checkpoint.
+ */
+@Log4j2
+public class MLTrainingCheckpointManager {
+    private final Client client;
+    private final ThreadPool threadPool;
+    private final MLIndicesHandler mlIndicesHandler;
+    private final NamedWriteableRegistry namedWriteableRegistry;
+
+    private volatile int checkpointPoints;
+
+    /**
+     * Constructor.
+     * @param settings settings
+     * @param clusterService cluster service
+     * @param client client
+     * @param threadPool thread pool
+     * @param mlIndicesHandler ML indices handler
+     * @param namedWriteableRegistry registry to read the ML input of checkpoints
+     */
+    public MLTrainingCheckpointManager(
+        Settings settings,
+        ClusterService clusterService,
+        Client client,
+        ThreadPool threadPool,
+        MLIndicesHandler mlIndicesHandler,
+        NamedWriteableRegistry namedWriteableRegistry
+    ) {
+        this.client = client;
+        this.threadPool = threadPool;
+        this.mlIndicesHandler = mlIndicesHandler;
+        this.namedWriteableRegistry = namedWriteableRegistry;
+        this.checkpointPoints = ML_COMMONS_TRAINING_CHECKPOINT_POINTS.get(settings);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(ML_COMMONS_TRAINING_CHECKPOINT_POINTS, it -> checkpointPoints = it);
+    }
+
+    /**
+     * Get the number of trained points between checkpoints of algorithms training point by point.
+     * @return number of points, 0 if checkpoints are disabled
+     */
+    public int getCheckpointPoints() {
+        return checkpointPoints;
+    }
+
+    /**
+     * Write the checkpoint of a training task, replacing the previous checkpoint of the task.
+     * @param checkpoint training checkpoint
+     * @param listener notified on the training thread pool once the checkpoint is written
+     */
+    public void writeCheckpoint(MLTrainingCheckpoint checkpoint, ActionListener<IndexResponse> listener) {
+        ActionListener<IndexResponse> threadedListener = new ThreadedActionListener<>(log, threadPool, TRAIN_THREAD_POOL, listener, false);
+        mlIndicesHandler.initCheckpointIndexIfAbsent(ActionListener.wrap(indexCreated -> {
+            if (!indexCreated) {
+                threadedListener.onFailure(new RuntimeException("No response to create ML checkpoint index"));
+                return;
+            }
+            BytesStreamOutput output = new BytesStreamOutput();
+            output.setVersion(Version.CURRENT);
+            checkpoint.writeTo(output);
+            Map<String, Object> source = new HashMap<>();
+            source.put(MLTrainingCheckpoint.TASK_ID_FIELD, checkpoint.getTaskId());
+            source.put(MLTrainingCheckpoint.ALGORITHM_FIELD, checkpoint.getMlInput().getAlgorithm().name());
+            source.put(MLTrainingCheckpoint.FORMAT_VERSION_FIELD, MLTrainingCheckpoint.FORMAT_VERSION);
+            source.put(MLTrainingCheckpoint.NODE_VERSION_FIELD, Version.CURRENT.id);
+            String content = Base64.getEncoder().encodeToString(BytesReference.toBytes(output.bytes()));
+            source.put(MLTrainingCheckpoint.CHECKPOINT_CONTENT_FIELD, content);
+            source.put(MLTrainingCheckpoint.LAST_UPDATE_TIME_FIELD, Instant.now().toEpochMilli());
+            IndexRequest indexRequest = new IndexRequest(ML_CHECKPOINT_INDEX)
+                .id(checkpoint.getTaskId())
+                .version(checkpoint.getIteration())
+                .versionType(VersionType.EXTERNAL_GTE)
+                .source(source);
+            try (ThreadContext.StoredContext context = client.threadPool().getThreadContext().stashContext()) {
+                client.index(indexRequest, ActionListener.runBefore(threadedListener, () -> context.restore()));
+            }
+        }, threadedListener::onFailure));
+    }
+
+    /**
+     * Get the checkpoint of a training task. Fails if the checkpoint was written in a format or by a node version
+     * this node can't read.
+     * @param taskId ML task id
+     * @param listener notified with the checkpoint, or null if the task has no checkpoint
+     */
+    public void getCheckpoint(String taskId, ActionListener<MLTrainingCheckpoint> listener) {
+        GetRequest getRequest = new GetRequest(ML_CHECKPOINT_INDEX).id(taskId);
+        try (ThreadContext.StoredContext context = client.threadPool().getThreadContext().stashContext()) {
+            client.get(getRequest, ActionListener.runBefore(ActionListener.wrap(r -> {
+                if (r == null || !r.isExists()) {
+                    listener.onResponse(null);
+                    return;
+                }
+                Map<String, Object> source = r.getSourceAsMap();
+                int formatVersion = ((Number) source.get(MLTrainingCheckpoint.FORMAT_VERSION_FIELD)).intValue();
+                if (formatVersion > MLTrainingCheckpoint.FORMAT_VERSION) {
+                    throw new MLException("Unsupported format version " + formatVersion + " of checkpoint of ML task " + taskId);
+                }
+                Version nodeVersion = Version.fromId(((Number) source.get(MLTrainingCheckpoint.NODE_VERSION_FIELD)).intValue());
+                if (nodeVersion.after(Version.CURRENT)) {
+                    throw new MLException("Checkpoint of ML task " + taskId + " was written by newer node version " + nodeVersion);
+                }
+                byte[] content = Base64.getDecoder().decode((String) source.get(MLTrainingCheckpoint.CHECKPOINT_CONTENT_FIELD));
+                StreamInput input = new NamedWriteableAwareStreamInput(StreamInput.wrap(content), namedWriteableRegistry);
+                input.setVersion(nodeVersion);
+                listener.onResponse(new MLTrainingCheckpoint(input, formatVersion));
+            }, e -> {
+                if (e instanceof IndexNotFoundException) {
+                    listener.onResponse(null);
+                } else {
+                    listener.onFailure(e);
+                }
+            }), () -> context.restore()));
+        }
+    }
+
+    /**
+     * Delete the checkpoint of a training task once the task is done.
+     * @param taskId ML task id
+     */
+    public void deleteCheckpoint(String taskId) {
+        DeleteRequest deleteRequest = new DeleteRequest(ML_CHECKPOINT_INDEX).id(taskId);
+        try (ThreadContext.StoredContext context = client.threadPool().getThreadContext().stashContext()) {
+            client.delete(deleteRequest, ActionListener.runBefore(ActionListener.wrap(r -> {
+                log.debug("Deleted checkpoint of ML task {}, result: {}", taskId, r.getResult());
+            }, e -> {
+                if (!(e instanceof IndexNotFoundException)) {
+                    log.warn("Failed to delete checkpoint of ML task " + taskId, e);
+                }
+            }), () -> context.restore()));
+        }
+    }
+}
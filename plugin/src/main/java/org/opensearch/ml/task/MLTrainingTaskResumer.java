@@ -0,0 +1,168 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import static org.opensearch.common.xcontent.XContentParserUtils.ensureExpectedToken;
+import static org.opensearch.ml.indices.MLIndicesHandler.ML_TASK_INDEX;
+import static org.opensearch.ml.utils.MLNodeUtils.createXContentParserFromRegistry;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import lombok.extern.log4j.Log4j2;
+
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.update.UpdateRequest;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.ClusterChangedEvent;
+import org.opensearch.cluster.ClusterStateListener;
+import org.opensearch.cluster.node.DiscoveryNodes;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.common.xcontent.NamedXContentRegistry;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.ml.action.training.MLResumeTrainingTaskAction;
+import org.opensearch.ml.action.training.MLResumeTrainingTaskRequest;
+import org.opensearch.ml.common.MLTask;
+import org.opensearch.ml.common.MLTaskState;
+import org.opensearch.ml.common.MLTaskType;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.threadpool.ThreadPool;
+
+/**
+ * MLTrainingTaskResumer runs on the elected master node. When nodes leave the cluster, it finds async training
+ * tasks left unfinished by those nodes, dispatches the ones with a checkpoint to be resumed on an ML node and marks
+ * the others failed, so that no task stays running forever.
+ */
+@Log4j2
+public class MLTrainingTaskResumer implements ClusterStateListener {
+    static final int MAX_ORPHANED_TASKS = 1000;
+
+    private final Client client;
+    private final ThreadPool threadPool;
+    private final NamedXContentRegistry xContentRegistry;
+    private final MLTrainingCheckpointManager mlTrainingCheckpointManager;
+
+    public MLTrainingTaskResumer(
+        Client client,
+        ThreadPool threadPool,
+        NamedXContentRegistry xContentRegistry,
+        MLTrainingCheckpointManager mlTrainingCheckpointManager
+    ) {
+        this.client = client;
+        this.threadPool = threadPool;
+        this.xContentRegistry = xContentRegistry;
+        this.mlTrainingCheckpointManager = mlTrainingCheckpointManager;
+    }
+
+    @Override
+    public void clusterChanged(ClusterChangedEvent event) {
+        if (!event.localNodeMaster() || !event.state().metadata().hasIndex(ML_TASK_INDEX)) {
+            return;
+        }
+        // a new master checks all nodes, the previous master may have left before resuming tasks
+        boolean electedMaster = !event.previousState().nodes().isLocalNodeElectedMaster();
+        if (electedMaster || event.nodesRemoved()) {
+            DiscoveryNodes nodes = event.state().nodes();
+            // cluster state listeners must not block the cluster applier thread
+            threadPool.generic().execute(() -> resumeOrphanedTasks(nodes));
+        }
+    }
+
+    void resumeOrphanedTasks(DiscoveryNodes nodes) {
+        BoolQueryBuilder query = QueryBuilders
+            .boolQuery()
+            .filter(QueryBuilders.termQuery(MLTask.TASK_TYPE_FIELD, MLTaskType.TRAINING.name()))
+            .filter(QueryBuilders.termsQuery(MLTask.STATE_FIELD, MLTaskState.CREATED.name(), MLTaskState.RUNNING.name()))
+            .filter(QueryBuilders.termQuery(MLTask.IS_ASYNC_TASK_FIELD, true));
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().query(query).size(MAX_ORPHANED_TASKS);
+        SearchRequest searchRequest = new SearchRequest(ML_TASK_INDEX).source(searchSourceBuilder);
+        try (ThreadContext.StoredContext context = client.threadPool().getThreadContext().stashContext()) {
+            client.search(searchRequest, ActionListener.runBefore(ActionListener.wrap(response -> {
+                for (SearchHit hit : response.getHits()) {
+                    MLTask mlTask = parseTask(hit);
+                    if (mlTask.getWorkerNode() != null && !nodes.nodeExists(mlTask.getWorkerNode())) {
+                        resumeTask(mlTask);
+                    }
+                }
+            }, e -> log.error("Failed to search unfinished ML tasks", e)), () -> context.restore()));
+        }
+    }
+
+    private MLTask parseTask(SearchHit hit) throws IOException {
+        try (XContentParser parser = createXContentParserFromRegistry(xContentRegistry, hit.getSourceRef())) {
+            ensureExpectedToken(XContentParser.Token.START_OBJECT, parser.nextToken(), parser);
+            return MLTask.parse(parser).toBuilder().taskId(hit.getId()).build();
+        }
+    }
+
+    /**
+     * Search results may be stale, so the task is read again with a realtime get, and only resumed if it's still
+     * unfinished and assigned to the node which left.
+     */
+    private void resumeTask(MLTask mlTask) {
+        String taskId = mlTask.getTaskId();
+        GetRequest getRequest = new GetRequest(ML_TASK_INDEX).id(taskId).realtime(true);
+        try (ThreadContext.StoredContext context = client.threadPool().getThreadContext().stashContext()) {
+            client.get(getRequest, ActionListener.runBefore(ActionListener.wrap(r -> {
+                if (r == null || !r.isExists()) {
+                    log.debug("ML task {} was deleted, won't resume it", taskId);
+                    return;
+                }
+                Map<String, Object> source = r.getSourceAsMap();
+                Object state = source.get(MLTask.STATE_FIELD);
+                boolean unfinished = MLTaskState.CREATED.name().equals(state) || MLTaskState.RUNNING.name().equals(state);
+                if (!unfinished || !Objects.equals(mlTask.getWorkerNode(), source.get(MLTask.WORKER_NODE_FIELD))) {
+                    log.debug("ML task {} changed since it was searched, won't resume it", taskId);
+                    return;
+                }
+                resumeFromCheckpoint(mlTask);
+            }, e -> log.error("Failed to get ML task " + taskId, e)), () -> context.restore()));
+        }
+    }
+
+    private void resumeFromCheckpoint(MLTask mlTask) {
+        String taskId = mlTask.getTaskId();
+        mlTrainingCheckpointManager.getCheckpoint(taskId, ActionListener.wrap(checkpoint -> {
+            if (checkpoint == null) {
+                failTask(taskId, "Worker node " + mlTask.getWorkerNode() + " left the cluster before the task completed");
+                return;
+            }
+            log.info("Worker node {} of ML task {} left the cluster, resume the task", mlTask.getWorkerNode(), taskId);
+            MLResumeTrainingTaskRequest request = new MLResumeTrainingTaskRequest(taskId, checkpoint.getMlInput());
+            client.execute(MLResumeTrainingTaskAction.INSTANCE, request, ActionListener.wrap(r -> {
+                log.info("Resumed ML task {}", taskId);
+            }, e -> {
+                log.error("Failed to resume ML task " + taskId, e);
+                String error = "Worker node " + mlTask.getWorkerNode() + " left the cluster and the task can't be resumed: ";
+                failTask(taskId, error + e.getMessage());
+            }));
+        }, e -> {
+            log.error("Failed to get checkpoint of ML task " + taskId, e);
+            failTask(taskId, "Worker node " + mlTask.getWorkerNode() + " left the cluster and the task checkpoint can't be read");
+        }));
+    }
+
+    private void failTask(String taskId, String error) {
+        Map<String, Object> updatedFields = new HashMap<>();
+        updatedFields.put(MLTask.STATE_FIELD, MLTaskState.FAILED.name());
+        updatedFields.put(MLTask.ERROR_FIELD, error);
+        updatedFields.put(MLTask.LAST_UPDATE_TIME_FIELD, Instant.now().toEpochMilli());
+        UpdateRequest updateRequest = new UpdateRequest(ML_TASK_INDEX, taskId).doc(updatedFields);
+        try (ThreadContext.StoredContext context = client.threadPool().getThreadContext().stashContext()) {
+            client.update(updateRequest, ActionListener.runBefore(ActionListener.wrap(r -> {
+                log.info("Marked ML task {} failed: {}", taskId, error);
+            }, e -> log.error("Failed to update ML task " + taskId, e)), () -> context.restore()));
+        }
+    }
+}
@@ -6,8 +6,10 @@
 package org.opensearch.ml.task;
 
 import static org.opensearch.ml.indices.MLIndicesHandler.ML_MODEL_INDEX;
-import static org.opensearch.ml.plugin.MachineLearningPlugin.TASK_THREAD_POOL;
+import static org.opensearch.ml.plugin.MachineLearningPlugin.TRAIN_THREAD_POOL;
 import static org.opensearch.ml.stats.StatNames.ML_EXECUTING_TASK_COUNT;
+import static org.opensearch.ml.stats.StatNames.ML_OUTSTANDING_TASK_COST;
+import static org.opensearch.ml.stats.StatNames.ML_TOTAL_CIRCUIT_BREAKER_TRIGGER_COUNT;
 import static org.opensearch.ml.stats.StatNames.ML_TOTAL_FAILURE_COUNT;
 import static org.opensearch.ml.stats.StatNames.ML_TOTAL_MODEL_COUNT;
 import static org.opensearch.ml.stats.StatNames.ML_TOTAL_REQUEST_COUNT;
@@ -16,6 +18,8 @@ import static org.opensearch.ml.stats.StatNames.modelCountStat;
 import static org.opensearch.ml.stats.StatNames.requestCountStat;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import lombok.extern.log4j.Log4j2;
@@ -26,12 +30,16 @@ import org.opensearch.action.index.IndexRequest;
 import org.opensearch.action.index.IndexResponse;
 import org.opensearch.action.support.ThreadedActionListener;
 import org.opensearch.action.support.WriteRequest;
+import org.opensearch.action.support.master.AcknowledgedResponse;
 import org.opensearch.client.Client;
 import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.lease.Releasable;
 import org.opensearch.common.util.concurrent.ThreadContext;
 import org.opensearch.common.xcontent.ToXContent;
 import org.opensearch.common.xcontent.XContentBuilder;
 import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.ml.action.training.MLResumeTrainingTaskAction;
+import org.opensearch.ml.action.training.MLResumeTrainingTaskRequest;
 import org.opensearch.ml.common.MLModel;
 import org.opensearch.ml.common.MLTask;
 import org.opensearch.ml.common.MLTaskState;
@@ -41,18 +49,28 @@ import org.opensearch.ml.common.breaker.MLCircuitBreakerService;
 import org.opensearch.ml.common.dataframe.DataFrame;
 import org.opensearch.ml.common.dataset.DataFrameInputDataset;
 import org.opensearch.ml.common.dataset.MLInputDataType;
+import org.opensearch.ml.common.exception.MLLimitExceededException;
+import org.opensearch.ml.common.exception.MLResourceNotFoundException;
 import org.opensearch.ml.common.input.MLInput;
 import org.opensearch.ml.common.output.MLTrainingOutput;
 import org.opensearch.ml.common.transport.MLTaskResponse;
 import org.opensearch.ml.common.transport.training.MLTrainingTaskAction;
 import org.opensearch.ml.common.transport.training.MLTrainingTaskRequest;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.engine.CheckpointableTrainable;
 import org.opensearch.ml.engine.MLEngine;
+import org.opensearch.ml.engine.MiniBatchTrainer;
+import org.opensearch.ml.engine.TrainingCheckpoint;
+import org.opensearch.ml.engine.utils.ReservoirSampler;
 import org.opensearch.ml.indices.MLIndicesHandler;
 import org.opensearch.ml.indices.MLInputDatasetHandler;
 import org.opensearch.ml.stats.ActionName;
 import org.opensearch.ml.stats.MLStats;
 import org.opensearch.threadpool.ThreadPool;
 import org.opensearch.transport.TransportResponseHandler;
+import org.opensearch.transport.TransportService;
+
+import com.google.common.collect.ImmutableMap;
 
 /**
  * MLTrainingTaskRunner is responsible for running training tasks.
@@ -64,6 +82,8 @@ public class MLTrainingTaskRunner extends MLTaskRunner<MLTrainingTaskRequest, ML
     private final Client client;
     private final MLIndicesHandler mlIndicesHandler;
     private final MLInputDatasetHandler mlInputDatasetHandler;
+    private final MLDistributedTrainer mlDistributedTrainer;
+    private final MLTrainingCheckpointManager mlTrainingCheckpointManager;
 
     public MLTrainingTaskRunner(
         ThreadPool threadPool,
@@ -74,14 +94,19 @@ public class MLTrainingTaskRunner extends MLTaskRunner<MLTrainingTaskRequest, ML
         MLIndicesHandler mlIndicesHandler,
         MLInputDatasetHandler mlInputDatasetHandler,
         MLTaskDispatcher mlTaskDispatcher,
-        MLCircuitBreakerService mlCircuitBreakerService
+        MLCircuitBreakerService mlCircuitBreakerService,
+        MLTaskAdmissionController mlTaskAdmissionController,
+        MLDistributedTrainer mlDistributedTrainer,
+        MLTrainingCheckpointManager mlTrainingCheckpointManager
     ) {
-        super(mlTaskManager, mlStats, mlTaskDispatcher, mlCircuitBreakerService, clusterService);
+        super(mlTaskManager, mlStats, mlTaskDispatcher, mlCircuitBreakerService, mlTaskAdmissionController, clusterService);
         this.threadPool = threadPool;
         this.clusterService = clusterService;
         this.client = client;
         this.mlIndicesHandler = mlIndicesHandler;
         this.mlInputDatasetHandler = mlInputDatasetHandler;
+        this.mlDistributedTrainer = mlDistributedTrainer;
+        this.mlTrainingCheckpointManager = mlTrainingCheckpointManager;
     }
 
     @Override
@@ -95,7 +120,21 @@ public class MLTrainingTaskRunner extends MLTaskRunner<MLTrainingTaskRequest, ML
     }
 
     @Override
-    protected void executeTask(MLTrainingTaskRequest request, ActionListener<MLTaskResponse> listener) {
+    protected long estimateTaskCost(MLTrainingTaskRequest request) {
+        return mlTaskDispatcher.estimateTaskCost(MLTaskType.TRAINING, request.getMlInput(), null);
+    }
+
+    @Override
+    protected List<String> getSourceIndices(MLTrainingTaskRequest request) {
+        return searchQueryIndices(request.getMlInput());
+    }
+
+    @Override
+    protected void executeTask(
+        MLTrainingTaskRequest request,
+        CancellationToken cancellationToken,
+        ActionListener<MLTaskResponse> listener
+    ) {
         MLInputDataType inputDataType = request.getMlInput().getInputDataset().getInputDataType();
         Instant now = Instant.now();
         MLTask mlTask = MLTask
@@ -111,62 +150,180 @@ public class MLTrainingTaskRunner extends MLTaskRunner<MLTrainingTaskRequest, ML
             .build();
 
         if (request.isAsync()) {
-            mlTaskManager.createMLTask(mlTask, ActionListener.wrap(r -> {
-                String taskId = r.getId();
-                mlTask.setTaskId(taskId);
-                listener.onResponse(new MLTaskResponse(new MLTrainingOutput(null, taskId, mlTask.getState().name())));
-                ActionListener<MLTaskResponse> internalListener = ActionListener.wrap(res -> {
-                    String modelId = ((MLTrainingOutput) res.getOutput()).getModelId();
-                    log.info("ML model trained successfully, task id: {}, model id: {}", taskId, modelId);
-                    mlTask.setModelId(modelId);
-                    handleAsyncMLTaskComplete(mlTask);
-                }, ex -> {
-                    log.error("Failed to train ML model for task " + taskId);
-                    handleAsyncMLTaskFailure(mlTask, ex);
-                });
-                startTrainingTask(mlTask, request.getMlInput(), internalListener);
-            }, e -> {
-                log.error("Failed to create ML task", e);
-                listener.onFailure(e);
-            }));
+            // admit before creating the ML task, so a saturated node rejects the request instead of returning a task id
+            // which fails later
+            admitAsyncTask(
+                MLTaskType.TRAINING,
+                listener,
+                releasable -> createAsyncTrainingTask(mlTask, request.getMlInput(), cancellationToken, releasable, listener)
+            );
         } else {
             mlTask.setTaskId(UUID.randomUUID().toString());
-            startTrainingTask(mlTask, request.getMlInput(), listener);
+            startTrainingTask(mlTask, request.getMlInput(), cancellationToken, listener);
         }
     }
 
+    /**
+     * Create the ML task of an admitted async training request, respond with the task id and run the training.
+     * @param mlTask ML task
+     * @param mlInput ML input
+     * @param cancellationToken cancellation token
+     * @param releasable admission permit, closed once the training is done
+     * @param listener Action listener of the request
+     */
+    private void createAsyncTrainingTask(
+        MLTask mlTask,
+        MLInput mlInput,
+        CancellationToken cancellationToken,
+        Releasable releasable,
+        ActionListener<MLTaskResponse> listener
+    ) {
+        mlTaskManager.createMLTask(mlTask, ActionListener.wrap(r -> {
+            String taskId = r.getId();
+            mlTask.setTaskId(taskId);
+            listener.onResponse(new MLTaskResponse(new MLTrainingOutput(null, taskId, mlTask.getState().name())));
+            ActionListener<MLTaskResponse> internalListener = ActionListener.wrap(res -> {
+                String modelId = ((MLTrainingOutput) res.getOutput()).getModelId();
+                log.info("ML model trained successfully, task id: {}, model id: {}", taskId, modelId);
+                mlTask.setModelId(modelId);
+                handleAsyncMLTaskComplete(mlTask);
+            }, ex -> {
+                log.error("Failed to train ML model for task " + taskId);
+                handleAsyncMLTaskFailure(mlTask, ex);
+            });
+            // the checkpoint is not needed once the task is done, no matter whether the model is saved or not
+            ActionListener<MLTaskResponse> finishingListener = ActionListener.runAfter(internalListener, () -> {
+                releasable.close();
+                mlTrainingCheckpointManager.deleteCheckpoint(taskId);
+            });
+            // the initial checkpoint lets another node train the task again if this node leaves the cluster, training
+            // starts once it's written, so the checkpoint can't be written after the task is done
+            ActionListener<IndexResponse> checkpointListener = ActionListener
+                .wrap(
+                    checkpointResponse -> log.debug("Checkpointed ML task {}", taskId),
+                    checkpointError -> log.warn("Failed to checkpoint ML task " + taskId, checkpointError)
+                );
+            MLTrainingCheckpoint checkpoint = MLTrainingCheckpoint.initialCheckpoint(taskId, mlInput);
+            Runnable training = () -> runTrainingTask(mlTask, mlInput, cancellationToken, finishingListener);
+            mlTrainingCheckpointManager.writeCheckpoint(checkpoint, ActionListener.runAfter(checkpointListener, training));
+        }, e -> {
+            log.error("Failed to create ML task", e);
+            releasable.close();
+            listener.onFailure(e);
+        }));
+    }
+
     /**
      * Start training task
      * @param mlTask ML task
      * @param mlInput ML input
+     * @param cancellationToken cancellation token
      * @param listener Action listener
      */
-    private void startTrainingTask(MLTask mlTask, MLInput mlInput, ActionListener<MLTaskResponse> listener) {
-        ActionListener<MLTaskResponse> internalListener = wrappedCleanupListener(listener, mlTask.getTaskId());
+    private void startTrainingTask(
+        MLTask mlTask,
+        MLInput mlInput,
+        CancellationToken cancellationToken,
+        ActionListener<MLTaskResponse> listener
+    ) {
+        admitTask(
+            MLTaskType.TRAINING,
+            null,
+            listener,
+            admittedListener -> runTrainingTask(mlTask, mlInput, cancellationToken, admittedListener)
+        );
+    }
+
+    private void runTrainingTask(
+        MLTask mlTask,
+        MLInput mlInput,
+        CancellationToken cancellationToken,
+        ActionListener<MLTaskResponse> listener
+    ) {
+        long taskCost = mlTaskDispatcher.estimateTaskCost(MLTaskType.TRAINING, mlInput, null);
+        ActionListener<MLTaskResponse> internalListener = wrappedCleanupListener(listener, mlTask.getTaskId(), taskCost);
         // track ML task count and add ML task into cache
         mlStats.getStat(ML_EXECUTING_TASK_COUNT).increment();
+        mlStats.getStat(ML_OUTSTANDING_TASK_COST).add(taskCost);
         mlStats.getStat(ML_TOTAL_REQUEST_COUNT).increment();
         mlStats.createCounterStatIfAbsent(requestCountStat(mlTask.getFunctionName(), ActionName.TRAIN)).increment();
         mlTaskManager.add(mlTask);
+        trainByInputType(mlTask, mlInput, null, cancellationToken, internalListener);
+    }
+
+    /**
+     * Train the model of a task by its input: mini-batch training streams all matching documents, distributed
+     * training trains on the nodes holding the data, other input is trained on a data frame on this node.
+     * @param mlTask ML task
+     * @param mlInput ML input
+     * @param checkpoint checkpoint to continue training from, or null to train from scratch
+     * @param cancellationToken cancellation token
+     * @param internalListener action listener
+     */
+    private void trainByInputType(
+        MLTask mlTask,
+        MLInput mlInput,
+        MLTrainingCheckpoint checkpoint,
+        CancellationToken cancellationToken,
+        ActionListener<MLTaskResponse> internalListener
+    ) {
         try {
-            if (mlInput.getInputDataset().getInputDataType().equals(MLInputDataType.SEARCH_QUERY)) {
+            MiniBatchTrainer miniBatchTrainer = mlInput.getInputDataset().getInputDataType().equals(MLInputDataType.SEARCH_QUERY)
+                ? MLEngine.createMiniBatchTrainer(mlInput.getAlgorithm(), mlInput.getParameters())
+                : null;
+            if (miniBatchTrainer != null) {
+                // mini-batch training streams all matching documents, so it's neither distributed nor limited to one page
+                trainMiniBatch(mlTask, mlInput, miniBatchTrainer, cancellationToken, internalListener);
+            } else if (mlDistributedTrainer.canTrain(mlInput)) {
+                ActionListener<MLTaskResponse> listenerWithFailureStats = withFailureStats(mlTask, internalListener);
+                mlTaskManager.updateTaskState(mlTask.getTaskId(), MLTaskState.RUNNING, mlTask.isAsync());
+                // only async tasks are resumed, a sync request fails with the node coordinating it
+                mlDistributedTrainer
+                    .train(
+                        mlTask.getTaskId(),
+                        mlInput,
+                        mlTask.isAsync(),
+                        cancellationToken,
+                        distributedTrainingListener(mlTask, mlInput, listenerWithFailureStats)
+                    );
+            } else if (mlInput.getInputDataset().getInputDataType().equals(MLInputDataType.SEARCH_QUERY)) {
                 ActionListener<DataFrame> dataFrameActionListener = ActionListener
                     .wrap(
                         dataFrame -> {
-                            train(mlTask, mlInput.toBuilder().inputDataset(new DataFrameInputDataset(dataFrame)).build(), internalListener);
+                            train(
+                                mlTask,
+                                mlInput,
+                                mlInput.toBuilder().inputDataset(new DataFrameInputDataset(dataFrame)).build(),
+                                checkpoint,
+                                cancellationToken,
+                                internalListener
+                            );
                         },
                         e -> {
                             log.error("Failed to generate DataFrame from search query", e);
                             internalListener.onFailure(e);
                         }
                     );
-                mlInputDatasetHandler
-                    .parseSearchQueryInput(
-                        mlInput.getInputDataset(),
-                        new ThreadedActionListener<>(log, threadPool, TASK_THREAD_POOL, dataFrameActionListener, false)
-                    );
+                ActionListener<DataFrame> threadedListener = new ThreadedActionListener<>(
+                    log,
+                    threadPool,
+                    TRAIN_THREAD_POOL,
+                    dataFrameActionListener,
+                    false
+                );
+                // algorithms training on a sample read all matching documents page by page, but only keep the sample
+                ReservoirSampler<Map<String, Object>> sampler = MLEngine
+                    .createTrainingSampler(mlInput.getAlgorithm(), mlInput.getParameters());
+                if (sampler != null) {
+                    mlInputDatasetHandler
+                        .sampleSearchQueryInput(mlInput.getInputDataset(), sampler, cancellationToken, TRAIN_THREAD_POOL, threadedListener);
+                } else {
+                    mlInputDatasetHandler.parseSearchQueryInput(mlInput.getInputDataset(), threadedListener);
+                }
             } else {
-                threadPool.executor(TASK_THREAD_POOL).execute(() -> { train(mlTask, mlInput, internalListener); });
+                threadPool
+                    .executor(TRAIN_THREAD_POOL)
+                    .execute(() -> { train(mlTask, mlInput, mlInput, checkpoint, cancellationToken, internalListener); });
             }
         } catch (Exception e) {
             log.error("Failed to train " + mlInput.getAlgorithm(), e);
@@ -174,49 +331,319 @@ public class MLTrainingTaskRunner extends MLTaskRunner<MLTrainingTaskRequest, ML
         }
     }
 
-    private void train(MLTask mlTask, MLInput mlInput, ActionListener<MLTaskResponse> actionListener) {
-        ActionListener<MLTaskResponse> listener = ActionListener.wrap(r -> actionListener.onResponse(r), e -> {
-            mlStats.createCounterStatIfAbsent(failureCountStat(mlTask.getFunctionName(), ActionName.TRAIN)).increment();
-            mlStats.getStat(ML_TOTAL_FAILURE_COUNT).increment();
-            actionListener.onFailure(e);
-        });
-        try {
-            // run training
-            mlTaskManager.updateTaskState(mlTask.getTaskId(), MLTaskState.RUNNING, mlTask.isAsync());
-            Model model = MLEngine.train(mlInput);
-            mlIndicesHandler.initModelIndexIfAbsent(ActionListener.wrap(indexCreated -> {
-                if (!indexCreated) {
-                    listener.onFailure(new RuntimeException("No response to create ML task index"));
+    /**
+     * Resume an async training task after the node running the task left the cluster. Like a new training request,
+     * the task is dispatched to an ML node by its cost and source indices, and that node only resumes the task once
+     * its admission controller admits it.
+     * @param request resume request
+     * @param transportService transport service
+     * @param listener notified once the task is resumed, or with the failure if it can't be resumed
+     */
+    public void resumeTrainingTask(
+        MLResumeTrainingTaskRequest request,
+        TransportService transportService,
+        ActionListener<AcknowledgedResponse> listener
+    ) {
+        if (!request.isDispatchTask()) {
+            resumeTrainingTaskLocally(request.getTaskId(), listener);
+            return;
+        }
+        MLInput mlInput = request.getMlInput();
+        long taskCost = mlTaskDispatcher.estimateTaskCost(MLTaskType.TRAINING, mlInput, null);
+        mlTaskDispatcher.dispatchTask(taskCost, searchQueryIndices(mlInput), ActionListener.wrap(node -> {
+            if (clusterService.localNode().getId().equals(node.getId())) {
+                log.info("Resume ML task {} locally on node {}", request.getTaskId(), node.getId());
+                resumeTrainingTaskLocally(request.getTaskId(), listener);
+            } else {
+                log.info("Resume ML task {} remotely on node {}", request.getTaskId(), node.getId());
+                request.setDispatchTask(false);
+                transportService
+                    .sendRequest(
+                        node,
+                        MLResumeTrainingTaskAction.NAME,
+                        request,
+                        new ActionListenerResponseHandler<>(listener, AcknowledgedResponse::new)
+                    );
+            }
+        }, listener::onFailure));
+    }
+
+    private void resumeTrainingTaskLocally(String taskId, ActionListener<AcknowledgedResponse> listener) {
+        if (mlCircuitBreakerService.isOpen()) {
+            mlStats.getStat(ML_TOTAL_CIRCUIT_BREAKER_TRIGGER_COUNT).increment();
+            listener.onFailure(new MLLimitExceededException("Circuit breaker is open"));
+            return;
+        }
+        // the checkpoint is read after admission, so the latest checkpoint is resumed
+        admitAsyncTask(MLTaskType.TRAINING, listener, releasable -> {
+            ActionListener<MLTrainingCheckpoint> checkpointListener = ActionListener.wrap(checkpoint -> {
+                if (checkpoint == null) {
+                    releasable.close();
+                    listener.onFailure(new MLResourceNotFoundException("No checkpoint found for ML task " + taskId));
                     return;
                 }
-                // TODO: put the user into model for backend role based access control.
-                MLModel mlModel = new MLModel(mlInput.getAlgorithm(), model);
-                try (ThreadContext.StoredContext context = client.threadPool().getThreadContext().stashContext()) {
-                    ActionListener<IndexResponse> indexResponseListener = ActionListener.wrap(r -> {
-                        log.info("Model data indexing done, result:{}, model id: {}", r.getResult(), r.getId());
-                        mlStats.getStat(ML_TOTAL_MODEL_COUNT).increment();
-                        mlStats.createCounterStatIfAbsent(modelCountStat(mlTask.getFunctionName())).increment();
-                        String returnedTaskId = mlTask.isAsync() ? mlTask.getTaskId() : null;
-                        MLTrainingOutput output = new MLTrainingOutput(r.getId(), returnedTaskId, MLTaskState.COMPLETED.name());
-                        listener.onResponse(MLTaskResponse.builder().output(output).build());
-                    }, e -> { listener.onFailure(e); });
-
-                    IndexRequest indexRequest = new IndexRequest(ML_MODEL_INDEX);
-                    indexRequest.source(mlModel.toXContent(XContentBuilder.builder(XContentType.JSON.xContent()), ToXContent.EMPTY_PARAMS));
-                    indexRequest.setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
-                    client.index(indexRequest, ActionListener.runBefore(indexResponseListener, () -> context.restore()));
-                } catch (Exception e) {
-                    log.error("Failed to save ML model", e);
-                    listener.onFailure(e);
-                }
+                listener.onResponse(new AcknowledgedResponse(true));
+                startResumedTrainingTask(taskId, checkpoint, releasable);
             }, e -> {
-                log.error("Failed to init ML model index", e);
+                releasable.close();
                 listener.onFailure(e);
-            }));
+            });
+            mlTrainingCheckpointManager.getCheckpoint(taskId, checkpointListener);
+        });
+    }
+
+    /**
+     * Resume an admitted async training task from its checkpoint on this node. A task already running on this node
+     * is not resumed again. The resumed task stops once it's deleted or marked done by another node.
+     * Distributed training continues from the checkpointed iteration, algorithms training point by point continue
+     * from the checkpointed model state, and tasks without training progress are trained again from scratch.
+     * @param taskId ML task id
+     * @param checkpoint training checkpoint
+     * @param releasable admission permit, closed once the training is done
+     */
+    void startResumedTrainingTask(String taskId, MLTrainingCheckpoint checkpoint, Releasable releasable) {
+        MLInput mlInput = checkpoint.getMlInput();
+        Instant now = Instant.now();
+        // only the state, worker node and result of the resumed task are updated in the ML task index
+        MLTask mlTask = MLTask
+            .builder()
+            .taskId(taskId)
+            .taskType(MLTaskType.TRAINING)
+            .inputType(mlInput.getInputDataset().getInputDataType())
+            .functionName(mlInput.getFunctionName())
+            .state(MLTaskState.CREATED)
+            .workerNode(clusterService.localNode().getId())
+            .createTime(now)
+            .lastUpdateTime(now)
+            .async(true)
+            .build();
+        // the task may be found again while it's resumed, by a later search of orphaned tasks
+        try {
+            mlTaskManager.add(mlTask);
+        } catch (IllegalArgumentException e) {
+            log.info("ML task {} is already running on this node, won't resume it again", taskId);
+            releasable.close();
+            return;
+        }
+        long taskCost = mlTaskDispatcher.estimateTaskCost(MLTaskType.TRAINING, mlInput, null);
+        MLResumedTaskCancellationToken cancellationToken = new MLResumedTaskCancellationToken(client, taskId);
+        ActionListener<MLTaskResponse> listener = ActionListener.wrap(res -> {
+            String modelId = ((MLTrainingOutput) res.getOutput()).getModelId();
+            log.info("ML model trained successfully, task id: {}, model id: {}", taskId, modelId);
+            mlTask.setModelId(modelId);
+            handleAsyncMLTaskComplete(mlTask);
+        }, ex -> {
+            log.error("Failed to train ML model for task " + taskId);
+            handleAsyncMLTaskFailure(mlTask, ex);
+        });
+        ActionListener<MLTaskResponse> releasingListener = ActionListener.runAfter(listener, () -> {
+            releasable.close();
+            mlTrainingCheckpointManager.deleteCheckpoint(taskId);
+        });
+        ActionListener<MLTaskResponse> internalListener = withFailureStats(
+            mlTask,
+            wrappedCleanupListener(ActionListener.runBefore(releasingListener, cancellationToken::stop), taskId, taskCost)
+        );
+        mlStats.getStat(ML_EXECUTING_TASK_COUNT).increment();
+        mlStats.getStat(ML_OUTSTANDING_TASK_COST).add(taskCost);
+        try {
+            mlTaskManager.updateTaskState(taskId, MLTaskState.RUNNING, true);
+            mlTaskManager.updateMLTask(taskId, ImmutableMap.of(MLTask.WORKER_NODE_FIELD, mlTask.getWorkerNode()), TIMEOUT_IN_MILLIS);
+            cancellationToken.watch(threadPool);
+            if (checkpoint.hasProgress() && checkpoint.getModelState() == null) {
+                mlDistributedTrainer.resume(checkpoint, cancellationToken, distributedTrainingListener(mlTask, mlInput, internalListener));
+            } else {
+                trainByInputType(mlTask, mlInput, checkpoint, cancellationToken, internalListener);
+            }
+        } catch (Exception e) {
+            log.error("Failed to resume ML task " + taskId, e);
+            internalListener.onFailure(e);
+        }
+    }
+
+    private ActionListener<Model> distributedTrainingListener(MLTask mlTask, MLInput mlInput, ActionListener<MLTaskResponse> listener) {
+        return ActionListener.wrap(model -> saveModel(mlTask, mlInput, model, listener), listener::onFailure);
+    }
+
+    /**
+     * Train on a data frame on this node.
+     * @param mlTask ML task
+     * @param mlInput ML input of the task
+     * @param trainingInput ML input with the data frame to train on
+     * @param checkpoint checkpoint to continue training from, or null to train from scratch
+     * @param cancellationToken cancellation token
+     * @param actionListener action listener
+     */
+    private void train(
+        MLTask mlTask,
+        MLInput mlInput,
+        MLInput trainingInput,
+        MLTrainingCheckpoint checkpoint,
+        CancellationToken cancellationToken,
+        ActionListener<MLTaskResponse> actionListener
+    ) {
+        ActionListener<MLTaskResponse> listener = withFailureStats(mlTask, actionListener);
+        try {
+            // task may be cancelled or timed out while waiting in thread pool queue
+            cancellationToken.ensureNotCancelled();
+            // run training
+            int parallelism = parallelism(threadPool, TRAIN_THREAD_POOL);
+            checkTrainingMemory(mlTask, trainingInput, trainingInput.getDataFrame(), parallelism);
+            mlTaskManager.updateTaskState(mlTask.getTaskId(), MLTaskState.RUNNING, mlTask.isAsync());
+            Model model = trainModel(mlTask, mlInput, trainingInput, checkpoint, cancellationToken, parallelism);
+            saveModel(mlTask, mlInput, model, listener);
         } catch (Exception e) {
             // todo need to specify what exception
             log.error("Failed to train " + mlInput.getAlgorithm(), e);
             listener.onFailure(e);
         }
     }
+
+    /**
+     * Async tasks of algorithms training point by point on search query input checkpoint the model state every few
+     * points. Checkpoints keep the ML input, so data frame input is not checkpointed, as the whole data frame would be
+     * written again with every checkpoint. A resumed task reads the training data again and assumes the same order.
+     */
+    private Model trainModel(
+        MLTask mlTask,
+        MLInput mlInput,
+        MLInput trainingInput,
+        MLTrainingCheckpoint checkpoint,
+        CancellationToken cancellationToken,
+        int parallelism
+    ) {
+        CheckpointableTrainable checkpointable = mlTask.isAsync()
+            && mlInput.getInputDataset().getInputDataType().equals(MLInputDataType.SEARCH_QUERY)
+                ? MLEngine.getCheckpointableTrainable(mlInput.getAlgorithm(), mlInput.getParameters())
+                : null;
+        if (checkpointable == null) {
+            return MLEngine.train(trainingInput, cancellationToken, threadPool.executor(TRAIN_THREAD_POOL), parallelism);
+        }
+        TrainingCheckpoint trainingCheckpoint = checkpoint != null && checkpoint.getModelState() != null
+            ? new TrainingCheckpoint(checkpoint.getIteration(), checkpoint.getModelState())
+            : null;
+        return checkpointable
+            .train(
+                trainingInput.getDataFrame(),
+                trainingCheckpoint,
+                mlTrainingCheckpointManager.getCheckpointPoints(),
+                c -> writeModelCheckpoint(mlTask.getTaskId(), mlInput, c),
+                cancellationToken,
+                threadPool.executor(TRAIN_THREAD_POOL),
+                parallelism
+            );
+    }
+
+    private void writeModelCheckpoint(String taskId, MLInput mlInput, TrainingCheckpoint trainingCheckpoint) {
+        int points = trainingCheckpoint.getPoints();
+        MLTrainingCheckpoint checkpoint = new MLTrainingCheckpoint(
+            taskId,
+            mlInput,
+            points,
+            new String[0],
+            new double[0],
+            trainingCheckpoint.getState()
+        );
+        // a failed checkpoint only loses progress if the node leaves later, keep training
+        ActionListener<IndexResponse> checkpointListener = ActionListener
+            .wrap(
+                r -> log.debug("Checkpointed ML task {} at {} points", taskId, points),
+                e -> log.warn("Failed to checkpoint ML task " + taskId, e)
+            );
+        mlTrainingCheckpointManager.writeCheckpoint(checkpoint, checkpointListener);
+    }
+
+    /**
+     * Train on all documents matching the search query, keeping one page of documents in memory at a time.
+     * Every pass reads the documents with an async scroll, and the next pass starts once the previous one is done.
+     */
+    private void trainMiniBatch(
+        MLTask mlTask,
+        MLInput mlInput,
+        MiniBatchTrainer miniBatchTrainer,
+        CancellationToken cancellationToken,
+        ActionListener<MLTaskResponse> actionListener
+    ) {
+        ActionListener<MLTaskResponse> listener = withFailureStats(mlTask, actionListener);
+        try {
+            cancellationToken.ensureNotCancelled();
+            mlTaskManager.updateTaskState(mlTask.getTaskId(), MLTaskState.RUNNING, mlTask.isAsync());
+            trainMiniBatchPass(0, mlTask, mlInput, miniBatchTrainer, cancellationToken, listener);
+        } catch (Exception e) {
+            log.error("Failed to train " + mlInput.getAlgorithm(), e);
+            listener.onFailure(e);
+        }
+    }
+
+    private void trainMiniBatchPass(
+        int pass,
+        MLTask mlTask,
+        MLInput mlInput,
+        MiniBatchTrainer miniBatchTrainer,
+        CancellationToken cancellationToken,
+        ActionListener<MLTaskResponse> listener
+    ) {
+        ActionListener<Long> passListener = ActionListener.wrap(count -> {
+            if (count == 0) {
+                throw new IllegalArgumentException("No document found");
+            }
+            if (pass + 1 < miniBatchTrainer.getPasses()) {
+                trainMiniBatchPass(pass + 1, mlTask, mlInput, miniBatchTrainer, cancellationToken, listener);
+            } else {
+                saveModel(mlTask, mlInput, miniBatchTrainer.buildModel(), listener);
+            }
+        }, e -> {
+            log.error("Failed to train " + mlInput.getAlgorithm(), e);
+            listener.onFailure(e);
+        });
+        mlInputDatasetHandler
+            .scanSearchQueryInput(
+                mlInput.getInputDataset(),
+                miniBatchTrainer.getBatchSize(),
+                cancellationToken,
+                TRAIN_THREAD_POOL,
+                batch -> miniBatchTrainer.update(batch, cancellationToken),
+                passListener
+            );
+    }
+
+    private ActionListener<MLTaskResponse> withFailureStats(MLTask mlTask, ActionListener<MLTaskResponse> actionListener) {
+        return ActionListener.wrap(r -> actionListener.onResponse(r), e -> {
+            mlStats.createCounterStatIfAbsent(failureCountStat(mlTask.getFunctionName(), ActionName.TRAIN)).increment();
+            mlStats.getStat(ML_TOTAL_FAILURE_COUNT).increment();
+            actionListener.onFailure(e);
+        });
+    }
+
+    private void saveModel(MLTask mlTask, MLInput mlInput, Model model, ActionListener<MLTaskResponse> listener) {
+        mlIndicesHandler.initModelIndexIfAbsent(ActionListener.wrap(indexCreated -> {
+            if (!indexCreated) {
+                listener.onFailure(new RuntimeException("No response to create ML task index"));
+                return;
+            }
+            // TODO: put the user into model for backend role based access control.
+            MLModel mlModel = new MLModel(mlInput.getAlgorithm(), model, mlTask.getMemoryEstimate());
+            try (ThreadContext.StoredContext context = client.threadPool().getThreadContext().stashContext()) {
+                ActionListener<IndexResponse> indexResponseListener = ActionListener.wrap(r -> {
+                    log.info("Model data indexing done, result:{}, model id: {}", r.getResult(), r.getId());
+                    mlStats.getStat(ML_TOTAL_MODEL_COUNT).increment();
+                    mlStats.createCounterStatIfAbsent(modelCountStat(mlTask.getFunctionName())).increment();
+                    String returnedTaskId = mlTask.isAsync() ? mlTask.getTaskId() : null;
+                    MLTrainingOutput output = new MLTrainingOutput(r.getId(), returnedTaskId, MLTaskState.COMPLETED.name());
+                    listener.onResponse(MLTaskResponse.builder().output(output).build());
+                }, e -> { listener.onFailure(e); });
+
+                IndexRequest indexRequest = new IndexRequest(ML_MODEL_INDEX);
+                indexRequest.source(mlModel.toXContent(XContentBuilder.builder(XContentType.JSON.xContent()), ToXContent.EMPTY_PARAMS));
+                indexRequest.setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE);
+                client.index(indexRequest, ActionListener.runBefore(indexResponseListener, () -> context.restore()));
+            } catch (Exception e) {
+                log.error("Failed to save ML model", e);
+                listener.onFailure(e);
+            }
+        }, e -> {
+            log.error("Failed to init ML model index", e);
+            listener.onFailure(e);
+        }));
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.opensearch.action.ActionListener;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.tasks.TaskCancelledException;
+import org.opensearch.threadpool.Scheduler;
+import org.opensearch.threadpool.ThreadPool;
+
+/**
+ * Listener of a request which waits for an execution shared with other requests, like a coalesced or batched
+ * prediction. Once watched, the listener fails as soon as its own request is cancelled or times out, instead of
+ * waiting for the shared execution: it's notified by the cancellation of the OpenSearch task, and by one check
+ * scheduled at the deadline of the request. Otherwise it's notified by the shared execution. The listener is
+ * notified at most once.
+ *
+ * @param <T> response type
+ */
+class MLWaitingListener<T> implements ActionListener<T> {
+    private final CancellationToken cancellationToken;
+    private final ActionListener<T> delegate;
+    private final AtomicBoolean done = new AtomicBoolean();
+    private final Runnable cancellationListener = this::failIfCancelled;
+    private volatile Scheduler.Cancellable deadlineCheck;
+
+    MLWaitingListener(CancellationToken cancellationToken, ActionListener<T> delegate) {
+        this.cancellationToken = cancellationToken;
+        this.delegate = delegate;
+    }
+
+    /**
+     * Fail the listener once its request is cancelled or times out. Only requests with an ML task cancellation
+     * token are watched, requests with other tokens are checked by the shared execution.
+     * @param threadPool thread pool to schedule the check at the deadline
+     */
+    void watch(ThreadPool threadPool) {
+        if (!(cancellationToken instanceof MLTaskCancellationToken) || done.get()) {
+            return;
+        }
+        MLTaskCancellationToken token = (MLTaskCancellationToken) cancellationToken;
+        token.addCancellationListener(cancellationListener);
+        TimeValue remainingTime = token.getRemainingTime();
+        if (remainingTime != null) {
+            deadlineCheck = threadPool.schedule(this::failIfCancelled, remainingTime, ThreadPool.Names.SAME);
+        }
+        if (done.get()) {
+            // notified while watching
+            stopWatching();
+        }
+    }
+
+    /**
+     * Fail the listener if its request is cancelled or timed out.
+     * @return true if the request is cancelled
+     */
+    boolean failIfCancelled() {
+        if (!cancellationToken.isCancelled()) {
+            return false;
+        }
+        try {
+            cancellationToken.ensureNotCancelled();
+            onFailure(new TaskCancelledException("ML task cancelled"));
+        } catch (Exception e) {
+            onFailure(e);
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the listener is notified
+     */
+    boolean isDone() {
+        return done.get();
+    }
+
+    CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    @Override
+    public void onResponse(T response) {
+        if (done.compareAndSet(false, true)) {
+            stopWatching();
+            delegate.onResponse(response);
+        }
+    }
+
+    @Override
+    public void onFailure(Exception e) {
+        if (done.compareAndSet(false, true)) {
+            stopWatching();
+            delegate.onFailure(e);
+        }
+    }
+
+    private void stopWatching() {
+        if (cancellationToken instanceof MLTaskCancellationToken) {
+            ((MLTaskCancellationToken) cancellationToken).removeCancellationListener(cancellationListener);
+        }
+        Scheduler.Cancellable check = deadlineCheck;
+        if (check != null) {
+            check.cancel();
+        }
+    }
+}
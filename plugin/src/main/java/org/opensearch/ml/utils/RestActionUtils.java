@@ -8,6 +8,7 @@ package org.opensearch.ml.utils;
 import java.util.Locale;
 
 import org.opensearch.common.Strings;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.rest.RestRequest;
 import org.opensearch.search.fetch.subphase.FetchSourceContext;
 
@@ -17,6 +18,7 @@ public class RestActionUtils {
     public static final String PARAMETER_ASYNC = "async";
     public static final String PARAMETER_MODEL_ID = "model_id";
     public static final String PARAMETER_TASK_ID = "task_id";
+    public static final String PARAMETER_TIMEOUT = "timeout";
     public static final String OPENSEARCH_DASHBOARDS_USER_AGENT = "OpenSearch Dashboards";
     public static final String[] UI_METADATA_EXCLUDE = new String[] { "ui_metadata" };
 
@@ -32,6 +34,16 @@ public class RestActionUtils {
         return request.paramAsBoolean(PARAMETER_ASYNC, false);
     }
 
+    /**
+     * Get the time budget of ML task from a RestRequest
+     *
+     * @param request RestRequest
+     * @return timeout, null if not set
+     */
+    public static TimeValue getTimeout(RestRequest request) {
+        return request.paramAsTime(PARAMETER_TIMEOUT, null);
+    }
+
     /**
      * Get the Model or Task id from a RestRequest
      *
@@ -7,6 +7,7 @@ package org.opensearch.ml.action.tasks;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -27,8 +28,11 @@ import org.opensearch.common.settings.Settings;
 import org.opensearch.common.util.concurrent.ThreadContext;
 import org.opensearch.common.xcontent.NamedXContentRegistry;
 import org.opensearch.index.IndexNotFoundException;
+import org.opensearch.ml.common.MLTask;
+import org.opensearch.ml.common.MLTaskState;
 import org.opensearch.ml.common.transport.task.MLTaskGetRequest;
 import org.opensearch.ml.common.transport.task.MLTaskGetResponse;
+import org.opensearch.ml.task.MLTaskManager;
 import org.opensearch.test.OpenSearchTestCase;
 import org.opensearch.threadpool.ThreadPool;
 import org.opensearch.transport.TransportService;
@@ -52,6 +56,9 @@ public class GetTaskTransportActionTests extends OpenSearchTestCase {
     @Mock
     ActionListener<MLTaskGetResponse> actionListener;
 
+    @Mock
+    MLTaskManager mlTaskManager;
+
     @Rule
     public ExpectedException exceptionRule = ExpectedException.none();
 
@@ -64,7 +71,9 @@ public class GetTaskTransportActionTests extends OpenSearchTestCase {
         MockitoAnnotations.openMocks(this);
         mlTaskGetRequest = MLTaskGetRequest.builder().taskId("test_id").build();
 
-        getTaskTransportAction = spy(new GetTaskTransportAction(transportService, actionFilters, client, xContentRegistry));
+        getTaskTransportAction = spy(
+            new GetTaskTransportAction(transportService, actionFilters, client, xContentRegistry, mlTaskManager)
+        );
 
         Settings settings = Settings.builder().build();
         threadContext = new ThreadContext(settings);
@@ -107,4 +116,14 @@ public class GetTaskTransportActionTests extends OpenSearchTestCase {
         verify(actionListener).onFailure(argumentCaptor.capture());
         assertEquals("Fail to find task", argumentCaptor.getValue().getMessage());
     }
+
+    public void testGetTask_RunningTaskFromCache() {
+        MLTask mlTask = MLTask.builder().taskId("test_id").state(MLTaskState.RUNNING).build();
+        when(mlTaskManager.get("test_id")).thenReturn(mlTask);
+        getTaskTransportAction.doExecute(null, mlTaskGetRequest, actionListener);
+        ArgumentCaptor<MLTaskGetResponse> argumentCaptor = ArgumentCaptor.forClass(MLTaskGetResponse.class);
+        verify(actionListener).onResponse(argumentCaptor.capture());
+        assertEquals(mlTask, argumentCaptor.getValue().getMlTask());
+        verify(client, never()).get(any(), any());
+    }
 }
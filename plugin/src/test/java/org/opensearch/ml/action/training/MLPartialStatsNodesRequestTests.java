@@ -0,0 +1,74 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.action.training;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.io.stream.NamedWriteableAwareStreamInput;
+import org.opensearch.common.io.stream.NamedWriteableRegistry;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.index.Index;
+import org.opensearch.index.query.MatchAllQueryBuilder;
+import org.opensearch.index.shard.ShardId;
+import org.opensearch.ml.common.FunctionName;
+import org.opensearch.ml.common.dataset.SearchQueryInputDataset;
+import org.opensearch.ml.common.input.MLInput;
+import org.opensearch.ml.common.input.parameter.clustering.KMeansParams;
+import org.opensearch.search.SearchModule;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.test.OpenSearchTestCase;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+public class MLPartialStatsNodesRequestTests extends OpenSearchTestCase {
+
+    public void testSerializationDeserialization() throws IOException {
+        Index index = new Index("test_index", "uuid");
+        Map<String, List<ShardId>> shardAssignment = ImmutableMap
+            .of("node1", ImmutableList.of(new ShardId(index, 0), new ShardId(index, 2)), "node2", ImmutableList.of(new ShardId(index, 1)));
+        MLInput mlInput = MLInput
+            .builder()
+            .algorithm(FunctionName.KMEANS)
+            .parameters(KMeansParams.builder().centroids(2).build())
+            .inputDataset(
+                new SearchQueryInputDataset(ImmutableList.of("test_index"), new SearchSourceBuilder().query(new MatchAllQueryBuilder()))
+            )
+            .build();
+        MLPartialStatsNodesRequest request = new MLPartialStatsNodesRequest(
+            "taskId",
+            mlInput,
+            shardAssignment,
+            new String[] { "f1", "f2" },
+            new double[] { 1.0, 2.0, 3.0, 4.0 },
+            true,
+            true
+        );
+        assertArrayEquals(new String[] { "node1", "node2" }, request.nodesIds());
+
+        BytesStreamOutput output = new BytesStreamOutput();
+        new MLPartialStatsNodeRequest(request).writeTo(output);
+        StreamInput input = new NamedWriteableAwareStreamInput(
+            output.bytes().streamInput(),
+            new NamedWriteableRegistry(new SearchModule(Settings.EMPTY, Collections.emptyList()).getNamedWriteables())
+        );
+        MLPartialStatsNodesRequest parsedRequest = new MLPartialStatsNodeRequest(input).getMlPartialStatsNodesRequest();
+        assertEquals("taskId", parsedRequest.getTaskId());
+        assertEquals(FunctionName.KMEANS, parsedRequest.getMlInput().getAlgorithm());
+        SearchQueryInputDataset inputDataset = (SearchQueryInputDataset) parsedRequest.getMlInput().getInputDataset();
+        assertEquals(ImmutableList.of("test_index"), inputDataset.getIndices());
+        assertEquals(shardAssignment, parsedRequest.getShardAssignment());
+        assertArrayEquals(new String[] { "f1", "f2" }, parsedRequest.getFeatureNames());
+        assertArrayEquals(new double[] { 1.0, 2.0, 3.0, 4.0 }, parsedRequest.getState(), 0.0);
+        assertTrue(parsedRequest.isLastIteration());
+        assertTrue(parsedRequest.isRelease());
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.action.training;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.io.stream.NamedWriteableAwareStreamInput;
+import org.opensearch.common.io.stream.NamedWriteableRegistry;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.index.query.MatchAllQueryBuilder;
+import org.opensearch.ml.common.FunctionName;
+import org.opensearch.ml.common.dataset.SearchQueryInputDataset;
+import org.opensearch.ml.common.input.MLInput;
+import org.opensearch.ml.common.input.parameter.clustering.KMeansParams;
+import org.opensearch.search.SearchModule;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.test.OpenSearchTestCase;
+
+import com.google.common.collect.ImmutableList;
+
+public class MLResumeTrainingTaskRequestTests extends OpenSearchTestCase {
+
+    public void testSerializationDeserialization() throws IOException {
+        MLInput mlInput = MLInput
+            .builder()
+            .algorithm(FunctionName.KMEANS)
+            .parameters(KMeansParams.builder().centroids(2).build())
+            .inputDataset(
+                new SearchQueryInputDataset(ImmutableList.of("test_index"), new SearchSourceBuilder().query(new MatchAllQueryBuilder()))
+            )
+            .build();
+        MLResumeTrainingTaskRequest request = new MLResumeTrainingTaskRequest("taskId", mlInput);
+        assertTrue(request.isDispatchTask());
+        request.setDispatchTask(false);
+
+        BytesStreamOutput output = new BytesStreamOutput();
+        request.writeTo(output);
+        StreamInput input = new NamedWriteableAwareStreamInput(
+            output.bytes().streamInput(),
+            new NamedWriteableRegistry(new SearchModule(Settings.EMPTY, Collections.emptyList()).getNamedWriteables())
+        );
+        MLResumeTrainingTaskRequest parsedRequest = new MLResumeTrainingTaskRequest(input);
+        assertEquals("taskId", parsedRequest.getTaskId());
+        assertEquals(FunctionName.KMEANS, parsedRequest.getMlInput().getAlgorithm());
+        SearchQueryInputDataset inputDataset = (SearchQueryInputDataset) parsedRequest.getMlInput().getInputDataset();
+        assertEquals(ImmutableList.of("test_index"), inputDataset.getIndices());
+        assertFalse(parsedRequest.isDispatchTask());
+    }
+}
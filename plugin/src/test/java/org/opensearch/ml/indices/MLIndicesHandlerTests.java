@@ -47,4 +47,9 @@ public class MLIndicesHandlerTests extends OpenSearchIntegTestCase {
         client.admin().indices().create(request).get();
         testInitMLTaskIndex();
     }
+
+    public void testInitCheckpointIndex() {
+        ActionListener<Boolean> listener = ActionListener.wrap(r -> { assertTrue(r); }, e -> { throw new RuntimeException(e); });
+        mlIndicesHandler.initCheckpointIndexIfAbsent(listener);
+    }
 }
@@ -6,8 +6,10 @@
 package org.opensearch.ml.indices;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -18,6 +20,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.lucene.search.TotalHits;
 import org.junit.Assert;
@@ -26,6 +31,7 @@ import org.junit.Rule;
 import org.junit.rules.ExpectedException;
 import org.mockito.ArgumentCaptor;
 import org.opensearch.action.ActionListener;
+import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
 import org.opensearch.client.Client;
 import org.opensearch.common.bytes.BytesArray;
@@ -35,13 +41,21 @@ import org.opensearch.ml.common.dataframe.DataFrame;
 import org.opensearch.ml.common.dataframe.DataFrameBuilder;
 import org.opensearch.ml.common.dataset.DataFrameInputDataset;
 import org.opensearch.ml.common.dataset.SearchQueryInputDataset;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.engine.utils.ReservoirSampler;
 import org.opensearch.search.SearchHit;
 import org.opensearch.search.SearchHits;
 import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.tasks.TaskCancelledException;
 import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.ThreadPool;
 
 public class MLInputDatasetHandlerTests extends OpenSearchTestCase {
+    private static final String TEST_EXECUTOR = "test_executor";
+
     Client client;
+    ThreadPool threadPool;
+    ExecutorService executorService;
     MLInputDatasetHandler mlInputDatasetHandler;
     ActionListener<DataFrame> listener;
     DataFrame dataFrame;
@@ -58,6 +72,15 @@ public class MLInputDatasetHandlerTests extends OpenSearchTestCase {
         mapList.add(source);
         dataFrame = DataFrameBuilder.load(mapList);
         client = mock(Client.class);
+        threadPool = mock(ThreadPool.class);
+        executorService = mock(ExecutorService.class);
+        when(client.threadPool()).thenReturn(threadPool);
+        when(threadPool.executor(anyString())).thenReturn(executorService);
+        doAnswer(invocation -> {
+            Runnable runnable = invocation.getArgument(0);
+            runnable.run();
+            return null;
+        }).when(executorService).execute(any(Runnable.class));
         mlInputDatasetHandler = new MLInputDatasetHandler(client);
         listener = spy(new ActionListener<DataFrame>() {
             @Override
@@ -182,4 +205,185 @@ public class MLInputDatasetHandlerTests extends OpenSearchTestCase {
         mlInputDatasetHandler.parseSearchQueryInput(dataFrameInputDataset, listener);
     }
 
+    @SuppressWarnings("unchecked")
+    public void testSampleSearchQueryInput() {
+        List<SearchResponse> pages = List.of(searchPage(0, 3), searchPage(3, 3), searchPage(6, 0));
+        AtomicInteger page = new AtomicInteger();
+        doAnswer(invocation -> {
+            ActionListener<SearchResponse> listener = (ActionListener<SearchResponse>) invocation.getArguments()[1];
+            listener.onResponse(pages.get(page.getAndIncrement()));
+            return null;
+        }).when(client).search(any(), any());
+        doAnswer(invocation -> {
+            ActionListener<SearchResponse> listener = (ActionListener<SearchResponse>) invocation.getArguments()[1];
+            listener.onResponse(pages.get(page.getAndIncrement()));
+            return null;
+        }).when(client).searchScroll(any(), any());
+
+        ReservoirSampler<Map<String, Object>> sampler = new ReservoirSampler<>(4, 0, Long.MAX_VALUE, new Random(42));
+        mlInputDatasetHandler.sampleSearchQueryInput(searchQueryInputDataset(), sampler, CancellationToken.NONE, TEST_EXECUTOR, listener);
+        ArgumentCaptor<DataFrame> captor = ArgumentCaptor.forClass(DataFrame.class);
+        verify(listener, times(1)).onResponse(captor.capture());
+        assertEquals(4, captor.getValue().size());
+        assertEquals(6, sampler.getCount());
+        ArgumentCaptor<SearchRequest> searchRequestCaptor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(client).search(searchRequestCaptor.capture(), any());
+        assertEquals(MLInputDatasetHandler.SAMPLE_PAGE_SIZE, searchRequestCaptor.getValue().source().size());
+        verify(client, times(2)).searchScroll(any(), any());
+        verify(client, times(1)).clearScroll(any(), any());
+        // every page is sampled on the given executor
+        verify(threadPool, times(3)).executor(TEST_EXECUTOR);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testSampleSearchQueryInput_LimitReached() {
+        SearchResponse firstPage = searchPage(0, 3);
+        doAnswer(invocation -> {
+            ActionListener<SearchResponse> listener = (ActionListener<SearchResponse>) invocation.getArguments()[1];
+            listener.onResponse(firstPage);
+            return null;
+        }).when(client).search(any(), any());
+
+        ReservoirSampler<Map<String, Object>> sampler = new ReservoirSampler<>(4, 0, 2, new Random(42));
+        mlInputDatasetHandler.sampleSearchQueryInput(searchQueryInputDataset(), sampler, CancellationToken.NONE, TEST_EXECUTOR, listener);
+        ArgumentCaptor<DataFrame> captor = ArgumentCaptor.forClass(DataFrame.class);
+        verify(listener, times(1)).onResponse(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        verify(client, never()).searchScroll(any(), any());
+        verify(client, times(1)).clearScroll(any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testSampleSearchQueryInput_NoHits() {
+        SearchResponse emptyPage = searchPage(0, 0);
+        doAnswer(invocation -> {
+            ActionListener<SearchResponse> listener = (ActionListener<SearchResponse>) invocation.getArguments()[1];
+            listener.onResponse(emptyPage);
+            return null;
+        }).when(client).search(any(), any());
+
+        ReservoirSampler<Map<String, Object>> sampler = new ReservoirSampler<>(4, 0, Long.MAX_VALUE, new Random(42));
+        mlInputDatasetHandler.sampleSearchQueryInput(searchQueryInputDataset(), sampler, CancellationToken.NONE, TEST_EXECUTOR, listener);
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(listener, times(1)).onFailure(captor.capture());
+        assertEquals("No document found", captor.getValue().getMessage());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testSampleSearchQueryInput_Cancelled() {
+        SearchResponse firstPage = searchPage(0, 3);
+        doAnswer(invocation -> {
+            ActionListener<SearchResponse> listener = (ActionListener<SearchResponse>) invocation.getArguments()[1];
+            listener.onResponse(firstPage);
+            return null;
+        }).when(client).search(any(), any());
+
+        ReservoirSampler<Map<String, Object>> sampler = new ReservoirSampler<>(4, 0, Long.MAX_VALUE, new Random(42));
+        mlInputDatasetHandler.sampleSearchQueryInput(searchQueryInputDataset(), sampler, () -> true, TEST_EXECUTOR, listener);
+        verify(listener, times(1)).onFailure(any(TaskCancelledException.class));
+        verify(listener, never()).onResponse(any());
+        verify(client, times(1)).clearScroll(any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testScanSearchQueryInput() {
+        List<SearchResponse> pages = List.of(searchPage(0, 3), searchPage(3, 2), searchPage(5, 0));
+        mockScrollPages(pages);
+
+        List<DataFrame> batches = new ArrayList<>();
+        ActionListener<Long> countListener = mock(ActionListener.class);
+        mlInputDatasetHandler
+            .scanSearchQueryInput(searchQueryInputDataset(), 3, CancellationToken.NONE, TEST_EXECUTOR, batches::add, countListener);
+        verify(countListener, times(1)).onResponse(5L);
+        assertEquals(2, batches.size());
+        assertEquals(3, batches.get(0).size());
+        assertEquals(2, batches.get(1).size());
+        assertEquals(4, batches.get(1).getRow(1).getValue(0).intValue());
+        ArgumentCaptor<SearchRequest> searchRequestCaptor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(client).search(searchRequestCaptor.capture(), any());
+        assertEquals(3, searchRequestCaptor.getValue().source().size());
+        verify(client, times(2)).searchScroll(any(), any());
+        verify(client, times(1)).clearScroll(any(), any());
+        // every page is consumed on the given executor
+        verify(threadPool, times(3)).executor(TEST_EXECUTOR);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testScanSearchQueryInput_NoHits() {
+        mockScrollPages(List.of(searchPage(0, 0)));
+
+        List<DataFrame> batches = new ArrayList<>();
+        ActionListener<Long> countListener = mock(ActionListener.class);
+        mlInputDatasetHandler
+            .scanSearchQueryInput(searchQueryInputDataset(), 3, CancellationToken.NONE, TEST_EXECUTOR, batches::add, countListener);
+        verify(countListener, times(1)).onResponse(0L);
+        assertTrue(batches.isEmpty());
+        verify(client, never()).searchScroll(any(), any());
+        verify(client, times(1)).clearScroll(any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testScanSearchQueryInput_Cancelled() {
+        mockScrollPages(List.of(searchPage(0, 3), searchPage(3, 0)));
+
+        List<DataFrame> batches = new ArrayList<>();
+        ActionListener<Long> countListener = mock(ActionListener.class);
+        mlInputDatasetHandler.scanSearchQueryInput(searchQueryInputDataset(), 3, () -> true, TEST_EXECUTOR, batches::add, countListener);
+        verify(countListener, times(1)).onFailure(any(TaskCancelledException.class));
+        verify(countListener, never()).onResponse(any());
+        assertTrue(batches.isEmpty());
+        verify(client, never()).searchScroll(any(), any());
+        verify(client, times(1)).clearScroll(any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testScanSearchQueryInput_SearchFailure() {
+        doAnswer(invocation -> {
+            ActionListener<SearchResponse> listener = (ActionListener<SearchResponse>) invocation.getArguments()[1];
+            listener.onFailure(new RuntimeException("search failed"));
+            return null;
+        }).when(client).search(any(), any());
+
+        ActionListener<Long> countListener = mock(ActionListener.class);
+        mlInputDatasetHandler
+            .scanSearchQueryInput(searchQueryInputDataset(), 3, CancellationToken.NONE, TEST_EXECUTOR, batch -> {}, countListener);
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(countListener, times(1)).onFailure(captor.capture());
+        assertEquals("search failed", captor.getValue().getMessage());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockScrollPages(List<SearchResponse> pages) {
+        AtomicInteger page = new AtomicInteger();
+        doAnswer(invocation -> {
+            ActionListener<SearchResponse> listener = (ActionListener<SearchResponse>) invocation.getArguments()[1];
+            listener.onResponse(pages.get(page.getAndIncrement()));
+            return null;
+        }).when(client).search(any(), any());
+        doAnswer(invocation -> {
+            ActionListener<SearchResponse> listener = (ActionListener<SearchResponse>) invocation.getArguments()[1];
+            listener.onResponse(pages.get(page.getAndIncrement()));
+            return null;
+        }).when(client).searchScroll(any(), any());
+    }
+
+    private SearchResponse searchPage(int from, int size) {
+        SearchHit[] searchHits = new SearchHit[size];
+        for (int i = 0; i < size; i++) {
+            searchHits[i] = new SearchHit(from + i);
+            searchHits[i].sourceRef(new BytesArray("{\"value\":" + (from + i) + "}"));
+        }
+        SearchResponse response = mock(SearchResponse.class);
+        when(response.getScrollId()).thenReturn("scroll_id");
+        when(response.getHits()).thenReturn(new SearchHits(searchHits, new TotalHits(size, TotalHits.Relation.EQUAL_TO), 1f));
+        return response;
+    }
+
+    private SearchQueryInputDataset searchQueryInputDataset() {
+        return SearchQueryInputDataset
+            .builder()
+            .indices(Collections.singletonList("index1"))
+            .searchSourceBuilder(new SearchSourceBuilder().query(QueryBuilders.matchAllQuery()))
+            .build();
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.rest;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.opensearch.ml.utils.RestActionUtils.PARAMETER_MODEL_ID;
+import static org.opensearch.ml.utils.TestHelper.getKMeansRestRequest;
+import static org.opensearch.ml.utils.TestHelper.verifyParsedKMeansMLInput;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.opensearch.action.ActionListener;
+import org.opensearch.client.node.NodeClient;
+import org.opensearch.common.Strings;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.ml.common.input.MLInput;
+import org.opensearch.ml.common.transport.MLTaskResponse;
+import org.opensearch.ml.common.transport.prediction.MLPredictionTaskRequest;
+import org.opensearch.ml.common.transport.prediction.MLStreamPredictionTaskAction;
+import org.opensearch.rest.RestChannel;
+import org.opensearch.rest.RestHandler;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.TestThreadPool;
+import org.opensearch.threadpool.ThreadPool;
+
+public class RestMLStreamPredictionActionTests extends OpenSearchTestCase {
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private RestMLStreamPredictionAction restMLStreamPredictionAction;
+
+    NodeClient client;
+    private ThreadPool threadPool;
+
+    @Mock
+    RestChannel channel;
+
+    @Before
+    public void setup() {
+        restMLStreamPredictionAction = new RestMLStreamPredictionAction();
+
+        threadPool = new TestThreadPool(this.getClass().getSimpleName() + "ThreadPool");
+        client = spy(new NodeClient(Settings.EMPTY, threadPool));
+
+        doAnswer(invocation -> {
+            ActionListener<MLTaskResponse> actionListener = invocation.getArgument(2);
+            return null;
+        }).when(client).execute(eq(MLStreamPredictionTaskAction.INSTANCE), any(), any());
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        super.tearDown();
+        threadPool.shutdown();
+        client.close();
+    }
+
+    public void testConstructor() {
+        RestMLStreamPredictionAction mlStreamPredictionAction = new RestMLStreamPredictionAction();
+        assertNotNull(mlStreamPredictionAction);
+    }
+
+    public void testGetName() {
+        String actionName = restMLStreamPredictionAction.getName();
+        assertFalse(Strings.isNullOrEmpty(actionName));
+        assertEquals("ml_stream_prediction_action", actionName);
+    }
+
+    public void testRoutes() {
+        List<RestHandler.Route> routes = restMLStreamPredictionAction.routes();
+        assertNotNull(routes);
+        assertFalse(routes.isEmpty());
+        RestHandler.Route route = routes.get(0);
+        assertEquals(RestRequest.Method.POST, route.getMethod());
+        assertEquals("/_plugins/_ml/_stream_predict/{algorithm}/{model_id}", route.getPath());
+    }
+
+    public void testGetRequest() throws IOException {
+        RestRequest request = getRestRequest_PredictModel();
+        MLPredictionTaskRequest mlPredictionTaskRequest = restMLStreamPredictionAction.getRequest(request);
+
+        MLInput mlInput = mlPredictionTaskRequest.getMlInput();
+        verifyParsedKMeansMLInput(mlInput);
+    }
+
+    public void testPrepareRequest() throws Exception {
+        RestRequest request = getRestRequest_PredictModel();
+        restMLStreamPredictionAction.handleRequest(request, channel, client);
+
+        ArgumentCaptor<MLPredictionTaskRequest> argumentCaptor = ArgumentCaptor.forClass(MLPredictionTaskRequest.class);
+        verify(client, times(1)).execute(eq(MLStreamPredictionTaskAction.INSTANCE), argumentCaptor.capture(), any());
+        MLInput mlInput = argumentCaptor.getValue().getMlInput();
+        verifyParsedKMeansMLInput(mlInput);
+    }
+
+    private RestRequest getRestRequest_PredictModel() {
+        RestRequest request = getKMeansRestRequest();
+        request.params().put(PARAMETER_MODEL_ID, "model_id");
+        return request;
+    }
+}
@@ -58,6 +58,17 @@ public class MLStatTests extends OpenSearchTestCase {
 
     }
 
+    public void testAdd() {
+        MLStat<Long> stat = new MLStat<>(false, new CounterSupplier());
+        stat.add(5L);
+        Assert.assertEquals("add does not work", 5L, (long) stat.getValue());
+
+        // Ensure that no problems occur for a stat that cannot be incremented
+        MLStat<String> nonIncStat = new MLStat<>(false, new TestSupplier());
+        nonIncStat.add(5L);
+        Assert.assertEquals("GetValue returns the incorrect value", "test", nonIncStat.getValue());
+    }
+
     private class TestSupplier implements Supplier<String> {
         TestSupplier() {}
 
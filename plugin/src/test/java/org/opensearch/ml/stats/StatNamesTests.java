@@ -29,4 +29,9 @@ public class StatNamesTests extends OpenSearchTestCase {
         String statName = StatNames.modelCountStat(FunctionName.KMEANS);
         assertEquals("ml_kmeans_model_count", statName);
     }
+
+    public void testThreadPoolStat() {
+        String statName = StatNames.threadPoolStat("ml_train", "rejected");
+        assertEquals("ml_train_thread_pool_rejected", statName);
+    }
 }
@@ -15,4 +15,12 @@ public class CounterSupplierTests extends OpenSearchTestCase {
         counterSupplier.increment();
         assertEquals("get returns incorrect value", (Long) 1L, counterSupplier.get());
     }
+
+    public void testAdd() {
+        CounterSupplier counterSupplier = new CounterSupplier();
+        counterSupplier.add(10L);
+        assertEquals("get returns incorrect value", (Long) 10L, counterSupplier.get());
+        counterSupplier.increment();
+        assertEquals("get returns incorrect value", (Long) 11L, counterSupplier.get());
+    }
 }
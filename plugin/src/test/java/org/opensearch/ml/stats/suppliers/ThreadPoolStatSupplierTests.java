@@ -0,0 +1,36 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.stats.suppliers;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.threadpool.ThreadPoolStats;
+
+public class ThreadPoolStatSupplierTests extends OpenSearchTestCase {
+
+    public void testGet() {
+        ThreadPool threadPool = mock(ThreadPool.class);
+        when(threadPool.stats())
+            .thenReturn(
+                new ThreadPoolStats(
+                    Arrays
+                        .asList(
+                            new ThreadPoolStats.Stats("ml_train", 2, 3, 1, 4L, 2, 10L),
+                            new ThreadPoolStats.Stats("ml_predict", 8, 0, 5, 7L, 8, 100L)
+                        )
+                )
+            );
+
+        assertEquals((Long) 3L, new ThreadPoolStatSupplier(threadPool, "ml_train", ThreadPoolStats.Stats::getQueue).get());
+        assertEquals((Long) 7L, new ThreadPoolStatSupplier(threadPool, "ml_predict", ThreadPoolStats.Stats::getRejected).get());
+        assertEquals((Long) 0L, new ThreadPoolStatSupplier(threadPool, "ml_execute", ThreadPoolStats.Stats::getActive).get());
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.opensearch.ml.utils.TestHelper.clusterSetting;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.update.UpdateRequest;
+import org.opensearch.action.update.UpdateResponse;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.bytes.BytesReference;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.common.xcontent.ToXContent;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.commons.ConfigConstants;
+import org.opensearch.commons.authuser.User;
+import org.opensearch.index.get.GetResult;
+import org.opensearch.ml.common.FunctionName;
+import org.opensearch.ml.common.MLModel;
+import org.opensearch.ml.common.Model;
+import org.opensearch.ml.common.dataframe.DataFrame;
+import org.opensearch.ml.common.dataset.DataFrameInputDataset;
+import org.opensearch.ml.common.exception.MLLimitExceededException;
+import org.opensearch.ml.common.input.MLInput;
+import org.opensearch.ml.common.input.parameter.rcf.FitRCFParams;
+import org.opensearch.ml.common.output.MLOutput;
+import org.opensearch.ml.common.output.MLPredictionOutput;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.engine.MLEngine;
+import org.opensearch.ml.utils.TestData;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.ThreadPool;
+
+public class MLDetectorSessionManagerTests extends OpenSearchTestCase {
+    private static final String USER_STRING = "myuser|role1,role2|myTenant";
+    private static final String MODEL_ID = "model1";
+
+    @Mock
+    ClusterService clusterService;
+
+    @Mock
+    Client client;
+
+    @Mock
+    ThreadPool threadPool;
+
+    @Mock
+    ExecutorService executorService;
+
+    @Mock
+    ActionListener<MLOutput> listener;
+
+    ThreadContext threadContext;
+    AtomicLong nanoTime;
+    MLInput mlInput;
+    DataFrame points;
+    GetResponse getResponse;
+    List<UpdateRequest> updateRequests;
+
+    @Before
+    public void setup() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        when(clusterService.getClusterSettings()).thenReturn(clusterSetting(Settings.EMPTY));
+        when(client.threadPool()).thenReturn(threadPool);
+        threadContext = new ThreadContext(Settings.EMPTY);
+        threadContext.putTransient(ConfigConstants.OPENSEARCH_SECURITY_USER_INFO_THREAD_CONTEXT, USER_STRING);
+        when(threadPool.getThreadContext()).thenReturn(threadContext);
+        when(threadPool.executor(anyString())).thenReturn(executorService);
+        doAnswer(invocation -> {
+            Runnable runnable = invocation.getArgument(0);
+            runnable.run();
+            return null;
+        }).when(executorService).execute(any(Runnable.class));
+        nanoTime = new AtomicLong();
+
+        FitRCFParams parameters = FitRCFParams.builder().numberOfTrees(10).sampleSize(64).timeField(TestData.TIME_FIELD).build();
+        DataFrame trainDataFrame = TestData.constructTestDataFrame(100, true);
+        MLInput trainInput = MLInput
+            .builder()
+            .algorithm(FunctionName.FIT_RCF)
+            .parameters(parameters)
+            .inputDataset(new DataFrameInputDataset(trainDataFrame))
+            .build();
+        Model model = MLEngine.train(trainInput);
+        points = TestData.constructTestDataFrame(2, true);
+        mlInput = trainInput.toBuilder().inputDataset(new DataFrameInputDataset(points)).build();
+
+        MLModel mlModel = MLModel
+            .builder()
+            .user(User.parse(USER_STRING))
+            .version(model.getVersion())
+            .name(model.getName())
+            .algorithm(FunctionName.FIT_RCF)
+            .content(Base64.getEncoder().encodeToString(model.getContent()))
+            .build();
+        BytesReference source = BytesReference.bytes(mlModel.toXContent(XContentFactory.jsonBuilder(), ToXContent.EMPTY_PARAMS));
+        getResponse = new GetResponse(new GetResult(".plugins-ml-model", MODEL_ID, 1L, 1L, 1L, true, source, null, null));
+        doAnswer(invocation -> {
+            ActionListener<GetResponse> actionListener = invocation.getArgument(1);
+            actionListener.onResponse(getResponse);
+            return null;
+        }).when(client).get(any(), any());
+
+        updateRequests = new ArrayList<>();
+        doAnswer(invocation -> {
+            updateRequests.add(invocation.getArgument(0));
+            ActionListener<UpdateResponse> actionListener = invocation.getArgument(1);
+            actionListener.onResponse(null);
+            return null;
+        }).when(client).update(any(), any());
+    }
+
+    public void testProcess_OpenSessionOnce() {
+        MLDetectorSessionManager manager = createManager(Settings.EMPTY);
+        manager.process(MODEL_ID, mlInput, points, CancellationToken.NONE, listener);
+        manager.process(MODEL_ID, mlInput, points, CancellationToken.NONE, listener);
+
+        verify(client, times(1)).get(any(), any());
+        ArgumentCaptor<MLOutput> argumentCaptor = ArgumentCaptor.forClass(MLOutput.class);
+        verify(listener, times(2)).onResponse(argumentCaptor.capture());
+        assertEquals(2, ((MLPredictionOutput) argumentCaptor.getValue()).getPredictionResult().size());
+        assertEquals(1, manager.getSessionCount());
+        verify(threadPool, times(1)).schedule(any(), eq(TimeValue.timeValueMinutes(1)), eq(ThreadPool.Names.GENERIC));
+    }
+
+    public void testProcess_ExceedMaxSessions() {
+        Settings settings = Settings.builder().put("plugins.ml_commons.max_detector_sessions_per_node", 0).build();
+        MLDetectorSessionManager manager = createManager(settings);
+        manager.process(MODEL_ID, mlInput, points, CancellationToken.NONE, listener);
+
+        verify(client, never()).get(any(), any());
+        ArgumentCaptor<Exception> argumentCaptor = ArgumentCaptor.forClass(Exception.class);
+        verify(listener).onFailure(argumentCaptor.capture());
+        assertTrue(argumentCaptor.getValue() instanceof MLLimitExceededException);
+        assertEquals(0, manager.getSessionCount());
+    }
+
+    public void testProcess_ExceedMaxSessions_ExistingSession() {
+        Settings settings = Settings.builder().put("plugins.ml_commons.max_detector_sessions_per_node", 1).build();
+        MLDetectorSessionManager manager = createManager(settings);
+        manager.process(MODEL_ID, mlInput, points, CancellationToken.NONE, listener);
+        manager.process("other_model_id", mlInput, points, CancellationToken.NONE, listener);
+        // the session which already exists still accepts points at the limit
+        manager.process(MODEL_ID, mlInput, points, CancellationToken.NONE, listener);
+
+        verify(client, times(1)).get(any(), any());
+        verify(listener, times(2)).onResponse(any());
+        verify(listener, times(1)).onFailure(any(MLLimitExceededException.class));
+        assertEquals(1, manager.getSessionCount());
+    }
+
+    public void testProcess_ModelNotFound() {
+        getResponse = null;
+        MLDetectorSessionManager manager = createManager(Settings.EMPTY);
+        manager.process(MODEL_ID, mlInput, points, CancellationToken.NONE, listener);
+
+        ArgumentCaptor<Exception> argumentCaptor = ArgumentCaptor.forClass(Exception.class);
+        verify(listener).onFailure(argumentCaptor.capture());
+        assertEquals("No model found, please check the modelId.", argumentCaptor.getValue().getMessage());
+        // failed sessions are not kept, the next points try to open the session again
+        assertEquals(0, manager.getSessionCount());
+    }
+
+    public void testProcess_NoPermission() {
+        MLDetectorSessionManager manager = createManager(Settings.EMPTY);
+        manager.process(MODEL_ID, mlInput, points, CancellationToken.NONE, listener);
+        threadContext.stashContext();
+        threadContext.putTransient(ConfigConstants.OPENSEARCH_SECURITY_USER_INFO_THREAD_CONTEXT, "test_user|test_role|test_tenant");
+        manager.process(MODEL_ID, mlInput, points, CancellationToken.NONE, listener);
+
+        verify(listener, times(1)).onResponse(any());
+        ArgumentCaptor<Exception> argumentCaptor = ArgumentCaptor.forClass(Exception.class);
+        verify(listener).onFailure(argumentCaptor.capture());
+        assertEquals("User: test_user does not have permissions to run predict by model: model1", argumentCaptor.getValue().getMessage());
+    }
+
+    public void testMaintain_SnapshotAndCloseIdleSession() {
+        MLDetectorSessionManager manager = createManager(Settings.EMPTY);
+        manager.process(MODEL_ID, mlInput, points, CancellationToken.NONE, listener);
+
+        manager.maintain();
+        assertEquals(1, updateRequests.size());
+        assertEquals(MODEL_ID, updateRequests.get(0).id());
+        assertTrue(updateRequests.get(0).doc().sourceAsMap().containsKey(MLModel.MODEL_CONTENT));
+
+        // no new points, nothing to snapshot
+        manager.maintain();
+        assertEquals(1, updateRequests.size());
+        assertEquals(1, manager.getSessionCount());
+
+        nanoTime.addAndGet(TimeValue.timeValueMinutes(11).nanos());
+        manager.maintain();
+        assertEquals(1, updateRequests.size());
+        assertEquals(0, manager.getSessionCount());
+
+        // points after the session is closed open it again
+        manager.process(MODEL_ID, mlInput, points, CancellationToken.NONE, listener);
+        verify(client, times(2)).get(any(), any());
+        verify(listener, times(2)).onResponse(any());
+    }
+
+    private MLDetectorSessionManager createManager(Settings settings) {
+        when(clusterService.getClusterSettings()).thenReturn(clusterSetting(settings));
+        return new MLDetectorSessionManager(settings, clusterService, client, threadPool, xContentRegistry(), nanoTime::get);
+    }
+}
@@ -0,0 +1,456 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_DISTRIBUTED_TRAINING_DATA_CACHE_SIZE;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_DISTRIBUTED_TRAINING_ENABLED;
+import static org.opensearch.ml.utils.TestHelper.clusterSetting;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.lucene.search.TotalHits;
+
+import org.junit.Before;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.index.IndexResponse;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.support.replication.ClusterStateCreationUtils;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.ClusterName;
+import org.opensearch.cluster.ClusterState;
+import org.opensearch.cluster.routing.ShardRoutingState;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.bytes.BytesArray;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.index.query.MatchAllQueryBuilder;
+import org.opensearch.index.shard.ShardId;
+import org.opensearch.ml.action.training.MLPartialStatsNodeResponse;
+import org.opensearch.ml.action.training.MLPartialStatsNodesAction;
+import org.opensearch.ml.action.training.MLPartialStatsNodesRequest;
+import org.opensearch.ml.action.training.MLPartialStatsNodesResponse;
+import org.opensearch.ml.common.FunctionName;
+import org.opensearch.ml.common.Model;
+import org.opensearch.ml.common.breaker.MLCircuitBreakerService;
+import org.opensearch.ml.common.dataframe.DataFrame;
+import org.opensearch.ml.common.dataframe.DataFrameBuilder;
+import org.opensearch.ml.common.dataset.DataFrameInputDataset;
+import org.opensearch.ml.common.dataset.SearchQueryInputDataset;
+import org.opensearch.ml.common.exception.MLException;
+import org.opensearch.ml.common.exception.MLLimitExceededException;
+import org.opensearch.ml.common.input.MLInput;
+import org.opensearch.ml.common.input.parameter.clustering.KMeansParams;
+import org.opensearch.ml.common.input.parameter.rcf.BatchRCFParams;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.engine.DistributedTrainable;
+import org.opensearch.ml.engine.MLEngine;
+import org.opensearch.ml.indices.MLInputDatasetHandler;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.SearchHits;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.ThreadPool;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+public class MLDistributedTrainerTests extends OpenSearchTestCase {
+    @Mock
+    ClusterService clusterService;
+    @Mock
+    Client client;
+    @Mock
+    ThreadPool threadPool;
+    @Mock
+    ExecutorService executorService;
+    @Mock
+    MLInputDatasetHandler mlInputDatasetHandler;
+    @Mock
+    MLCircuitBreakerService mlCircuitBreakerService;
+    @Mock
+    MLTrainingCheckpointManager mlTrainingCheckpointManager;
+    @Mock
+    ActionListener<Model> listener;
+
+    ClusterState state;
+    MLInput kmeansInput;
+    DataFrame dataFrame;
+    Settings enabledSettings = Settings.builder().put(ML_COMMONS_DISTRIBUTED_TRAINING_ENABLED.getKey(), true).build();
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        state = ClusterStateCreationUtils.state("test_index", true, ShardRoutingState.STARTED);
+        when(clusterService.state()).thenReturn(state);
+        when(clusterService.localNode()).thenReturn(state.nodes().getLocalNode());
+        when(clusterService.getClusterSettings()).thenReturn(clusterSetting(enabledSettings));
+        when(threadPool.executor(anyString())).thenReturn(executorService);
+        when(client.threadPool()).thenReturn(threadPool);
+        when(threadPool.getThreadContext()).thenReturn(new ThreadContext(Settings.EMPTY));
+        when(mlCircuitBreakerService.getAvailableMemoryInBytes()).thenReturn(Long.MAX_VALUE);
+        doAnswer(invocation -> {
+            Runnable runnable = invocation.getArgument(0);
+            runnable.run();
+            return null;
+        }).when(executorService).execute(any(Runnable.class));
+
+        kmeansInput = MLInput
+            .builder()
+            .algorithm(FunctionName.KMEANS)
+            .parameters(KMeansParams.builder().centroids(2).iterations(3).build())
+            .inputDataset(
+                new SearchQueryInputDataset(ImmutableList.of("test_index"), new SearchSourceBuilder().query(new MatchAllQueryBuilder()))
+            )
+            .build();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("f1", i % 2 == 0 ? 1.0 + i * 0.01 : 10.0 + i * 0.01);
+            row.put("f2", i % 2 == 0 ? 1.0 : 10.0);
+            rows.add(row);
+        }
+        dataFrame = DataFrameBuilder.load(rows);
+    }
+
+    public void testCanTrain() {
+        MLDistributedTrainer trainer = newTrainer(enabledSettings);
+        assertTrue(trainer.canTrain(kmeansInput));
+        assertFalse(trainer.canTrain(kmeansInput.toBuilder().inputDataset(new DataFrameInputDataset(dataFrame)).build()));
+        assertFalse(
+            trainer.canTrain(kmeansInput.toBuilder().algorithm(FunctionName.BATCH_RCF).parameters(BatchRCFParams.builder().build()).build())
+        );
+    }
+
+    public void testCanTrain_Disabled() {
+        MLDistributedTrainer trainer = newTrainer(Settings.EMPTY);
+        assertFalse(trainer.canTrain(kmeansInput));
+    }
+
+    public void testAssignShards() {
+        Map<String, List<ShardId>> shardAssignment = MLDistributedTrainer.assignShards(state, ImmutableList.of("test_*"));
+        ShardId shardId = state.routingTable().index("test_index").shard(0).shardId();
+        assertEquals(ImmutableMap.of(state.nodes().getLocalNodeId(), ImmutableList.of(shardId)), shardAssignment);
+        assertTrue(MLDistributedTrainer.assignShards(state, ImmutableList.of("other_index")).isEmpty());
+    }
+
+    public void testAssignShards_NoStartedCopy() {
+        ClusterState unassignedState = ClusterStateCreationUtils.state("test_index", false, ShardRoutingState.UNASSIGNED);
+        expectThrows(MLException.class, () -> MLDistributedTrainer.assignShards(unassignedState, ImmutableList.of("test_index")));
+    }
+
+    public void testSumStats() {
+        List<MLPartialStatsNodeResponse> responses = ImmutableList
+            .of(
+                new MLPartialStatsNodeResponse(state.nodes().getLocalNode(), new double[] { 1.0, 2.0 }),
+                new MLPartialStatsNodeResponse(state.nodes().getMasterNode(), new double[0]),
+                new MLPartialStatsNodeResponse(state.nodes().getMasterNode(), new double[] { 3.0, 4.0 })
+            );
+        assertArrayEquals(new double[] { 4.0, 6.0 }, MLDistributedTrainer.sumStats(responses), 1e-9);
+        List<MLPartialStatsNodeResponse> emptyResponses = ImmutableList
+            .of(new MLPartialStatsNodeResponse(state.nodes().getLocalNode(), new double[0]));
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> MLDistributedTrainer.sumStats(emptyResponses));
+        assertEquals("No document found", e.getMessage());
+    }
+
+    public void testComputePartialStats_NoLocalShard() {
+        MLDistributedTrainer trainer = newTrainer(enabledSettings);
+        MLPartialStatsNodesRequest request = new MLPartialStatsNodesRequest(
+            "taskId",
+            kmeansInput,
+            ImmutableMap.of("otherNode", ImmutableList.of(new ShardId("test_index", "uuid", 0))),
+            new String[] { "f1", "f2" },
+            new double[] { 1.0, 1.0, 10.0, 10.0 },
+            false
+        );
+        ActionListener<double[]> statsListener = mock(ActionListener.class);
+        trainer.computePartialStats(request, statsListener);
+        ArgumentCaptor<double[]> argumentCaptor = ArgumentCaptor.forClass(double[].class);
+        verify(statsListener).onResponse(argumentCaptor.capture());
+        assertEquals(0, argumentCaptor.getValue().length);
+        verify(client, never()).search(any(), any());
+    }
+
+    public void testComputePartialStats_CachesLocalData() {
+        MLDistributedTrainer trainer = newTrainer(enabledSettings);
+        mockScrollPages(ImmutableList.of(searchPage(0, 3), searchPage(3, 0)));
+        ActionListener<double[]> statsListener = mock(ActionListener.class);
+
+        trainer.computePartialStats(partialStatsRequest(false, false), statsListener);
+        trainer.computePartialStats(partialStatsRequest(false, false), statsListener);
+        verify(client, times(1)).search(any(), any());
+        verify(client, times(1)).searchScroll(any(), any());
+        verify(client, times(1)).clearScroll(any(), any());
+        verify(statsListener, times(2)).onResponse(any());
+
+        // the last iteration releases the data
+        trainer.computePartialStats(partialStatsRequest(true, false), statsListener);
+        verify(client, times(1)).search(any(), any());
+        mockScrollPages(ImmutableList.of(searchPage(0, 3), searchPage(3, 0)));
+        trainer.computePartialStats(partialStatsRequest(false, false), statsListener);
+        verify(client, times(2)).search(any(), any());
+        verify(statsListener, never()).onFailure(any());
+    }
+
+    public void testComputePartialStats_Release() {
+        MLDistributedTrainer trainer = newTrainer(enabledSettings);
+        mockScrollPages(ImmutableList.of(searchPage(0, 3), searchPage(3, 0)));
+        ActionListener<double[]> statsListener = mock(ActionListener.class);
+        trainer.computePartialStats(partialStatsRequest(false, false), statsListener);
+
+        ActionListener<double[]> releaseListener = mock(ActionListener.class);
+        trainer.computePartialStats(partialStatsRequest(false, true), releaseListener);
+        ArgumentCaptor<double[]> argumentCaptor = ArgumentCaptor.forClass(double[].class);
+        verify(releaseListener).onResponse(argumentCaptor.capture());
+        assertEquals(0, argumentCaptor.getValue().length);
+
+        mockScrollPages(ImmutableList.of(searchPage(0, 3), searchPage(3, 0)));
+        trainer.computePartialStats(partialStatsRequest(false, false), statsListener);
+        verify(client, times(2)).search(any(), any());
+    }
+
+    public void testComputePartialStats_ExceedCacheSize() {
+        Settings settings = Settings
+            .builder()
+            .put(enabledSettings)
+            .put(ML_COMMONS_DISTRIBUTED_TRAINING_DATA_CACHE_SIZE.getKey(), "100b")
+            .build();
+        MLDistributedTrainer trainer = newTrainer(settings);
+        mockScrollPages(ImmutableList.of(searchPage(0, 3), searchPage(3, 0)));
+        ActionListener<double[]> statsListener = mock(ActionListener.class);
+
+        trainer.computePartialStats(partialStatsRequest(false, false), statsListener);
+        mockScrollPages(ImmutableList.of(searchPage(0, 3), searchPage(3, 0)));
+        trainer.computePartialStats(partialStatsRequest(false, false), statsListener);
+        verify(client, times(2)).search(any(), any());
+        verify(statsListener, times(2)).onResponse(any());
+    }
+
+    public void testComputePartialStats_MemoryLimitExceeded() {
+        MLDistributedTrainer trainer = newTrainer(enabledSettings);
+        when(mlCircuitBreakerService.getAvailableMemoryInBytes()).thenReturn(100L);
+        mockScrollPages(ImmutableList.of(searchPage(0, 3), searchPage(3, 0)));
+        ActionListener<double[]> statsListener = mock(ActionListener.class);
+
+        trainer.computePartialStats(partialStatsRequest(false, false), statsListener);
+        verify(statsListener).onFailure(any(MLLimitExceededException.class));
+        verify(client, never()).searchScroll(any(), any());
+        verify(client, times(1)).clearScroll(any(), any());
+    }
+
+    public void testTrain_NoShard() {
+        MLDistributedTrainer trainer = newTrainer(enabledSettings);
+        MLInput mlInput = kmeansInput
+            .toBuilder()
+            .inputDataset(new SearchQueryInputDataset(ImmutableList.of("other_index"), new SearchSourceBuilder()))
+            .build();
+        trainer.train("taskId", mlInput, false, CancellationToken.NONE, listener);
+        ArgumentCaptor<Exception> argumentCaptor = ArgumentCaptor.forClass(Exception.class);
+        verify(listener).onFailure(argumentCaptor.capture());
+        assertTrue(argumentCaptor.getValue() instanceof IllegalArgumentException);
+    }
+
+    public void testTrain() {
+        MLDistributedTrainer trainer = newTrainer(enabledSettings);
+        mockSampleAndPartialStats();
+
+        trainer.train("taskId", kmeansInput, false, CancellationToken.NONE, listener);
+        verify(client, times(3)).execute(eq(MLPartialStatsNodesAction.INSTANCE), any(), any());
+        verify(mlTrainingCheckpointManager, never()).writeCheckpoint(any(), any());
+        ArgumentCaptor<Model> argumentCaptor = ArgumentCaptor.forClass(Model.class);
+        verify(listener).onResponse(argumentCaptor.capture());
+        assertEquals(FunctionName.KMEANS.name(), argumentCaptor.getValue().getName());
+    }
+
+    public void testTrain_Checkpoint() {
+        MLDistributedTrainer trainer = newTrainer(enabledSettings);
+        mockSampleAndPartialStats();
+        doAnswer(invocation -> {
+            ActionListener<IndexResponse> actionListener = invocation.getArgument(1);
+            actionListener.onResponse(new IndexResponse(new ShardId("index", "uuid", 0), "taskId", 1, 1, 1, true));
+            return null;
+        }).when(mlTrainingCheckpointManager).writeCheckpoint(any(), any());
+
+        trainer.train("taskId", kmeansInput, true, CancellationToken.NONE, listener);
+        // no checkpoint after the last iteration
+        ArgumentCaptor<MLTrainingCheckpoint> checkpointCaptor = ArgumentCaptor.forClass(MLTrainingCheckpoint.class);
+        verify(mlTrainingCheckpointManager, times(2)).writeCheckpoint(checkpointCaptor.capture(), any());
+        assertEquals("taskId", checkpointCaptor.getValue().getTaskId());
+        assertEquals(2, checkpointCaptor.getValue().getIteration());
+        verify(listener).onResponse(any(Model.class));
+    }
+
+    public void testTrain_CheckpointFailure() {
+        MLDistributedTrainer trainer = newTrainer(enabledSettings);
+        mockSampleAndPartialStats();
+        doAnswer(invocation -> {
+            ActionListener<IndexResponse> actionListener = invocation.getArgument(1);
+            actionListener.onFailure(new RuntimeException("test error"));
+            return null;
+        }).when(mlTrainingCheckpointManager).writeCheckpoint(any(), any());
+
+        trainer.train("taskId", kmeansInput, true, CancellationToken.NONE, listener);
+        verify(client, times(3)).execute(eq(MLPartialStatsNodesAction.INSTANCE), any(), any());
+        verify(listener).onResponse(any(Model.class));
+    }
+
+    public void testResume() {
+        MLDistributedTrainer trainer = newTrainer(enabledSettings);
+        mockSampleAndPartialStats();
+        MLTrainingCheckpoint checkpoint = new MLTrainingCheckpoint(
+            "taskId",
+            kmeansInput,
+            2,
+            new String[] { "f1", "f2" },
+            new double[] { 1.0, 1.0, 10.0, 10.0 }
+        );
+
+        trainer.resume(checkpoint, CancellationToken.NONE, listener);
+        verify(client, times(1)).execute(eq(MLPartialStatsNodesAction.INSTANCE), any(), any());
+        verify(mlInputDatasetHandler, never()).parseSearchQueryInput(any(), any());
+        verify(listener).onResponse(any(Model.class));
+    }
+
+    public void testTrain_FailureReleasesLocalData() {
+        MLDistributedTrainer trainer = newTrainer(enabledSettings);
+        mockSampleAndPartialStats();
+        DistributedTrainable trainable = MLEngine.getDistributedTrainable(FunctionName.KMEANS, kmeansInput.getParameters());
+        AtomicInteger requests = new AtomicInteger();
+        List<MLPartialStatsNodesRequest> releaseRequests = new ArrayList<>();
+        doAnswer(invocation -> {
+            MLPartialStatsNodesRequest request = invocation.getArgument(1);
+            ActionListener<MLPartialStatsNodesResponse> actionListener = invocation.getArgument(2);
+            if (request.isRelease()) {
+                releaseRequests.add(request);
+                return null;
+            }
+            if (requests.incrementAndGet() > 1) {
+                actionListener.onFailure(new RuntimeException("test error"));
+                return null;
+            }
+            double[] stats = trainable.computePartialStats(dataFrame, request.getFeatureNames(), request.getState());
+            actionListener
+                .onResponse(
+                    new MLPartialStatsNodesResponse(
+                        new ClusterName("test"),
+                        ImmutableList.of(new MLPartialStatsNodeResponse(state.nodes().getLocalNode(), stats)),
+                        ImmutableList.of()
+                    )
+                );
+            return null;
+        }).when(client).execute(eq(MLPartialStatsNodesAction.INSTANCE), any(), any());
+
+        trainer.train("taskId", kmeansInput, false, CancellationToken.NONE, listener);
+        ArgumentCaptor<Exception> argumentCaptor = ArgumentCaptor.forClass(Exception.class);
+        verify(listener).onFailure(argumentCaptor.capture());
+        assertEquals("test error", argumentCaptor.getValue().getMessage());
+        assertEquals(2, requests.get());
+        assertEquals(1, releaseRequests.size());
+        assertEquals("taskId", releaseRequests.get(0).getTaskId());
+    }
+
+    public void testTrain_Cancelled() {
+        MLDistributedTrainer trainer = newTrainer(enabledSettings);
+        doAnswer(invocation -> {
+            ActionListener<DataFrame> actionListener = invocation.getArgument(1);
+            actionListener.onResponse(dataFrame);
+            return null;
+        }).when(mlInputDatasetHandler).parseSearchQueryInput(any(), any());
+        trainer.train("taskId", kmeansInput, false, () -> true, listener);
+        verify(listener).onFailure(any());
+        verify(client, never()).execute(any(), any(), any());
+    }
+
+    private MLDistributedTrainer newTrainer(Settings settings) {
+        return new MLDistributedTrainer(
+            settings,
+            clusterService,
+            client,
+            threadPool,
+            mlInputDatasetHandler,
+            mlCircuitBreakerService,
+            mlTrainingCheckpointManager
+        );
+    }
+
+    private MLPartialStatsNodesRequest partialStatsRequest(boolean lastIteration, boolean release) {
+        ShardId shardId = state.routingTable().index("test_index").shard(0).shardId();
+        return new MLPartialStatsNodesRequest(
+            "taskId",
+            kmeansInput,
+            ImmutableMap.of(state.nodes().getLocalNodeId(), ImmutableList.of(shardId)),
+            new String[] { "f1", "f2" },
+            new double[] { 1.0, 1.0, 10.0, 10.0 },
+            lastIteration,
+            release
+        );
+    }
+
+    private void mockScrollPages(List<SearchResponse> pages) {
+        AtomicInteger page = new AtomicInteger();
+        doAnswer(invocation -> {
+            ActionListener<SearchResponse> actionListener = invocation.getArgument(1);
+            actionListener.onResponse(pages.get(page.getAndIncrement()));
+            return null;
+        }).when(client).search(any(), any());
+        doAnswer(invocation -> {
+            ActionListener<SearchResponse> actionListener = invocation.getArgument(1);
+            actionListener.onResponse(pages.get(page.getAndIncrement()));
+            return null;
+        }).when(client).searchScroll(any(), any());
+    }
+
+    private SearchResponse searchPage(int from, int size) {
+        SearchHit[] searchHits = new SearchHit[size];
+        for (int i = 0; i < size; i++) {
+            searchHits[i] = new SearchHit(from + i);
+            searchHits[i].sourceRef(new BytesArray("{\"f1\":" + (from + i) + ",\"f2\":" + (from + i) + "}"));
+        }
+        SearchResponse response = mock(SearchResponse.class);
+        when(response.getScrollId()).thenReturn("scroll_id");
+        when(response.getHits()).thenReturn(new SearchHits(searchHits, new TotalHits(size, TotalHits.Relation.EQUAL_TO), 1f));
+        return response;
+    }
+
+    private void mockSampleAndPartialStats() {
+        doAnswer(invocation -> {
+            ActionListener<DataFrame> actionListener = invocation.getArgument(1);
+            actionListener.onResponse(dataFrame);
+            return null;
+        }).when(mlInputDatasetHandler).parseSearchQueryInput(any(), any());
+        DistributedTrainable trainable = MLEngine.getDistributedTrainable(FunctionName.KMEANS, kmeansInput.getParameters());
+        doAnswer(invocation -> {
+            MLPartialStatsNodesRequest request = invocation.getArgument(1);
+            ActionListener<MLPartialStatsNodesResponse> actionListener = invocation.getArgument(2);
+            double[] stats = trainable.computePartialStats(dataFrame, request.getFeatureNames(), request.getState());
+            actionListener
+                .onResponse(
+                    new MLPartialStatsNodesResponse(
+                        new ClusterName("test"),
+                        ImmutableList.of(new MLPartialStatsNodeResponse(state.nodes().getLocalNode(), stats)),
+                        ImmutableList.of()
+                    )
+                );
+            return null;
+        }).when(client).execute(eq(MLPartialStatsNodesAction.INSTANCE), any(), any());
+    }
+}
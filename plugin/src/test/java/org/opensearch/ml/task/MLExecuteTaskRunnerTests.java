@@ -12,6 +12,7 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.opensearch.ml.utils.TestHelper.clusterSetting;
 
 import java.util.Arrays;
 import java.util.Map;
@@ -26,6 +27,7 @@ import org.mockito.MockitoAnnotations;
 import org.opensearch.action.ActionListener;
 import org.opensearch.client.Client;
 import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.Settings;
 import org.opensearch.ml.common.FunctionName;
 import org.opensearch.ml.common.breaker.MLCircuitBreakerService;
 import org.opensearch.ml.common.input.execute.samplecalculator.LocalSampleCalculatorInput;
@@ -73,6 +75,7 @@ public class MLExecuteTaskRunnerTests extends OpenSearchTestCase {
     public ExpectedException exceptionRule = ExpectedException.none();
 
     MLInputDatasetHandler mlInputDatasetHandler;
+    MLTaskAdmissionController mlTaskAdmissionController;
     MLExecuteTaskRunner taskRunner;
     MLStats mlStats;
     MLExecuteTaskRequest mlExecuteTaskRequest;
@@ -80,6 +83,8 @@ public class MLExecuteTaskRunnerTests extends OpenSearchTestCase {
     @Before
     public void setup() {
         MockitoAnnotations.openMocks(this);
+        when(clusterService.getClusterSettings()).thenReturn(clusterSetting(Settings.EMPTY));
+        mlTaskAdmissionController = new MLTaskAdmissionController(Settings.EMPTY, clusterService, threadPool);
 
         when(threadPool.executor(anyString())).thenReturn(executorService);
         doAnswer(invocation -> {
@@ -105,7 +110,8 @@ public class MLExecuteTaskRunnerTests extends OpenSearchTestCase {
                 mlStats,
                 mlInputDatasetHandler,
                 mlTaskDispatcher,
-                mlCircuitBreakerService
+                mlCircuitBreakerService,
+                mlTaskAdmissionController
             )
         );
 
@@ -120,6 +126,16 @@ public class MLExecuteTaskRunnerTests extends OpenSearchTestCase {
         verify(listener).onResponse(any(MLExecuteTaskResponse.class));
     }
 
+    public void testExecuteTask_Failure() {
+        MLExecuteTaskRequest request = new MLExecuteTaskRequest(
+            FunctionName.LOCAL_SAMPLE_CALCULATOR,
+            new LocalSampleCalculatorInput("avg", Arrays.asList(1.0, 2.0))
+        );
+        taskRunner.executeTask(request, listener);
+        verify(listener, never()).onResponse(any(MLExecuteTaskResponse.class));
+        verify(listener).onFailure(any(IllegalArgumentException.class));
+    }
+
     public void testExecuteTask_NoExecutorService() {
         exceptionRule.expect(IllegalArgumentException.class);
         when(threadPool.executor(anyString())).thenThrow(new IllegalArgumentException());
@@ -0,0 +1,354 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.opensearch.ml.utils.TestHelper.clusterSetting;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opensearch.action.ActionListener;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.ml.common.FunctionName;
+import org.opensearch.ml.common.dataframe.DataFrame;
+import org.opensearch.ml.common.dataframe.DataFrameBuilder;
+import org.opensearch.ml.common.dataset.DataFrameInputDataset;
+import org.opensearch.ml.common.input.MLInput;
+import org.opensearch.ml.common.input.parameter.clustering.KMeansParams;
+import org.opensearch.ml.common.output.MLPredictionOutput;
+import org.opensearch.ml.common.transport.MLTaskResponse;
+import org.opensearch.ml.common.transport.prediction.MLPredictionTaskRequest;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.stats.MLStat;
+import org.opensearch.ml.stats.MLStats;
+import org.opensearch.ml.stats.StatNames;
+import org.opensearch.ml.stats.suppliers.CounterSupplier;
+import org.opensearch.ml.utils.TestData;
+import org.opensearch.tasks.TaskCancelledException;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.Scheduler;
+import org.opensearch.threadpool.ThreadPool;
+
+import com.google.common.collect.ImmutableList;
+
+public class MLPredictMicroBatcherTests extends OpenSearchTestCase {
+    private static final TimeValue DEADLINE = TimeValue.timeValueSeconds(1);
+
+    @Mock
+    ClusterService clusterService;
+
+    @Mock
+    Client client;
+
+    @Mock
+    ThreadPool threadPool;
+
+    @Mock
+    ActionListener<MLTaskResponse> listener1;
+
+    @Mock
+    ActionListener<MLTaskResponse> listener2;
+
+    MLStats mlStats;
+    List<MLPredictionTaskRequest> executedRequests;
+    List<CancellationToken> executedTokens;
+    List<ActionListener<MLTaskResponse>> executedListeners;
+    List<Runnable> scheduledFlushes;
+    MLPredictMicroBatcher.PredictExecutor executor;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(client.threadPool()).thenReturn(threadPool);
+        when(threadPool.getThreadContext()).thenReturn(new ThreadContext(Settings.EMPTY));
+        scheduledFlushes = new ArrayList<>();
+        when(threadPool.schedule(any(Runnable.class), any(TimeValue.class), anyString())).thenAnswer(invocation -> {
+            scheduledFlushes.add(invocation.getArgument(0));
+            return null;
+        });
+
+        Map<String, MLStat<?>> stats = new ConcurrentHashMap<>();
+        stats.put(StatNames.ML_PREDICT_BATCH_COUNT, new MLStat<>(false, new CounterSupplier()));
+        stats.put(StatNames.ML_PREDICT_BATCHED_REQUEST_COUNT, new MLStat<>(false, new CounterSupplier()));
+        stats.put(StatNames.ML_PREDICT_BATCHED_ROW_COUNT, new MLStat<>(false, new CounterSupplier()));
+        stats.put(StatNames.ML_PREDICT_BATCH_QUEUE_DELAY_MILLIS, new MLStat<>(false, new CounterSupplier()));
+        mlStats = new MLStats(stats);
+
+        executedRequests = new ArrayList<>();
+        executedTokens = new ArrayList<>();
+        executedListeners = new ArrayList<>();
+        executor = (request, cancellationToken, listener) -> {
+            executedRequests.add(request);
+            executedTokens.add(cancellationToken);
+            executedListeners.add(listener);
+        };
+    }
+
+    public void testExecute_Disabled() {
+        MLPredictMicroBatcher batcher = batcher(Settings.EMPTY);
+        batcher.execute(predictRequest(FunctionName.KMEANS, 1), CancellationToken.NONE, listener1, executor);
+        batcher.execute(predictRequest(FunctionName.KMEANS, 1), CancellationToken.NONE, listener2, executor);
+        assertEquals(2, executedRequests.size());
+        assertTrue(scheduledFlushes.isEmpty());
+    }
+
+    public void testExecute_FlushOnBatchWindow() {
+        MLPredictMicroBatcher batcher = batcher(batchSettings(10));
+        MLPredictionTaskRequest request1 = predictRequest(FunctionName.KMEANS, 1);
+        MLPredictionTaskRequest request2 = predictRequest(FunctionName.KMEANS, 2);
+        batcher.execute(request1, CancellationToken.NONE, listener1, executor);
+        batcher.execute(request2, CancellationToken.NONE, listener2, executor);
+        assertEquals(0, executedRequests.size());
+        assertEquals(2, batcher.getPendingRequestCount());
+        assertEquals(1, scheduledFlushes.size());
+
+        scheduledFlushes.get(0).run();
+        assertEquals(0, batcher.getPendingRequestCount());
+        assertEquals(1, executedRequests.size());
+        assertEquals(3, executedRequests.get(0).getMlInput().getDataFrame().size());
+        assertEquals(1L, mlStats.getStat(StatNames.ML_PREDICT_BATCH_COUNT).getValue());
+        assertEquals(2L, mlStats.getStat(StatNames.ML_PREDICT_BATCHED_REQUEST_COUNT).getValue());
+        assertEquals(3L, mlStats.getStat(StatNames.ML_PREDICT_BATCHED_ROW_COUNT).getValue());
+
+        executedListeners.get(0).onResponse(predictionResponse(0, 1, 2));
+        ArgumentCaptor<MLTaskResponse> captor1 = ArgumentCaptor.forClass(MLTaskResponse.class);
+        verify(listener1).onResponse(captor1.capture());
+        assertEquals(1, clusterIds(captor1.getValue()).size());
+        assertEquals(0, (int) clusterIds(captor1.getValue()).get(0));
+        ArgumentCaptor<MLTaskResponse> captor2 = ArgumentCaptor.forClass(MLTaskResponse.class);
+        verify(listener2).onResponse(captor2.capture());
+        assertEquals(2, clusterIds(captor2.getValue()).size());
+        assertEquals(1, (int) clusterIds(captor2.getValue()).get(0));
+        assertEquals(2, (int) clusterIds(captor2.getValue()).get(1));
+    }
+
+    public void testExecute_FlushOnBatchSize() {
+        MLPredictMicroBatcher batcher = batcher(batchSettings(4));
+        batcher.execute(predictRequest(FunctionName.KMEANS, 2), CancellationToken.NONE, listener1, executor);
+        batcher.execute(predictRequest(FunctionName.KMEANS, 2), CancellationToken.NONE, listener2, executor);
+        assertEquals(1, executedRequests.size());
+        assertEquals(4, executedRequests.get(0).getMlInput().getDataFrame().size());
+        assertEquals(0, batcher.getPendingRequestCount());
+
+        // the batch window expires after the batch is flushed
+        scheduledFlushes.get(0).run();
+        assertEquals(1, executedRequests.size());
+    }
+
+    public void testExecute_FlushWhenBatchOverflows() {
+        MLPredictMicroBatcher batcher = batcher(batchSettings(4));
+        batcher.execute(predictRequest(FunctionName.KMEANS, 3), CancellationToken.NONE, listener1, executor);
+        batcher.execute(predictRequest(FunctionName.KMEANS, 2), CancellationToken.NONE, listener2, executor);
+        assertEquals(1, executedRequests.size());
+        assertEquals(3, executedRequests.get(0).getMlInput().getDataFrame().size());
+        assertEquals(1, batcher.getPendingRequestCount());
+        assertEquals(2, scheduledFlushes.size());
+    }
+
+    public void testExecute_NotBatchable() {
+        MLPredictMicroBatcher batcher = batcher(batchSettings(4));
+        // FIT_RCF prediction depends on previous rows
+        batcher.execute(predictRequest(FunctionName.FIT_RCF, 1), CancellationToken.NONE, listener1, executor);
+        // request is as large as the batch size
+        batcher.execute(predictRequest(FunctionName.KMEANS, 4), CancellationToken.NONE, listener1, executor);
+        assertEquals(2, executedRequests.size());
+        assertTrue(scheduledFlushes.isEmpty());
+    }
+
+    public void testExecute_SingleRequestBatch() {
+        MLPredictMicroBatcher batcher = batcher(batchSettings(10));
+        MLPredictionTaskRequest request = predictRequest(FunctionName.KMEANS, 1);
+        batcher.execute(request, CancellationToken.NONE, listener1, executor);
+        scheduledFlushes.get(0).run();
+        assertEquals(1, executedRequests.size());
+        assertSame(request, executedRequests.get(0));
+    }
+
+    public void testExecute_BatchCancelledWhenAllRequestsCancelled() {
+        MLPredictMicroBatcher batcher = batcher(batchSettings(10));
+        boolean[] cancelled = new boolean[] { true, false };
+        batcher.execute(predictRequest(FunctionName.KMEANS, 1), () -> cancelled[0], listener1, executor);
+        batcher.execute(predictRequest(FunctionName.KMEANS, 1), () -> cancelled[1], listener2, executor);
+        scheduledFlushes.get(0).run();
+        assertFalse(executedTokens.get(0).isCancelled());
+        cancelled[1] = true;
+        assertTrue(executedTokens.get(0).isCancelled());
+    }
+
+    public void testExecute_MergedTimeout() {
+        MLPredictMicroBatcher batcher = batcher(batchSettings(10));
+        MLPredictionTaskRequest request1 = predictRequest(FunctionName.KMEANS, 1);
+        request1.setTimeout(TimeValue.timeValueSeconds(1));
+        MLPredictionTaskRequest request2 = predictRequest(FunctionName.KMEANS, 1);
+        request2.setTimeout(TimeValue.timeValueSeconds(5));
+        batcher.execute(request1, CancellationToken.NONE, listener1, executor);
+        batcher.execute(request2, CancellationToken.NONE, listener2, executor);
+        scheduledFlushes.get(0).run();
+        assertEquals(TimeValue.timeValueSeconds(5), executedRequests.get(0).getTimeout());
+
+        // a request without timeout makes the batch run without timeout
+        batcher.execute(request1, CancellationToken.NONE, listener1, executor);
+        batcher.execute(predictRequest(FunctionName.KMEANS, 1), CancellationToken.NONE, listener2, executor);
+        scheduledFlushes.get(1).run();
+        assertNull(executedRequests.get(1).getTimeout());
+    }
+
+    public void testExecute_RequestFailsAtItsOwnDeadline() {
+        MLPredictMicroBatcher batcher = batcher(batchSettings(10));
+        List<Runnable> deadlineChecks = mockDeadlineChecks();
+        AtomicBoolean timedOut = new AtomicBoolean();
+        batcher.execute(predictRequest(FunctionName.KMEANS, 1), timeoutToken(timedOut), listener1, executor);
+        batcher.execute(predictRequest(FunctionName.KMEANS, 2), CancellationToken.NONE, listener2, executor);
+        scheduledFlushes.get(0).run();
+        assertEquals(1, deadlineChecks.size());
+
+        // the request fails at its deadline while the batch is still running
+        timedOut.set(true);
+        deadlineChecks.get(0).run();
+        ArgumentCaptor<Exception> failureCaptor = ArgumentCaptor.forClass(Exception.class);
+        verify(listener1).onFailure(failureCaptor.capture());
+        assertEquals("ML task timed out after 1s", failureCaptor.getValue().getMessage());
+        assertFalse(executedTokens.get(0).isCancelled());
+
+        // its rows are dropped from the batch result
+        executedListeners.get(0).onResponse(predictionResponse(0, 1, 2));
+        verify(listener1, never()).onResponse(any());
+        ArgumentCaptor<MLTaskResponse> captor = ArgumentCaptor.forClass(MLTaskResponse.class);
+        verify(listener2).onResponse(captor.capture());
+        assertEquals(ImmutableList.of(1, 2), clusterIds(captor.getValue()));
+    }
+
+    public void testExecute_FailedRequestDroppedFromBatch() {
+        MLPredictMicroBatcher batcher = batcher(batchSettings(10));
+        List<Runnable> deadlineChecks = mockDeadlineChecks();
+        AtomicBoolean timedOut = new AtomicBoolean();
+        MLPredictionTaskRequest request2 = predictRequest(FunctionName.KMEANS, 2);
+        batcher.execute(predictRequest(FunctionName.KMEANS, 1), timeoutToken(timedOut), listener1, executor);
+        batcher.execute(request2, CancellationToken.NONE, listener2, executor);
+
+        timedOut.set(true);
+        deadlineChecks.get(0).run();
+        verify(listener1).onFailure(any(TaskCancelledException.class));
+
+        // only the remaining request runs
+        scheduledFlushes.get(0).run();
+        assertEquals(1, executedRequests.size());
+        assertSame(request2, executedRequests.get(0));
+        assertEquals(1L, mlStats.getStat(StatNames.ML_PREDICT_BATCHED_REQUEST_COUNT).getValue());
+        assertEquals(2L, mlStats.getStat(StatNames.ML_PREDICT_BATCHED_ROW_COUNT).getValue());
+    }
+
+    public void testExecute_BatchFailure() {
+        MLPredictMicroBatcher batcher = batcher(batchSettings(10));
+        batcher.execute(predictRequest(FunctionName.KMEANS, 1), CancellationToken.NONE, listener1, executor);
+        batcher.execute(predictRequest(FunctionName.KMEANS, 1), CancellationToken.NONE, listener2, executor);
+        scheduledFlushes.get(0).run();
+
+        RuntimeException exception = new RuntimeException("test error");
+        executedListeners.get(0).onFailure(exception);
+        verify(listener1).onFailure(exception);
+        verify(listener2).onFailure(exception);
+    }
+
+    public void testExecute_UnexpectedBatchResult() {
+        MLPredictMicroBatcher batcher = batcher(batchSettings(10));
+        batcher.execute(predictRequest(FunctionName.KMEANS, 1), CancellationToken.NONE, listener1, executor);
+        batcher.execute(predictRequest(FunctionName.KMEANS, 1), CancellationToken.NONE, listener2, executor);
+        scheduledFlushes.get(0).run();
+
+        // result row count doesn't match the input, requests run separately
+        executedListeners.get(0).onResponse(predictionResponse(0));
+        assertEquals(3, executedRequests.size());
+        assertEquals(1, executedRequests.get(1).getMlInput().getDataFrame().size());
+        assertEquals(1, executedRequests.get(2).getMlInput().getDataFrame().size());
+    }
+
+    private MLPredictMicroBatcher batcher(Settings settings) {
+        when(clusterService.getClusterSettings()).thenReturn(clusterSetting(settings));
+        return new MLPredictMicroBatcher(settings, clusterService, client, threadPool, mlStats);
+    }
+
+    private List<Runnable> mockDeadlineChecks() {
+        List<Runnable> deadlineChecks = new ArrayList<>();
+        doAnswer(invocation -> {
+            deadlineChecks.add(invocation.getArgument(0));
+            return mock(Scheduler.ScheduledCancellable.class);
+        }).when(threadPool).schedule(any(Runnable.class), eq(DEADLINE), anyString());
+        return deadlineChecks;
+    }
+
+    private MLTaskCancellationToken timeoutToken(AtomicBoolean timedOut) {
+        MLTaskCancellationToken token = mock(MLTaskCancellationToken.class);
+        when(token.getRemainingTime()).thenReturn(DEADLINE);
+        when(token.isCancelled()).thenAnswer(invocation -> timedOut.get());
+        doAnswer(invocation -> {
+            if (timedOut.get()) {
+                throw new TaskCancelledException("ML task timed out after 1s");
+            }
+            return null;
+        }).when(token).ensureNotCancelled();
+        return token;
+    }
+
+    private Settings batchSettings(int batchSize) {
+        return Settings
+            .builder()
+            .put("plugins.ml_commons.predict_batch_window", "10ms")
+            .put("plugins.ml_commons.predict_batch_size", batchSize)
+            .build();
+    }
+
+    private MLPredictionTaskRequest predictRequest(FunctionName algorithm, int rows) {
+        MLInput mlInput = MLInput
+            .builder()
+            .algorithm(algorithm)
+            .parameters(algorithm == FunctionName.KMEANS ? KMeansParams.builder().centroids(2).build() : null)
+            .inputDataset(new DataFrameInputDataset(TestData.constructTestDataFrame(rows)))
+            .build();
+        return MLPredictionTaskRequest.builder().modelId("111").mlInput(mlInput).build();
+    }
+
+    private MLTaskResponse predictionResponse(int... clusterIds) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int clusterId : clusterIds) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("ClusterID", clusterId);
+            rows.add(row);
+        }
+        DataFrame predictionResult = DataFrameBuilder.load(rows);
+        MLPredictionOutput output = MLPredictionOutput.builder().status("COMPLETED").predictionResult(predictionResult).build();
+        return MLTaskResponse.builder().output(output).build();
+    }
+
+    private List<Integer> clusterIds(MLTaskResponse response) {
+        DataFrame predictionResult = ((MLPredictionOutput) response.getOutput()).getPredictionResult();
+        List<Integer> clusterIds = new ArrayList<>();
+        for (int i = 0; i < predictionResult.size(); i++) {
+            clusterIds.add(predictionResult.getRow(i).getValue(0).intValue());
+        }
+        return clusterIds;
+    }
+}
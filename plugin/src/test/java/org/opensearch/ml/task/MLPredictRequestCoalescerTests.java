@@ -0,0 +1,337 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.opensearch.ml.utils.TestHelper.clusterSetting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opensearch.action.ActionListener;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.commons.ConfigConstants;
+import org.opensearch.index.query.MatchAllQueryBuilder;
+import org.opensearch.ml.common.FunctionName;
+import org.opensearch.ml.common.dataset.DataFrameInputDataset;
+import org.opensearch.ml.common.dataset.SearchQueryInputDataset;
+import org.opensearch.ml.common.input.MLInput;
+import org.opensearch.ml.common.input.parameter.rcf.BatchRCFParams;
+import org.opensearch.ml.common.output.MLPredictionOutput;
+import org.opensearch.ml.common.transport.MLTaskResponse;
+import org.opensearch.ml.common.transport.prediction.MLPredictionTaskRequest;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.stats.MLStat;
+import org.opensearch.ml.stats.MLStats;
+import org.opensearch.ml.stats.StatNames;
+import org.opensearch.ml.stats.suppliers.CounterSupplier;
+import org.opensearch.ml.utils.TestData;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.tasks.TaskCancelledException;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.Scheduler;
+import org.opensearch.threadpool.ThreadPool;
+
+import com.google.common.collect.ImmutableList;
+
+public class MLPredictRequestCoalescerTests extends OpenSearchTestCase {
+    @Mock
+    ClusterService clusterService;
+
+    @Mock
+    Client client;
+
+    @Mock
+    ThreadPool threadPool;
+
+    @Mock
+    ActionListener<MLTaskResponse> listener1;
+
+    @Mock
+    ActionListener<MLTaskResponse> listener2;
+
+    MLStats mlStats;
+    MLPredictionTaskRequest request;
+    MLTaskResponse response;
+    List<ActionListener<MLTaskResponse>> executions;
+    List<CancellationToken> executedTokens;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(clusterService.getClusterSettings()).thenReturn(clusterSetting(Settings.EMPTY));
+        when(client.threadPool()).thenReturn(threadPool);
+        when(threadPool.getThreadContext()).thenReturn(new ThreadContext(Settings.EMPTY));
+
+        Map<String, MLStat<?>> stats = new ConcurrentHashMap<>();
+        stats.put(StatNames.ML_PREDICT_COALESCED_REQUEST_COUNT, new MLStat<>(false, new CounterSupplier()));
+        stats.put(StatNames.ML_PREDICT_RESULT_CACHE_HIT_COUNT, new MLStat<>(false, new CounterSupplier()));
+        mlStats = new MLStats(stats);
+
+        request = predictRequest("111", 100);
+        response = MLTaskResponse.builder().output(MLPredictionOutput.builder().status("COMPLETED").build()).build();
+        executions = new ArrayList<>();
+        executedTokens = new ArrayList<>();
+    }
+
+    public void testExecute_CoalesceIdenticalRequests() {
+        MLPredictRequestCoalescer coalescer = new MLPredictRequestCoalescer(Settings.EMPTY, clusterService, client, mlStats);
+        coalescer.execute(request, CancellationToken.NONE, listener1, this::addExecution);
+        coalescer.execute(predictRequest("111", 100), CancellationToken.NONE, listener2, this::addExecution);
+        assertEquals(1, executions.size());
+        assertEquals(1, coalescer.getInFlightRequestCount());
+        assertEquals(1L, mlStats.getStat(StatNames.ML_PREDICT_COALESCED_REQUEST_COUNT).getValue());
+
+        executions.get(0).onResponse(response);
+        verify(listener1).onResponse(response);
+        verify(listener2).onResponse(response);
+        assertEquals(0, coalescer.getInFlightRequestCount());
+
+        // the request isn't coalesced or cached once the running request completes
+        coalescer.execute(request, CancellationToken.NONE, listener1, this::addExecution);
+        assertEquals(2, executions.size());
+    }
+
+    public void testExecute_FailureNotifiesAllRequests() {
+        MLPredictRequestCoalescer coalescer = new MLPredictRequestCoalescer(Settings.EMPTY, clusterService, client, mlStats);
+        coalescer.execute(request, CancellationToken.NONE, listener1, this::addExecution);
+        coalescer.execute(request, CancellationToken.NONE, listener2, this::addExecution);
+
+        RuntimeException exception = new RuntimeException("test error");
+        executions.get(0).onFailure(exception);
+        verify(listener1).onFailure(exception);
+        verify(listener2).onFailure(exception);
+        assertEquals(0, coalescer.getInFlightRequestCount());
+    }
+
+    public void testExecute_ExecutionThrowsException() {
+        MLPredictRequestCoalescer coalescer = new MLPredictRequestCoalescer(Settings.EMPTY, clusterService, client, mlStats);
+        expectThrows(IllegalArgumentException.class, () -> coalescer.execute(request, CancellationToken.NONE, listener1, (r, t, l) -> {
+            throw new IllegalArgumentException("test error");
+        }));
+        verify(listener1, never()).onFailure(any());
+        assertEquals(0, coalescer.getInFlightRequestCount());
+    }
+
+    public void testExecute_DifferentInput() {
+        MLPredictRequestCoalescer coalescer = new MLPredictRequestCoalescer(Settings.EMPTY, clusterService, client, mlStats);
+        coalescer.execute(request, CancellationToken.NONE, listener1, this::addExecution);
+        coalescer.execute(predictRequest("111", 10), CancellationToken.NONE, listener2, this::addExecution);
+        coalescer.execute(predictRequest("222", 100), CancellationToken.NONE, listener2, this::addExecution);
+        assertEquals(3, executions.size());
+        assertEquals(0L, mlStats.getStat(StatNames.ML_PREDICT_COALESCED_REQUEST_COUNT).getValue());
+    }
+
+    public void testExecute_DifferentUser() {
+        MLPredictRequestCoalescer coalescer = new MLPredictRequestCoalescer(Settings.EMPTY, clusterService, client, mlStats);
+        coalescer.execute(request, CancellationToken.NONE, listener1, this::addExecution);
+        ThreadContext threadContext = new ThreadContext(Settings.EMPTY);
+        threadContext.putTransient(ConfigConstants.OPENSEARCH_SECURITY_USER_INFO_THREAD_CONTEXT, "test_user|test_role|test_tenant");
+        when(threadPool.getThreadContext()).thenReturn(threadContext);
+        coalescer.execute(request, CancellationToken.NONE, listener2, this::addExecution);
+        assertEquals(2, executions.size());
+    }
+
+    public void testExecute_SearchQueryInput() {
+        MLPredictRequestCoalescer coalescer = new MLPredictRequestCoalescer(Settings.EMPTY, clusterService, client, mlStats);
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().query(new MatchAllQueryBuilder());
+        MLInput mlInput = MLInput
+            .builder()
+            .algorithm(FunctionName.BATCH_RCF)
+            .parameters(BatchRCFParams.builder().build())
+            .inputDataset(new SearchQueryInputDataset(ImmutableList.of("test_index"), searchSourceBuilder))
+            .build();
+        MLPredictionTaskRequest queryRequest = MLPredictionTaskRequest.builder().modelId("111").mlInput(mlInput).build();
+        coalescer.execute(queryRequest, CancellationToken.NONE, listener1, this::addExecution);
+        coalescer.execute(queryRequest, CancellationToken.NONE, listener2, this::addExecution);
+        assertEquals(2, executions.size());
+        assertEquals(0, coalescer.getInFlightRequestCount());
+    }
+
+    public void testExecute_Disabled() {
+        Settings settings = Settings.builder().put("plugins.ml_commons.predict_coalescing_enabled", false).build();
+        when(clusterService.getClusterSettings()).thenReturn(clusterSetting(settings));
+        MLPredictRequestCoalescer coalescer = new MLPredictRequestCoalescer(settings, clusterService, client, mlStats);
+        coalescer.execute(request, CancellationToken.NONE, listener1, this::addExecution);
+        coalescer.execute(request, CancellationToken.NONE, listener2, this::addExecution);
+        assertEquals(2, executions.size());
+    }
+
+    public void testExecute_ResultCache() {
+        Settings settings = Settings.builder().put("plugins.ml_commons.predict_result_cache_ttl", "1m").build();
+        when(clusterService.getClusterSettings()).thenReturn(clusterSetting(settings));
+        MLPredictRequestCoalescer coalescer = new MLPredictRequestCoalescer(settings, clusterService, client, mlStats);
+        coalescer.execute(request, CancellationToken.NONE, listener1, this::addExecution);
+        executions.get(0).onResponse(response);
+
+        coalescer.execute(predictRequest("111", 100), CancellationToken.NONE, listener2, this::addExecution);
+        assertEquals(1, executions.size());
+        verify(listener2).onResponse(response);
+        assertEquals(1L, mlStats.getStat(StatNames.ML_PREDICT_RESULT_CACHE_HIT_COUNT).getValue());
+    }
+
+    public void testExecute_ResultCacheDoesNotKeepFailure() {
+        Settings settings = Settings.builder().put("plugins.ml_commons.predict_result_cache_ttl", "1m").build();
+        when(clusterService.getClusterSettings()).thenReturn(clusterSetting(settings));
+        MLPredictRequestCoalescer coalescer = new MLPredictRequestCoalescer(settings, clusterService, client, mlStats);
+        coalescer.execute(request, CancellationToken.NONE, listener1, this::addExecution);
+        executions.get(0).onFailure(new RuntimeException("test error"));
+
+        coalescer.execute(request, CancellationToken.NONE, listener2, this::addExecution);
+        assertEquals(2, executions.size());
+    }
+
+    public void testExecute_WaitingRequestFailsAtItsOwnDeadline() {
+        MLPredictRequestCoalescer coalescer = new MLPredictRequestCoalescer(Settings.EMPTY, clusterService, client, mlStats);
+        List<Runnable> deadlineChecks = mockDeadlineChecks();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        coalescer.execute(request, CancellationToken.NONE, listener1, this::addExecution);
+        coalescer.execute(request, mlTaskCancellationToken(cancelled, "ML task timed out after 1s"), listener2, this::addExecution);
+        // one check at the deadline of the waiting request
+        assertEquals(1, deadlineChecks.size());
+
+        cancelled.set(true);
+        deadlineChecks.get(0).run();
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(listener2).onFailure(captor.capture());
+        assertEquals("ML task timed out after 1s", captor.getValue().getMessage());
+
+        // the running request isn't affected and the failed request isn't notified again
+        executions.get(0).onResponse(response);
+        verify(listener1).onResponse(response);
+        verify(listener2, never()).onResponse(any());
+    }
+
+    public void testExecute_WaitingRequestFailsOnceCancelled() {
+        MLPredictRequestCoalescer coalescer = new MLPredictRequestCoalescer(Settings.EMPTY, clusterService, client, mlStats);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        MLTaskCancellationToken token = mlTaskCancellationToken(cancelled, "ML task cancelled, reason: by user request");
+        coalescer.execute(request, CancellationToken.NONE, listener1, this::addExecution);
+        coalescer.execute(request, token, listener2, this::addExecution);
+        ArgumentCaptor<Runnable> cancellationListener = ArgumentCaptor.forClass(Runnable.class);
+        verify(token).addCancellationListener(cancellationListener.capture());
+
+        cancelled.set(true);
+        cancellationListener.getValue().run();
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(listener2).onFailure(captor.capture());
+        assertEquals("ML task cancelled, reason: by user request", captor.getValue().getMessage());
+        verify(token).removeCancellationListener(cancellationListener.getValue());
+
+        executions.get(0).onResponse(response);
+        verify(listener1).onResponse(response);
+        verify(listener2, never()).onResponse(any());
+    }
+
+    public void testExecute_RerunWhenRunningRequestCancelled() {
+        MLPredictRequestCoalescer coalescer = new MLPredictRequestCoalescer(Settings.EMPTY, clusterService, client, mlStats);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CancellationToken leaderToken = cancellationToken(cancelled, "ML task cancelled");
+        coalescer.execute(request, leaderToken, listener1, this::addExecution);
+        coalescer.execute(request, CancellationToken.NONE, listener2, this::addExecution);
+        assertEquals(1, executions.size());
+        assertSame(leaderToken, executedTokens.get(0));
+
+        cancelled.set(true);
+        TaskCancelledException exception = new TaskCancelledException("ML task cancelled");
+        executions.get(0).onFailure(exception);
+        verify(listener1).onFailure(exception);
+        verify(listener2, never()).onFailure(any());
+        // the request runs again with the cancellation token of the waiting request
+        assertEquals(2, executions.size());
+        assertSame(CancellationToken.NONE, executedTokens.get(1));
+        assertEquals(1, coalescer.getInFlightRequestCount());
+
+        executions.get(1).onResponse(response);
+        verify(listener2).onResponse(response);
+        verify(listener1, never()).onResponse(any());
+        assertEquals(0, coalescer.getInFlightRequestCount());
+    }
+
+    public void testExecute_NoRerunWhenAllRequestsCancelled() {
+        MLPredictRequestCoalescer coalescer = new MLPredictRequestCoalescer(Settings.EMPTY, clusterService, client, mlStats);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        coalescer.execute(request, cancellationToken(cancelled, "ML task cancelled"), listener1, this::addExecution);
+        coalescer.execute(request, cancellationToken(cancelled, "ML task cancelled"), listener2, this::addExecution);
+
+        cancelled.set(true);
+        executions.get(0).onFailure(new TaskCancelledException("ML task cancelled"));
+        verify(listener1).onFailure(any(TaskCancelledException.class));
+        verify(listener2).onFailure(any(TaskCancelledException.class));
+        assertEquals(1, executions.size());
+        assertEquals(0, coalescer.getInFlightRequestCount());
+    }
+
+    private void addExecution(MLPredictionTaskRequest request, CancellationToken cancellationToken, ActionListener<MLTaskResponse> l) {
+        executedTokens.add(cancellationToken);
+        executions.add(l);
+    }
+
+    private CancellationToken cancellationToken(AtomicBoolean cancelled, String message) {
+        return new CancellationToken() {
+            @Override
+            public boolean isCancelled() {
+                return cancelled.get();
+            }
+
+            @Override
+            public void ensureNotCancelled() {
+                if (cancelled.get()) {
+                    throw new TaskCancelledException(message);
+                }
+            }
+        };
+    }
+
+    private MLTaskCancellationToken mlTaskCancellationToken(AtomicBoolean cancelled, String message) {
+        MLTaskCancellationToken token = mock(MLTaskCancellationToken.class);
+        when(token.getRemainingTime()).thenReturn(TimeValue.timeValueSeconds(1));
+        when(token.isCancelled()).thenAnswer(invocation -> cancelled.get());
+        doAnswer(invocation -> {
+            if (cancelled.get()) {
+                throw new TaskCancelledException(message);
+            }
+            return null;
+        }).when(token).ensureNotCancelled();
+        return token;
+    }
+
+    private List<Runnable> mockDeadlineChecks() {
+        List<Runnable> deadlineChecks = new ArrayList<>();
+        doAnswer(invocation -> {
+            deadlineChecks.add(invocation.getArgument(0));
+            return mock(Scheduler.ScheduledCancellable.class);
+        }).when(threadPool).schedule(any(Runnable.class), any(TimeValue.class), anyString());
+        return deadlineChecks;
+    }
+
+    private MLPredictionTaskRequest predictRequest(String modelId, int rows) {
+        MLInput mlInput = MLInput
+            .builder()
+            .algorithm(FunctionName.BATCH_RCF)
+            .parameters(BatchRCFParams.builder().build())
+            .inputDataset(new DataFrameInputDataset(TestData.constructTestDataFrame(rows)))
+            .build();
+        return MLPredictionTaskRequest.builder().modelId(modelId).mlInput(mlInput).build();
+    }
+}
@@ -9,8 +9,10 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.spy;
+import static org.opensearch.ml.utils.TestHelper.clusterSetting;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
@@ -40,6 +42,7 @@ import org.opensearch.index.query.MatchAllQueryBuilder;
 import org.opensearch.ml.common.FunctionName;
 import org.opensearch.ml.common.MLModel;
 import org.opensearch.ml.common.MLTask;
+import org.opensearch.ml.common.MLTaskType;
 import org.opensearch.ml.common.breaker.MLCircuitBreakerService;
 import org.opensearch.ml.common.dataframe.DataFrame;
 import org.opensearch.ml.common.dataset.DataFrameInputDataset;
@@ -101,6 +104,9 @@ public class MLPredictTaskRunnerTests extends OpenSearchTestCase {
     DiscoveryNode localNode;
     DiscoveryNode remoteNode;
     MLInputDatasetHandler mlInputDatasetHandler;
+    MLTaskAdmissionController mlTaskAdmissionController;
+    MLPredictRequestCoalescer mlPredictRequestCoalescer;
+    MLPredictMicroBatcher mlPredictMicroBatcher;
     MLPredictTaskRunner taskRunner;
     MLPredictionTaskRequest requestWithDataFrame;
     MLPredictionTaskRequest requestWithQuery;
@@ -113,6 +119,8 @@ public class MLPredictTaskRunnerTests extends OpenSearchTestCase {
     @Before
     public void setup() throws IOException {
         MockitoAnnotations.openMocks(this);
+        when(clusterService.getClusterSettings()).thenReturn(clusterSetting(Settings.EMPTY));
+        mlTaskAdmissionController = new MLTaskAdmissionController(Settings.EMPTY, clusterService, threadPool);
         localNode = new DiscoveryNode("localNodeId", buildNewFakeTransportAddress(), Version.CURRENT);
         remoteNode = new DiscoveryNode("remoteNodeId", buildNewFakeTransportAddress(), Version.CURRENT);
         when(clusterService.localNode()).thenReturn(localNode);
@@ -129,7 +137,10 @@ public class MLPredictTaskRunnerTests extends OpenSearchTestCase {
         stats.put(StatNames.ML_TOTAL_REQUEST_COUNT, new MLStat<>(false, new CounterSupplier()));
         stats.put(StatNames.ML_TOTAL_FAILURE_COUNT, new MLStat<>(false, new CounterSupplier()));
         stats.put(StatNames.ML_TOTAL_MODEL_COUNT, new MLStat<>(false, new CounterSupplier()));
+        stats.put(StatNames.ML_OUTSTANDING_TASK_COST, new MLStat<>(false, new CounterSupplier()));
         this.mlStats = new MLStats(stats);
+        mlPredictRequestCoalescer = new MLPredictRequestCoalescer(Settings.EMPTY, clusterService, client, mlStats);
+        mlPredictMicroBatcher = new MLPredictMicroBatcher(Settings.EMPTY, clusterService, client, threadPool, mlStats);
         mlInputDatasetHandler = spy(new MLInputDatasetHandler(client));
         taskRunner = spy(
             new MLPredictTaskRunner(
@@ -141,6 +152,9 @@ public class MLPredictTaskRunnerTests extends OpenSearchTestCase {
                 mlInputDatasetHandler,
                 mlTaskDispatcher,
                 mlCircuitBreakerService,
+                mlTaskAdmissionController,
+                mlPredictRequestCoalescer,
+                mlPredictMicroBatcher,
                 xContentRegistry()
             )
         );
@@ -201,10 +215,23 @@ public class MLPredictTaskRunnerTests extends OpenSearchTestCase {
         verify(mlTaskManager).remove(anyString());
     }
 
+    public void testExecuteTask_TrackOutstandingCost() {
+        setupMocks(true, false, false, false);
+        when(mlTaskDispatcher.estimateTaskCost(MLTaskType.PREDICTION, requestWithDataFrame.getMlInput(), "111")).thenReturn(100L);
+
+        taskRunner.dispatchTask(requestWithDataFrame, transportService, listener);
+        verify(mlTaskDispatcher).dispatchTask(eq(100L), eq(Collections.emptyList()), any());
+        verify(mlTaskDispatcher).recordModelSize(eq("111"), anyLong());
+        // cost is released once the task completes
+        assertEquals(0L, mlStats.getStat(StatNames.ML_OUTSTANDING_TASK_COST).getValue());
+    }
+
     public void testExecuteTask_OnLocalNode_QueryInput() {
         setupMocks(true, false, false, false);
 
         taskRunner.dispatchTask(requestWithQuery, transportService, listener);
+        // dispatched close to the source index
+        verify(mlTaskDispatcher).dispatchTask(anyLong(), eq(ImmutableList.of(indexName)), any());
         verify(mlInputDatasetHandler).parseSearchQueryInput(any(), any());
         verify(mlInputDatasetHandler, never()).parseDataFrameInput(requestWithDataFrame.getMlInput().getInputDataset());
         verify(mlTaskManager).add(any(MLTask.class));
@@ -285,14 +312,14 @@ public class MLPredictTaskRunnerTests extends OpenSearchTestCase {
 
     private void setupMocks(boolean runOnLocalNode, boolean failedToParseQueryInput, boolean failedToGetModel, boolean nullGetResponse) {
         doAnswer(invocation -> {
-            ActionListener<DiscoveryNode> actionListener = invocation.getArgument(0);
+            ActionListener<DiscoveryNode> actionListener = invocation.getArgument(2);
             if (runOnLocalNode) {
                 actionListener.onResponse(localNode);
             } else {
                 actionListener.onResponse(remoteNode);
             }
             return null;
-        }).when(mlTaskDispatcher).dispatchTask(any());
+        }).when(mlTaskDispatcher).dispatchTask(anyLong(), any(), any());
 
         if (failedToParseQueryInput) {
             doAnswer(invocation -> {
@@ -0,0 +1,93 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.opensearch.ml.indices.MLIndicesHandler.ML_TASK_INDEX;
+
+import java.io.IOException;
+
+import org.junit.Before;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.client.Client;
+import org.opensearch.common.bytes.BytesReference;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.index.get.GetResult;
+import org.opensearch.ml.common.MLTask;
+import org.opensearch.ml.common.MLTaskState;
+import org.opensearch.tasks.TaskCancelledException;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.Scheduler;
+import org.opensearch.threadpool.ThreadPool;
+
+public class MLResumedTaskCancellationTokenTests extends OpenSearchTestCase {
+    Client client;
+    ThreadPool threadPool;
+
+    @Before
+    public void setup() {
+        client = mock(Client.class);
+        threadPool = mock(ThreadPool.class);
+        when(client.threadPool()).thenReturn(threadPool);
+        when(threadPool.getThreadContext()).thenReturn(new ThreadContext(Settings.EMPTY));
+    }
+
+    public void testTaskRunning() throws IOException {
+        mockGetTask(MLTaskState.RUNNING);
+        MLResumedTaskCancellationToken token = new MLResumedTaskCancellationToken(client, "taskId");
+        token.checkTask();
+        assertFalse(token.isCancelled());
+        token.ensureNotCancelled();
+    }
+
+    public void testTaskDone() throws IOException {
+        mockGetTask(MLTaskState.FAILED);
+        MLResumedTaskCancellationToken token = new MLResumedTaskCancellationToken(client, "taskId");
+        token.checkTask();
+        assertTrue(token.isCancelled());
+        TaskCancelledException e = expectThrows(TaskCancelledException.class, token::ensureNotCancelled);
+        assertEquals("ML task marked FAILED by another node", e.getMessage());
+    }
+
+    public void testTaskDeleted() throws IOException {
+        mockGetTask(null);
+        MLResumedTaskCancellationToken token = new MLResumedTaskCancellationToken(client, "taskId");
+        token.checkTask();
+        assertTrue(token.isCancelled());
+        TaskCancelledException e = expectThrows(TaskCancelledException.class, token::ensureNotCancelled);
+        assertEquals("ML task deleted", e.getMessage());
+    }
+
+    public void testWatchAndStop() {
+        Scheduler.Cancellable cancellable = mock(Scheduler.Cancellable.class);
+        when(threadPool.scheduleWithFixedDelay(any(), eq(MLResumedTaskCancellationToken.CHECK_INTERVAL), eq(ThreadPool.Names.GENERIC)))
+            .thenReturn(cancellable);
+        MLResumedTaskCancellationToken token = new MLResumedTaskCancellationToken(client, "taskId");
+        token.watch(threadPool);
+        token.stop();
+        verify(cancellable).cancel();
+    }
+
+    private void mockGetTask(MLTaskState state) throws IOException {
+        BytesReference source = state == null
+            ? null
+            : BytesReference.bytes(XContentFactory.jsonBuilder().startObject().field(MLTask.STATE_FIELD, state.name()).endObject());
+        GetResponse getResponse = new GetResponse(new GetResult(ML_TASK_INDEX, "taskId", 0, 1, 1, source != null, source, null, null));
+        doAnswer(invocation -> {
+            ActionListener<GetResponse> actionListener = invocation.getArgument(1);
+            actionListener.onResponse(getResponse);
+            return null;
+        }).when(client).get(any(), any());
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.opensearch.ml.utils.TestHelper.clusterSetting;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Before;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opensearch.Version;
+import org.opensearch.action.ActionListener;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.index.query.MatchAllQueryBuilder;
+import org.opensearch.ml.common.FunctionName;
+import org.opensearch.ml.common.MLTaskState;
+import org.opensearch.ml.common.breaker.MLCircuitBreakerService;
+import org.opensearch.ml.common.dataframe.DataFrame;
+import org.opensearch.ml.common.dataset.DataFrameInputDataset;
+import org.opensearch.ml.common.dataset.SearchQueryInputDataset;
+import org.opensearch.ml.common.input.MLInput;
+import org.opensearch.ml.common.input.parameter.rcf.FitRCFParams;
+import org.opensearch.ml.common.output.MLOutput;
+import org.opensearch.ml.common.output.MLPredictionOutput;
+import org.opensearch.ml.common.transport.MLTaskResponse;
+import org.opensearch.ml.common.transport.prediction.MLPredictionTaskRequest;
+import org.opensearch.ml.common.transport.prediction.MLStreamPredictionTaskAction;
+import org.opensearch.ml.indices.MLInputDatasetHandler;
+import org.opensearch.ml.stats.ActionName;
+import org.opensearch.ml.stats.MLStat;
+import org.opensearch.ml.stats.MLStats;
+import org.opensearch.ml.stats.StatNames;
+import org.opensearch.ml.stats.suppliers.CounterSupplier;
+import org.opensearch.ml.utils.TestData;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.TransportService;
+
+import com.google.common.collect.ImmutableList;
+
+public class MLStreamPredictTaskRunnerTests extends OpenSearchTestCase {
+    @Mock
+    ThreadPool threadPool;
+
+    @Mock
+    ClusterService clusterService;
+
+    @Mock
+    MLTaskManager mlTaskManager;
+
+    @Mock
+    ExecutorService executorService;
+
+    @Mock
+    MLTaskDispatcher mlTaskDispatcher;
+
+    @Mock
+    MLCircuitBreakerService mlCircuitBreakerService;
+
+    @Mock
+    MLDetectorSessionManager mlDetectorSessionManager;
+
+    @Mock
+    TransportService transportService;
+
+    @Mock
+    ActionListener<MLTaskResponse> listener;
+
+    MLStats mlStats;
+    DataFrame dataFrame;
+    DiscoveryNode localNode;
+    DiscoveryNode remoteNode;
+    MLStreamPredictTaskRunner taskRunner;
+    MLInput mlInput;
+    MLPredictionTaskRequest request;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(clusterService.getClusterSettings()).thenReturn(clusterSetting(Settings.EMPTY));
+        localNode = new DiscoveryNode("localNodeId", buildNewFakeTransportAddress(), Version.CURRENT);
+        remoteNode = new DiscoveryNode("remoteNodeId", buildNewFakeTransportAddress(), Version.CURRENT);
+        when(clusterService.localNode()).thenReturn(localNode);
+
+        when(threadPool.executor(anyString())).thenReturn(executorService);
+        doAnswer(invocation -> {
+            Runnable runnable = invocation.getArgument(0);
+            runnable.run();
+            return null;
+        }).when(executorService).execute(any(Runnable.class));
+
+        Map<String, MLStat<?>> stats = new ConcurrentHashMap<>();
+        stats.put(StatNames.ML_TOTAL_REQUEST_COUNT, new MLStat<>(false, new CounterSupplier()));
+        stats.put(StatNames.ML_TOTAL_FAILURE_COUNT, new MLStat<>(false, new CounterSupplier()));
+        mlStats = new MLStats(stats);
+        taskRunner = new MLStreamPredictTaskRunner(
+            threadPool,
+            clusterService,
+            mlTaskManager,
+            mlStats,
+            new MLInputDatasetHandler(null),
+            mlTaskDispatcher,
+            mlCircuitBreakerService,
+            new MLTaskAdmissionController(Settings.EMPTY, clusterService, threadPool),
+            mlDetectorSessionManager
+        );
+
+        dataFrame = TestData.constructTestDataFrame(2, true);
+        mlInput = MLInput
+            .builder()
+            .algorithm(FunctionName.FIT_RCF)
+            .parameters(FitRCFParams.builder().timeField(TestData.TIME_FIELD).build())
+            .inputDataset(new DataFrameInputDataset(dataFrame))
+            .build();
+        request = MLPredictionTaskRequest.builder().modelId("111").mlInput(mlInput).build();
+    }
+
+    public void testExecuteTask_OnOwnerNode() {
+        setupOwnerNode(localNode);
+        MLPredictionOutput output = MLPredictionOutput.builder().predictionResult(dataFrame).build();
+        doAnswer(invocation -> {
+            ActionListener<MLOutput> actionListener = invocation.getArgument(4);
+            actionListener.onResponse(output);
+            return null;
+        }).when(mlDetectorSessionManager).process(eq("111"), eq(mlInput), any(), any(), any());
+
+        taskRunner.dispatchTask(request, transportService, listener);
+        verify(mlTaskDispatcher).dispatchTaskToOwner(eq("111"), any());
+        ArgumentCaptor<MLTaskResponse> argumentCaptor = ArgumentCaptor.forClass(MLTaskResponse.class);
+        verify(listener).onResponse(argumentCaptor.capture());
+        assertEquals(MLTaskState.COMPLETED.name(), ((MLPredictionOutput) argumentCaptor.getValue().getOutput()).getStatus());
+        assertEquals(
+            1L,
+            mlStats.getStat(StatNames.requestCountStat(FunctionName.FIT_RCF, ActionName.STREAM_PREDICT)).getValue()
+        );
+    }
+
+    public void testExecuteTask_OnRemoteOwnerNode() {
+        setupOwnerNode(remoteNode);
+        taskRunner.dispatchTask(request, transportService, listener);
+        verify(transportService).sendRequest(eq(remoteNode), eq(MLStreamPredictionTaskAction.NAME), eq(request), any());
+        verify(mlDetectorSessionManager, never()).process(any(), any(), any(), any(), any());
+    }
+
+    public void testExecuteTask_NullModelId() {
+        request = MLPredictionTaskRequest.builder().mlInput(mlInput).build();
+        taskRunner.dispatchTask(request, transportService, listener);
+        verify(mlTaskDispatcher, never()).dispatchTaskToOwner(any(), any());
+        ArgumentCaptor<Exception> argumentCaptor = ArgumentCaptor.forClass(Exception.class);
+        verify(listener).onFailure(argumentCaptor.capture());
+        assertEquals("ModelId is invalid", argumentCaptor.getValue().getMessage());
+    }
+
+    public void testExecuteTask_QueryInput() {
+        setupOwnerNode(localNode);
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().query(new MatchAllQueryBuilder());
+        MLInput queryInput = mlInput
+            .toBuilder()
+            .inputDataset(new SearchQueryInputDataset(ImmutableList.of("test_index"), searchSourceBuilder))
+            .build();
+        request = MLPredictionTaskRequest.builder().modelId("111").mlInput(queryInput).build();
+
+        taskRunner.dispatchTask(request, transportService, listener);
+        verify(mlDetectorSessionManager, never()).process(any(), any(), any(), any(), any());
+        ArgumentCaptor<Exception> argumentCaptor = ArgumentCaptor.forClass(Exception.class);
+        verify(listener).onFailure(argumentCaptor.capture());
+        assertEquals("Stream prediction only supports data frame input", argumentCaptor.getValue().getMessage());
+        assertEquals(
+            1L,
+            mlStats.getStat(StatNames.failureCountStat(FunctionName.FIT_RCF, ActionName.STREAM_PREDICT)).getValue()
+        );
+    }
+
+    private void setupOwnerNode(DiscoveryNode node) {
+        doAnswer(invocation -> {
+            ActionListener<DiscoveryNode> actionListener = invocation.getArgument(1);
+            actionListener.onResponse(node);
+            return null;
+        }).when(mlTaskDispatcher).dispatchTaskToOwner(any(), any());
+    }
+}
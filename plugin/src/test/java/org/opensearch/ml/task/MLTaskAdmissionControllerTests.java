@@ -0,0 +1,152 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_MAX_ML_TASK_PER_NODE;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_MAX_PREDICTION_TASK_PER_NODE;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_MAX_TRAINING_TASK_PER_NODE;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_PREDICT_QUEUE_SIZE;
+import static org.opensearch.ml.utils.TestHelper.clusterSetting;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.mockito.ArgumentCaptor;
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.action.ActionListener;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.lease.Releasable;
+import org.opensearch.common.settings.ClusterSettings;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.ml.common.MLTaskType;
+import org.opensearch.rest.RestStatus;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.Scheduler;
+import org.opensearch.threadpool.ThreadPool;
+
+public class MLTaskAdmissionControllerTests extends OpenSearchTestCase {
+    ThreadPool threadPool;
+    ClusterService clusterService;
+    ClusterSettings clusterSettings;
+    Settings settings;
+    MLTaskAdmissionController admissionController;
+    List<Runnable> scheduledTimeouts;
+
+    @Before
+    public void setup() {
+        settings = Settings
+            .builder()
+            .put(ML_COMMONS_MAX_ML_TASK_PER_NODE.getKey(), 3)
+            .put(ML_COMMONS_MAX_TRAINING_TASK_PER_NODE.getKey(), 1)
+            .put(ML_COMMONS_MAX_PREDICTION_TASK_PER_NODE.getKey(), 1)
+            .put(ML_COMMONS_PREDICT_QUEUE_SIZE.getKey(), 1)
+            .build();
+        clusterSettings = clusterSetting(settings);
+        clusterService = mock(ClusterService.class);
+        when(clusterService.getClusterSettings()).thenReturn(clusterSettings);
+
+        scheduledTimeouts = new ArrayList<>();
+        threadPool = mock(ThreadPool.class);
+        when(threadPool.schedule(any(Runnable.class), any(TimeValue.class), anyString())).thenAnswer(invocation -> {
+            scheduledTimeouts.add(invocation.getArgument(0));
+            return mock(Scheduler.ScheduledCancellable.class);
+        });
+        admissionController = new MLTaskAdmissionController(settings, clusterService, threadPool);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testAdmit() {
+        ActionListener<Releasable> listener = mock(ActionListener.class);
+        admissionController.admit(MLTaskType.TRAINING, null, listener);
+        ArgumentCaptor<Releasable> captor = ArgumentCaptor.forClass(Releasable.class);
+        verify(listener).onResponse(captor.capture());
+        assertEquals(1, admissionController.getRunningTaskCount(MLTaskType.TRAINING));
+
+        captor.getValue().close();
+        // closing twice must not release twice
+        captor.getValue().close();
+        assertEquals(0, admissionController.getRunningTaskCount(MLTaskType.TRAINING));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testAdmit_TaskTypeLimitReached() {
+        admissionController.admit(MLTaskType.TRAINING, null, mock(ActionListener.class));
+        ActionListener<Releasable> listener = mock(ActionListener.class);
+        admissionController.admit(MLTaskType.TRAINING_AND_PREDICTION, null, listener);
+
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(listener).onFailure(captor.capture());
+        OpenSearchStatusException exception = (OpenSearchStatusException) captor.getValue();
+        assertEquals(RestStatus.TOO_MANY_REQUESTS, exception.status());
+        assertEquals(
+            String.valueOf(MLTaskAdmissionController.RETRY_AFTER_SECONDS),
+            exception.getHeader(MLTaskAdmissionController.RETRY_AFTER_HEADER).get(0)
+        );
+        // other task types are not affected by the training limit
+        ActionListener<Releasable> predictListener = mock(ActionListener.class);
+        admissionController.admit(MLTaskType.PREDICTION, null, predictListener);
+        verify(predictListener).onResponse(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testAdmit_NodeLimitReached() {
+        clusterSettings.applySettings(Settings.builder().put(ML_COMMONS_MAX_ML_TASK_PER_NODE.getKey(), 1).build());
+        admissionController.admit(MLTaskType.EXECUTION, null, mock(ActionListener.class));
+        ActionListener<Releasable> listener = mock(ActionListener.class);
+        admissionController.admit(MLTaskType.TRAINING, null, listener);
+        verify(listener).onFailure(any(OpenSearchStatusException.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testAdmit_PredictWaitsForFreeSlot() {
+        ActionListener<Releasable> runningListener = mock(ActionListener.class);
+        admissionController.admit(MLTaskType.PREDICTION, null, runningListener);
+        ArgumentCaptor<Releasable> captor = ArgumentCaptor.forClass(Releasable.class);
+        verify(runningListener).onResponse(captor.capture());
+
+        ActionListener<Releasable> waitingListener = mock(ActionListener.class);
+        admissionController.admit(MLTaskType.PREDICTION, null, waitingListener);
+        verify(waitingListener, never()).onResponse(any());
+        assertEquals(1, admissionController.getPendingTaskCount());
+
+        captor.getValue().close();
+        verify(waitingListener).onResponse(any());
+        assertEquals(0, admissionController.getPendingTaskCount());
+        assertEquals(1, admissionController.getRunningTaskCount(MLTaskType.PREDICTION));
+
+        // timeout after admission is a no-op
+        scheduledTimeouts.get(0).run();
+        verify(waitingListener, never()).onFailure(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testAdmit_PredictWaitTimeout() {
+        admissionController.admit(MLTaskType.PREDICTION, null, mock(ActionListener.class));
+        ActionListener<Releasable> waitingListener = mock(ActionListener.class);
+        admissionController.admit(MLTaskType.PREDICTION, TimeValue.timeValueMillis(10), waitingListener);
+
+        scheduledTimeouts.get(0).run();
+        verify(waitingListener).onFailure(any(OpenSearchStatusException.class));
+        assertEquals(0, admissionController.getPendingTaskCount());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testAdmit_PredictQueueFull() {
+        admissionController.admit(MLTaskType.PREDICTION, null, mock(ActionListener.class));
+        admissionController.admit(MLTaskType.PREDICTION, null, mock(ActionListener.class));
+        ActionListener<Releasable> listener = mock(ActionListener.class);
+        admissionController.admit(MLTaskType.PREDICTION, null, listener);
+        verify(listener).onFailure(any(OpenSearchStatusException.class));
+    }
+}
@@ -6,6 +6,7 @@
 package org.opensearch.ml.task;
 
 import org.opensearch.ml.common.MLTask;
+import org.opensearch.ml.common.MLTaskState;
 import org.opensearch.test.OpenSearchTestCase;
 
 public class MLTaskCacheTests extends OpenSearchTestCase {
@@ -22,4 +23,34 @@ public class MLTaskCacheTests extends OpenSearchTestCase {
         assertNotNull(mlTaskCache);
         assertNotNull(mlTaskCache.updateTaskIndexSemaphore);
     }
+
+    public void testUpdateStatus() {
+        MLTask mlTask = MLTask.builder().taskId("test id").state(MLTaskState.CREATED).build();
+        MLTaskCache mlTaskCache = MLTaskCache.builder().mlTask(mlTask).build();
+        assertEquals(MLTaskState.CREATED, mlTaskCache.getStatus().getState());
+
+        MLTaskCache.TaskStatus previous = mlTaskCache.updateStatus(MLTaskState.RUNNING, null);
+        assertEquals(MLTaskState.CREATED, previous.getState());
+        assertTrue(mlTaskCache.getStatus().isRunning());
+
+        // null state keeps current state
+        mlTaskCache.updateStatus(null, "test error");
+        assertEquals(MLTaskState.RUNNING, mlTaskCache.getStatus().getState());
+        assertEquals("test error", mlTaskCache.getStatus().getError());
+
+        MLTask snapshot = mlTaskCache.snapshot();
+        assertEquals(MLTaskState.RUNNING, snapshot.getState());
+        assertEquals("test error", snapshot.getError());
+        assertEquals(MLTaskState.CREATED, mlTask.getState());
+    }
+
+    public void testMarkRemoved() {
+        MLTask mlTask = MLTask.builder().taskId("test id").state(MLTaskState.RUNNING).build();
+        MLTaskCache mlTaskCache = MLTaskCache.builder().mlTask(mlTask).build();
+        MLTaskCache.TaskStatus previous = mlTaskCache.markRemoved();
+        assertTrue(previous.isRunning());
+        assertTrue(mlTaskCache.getStatus().isRemoved());
+        assertNull(mlTaskCache.markRemoved());
+        assertNull(mlTaskCache.updateStatus(MLTaskState.COMPLETED, null));
+    }
 }
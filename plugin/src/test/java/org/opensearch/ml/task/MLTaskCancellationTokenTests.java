@@ -0,0 +1,68 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.ml.common.transport.MLCancellableTask;
+import org.opensearch.tasks.CancellableTask;
+import org.opensearch.tasks.TaskCancelledException;
+import org.opensearch.test.OpenSearchTestCase;
+
+public class MLTaskCancellationTokenTests extends OpenSearchTestCase {
+
+    public void testNotCancelled() {
+        CancellableTask task = mock(CancellableTask.class);
+        when(task.isCancelled()).thenReturn(false);
+        MLTaskCancellationToken token = new MLTaskCancellationToken(task, TimeValue.timeValueMinutes(10));
+        assertFalse(token.isCancelled());
+        token.ensureNotCancelled();
+    }
+
+    public void testNoTaskNoTimeout() {
+        MLTaskCancellationToken token = new MLTaskCancellationToken(null, null);
+        assertFalse(token.isCancelled());
+        token.ensureNotCancelled();
+    }
+
+    public void testTaskCancelled() {
+        CancellableTask task = mock(CancellableTask.class);
+        when(task.isCancelled()).thenReturn(true);
+        when(task.getReasonCancelled()).thenReturn("by user request");
+        MLTaskCancellationToken token = new MLTaskCancellationToken(task, null);
+        assertTrue(token.isCancelled());
+        TaskCancelledException e = expectThrows(TaskCancelledException.class, token::ensureNotCancelled);
+        assertEquals("ML task cancelled, reason: by user request", e.getMessage());
+    }
+
+    public void testTimedOut() {
+        MLTaskCancellationToken token = new MLTaskCancellationToken(null, TimeValue.timeValueMillis(0));
+        assertTrue(token.isCancelled());
+        TaskCancelledException e = expectThrows(TaskCancelledException.class, token::ensureNotCancelled);
+        assertTrue(e.getMessage().startsWith("ML task timed out"));
+    }
+
+    public void testRemainingTime() {
+        assertNull(new MLTaskCancellationToken(null, null).getRemainingTime());
+        TimeValue remainingTime = new MLTaskCancellationToken(null, TimeValue.timeValueMinutes(10)).getRemainingTime();
+        assertTrue(remainingTime.millis() > 0);
+        assertTrue(remainingTime.millis() <= TimeValue.timeValueMinutes(10).millis() + 1);
+        assertEquals(0, new MLTaskCancellationToken(null, TimeValue.timeValueMillis(0)).getRemainingTime().millis());
+    }
+
+    public void testCancellationListener() {
+        MLCancellableTask task = mock(MLCancellableTask.class);
+        MLTaskCancellationToken token = new MLTaskCancellationToken(task, null);
+        Runnable listener = () -> {};
+        token.addCancellationListener(listener);
+        verify(task).addCancellationListener(listener);
+        token.removeCancellationListener(listener);
+        verify(task).removeCancellationListener(listener);
+    }
+}
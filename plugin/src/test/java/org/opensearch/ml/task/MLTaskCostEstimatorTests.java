@@ -0,0 +1,73 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import org.opensearch.index.query.MatchAllQueryBuilder;
+import org.opensearch.ml.common.FunctionName;
+import org.opensearch.ml.common.MLTaskType;
+import org.opensearch.ml.common.dataset.DataFrameInputDataset;
+import org.opensearch.ml.common.dataset.SearchQueryInputDataset;
+import org.opensearch.ml.common.input.MLInput;
+import org.opensearch.ml.utils.TestData;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.test.OpenSearchTestCase;
+
+import com.google.common.collect.ImmutableList;
+
+public class MLTaskCostEstimatorTests extends OpenSearchTestCase {
+    MLTaskCostEstimator estimator = new MLTaskCostEstimator();
+
+    public void testEstimate_DataFrameInput() {
+        MLInput mlInput = dataFrameInput(FunctionName.KMEANS, 100);
+        int columns = TestData.constructTestDataFrame(100).columnMetas().length;
+        assertEquals(100L * columns * 20, estimator.estimate(MLTaskType.TRAINING, mlInput, null));
+        assertEquals(100L * columns, estimator.estimate(MLTaskType.PREDICTION, mlInput, null));
+        assertEquals(100L * columns * 21, estimator.estimate(MLTaskType.TRAINING_AND_PREDICTION, mlInput, null));
+    }
+
+    public void testEstimate_AlgorithmFactor() {
+        long kmeansCost = estimator.estimate(MLTaskType.TRAINING, dataFrameInput(FunctionName.KMEANS, 100), null);
+        long libSVMCost = estimator.estimate(MLTaskType.TRAINING, dataFrameInput(FunctionName.AD_LIBSVM, 100), null);
+        assertTrue(libSVMCost > kmeansCost);
+    }
+
+    public void testEstimate_SearchQueryInput() {
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().query(new MatchAllQueryBuilder());
+        MLInput mlInput = MLInput
+            .builder()
+            .algorithm(FunctionName.SAMPLE_ALGO)
+            .inputDataset(new SearchQueryInputDataset(ImmutableList.of("test_index"), searchSourceBuilder))
+            .build();
+        long defaultCost = MLTaskCostEstimator.DEFAULT_SEARCH_ROW_COUNT * MLTaskCostEstimator.DEFAULT_SEARCH_COLUMN_COUNT;
+        assertEquals(defaultCost, estimator.estimate(MLTaskType.TRAINING, mlInput, null));
+
+        searchSourceBuilder.size(1000);
+        assertEquals(1000L * MLTaskCostEstimator.DEFAULT_SEARCH_COLUMN_COUNT, estimator.estimate(MLTaskType.TRAINING, mlInput, null));
+    }
+
+    public void testEstimate_ModelSize() {
+        MLInput mlInput = dataFrameInput(FunctionName.KMEANS, 1);
+        long costWithoutModel = estimator.estimate(MLTaskType.PREDICTION, mlInput, "model1");
+        estimator.recordModelSize("model1", 100000);
+        assertEquals(
+            costWithoutModel + 100000 / MLTaskCostEstimator.MODEL_BYTES_PER_COST_UNIT,
+            estimator.estimate(MLTaskType.PREDICTION, mlInput, "model1")
+        );
+        assertEquals(costWithoutModel, estimator.estimate(MLTaskType.PREDICTION, mlInput, "model2"));
+    }
+
+    public void testEstimate_EmptyInput() {
+        assertEquals(1L, estimator.estimate(MLTaskType.PREDICTION, dataFrameInput(FunctionName.KMEANS, 0), null));
+    }
+
+    private MLInput dataFrameInput(FunctionName functionName, int rows) {
+        return MLInput
+            .builder()
+            .algorithm(functionName)
+            .inputDataset(new DataFrameInputDataset(TestData.constructTestDataFrame(rows)))
+            .build();
+    }
+}
@@ -9,33 +9,47 @@ import static org.mockito.Mockito.*;
 import static org.opensearch.ml.common.breaker.MemoryCircuitBreaker.DEFAULT_JVM_HEAP_USAGE_THRESHOLD;
 import static org.opensearch.ml.stats.InternalStatNames.JVM_HEAP_USAGE;
 import static org.opensearch.ml.stats.StatNames.ML_EXECUTING_TASK_COUNT;
+import static org.opensearch.ml.stats.StatNames.ML_OUTSTANDING_TASK_COST;
+import static org.opensearch.ml.utils.TestHelper.clusterSetting;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Before;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.opensearch.OpenSearchStatusException;
 import org.opensearch.Version;
 import org.opensearch.action.ActionListener;
+import org.opensearch.action.support.replication.ClusterStateCreationUtils;
 import org.opensearch.client.Client;
 import org.opensearch.cluster.ClusterName;
 import org.opensearch.cluster.ClusterState;
 import org.opensearch.cluster.node.DiscoveryNode;
 import org.opensearch.cluster.node.DiscoveryNodeRole;
 import org.opensearch.cluster.node.DiscoveryNodes;
+import org.opensearch.cluster.routing.ShardRoutingState;
 import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.Settings;
 import org.opensearch.ml.action.stats.MLStatsNodeResponse;
 import org.opensearch.ml.action.stats.MLStatsNodesAction;
 import org.opensearch.ml.action.stats.MLStatsNodesRequest;
 import org.opensearch.ml.action.stats.MLStatsNodesResponse;
+import org.opensearch.ml.plugin.MachineLearningPlugin;
+import org.opensearch.rest.RestStatus;
 import org.opensearch.test.OpenSearchTestCase;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
 public class MLTaskDispatcherTests extends OpenSearchTestCase {
 
     @Mock
@@ -53,12 +67,14 @@ public class MLTaskDispatcherTests extends OpenSearchTestCase {
     DiscoveryNode node2;
     MLStatsNodesResponse mlStatsNodesResponse;
     String clusterName = "test cluster";
+    AtomicLong nanoTime;
 
     @Before
     public void setup() {
         MockitoAnnotations.openMocks(this);
 
-        taskDispatcher = spy(new MLTaskDispatcher(clusterService, client));
+        when(clusterService.getClusterSettings()).thenReturn(clusterSetting(Settings.EMPTY));
+        taskDispatcher = spy(new MLTaskDispatcher(clusterService, client, Settings.EMPTY));
 
         Set<DiscoveryNodeRole> roleSet = new HashSet<>();
         roleSet.add(DiscoveryNodeRole.DATA_ROLE);
@@ -75,6 +91,7 @@ public class MLTaskDispatcherTests extends OpenSearchTestCase {
         }).when(client).execute(any(), any(), any());
 
         mlStatsNodesResponse = getMlStatsNodesResponse();
+        nanoTime = new AtomicLong();
     }
 
     public void testDispatchTask_Success() {
@@ -110,6 +127,239 @@ public class MLTaskDispatcherTests extends OpenSearchTestCase {
         verify(listener).onFailure(argumentCaptor.capture());
         String errorMessage = "All nodes' executing ML task count reach limitation.";
         assertEquals(errorMessage, argumentCaptor.getValue().getMessage());
+        assertEquals(RestStatus.TOO_MANY_REQUESTS, ((OpenSearchStatusException) argumentCaptor.getValue()).status());
+    }
+
+    public void testDispatchTask_UseCachedNodeLoad() {
+        mlStatsNodesResponse = getNodesResponse_TwoNodes();
+        MLTaskDispatcher dispatcher = new MLTaskDispatcher(clusterService, client, Settings.EMPTY, nanoTime::get);
+        dispatcher.dispatchTask(listener);
+        verify(listener).onResponse(node1);
+
+        // the task dispatched to node1 is counted, so the next task goes to node2 without reading node load again
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        dispatcher.dispatchTask(listener);
+        verify(listener).onResponse(node2);
+        verify(client, times(1)).execute(any(MLStatsNodesAction.class), any(MLStatsNodesRequest.class), any());
+    }
+
+    public void testDispatchTask_RefreshAhead() {
+        mlStatsNodesResponse = getNodesResponse_TwoNodes();
+        MLTaskDispatcher dispatcher = new MLTaskDispatcher(clusterService, client, Settings.EMPTY, nanoTime::get);
+        dispatcher.dispatchTask(listener);
+
+        List<ActionListener<MLStatsNodesResponse>> pendingRefreshes = new ArrayList<>();
+        doAnswer(invocation -> {
+            pendingRefreshes.add(invocation.getArgument(2));
+            return null;
+        }).when(client).execute(any(), any(), any());
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        dispatcher.dispatchTask(listener);
+        // dispatched from the cached view while node load is refreshed in the background
+        verify(listener, times(2)).onResponse(any());
+        assertEquals(1, pendingRefreshes.size());
+
+        dispatcher.dispatchTask(listener);
+        verify(listener, times(3)).onResponse(any());
+        assertEquals(1, pendingRefreshes.size());
+        pendingRefreshes.get(0).onResponse(getNodesResponse_TwoNodes());
+    }
+
+    public void testDispatchTask_StaleNodeLoad() {
+        mlStatsNodesResponse = getNodesResponse_TwoNodes();
+        MLTaskDispatcher dispatcher = new MLTaskDispatcher(clusterService, client, Settings.EMPTY, nanoTime::get);
+        dispatcher.dispatchTask(listener);
+
+        List<ActionListener<MLStatsNodesResponse>> pendingRefreshes = new ArrayList<>();
+        doAnswer(invocation -> {
+            pendingRefreshes.add(invocation.getArgument(2));
+            return null;
+        }).when(client).execute(any(), any(), any());
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        dispatcher.dispatchTask(listener);
+        dispatcher.dispatchTask(listener);
+        // both dispatches wait for the same refresh
+        assertEquals(1, pendingRefreshes.size());
+        verify(listener, times(1)).onResponse(any());
+
+        pendingRefreshes.get(0).onResponse(getNodesResponse_TwoNodes());
+        verify(listener, times(3)).onResponse(any());
+    }
+
+    public void testDispatchTask_CacheDisabled() {
+        Settings settings = Settings.builder().put("plugins.ml_commons.node_load_refresh_interval", "0s").build();
+        when(clusterService.getClusterSettings()).thenReturn(clusterSetting(settings));
+        MLTaskDispatcher dispatcher = new MLTaskDispatcher(clusterService, client, settings, nanoTime::get);
+        dispatcher.dispatchTask(listener);
+        dispatcher.dispatchTask(listener);
+        verify(client, times(2)).execute(any(MLStatsNodesAction.class), any(MLStatsNodesRequest.class), any());
+        verify(listener, times(2)).onResponse(any());
+    }
+
+    public void testGetEligibleNodes_FallbackToDataNodes() {
+        DiscoveryNode[] eligibleNodes = taskDispatcher.getEligibleNodes();
+        assertEquals(2, eligibleNodes.length);
+    }
+
+    public void testGetEligibleNodes_PreferMLNodes() {
+        Set<DiscoveryNodeRole> roleSet = new HashSet<>();
+        roleSet.add(MachineLearningPlugin.ML_ROLE);
+        DiscoveryNode mlNode = new DiscoveryNode("mlNode", buildNewFakeTransportAddress(), new HashMap<>(), roleSet, Version.CURRENT);
+        DiscoveryNodes nodes = DiscoveryNodes.builder().add(node1).add(node2).add(mlNode).build();
+        ClusterState state = new ClusterState(new ClusterName(clusterName), 123l, "111111", null, null, nodes, null, null, 0, false);
+        when(clusterService.state()).thenReturn(state);
+
+        DiscoveryNode[] eligibleNodes = taskDispatcher.getEligibleNodes();
+        assertArrayEquals(new DiscoveryNode[] { mlNode }, eligibleNodes);
+    }
+
+    public void testDispatchTask_NoMLNodeWithoutFallback() {
+        Settings settings = Settings.builder().put("plugins.ml_commons.dispatch_fallback_to_data_node", false).build();
+        when(clusterService.getClusterSettings()).thenReturn(clusterSetting(settings));
+        MLTaskDispatcher dispatcher = new MLTaskDispatcher(clusterService, client, settings);
+        assertEquals(0, dispatcher.getEligibleNodes().length);
+
+        dispatcher.dispatchTask(listener);
+        verify(client, never()).execute(any(), any(), any());
+        ArgumentCaptor<Exception> argumentCaptor = ArgumentCaptor.forClass(Exception.class);
+        verify(listener).onFailure(argumentCaptor.capture());
+        assertEquals("No ML node available to run ML task", argumentCaptor.getValue().getMessage());
+    }
+
+    public void testDispatchTask_LeastOutstandingCost() {
+        Map<String, Object> stateMap1 = new HashMap<>();
+        stateMap1.put(JVM_HEAP_USAGE.getName(), 50l);
+        stateMap1.put(ML_EXECUTING_TASK_COUNT, 1l);
+        stateMap1.put(ML_OUTSTANDING_TASK_COST, 100000l);
+        Map<String, Object> stateMap2 = new HashMap<>();
+        stateMap2.put(JVM_HEAP_USAGE.getName(), 60l);
+        stateMap2.put(ML_EXECUTING_TASK_COUNT, 5l);
+        stateMap2.put(ML_OUTSTANDING_TASK_COST, 50l);
+        mlStatsNodesResponse = new MLStatsNodesResponse(
+            new ClusterName(clusterName),
+            Arrays.asList(new MLStatsNodeResponse(node1, stateMap1), new MLStatsNodeResponse(node2, stateMap2)),
+            new ArrayList<>()
+        );
+        MLTaskDispatcher dispatcher = new MLTaskDispatcher(clusterService, client, Settings.EMPTY, nanoTime::get);
+        // node1 runs less tasks, but node2 has less outstanding work
+        dispatcher.dispatchTask(1000, listener);
+        verify(listener).onResponse(node2);
+
+        // cost of the dispatched tasks is counted until the next refresh
+        dispatcher.dispatchTask(100000, listener);
+        verify(listener, times(2)).onResponse(node2);
+        dispatcher.dispatchTask(1000, listener);
+        verify(listener).onResponse(node1);
+    }
+
+    public void testDispatchTask_LeastTaskPolicy() {
+        Map<String, Object> stateMap1 = new HashMap<>();
+        stateMap1.put(JVM_HEAP_USAGE.getName(), 50l);
+        stateMap1.put(ML_EXECUTING_TASK_COUNT, 1l);
+        stateMap1.put(ML_OUTSTANDING_TASK_COST, 100000l);
+        Map<String, Object> stateMap2 = new HashMap<>();
+        stateMap2.put(JVM_HEAP_USAGE.getName(), 60l);
+        stateMap2.put(ML_EXECUTING_TASK_COUNT, 5l);
+        stateMap2.put(ML_OUTSTANDING_TASK_COST, 50l);
+        mlStatsNodesResponse = new MLStatsNodesResponse(
+            new ClusterName(clusterName),
+            Arrays.asList(new MLStatsNodeResponse(node1, stateMap1), new MLStatsNodeResponse(node2, stateMap2)),
+            new ArrayList<>()
+        );
+        Settings settings = Settings.builder().put("plugins.ml_commons.dispatch_policy", "least_task").build();
+        when(clusterService.getClusterSettings()).thenReturn(clusterSetting(settings));
+        MLTaskDispatcher dispatcher = new MLTaskDispatcher(clusterService, client, settings, nanoTime::get);
+        dispatcher.dispatchTask(1000, listener);
+        verify(listener).onResponse(node1);
+    }
+
+    public void testPickNode_PowerOfTwoChoices() {
+        List<MLTaskDispatcher.NodeLoad> nodeLoads = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            DiscoveryNode node = new DiscoveryNode("node" + i, buildNewFakeTransportAddress(), Version.CURRENT);
+            nodeLoads.add(new MLTaskDispatcher.NodeLoad(node, 1, 50, i * 100));
+        }
+        for (int i = 0; i < 100; i++) {
+            MLTaskDispatcher.NodeLoad picked = MLTaskDispatcher.pickNode(nodeLoads, MLTaskDispatcher.DispatchPolicy.POWER_OF_TWO_CHOICES);
+            // the most loaded node always loses the comparison
+            assertNotEquals(nodeLoads.get(9), picked);
+        }
+        List<MLTaskDispatcher.NodeLoad> twoNodes = nodeLoads.subList(8, 10);
+        assertEquals(twoNodes.get(0), MLTaskDispatcher.pickNode(twoNodes, MLTaskDispatcher.DispatchPolicy.POWER_OF_TWO_CHOICES));
+    }
+
+    public void testDispatchPolicy_From() {
+        assertEquals(MLTaskDispatcher.DispatchPolicy.LEAST_COST, MLTaskDispatcher.DispatchPolicy.from("least_cost"));
+        assertEquals("power_of_two_choices", MLTaskDispatcher.DispatchPolicy.POWER_OF_TWO_CHOICES.getValue());
+        expectThrows(IllegalArgumentException.class, () -> MLTaskDispatcher.DispatchPolicy.from("random"));
+    }
+
+    public void testLocalShardCounts() {
+        ClusterState state = ClusterStateCreationUtils.state("test_index", true, ShardRoutingState.STARTED);
+        String localNodeId = state.nodes().getLocalNodeId();
+        assertEquals(ImmutableMap.of(localNodeId, 1), MLTaskDispatcher.localShardCounts(state, ImmutableList.of("test_index")));
+        assertEquals(ImmutableMap.of(localNodeId, 1), MLTaskDispatcher.localShardCounts(state, ImmutableList.of("test_*")));
+        assertTrue(MLTaskDispatcher.localShardCounts(state, ImmutableList.of("other_index")).isEmpty());
+    }
+
+    public void testLocalShardCounts_UnassignedReplica() {
+        ClusterState state = ClusterStateCreationUtils
+            .state("test_index", true, ShardRoutingState.STARTED, ShardRoutingState.UNASSIGNED);
+        assertEquals(1, MLTaskDispatcher.localShardCounts(state, ImmutableList.of("test_index")).size());
+    }
+
+    public void testDispatchTask_PreferDataLocalNode() {
+        ClusterState state = ClusterStateCreationUtils.state("test_index", true, ShardRoutingState.STARTED);
+        when(clusterService.state()).thenReturn(state);
+        DiscoveryNode dataNode = state.nodes().getLocalNode();
+        DiscoveryNode otherNode = state.nodes().getMasterNode();
+
+        Map<String, Object> stateMap1 = new HashMap<>();
+        stateMap1.put(JVM_HEAP_USAGE.getName(), 50l);
+        stateMap1.put(ML_EXECUTING_TASK_COUNT, 1l);
+        stateMap1.put(ML_OUTSTANDING_TASK_COST, 500l);
+        Map<String, Object> stateMap2 = new HashMap<>();
+        stateMap2.put(JVM_HEAP_USAGE.getName(), 50l);
+        stateMap2.put(ML_EXECUTING_TASK_COUNT, 1l);
+        stateMap2.put(ML_OUTSTANDING_TASK_COST, 100l);
+        mlStatsNodesResponse = new MLStatsNodesResponse(
+            new ClusterName(clusterName),
+            Arrays.asList(new MLStatsNodeResponse(dataNode, stateMap1), new MLStatsNodeResponse(otherNode, stateMap2)),
+            new ArrayList<>()
+        );
+        MLTaskDispatcher dispatcher = new MLTaskDispatcher(clusterService, client, Settings.EMPTY, nanoTime::get);
+        // load is comparable, the node holding the data wins
+        dispatcher.dispatchTask(1000, ImmutableList.of("test_index"), listener);
+        verify(listener).onResponse(dataNode);
+        // without source indices the least loaded node wins
+        dispatcher.dispatchTask(1000, listener);
+        verify(listener).onResponse(otherNode);
+        // data node is too busy now
+        dispatcher.dispatchTask(10, ImmutableList.of("test_index"), listener);
+        verify(listener, times(2)).onResponse(otherNode);
+    }
+
+    public void testPreferDataLocalNode_BusyDataNode() {
+        DiscoveryNode dataNode = new DiscoveryNode("dataNode", buildNewFakeTransportAddress(), Version.CURRENT);
+        MLTaskDispatcher.NodeLoad busyDataNode = new MLTaskDispatcher.NodeLoad(dataNode, 5, 50, 100);
+        MLTaskDispatcher.NodeLoad idleNode = new MLTaskDispatcher.NodeLoad(node1, 1, 50, 100);
+        List<MLTaskDispatcher.NodeLoad> candidates = ImmutableList.of(busyDataNode, idleNode);
+        Map<String, Integer> shardCounts = ImmutableMap.of("dataNode", 3);
+        assertEquals(idleNode, MLTaskDispatcher.preferDataLocalNode(candidates, idleNode, 1000, shardCounts));
+    }
+
+    private MLStatsNodesResponse getNodesResponse_TwoNodes() {
+        Map<String, Object> stateMap1 = new HashMap<>();
+        stateMap1.put(JVM_HEAP_USAGE.getName(), 50l);
+        stateMap1.put(ML_EXECUTING_TASK_COUNT, 5l);
+        Map<String, Object> stateMap2 = new HashMap<>();
+        stateMap2.put(JVM_HEAP_USAGE.getName(), 60l);
+        stateMap2.put(ML_EXECUTING_TASK_COUNT, 5l);
+        return new MLStatsNodesResponse(
+            new ClusterName(clusterName),
+            Arrays.asList(new MLStatsNodeResponse(node1, stateMap1), new MLStatsNodeResponse(node2, stateMap2)),
+            new ArrayList<>()
+        );
     }
 
     private MLStatsNodesResponse getMlStatsNodesResponse() {
@@ -8,8 +8,14 @@ package org.opensearch.ml.task;
 import static org.mockito.Mockito.*;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -189,6 +195,49 @@ public class MLTaskManagerTests extends OpenSearchTestCase {
         assertEquals(errorMessage, argumentCaptor.getValue().getMessage());
     }
 
+    public void testUpdateMLTask_Buffered() {
+        MLTaskUpdateBuffer mlTaskUpdateBuffer = mock(MLTaskUpdateBuffer.class);
+        MLTaskManager bufferedTaskManager = new MLTaskManager(client, mlIndicesHandler, mlTaskUpdateBuffer);
+        MLTask asyncMlTask = mlTask.toBuilder().async(true).build();
+        bufferedTaskManager.add(asyncMlTask);
+
+        ActionListener<UpdateResponse> listener1 = mock(ActionListener.class);
+        ActionListener<UpdateResponse> listener2 = mock(ActionListener.class);
+        Map<String, Object> updatedFields = ImmutableMap.of(MLTask.ERROR_FIELD, "test error");
+        bufferedTaskManager.updateMLTask(asyncMlTask.getTaskId(), updatedFields, listener1, 0);
+        // the second update doesn't wait for the first one to be persisted
+        bufferedTaskManager.updateMLTask(asyncMlTask.getTaskId(), updatedFields, listener2, 0);
+        verify(mlTaskUpdateBuffer).update(asyncMlTask.getTaskId(), updatedFields, listener1);
+        verify(mlTaskUpdateBuffer).update(asyncMlTask.getTaskId(), updatedFields, listener2);
+        verify(client, never()).update(any(), any());
+
+        bufferedTaskManager.updateMLTask(asyncMlTask.getTaskId(), null, listener1, 0);
+        ArgumentCaptor<Exception> argumentCaptor = ArgumentCaptor.forClass(Exception.class);
+        verify(listener1).onFailure(argumentCaptor.capture());
+        assertEquals("Updated fields is null or empty", argumentCaptor.getValue().getMessage());
+    }
+
+    public void testApplyPendingUpdate() {
+        MLTaskUpdateBuffer mlTaskUpdateBuffer = mock(MLTaskUpdateBuffer.class);
+        Map<String, Object> pendingUpdate = new HashMap<>();
+        pendingUpdate.put(MLTask.STATE_FIELD, MLTaskState.COMPLETED);
+        pendingUpdate.put(MLTask.MODEL_ID_FIELD, "model id");
+        when(mlTaskUpdateBuffer.getPendingUpdate(mlTask.getTaskId())).thenReturn(pendingUpdate);
+        MLTaskManager bufferedTaskManager = new MLTaskManager(client, mlIndicesHandler, mlTaskUpdateBuffer);
+
+        MLTask indexedTask = mlTask.toBuilder().build();
+        bufferedTaskManager.applyPendingUpdate(indexedTask);
+        assertEquals(MLTaskState.COMPLETED, indexedTask.getState());
+        assertEquals("model id", indexedTask.getModelId());
+        assertNull(indexedTask.getError());
+    }
+
+    public void testApplyPendingUpdate_NoBuffer() {
+        MLTask indexedTask = mlTask.toBuilder().build();
+        mlTaskManager.applyPendingUpdate(indexedTask);
+        assertEquals(MLTaskState.CREATED, indexedTask.getState());
+    }
+
     public void testRemove() {
         mlTaskManager.add(mlTask);
         Assert.assertTrue(mlTaskManager.contains(mlTask.getTaskId()));
@@ -229,6 +278,79 @@ public class MLTaskManagerTests extends OpenSearchTestCase {
         Assert.assertEquals(mlTaskManager.getRunningTaskCount(), 1);
     }
 
+    public void testGetRunningTaskCount_StateTransition() {
+        mlTaskManager.add(mlTask);
+        Assert.assertEquals(0, mlTaskManager.getRunningTaskCount());
+
+        mlTaskManager.updateTaskState(mlTask.getTaskId(), MLTaskState.RUNNING, false);
+        Assert.assertEquals(1, mlTaskManager.getRunningTaskCount());
+        Assert.assertEquals(1, mlTaskManager.getRunningTaskCount(MLTaskType.PREDICTION));
+        Assert.assertEquals(0, mlTaskManager.getRunningTaskCount(MLTaskType.TRAINING));
+
+        mlTaskManager.updateTaskState(mlTask.getTaskId(), MLTaskState.RUNNING, false);
+        mlTaskManager.updateTaskError(mlTask.getTaskId(), "test error", false);
+        Assert.assertEquals(1, mlTaskManager.getRunningTaskCount());
+
+        mlTaskManager.updateTaskState(mlTask.getTaskId(), MLTaskState.COMPLETED, false);
+        Assert.assertEquals(0, mlTaskManager.getRunningTaskCount());
+        Assert.assertEquals(0, mlTaskManager.getRunningTaskCount(MLTaskType.PREDICTION));
+
+        mlTaskManager.updateTaskState(mlTask.getTaskId(), MLTaskState.RUNNING, false);
+        mlTaskManager.remove(mlTask.getTaskId());
+        Assert.assertEquals(0, mlTaskManager.getRunningTaskCount());
+        Assert.assertEquals(0, mlTaskManager.getRunningTaskCount(MLTaskType.PREDICTION));
+    }
+
+    public void testUpdateTaskState_RemovedTask() {
+        expectedEx.expect(IllegalArgumentException.class);
+        expectedEx.expectMessage("Task not found");
+        mlTaskManager.add(mlTask);
+        mlTaskManager.remove(mlTask.getTaskId());
+        mlTaskManager.updateTaskState(mlTask.getTaskId(), MLTaskState.RUNNING, false);
+    }
+
+    public void testConcurrentShortPredictTasks() throws Exception {
+        MLTaskManager taskManager = new MLTaskManager(client, mlIndicesHandler);
+        int threadCount = 8;
+        int tasksPerThread = 5000;
+        CyclicBarrier barrier = new CyclicBarrier(threadCount);
+        AtomicInteger maxRunningTaskCount = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            String threadId = String.valueOf(i);
+            Thread thread = new Thread(() -> {
+                try {
+                    barrier.await();
+                    for (int j = 0; j < tasksPerThread; j++) {
+                        String taskId = threadId + "_" + j;
+                        MLTask task = MLTask.builder().taskId(taskId).taskType(MLTaskType.PREDICTION).state(MLTaskState.CREATED).build();
+                        taskManager.add(task);
+                        taskManager.updateTaskState(taskId, MLTaskState.RUNNING, false);
+                        maxRunningTaskCount.accumulateAndGet(taskManager.getRunningTaskCount(), Math::max);
+                        taskManager.updateTaskState(taskId, MLTaskState.COMPLETED, false);
+                        taskManager.remove(taskId);
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info("Ran {} short predict tasks on {} threads in {}ms", threadCount * tasksPerThread, threadCount, elapsedMillis);
+
+        Assert.assertTrue(failures.toString(), failures.isEmpty());
+        Assert.assertEquals(0, taskManager.getRunningTaskCount());
+        Assert.assertEquals(0, taskManager.getRunningTaskCount(MLTaskType.PREDICTION));
+        Assert.assertTrue(maxRunningTaskCount.get() >= 1 && maxRunningTaskCount.get() <= threadCount);
+    }
+
     public void testClear() {
         MLTask task1 = MLTask.builder().taskId("1").state(MLTaskState.CREATED).build();
         MLTask task2 = MLTask.builder().taskId("2").state(MLTaskState.RUNNING).build();
@@ -0,0 +1,209 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.opensearch.ml.utils.TestHelper.clusterSetting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.DocWriteRequest;
+import org.opensearch.action.DocWriteResponse;
+import org.opensearch.action.bulk.BulkItemResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.support.WriteRequest;
+import org.opensearch.action.update.UpdateRequest;
+import org.opensearch.action.update.UpdateResponse;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.index.Index;
+import org.opensearch.index.shard.ShardId;
+import org.opensearch.ml.common.MLTask;
+import org.opensearch.ml.common.MLTaskState;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.ThreadPool;
+
+import com.google.common.collect.ImmutableMap;
+
+public class MLTaskUpdateBufferTests extends OpenSearchTestCase {
+    @Mock
+    ClusterService clusterService;
+
+    @Mock
+    Client client;
+
+    @Mock
+    ThreadPool threadPool;
+
+    @Mock
+    ActionListener<UpdateResponse> listener1;
+
+    @Mock
+    ActionListener<UpdateResponse> listener2;
+
+    List<BulkRequest> bulkRequests;
+    List<ActionListener<BulkResponse>> bulkListeners;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(clusterService.getClusterSettings()).thenReturn(clusterSetting(Settings.EMPTY));
+        when(client.threadPool()).thenReturn(threadPool);
+        when(threadPool.getThreadContext()).thenReturn(new ThreadContext(Settings.EMPTY));
+
+        bulkRequests = new ArrayList<>();
+        bulkListeners = new ArrayList<>();
+        doAnswer(invocation -> {
+            bulkRequests.add(invocation.getArgument(0));
+            bulkListeners.add(invocation.getArgument(1));
+            return null;
+        }).when(client).bulk(any(BulkRequest.class), any());
+    }
+
+    public void testUpdate_MergeUpdatesOfSameTask() {
+        MLTaskUpdateBuffer buffer = new MLTaskUpdateBuffer(Settings.EMPTY, clusterService, client, threadPool);
+        buffer.update("task1", ImmutableMap.of(MLTask.STATE_FIELD, MLTaskState.RUNNING), listener1);
+        buffer.update("task1", ImmutableMap.of(MLTask.STATE_FIELD, MLTaskState.COMPLETED, MLTask.MODEL_ID_FIELD, "model1"), listener2);
+        buffer.update("task2", ImmutableMap.of(MLTask.ERROR_FIELD, "test error"), listener2);
+        // only one flush scheduled for all updates
+        verify(threadPool, times(1)).schedule(any(), eq(TimeValue.timeValueMillis(500)), eq(ThreadPool.Names.GENERIC));
+        assertEquals(MLTaskState.COMPLETED, buffer.getPendingUpdate("task1").get(MLTask.STATE_FIELD));
+        assertEquals(0, bulkRequests.size());
+
+        buffer.flush();
+        assertEquals(1, bulkRequests.size());
+        BulkRequest bulkRequest = bulkRequests.get(0);
+        assertEquals(2, bulkRequest.numberOfActions());
+        assertEquals(WriteRequest.RefreshPolicy.NONE, bulkRequest.getRefreshPolicy());
+        DocWriteRequest<?> request = bulkRequest.requests().get(0);
+        assertEquals("task1", request.id());
+        Map<String, Object> doc = ((UpdateRequest) request).doc().sourceAsMap();
+        assertEquals(MLTaskState.COMPLETED.name(), doc.get(MLTask.STATE_FIELD));
+        assertEquals("model1", doc.get(MLTask.MODEL_ID_FIELD));
+        assertTrue(doc.containsKey(MLTask.LAST_UPDATE_TIME_FIELD));
+
+        // in flight updates are still visible
+        assertEquals("model1", buffer.getPendingUpdate("task1").get(MLTask.MODEL_ID_FIELD));
+        UpdateResponse response1 = updateResponse("task1");
+        UpdateResponse response2 = updateResponse("task2");
+        bulkListeners
+            .get(0)
+            .onResponse(
+                new BulkResponse(
+                    new BulkItemResponse[] {
+                        new BulkItemResponse(0, DocWriteRequest.OpType.UPDATE, response1),
+                        new BulkItemResponse(1, DocWriteRequest.OpType.UPDATE, response2) },
+                    1
+                )
+            );
+        verify(listener1).onResponse(response1);
+        verify(listener2).onResponse(response1);
+        verify(listener2).onResponse(response2);
+        assertTrue(buffer.getPendingUpdate("task1").isEmpty());
+    }
+
+    public void testFlush_ItemFailure() {
+        MLTaskUpdateBuffer buffer = new MLTaskUpdateBuffer(Settings.EMPTY, clusterService, client, threadPool);
+        buffer.update("task1", ImmutableMap.of(MLTask.ERROR_FIELD, "test error"), listener1);
+        buffer.update("task2", ImmutableMap.of(MLTask.ERROR_FIELD, "test error"), listener2);
+        buffer.flush();
+
+        UpdateResponse response = updateResponse("task1");
+        RuntimeException exception = new RuntimeException("item error");
+        bulkListeners
+            .get(0)
+            .onResponse(
+                new BulkResponse(
+                    new BulkItemResponse[] {
+                        new BulkItemResponse(0, DocWriteRequest.OpType.UPDATE, response),
+                        new BulkItemResponse(
+                            1,
+                            DocWriteRequest.OpType.UPDATE,
+                            new BulkItemResponse.Failure(".plugins-ml-task", "task2", exception)
+                        ) },
+                    1
+                )
+            );
+        verify(listener1).onResponse(response);
+        ArgumentCaptor<Exception> argumentCaptor = ArgumentCaptor.forClass(Exception.class);
+        verify(listener2).onFailure(argumentCaptor.capture());
+        assertEquals("item error", argumentCaptor.getValue().getMessage());
+    }
+
+    public void testFlush_BulkFailure() {
+        MLTaskUpdateBuffer buffer = new MLTaskUpdateBuffer(Settings.EMPTY, clusterService, client, threadPool);
+        buffer.update("task1", ImmutableMap.of(MLTask.ERROR_FIELD, "test error"), listener1);
+        buffer.update("task2", ImmutableMap.of(MLTask.ERROR_FIELD, "test error"), listener2);
+        buffer.flush();
+
+        RuntimeException exception = new RuntimeException("bulk error");
+        bulkListeners.get(0).onFailure(exception);
+        verify(listener1).onFailure(exception);
+        verify(listener2).onFailure(exception);
+    }
+
+    public void testFlush_OneBulkInFlight() {
+        Settings settings = Settings
+            .builder()
+            .put("plugins.ml_commons.task_update_flush_interval", "0ms")
+            .put("plugins.ml_commons.task_index_refresh_policy", "wait_for")
+            .build();
+        when(clusterService.getClusterSettings()).thenReturn(clusterSetting(settings));
+        MLTaskUpdateBuffer buffer = new MLTaskUpdateBuffer(settings, clusterService, client, threadPool);
+        assertEquals(WriteRequest.RefreshPolicy.WAIT_UNTIL, buffer.getRefreshPolicy());
+
+        // zero interval flushes right away
+        buffer.update("task1", ImmutableMap.of(MLTask.STATE_FIELD, MLTaskState.RUNNING), listener1);
+        assertEquals(1, bulkRequests.size());
+        assertEquals(WriteRequest.RefreshPolicy.WAIT_UNTIL, bulkRequests.get(0).getRefreshPolicy());
+
+        // the next update waits for the in flight bulk request
+        buffer.update("task1", ImmutableMap.of(MLTask.STATE_FIELD, MLTaskState.COMPLETED), listener2);
+        assertEquals(1, bulkRequests.size());
+        verify(threadPool, never()).schedule(any(), any(), any());
+
+        bulkListeners
+            .get(0)
+            .onResponse(
+                new BulkResponse(
+                    new BulkItemResponse[] { new BulkItemResponse(0, DocWriteRequest.OpType.UPDATE, updateResponse("task1")) },
+                    1
+                )
+            );
+        assertEquals(2, bulkRequests.size());
+        verify(listener1).onResponse(any());
+        verify(listener2, never()).onResponse(any());
+    }
+
+    public void testFlush_NoPendingUpdate() {
+        MLTaskUpdateBuffer buffer = new MLTaskUpdateBuffer(Settings.EMPTY, clusterService, client, threadPool);
+        buffer.flush();
+        assertEquals(0, bulkRequests.size());
+        assertTrue(buffer.getPendingUpdate("task1").isEmpty());
+    }
+
+    private UpdateResponse updateResponse(String taskId) {
+        ShardId shardId = new ShardId(new Index("indexName", "uuid"), 1);
+        return new UpdateResponse(shardId, taskId, 1, 1, 1, DocWriteResponse.Result.UPDATED);
+    }
+}
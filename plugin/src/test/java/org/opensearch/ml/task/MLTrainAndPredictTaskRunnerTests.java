@@ -7,6 +7,7 @@ package org.opensearch.ml.task;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
@@ -15,6 +16,7 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.opensearch.ml.utils.TestHelper.clusterSetting;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -29,6 +31,7 @@ import org.opensearch.action.ActionListener;
 import org.opensearch.client.Client;
 import org.opensearch.cluster.node.DiscoveryNode;
 import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.Settings;
 import org.opensearch.index.query.MatchAllQueryBuilder;
 import org.opensearch.ml.common.FunctionName;
 import org.opensearch.ml.common.MLTask;
@@ -38,6 +41,7 @@ import org.opensearch.ml.common.dataframe.DataFrame;
 import org.opensearch.ml.common.dataset.DataFrameInputDataset;
 import org.opensearch.ml.common.dataset.MLInputDataset;
 import org.opensearch.ml.common.dataset.SearchQueryInputDataset;
+import org.opensearch.ml.common.exception.MLLimitExceededException;
 import org.opensearch.ml.common.input.MLInput;
 import org.opensearch.ml.common.input.parameter.rcf.BatchRCFParams;
 import org.opensearch.ml.common.transport.MLTaskResponse;
@@ -82,6 +86,7 @@ public class MLTrainAndPredictTaskRunnerTests extends OpenSearchTestCase {
     DiscoveryNode localNode;
     DiscoveryNode remoteNode;
     MLInputDatasetHandler mlInputDatasetHandler;
+    MLTaskAdmissionController mlTaskAdmissionController;
     MLTrainAndPredictTaskRunner taskRunner;
     MLTrainingTaskRequest requestWithDataFrame;
     MLTrainingTaskRequest requestWithQuery;
@@ -91,10 +96,13 @@ public class MLTrainAndPredictTaskRunnerTests extends OpenSearchTestCase {
     @Before
     public void setup() {
         MockitoAnnotations.openMocks(this);
+        when(clusterService.getClusterSettings()).thenReturn(clusterSetting(Settings.EMPTY));
+        mlTaskAdmissionController = new MLTaskAdmissionController(Settings.EMPTY, clusterService, threadPool);
         localNode = new DiscoveryNode("localNodeId", buildNewFakeTransportAddress(), Version.CURRENT);
         remoteNode = new DiscoveryNode("remoteNodeId", buildNewFakeTransportAddress(), Version.CURRENT);
         when(clusterService.localNode()).thenReturn(localNode);
 
+        when(mlCircuitBreakerService.getAvailableMemoryInBytes()).thenReturn(Long.MAX_VALUE);
         when(threadPool.executor(anyString())).thenReturn(executorService);
         doAnswer(invocation -> {
             Runnable runnable = invocation.getArgument(0);
@@ -107,6 +115,8 @@ public class MLTrainAndPredictTaskRunnerTests extends OpenSearchTestCase {
         stats.put(StatNames.ML_TOTAL_REQUEST_COUNT, new MLStat<>(false, new CounterSupplier()));
         stats.put(StatNames.ML_TOTAL_FAILURE_COUNT, new MLStat<>(false, new CounterSupplier()));
         stats.put(StatNames.ML_TOTAL_MODEL_COUNT, new MLStat<>(false, new CounterSupplier()));
+        stats.put(StatNames.ML_OUTSTANDING_TASK_COST, new MLStat<>(false, new CounterSupplier()));
+        stats.put(StatNames.ML_TOTAL_CIRCUIT_BREAKER_TRIGGER_COUNT, new MLStat<>(false, new CounterSupplier()));
         this.mlStats = new MLStats(stats);
 
         mlInputDatasetHandler = spy(new MLInputDatasetHandler(client));
@@ -119,7 +129,8 @@ public class MLTrainAndPredictTaskRunnerTests extends OpenSearchTestCase {
                 mlStats,
                 mlInputDatasetHandler,
                 mlTaskDispatcher,
-                mlCircuitBreakerService
+                mlCircuitBreakerService,
+                mlTaskAdmissionController
             )
         );
         dataFrame = TestData.constructTestDataFrame(100);
@@ -148,21 +159,36 @@ public class MLTrainAndPredictTaskRunnerTests extends OpenSearchTestCase {
 
     public void testExecuteTask_OnLocalNode() {
         doAnswer(invocation -> {
-            ActionListener<DiscoveryNode> actionListener = invocation.getArgument(0);
+            ActionListener<DiscoveryNode> actionListener = invocation.getArgument(2);
             actionListener.onResponse(localNode);
             return null;
-        }).when(mlTaskDispatcher).dispatchTask(any());
+        }).when(mlTaskDispatcher).dispatchTask(anyLong(), any(), any());
         taskRunner.dispatchTask(requestWithDataFrame, transportService, listener);
         verify(listener).onResponse(any());
         verify(taskRunner).handleAsyncMLTaskComplete(any(MLTask.class));
     }
 
+    public void testExecuteTask_OnLocalNode_MemoryLimitExceeded() {
+        doAnswer(invocation -> {
+            ActionListener<DiscoveryNode> actionListener = invocation.getArgument(2);
+            actionListener.onResponse(localNode);
+            return null;
+        }).when(mlTaskDispatcher).dispatchTask(anyLong(), any(), any());
+        when(mlCircuitBreakerService.getAvailableMemoryInBytes()).thenReturn(1024L);
+        taskRunner.dispatchTask(requestWithDataFrame, transportService, listener);
+        verify(listener, never()).onResponse(any());
+        ArgumentCaptor<Exception> argumentCaptor = ArgumentCaptor.forClass(Exception.class);
+        verify(listener).onFailure(argumentCaptor.capture());
+        assertTrue(argumentCaptor.getValue() instanceof MLLimitExceededException);
+        assertEquals(1L, mlStats.getStat(StatNames.ML_TOTAL_CIRCUIT_BREAKER_TRIGGER_COUNT).getValue());
+    }
+
     public void testExecuteTask_OnLocalNode_QueryInput() {
         doAnswer(invocation -> {
-            ActionListener<DiscoveryNode> actionListener = invocation.getArgument(0);
+            ActionListener<DiscoveryNode> actionListener = invocation.getArgument(2);
             actionListener.onResponse(localNode);
             return null;
-        }).when(mlTaskDispatcher).dispatchTask(any());
+        }).when(mlTaskDispatcher).dispatchTask(anyLong(), any(), any());
 
         doAnswer(invocation -> {
             ActionListener<DataFrame> actionListener = invocation.getArgument(1);
@@ -177,10 +203,10 @@ public class MLTrainAndPredictTaskRunnerTests extends OpenSearchTestCase {
 
     public void testExecuteTask_OnLocalNode_QueryInput_Failure() {
         doAnswer(invocation -> {
-            ActionListener<DiscoveryNode> actionListener = invocation.getArgument(0);
+            ActionListener<DiscoveryNode> actionListener = invocation.getArgument(2);
             actionListener.onResponse(localNode);
             return null;
-        }).when(mlTaskDispatcher).dispatchTask(any());
+        }).when(mlTaskDispatcher).dispatchTask(anyLong(), any(), any());
 
         doAnswer(invocation -> {
             ActionListener<DataFrame> actionListener = invocation.getArgument(1);
@@ -198,10 +224,10 @@ public class MLTrainAndPredictTaskRunnerTests extends OpenSearchTestCase {
 
     public void testExecuteTask_OnLocalNode_FailedToUpdateTask() {
         doAnswer(invocation -> {
-            ActionListener<DiscoveryNode> actionListener = invocation.getArgument(0);
+            ActionListener<DiscoveryNode> actionListener = invocation.getArgument(2);
             actionListener.onResponse(localNode);
             return null;
-        }).when(mlTaskDispatcher).dispatchTask(any());
+        }).when(mlTaskDispatcher).dispatchTask(anyLong(), any(), any());
         doThrow(new RuntimeException(errorMessage)).when(mlTaskManager).updateTaskState(anyString(), any(MLTaskState.class), anyBoolean());
         taskRunner.dispatchTask(requestWithDataFrame, transportService, listener);
         ArgumentCaptor<Exception> argumentCaptor = ArgumentCaptor.forClass(Exception.class);
@@ -212,20 +238,20 @@ public class MLTrainAndPredictTaskRunnerTests extends OpenSearchTestCase {
 
     public void testExecuteTask_OnRemoteNode() {
         doAnswer(invocation -> {
-            ActionListener<DiscoveryNode> actionListener = invocation.getArgument(0);
+            ActionListener<DiscoveryNode> actionListener = invocation.getArgument(2);
             actionListener.onResponse(remoteNode);
             return null;
-        }).when(mlTaskDispatcher).dispatchTask(any());
+        }).when(mlTaskDispatcher).dispatchTask(anyLong(), any(), any());
         taskRunner.dispatchTask(requestWithDataFrame, transportService, listener);
         verify(transportService).sendRequest(eq(remoteNode), eq(MLTrainAndPredictionTaskAction.NAME), eq(requestWithDataFrame), any());
     }
 
     public void testExecuteTask_FailedToDispatch() {
         doAnswer(invocation -> {
-            ActionListener<DiscoveryNode> actionListener = invocation.getArgument(0);
+            ActionListener<DiscoveryNode> actionListener = invocation.getArgument(2);
             actionListener.onFailure(new RuntimeException(errorMessage));
             return null;
-        }).when(mlTaskDispatcher).dispatchTask(any());
+        }).when(mlTaskDispatcher).dispatchTask(anyLong(), any(), any());
         taskRunner.dispatchTask(requestWithDataFrame, transportService, listener);
         verify(listener, never()).onResponse(any());
         ArgumentCaptor<Exception> argumentCaptor = ArgumentCaptor.forClass(Exception.class);
@@ -0,0 +1,265 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.opensearch.ml.indices.MLIndicesHandler.ML_CHECKPOINT_INDEX;
+import static org.opensearch.ml.settings.MLCommonsSettings.ML_COMMONS_TRAINING_CHECKPOINT_POINTS;
+import static org.opensearch.ml.utils.TestHelper.clusterSetting;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Before;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opensearch.Version;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.delete.DeleteRequest;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.action.index.IndexResponse;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.bytes.BytesReference;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.io.stream.NamedWriteableRegistry;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.index.IndexNotFoundException;
+import org.opensearch.index.VersionType;
+import org.opensearch.index.get.GetResult;
+import org.opensearch.index.query.MatchAllQueryBuilder;
+import org.opensearch.index.shard.ShardId;
+import org.opensearch.ml.common.FunctionName;
+import org.opensearch.ml.common.dataset.SearchQueryInputDataset;
+import org.opensearch.ml.common.exception.MLException;
+import org.opensearch.ml.common.input.MLInput;
+import org.opensearch.ml.common.input.parameter.clustering.KMeansParams;
+import org.opensearch.ml.indices.MLIndicesHandler;
+import org.opensearch.search.SearchModule;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.ThreadPool;
+
+import com.google.common.collect.ImmutableList;
+
+public class MLTrainingCheckpointManagerTests extends OpenSearchTestCase {
+    @Mock
+    ClusterService clusterService;
+    @Mock
+    Client client;
+    @Mock
+    ThreadPool threadPool;
+    @Mock
+    ExecutorService executorService;
+    @Mock
+    MLIndicesHandler mlIndicesHandler;
+
+    NamedWriteableRegistry namedWriteableRegistry = new NamedWriteableRegistry(
+        new SearchModule(Settings.EMPTY, Collections.emptyList()).getNamedWriteables()
+    );
+    MLTrainingCheckpoint checkpoint;
+    MLTrainingCheckpointManager mlTrainingCheckpointManager;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(clusterService.getClusterSettings()).thenReturn(clusterSetting(Settings.EMPTY));
+        when(threadPool.executor(anyString())).thenReturn(executorService);
+        when(client.threadPool()).thenReturn(threadPool);
+        when(threadPool.getThreadContext()).thenReturn(new ThreadContext(Settings.EMPTY));
+        doAnswer(invocation -> {
+            Runnable runnable = invocation.getArgument(0);
+            runnable.run();
+            return null;
+        }).when(executorService).execute(any(Runnable.class));
+
+        MLInput kmeansInput = MLInput
+            .builder()
+            .algorithm(FunctionName.KMEANS)
+            .parameters(KMeansParams.builder().centroids(2).iterations(3).build())
+            .inputDataset(
+                new SearchQueryInputDataset(ImmutableList.of("test_index"), new SearchSourceBuilder().query(new MatchAllQueryBuilder()))
+            )
+            .build();
+        checkpoint = new MLTrainingCheckpoint("taskId", kmeansInput, 2, new String[] { "f1", "f2" }, new double[] { 1.0, 1.0, 10.0, 10.0 });
+        mlTrainingCheckpointManager = new MLTrainingCheckpointManager(
+            Settings.EMPTY,
+            clusterService,
+            client,
+            threadPool,
+            mlIndicesHandler,
+            namedWriteableRegistry
+        );
+    }
+
+    public void testGetCheckpointPoints() {
+        int defaultPoints = ML_COMMONS_TRAINING_CHECKPOINT_POINTS.getDefault(Settings.EMPTY);
+        assertEquals(defaultPoints, mlTrainingCheckpointManager.getCheckpointPoints());
+    }
+
+    public void testWriteCheckpoint() {
+        mockCheckpointIndex(true);
+        doAnswer(invocation -> {
+            ActionListener<IndexResponse> actionListener = invocation.getArgument(1);
+            actionListener.onResponse(new IndexResponse(new ShardId(ML_CHECKPOINT_INDEX, "uuid", 0), "taskId", 1, 1, 2, true));
+            return null;
+        }).when(client).index(any(), any());
+
+        ActionListener<IndexResponse> listener = mock(ActionListener.class);
+        mlTrainingCheckpointManager.writeCheckpoint(checkpoint, listener);
+        ArgumentCaptor<IndexRequest> indexRequestCaptor = ArgumentCaptor.forClass(IndexRequest.class);
+        verify(client).index(indexRequestCaptor.capture(), any());
+        IndexRequest indexRequest = indexRequestCaptor.getValue();
+        assertEquals(ML_CHECKPOINT_INDEX, indexRequest.index());
+        assertEquals("taskId", indexRequest.id());
+        assertEquals(2, indexRequest.version());
+        assertEquals(VersionType.EXTERNAL_GTE, indexRequest.versionType());
+        Map<String, Object> source = indexRequest.sourceAsMap();
+        assertEquals(FunctionName.KMEANS.name(), source.get(MLTrainingCheckpoint.ALGORITHM_FIELD));
+        assertEquals(MLTrainingCheckpoint.FORMAT_VERSION, source.get(MLTrainingCheckpoint.FORMAT_VERSION_FIELD));
+        assertEquals(Version.CURRENT.id, source.get(MLTrainingCheckpoint.NODE_VERSION_FIELD));
+        verify(listener).onResponse(any());
+    }
+
+    public void testWriteCheckpoint_NoCheckpointIndex() {
+        mockCheckpointIndex(false);
+
+        ActionListener<IndexResponse> listener = mock(ActionListener.class);
+        mlTrainingCheckpointManager.writeCheckpoint(checkpoint, listener);
+        verify(client, never()).index(any(), any());
+        verify(listener).onFailure(any(RuntimeException.class));
+    }
+
+    public void testGetCheckpoint() throws IOException {
+        mockGetCheckpoint(MLTrainingCheckpoint.FORMAT_VERSION, checkpointContent(checkpoint));
+
+        ActionListener<MLTrainingCheckpoint> listener = mock(ActionListener.class);
+        mlTrainingCheckpointManager.getCheckpoint("taskId", listener);
+        ArgumentCaptor<MLTrainingCheckpoint> argumentCaptor = ArgumentCaptor.forClass(MLTrainingCheckpoint.class);
+        verify(listener).onResponse(argumentCaptor.capture());
+        MLTrainingCheckpoint parsedCheckpoint = argumentCaptor.getValue();
+        assertEquals("taskId", parsedCheckpoint.getTaskId());
+        assertEquals(2, parsedCheckpoint.getIteration());
+        assertArrayEquals(new String[] { "f1", "f2" }, parsedCheckpoint.getFeatureNames());
+        assertArrayEquals(new double[] { 1.0, 1.0, 10.0, 10.0 }, parsedCheckpoint.getState(), 0.0);
+        assertTrue(parsedCheckpoint.getMlInput().getInputDataset() instanceof SearchQueryInputDataset);
+        assertNull(parsedCheckpoint.getModelState());
+    }
+
+    public void testGetCheckpoint_ModelState() throws IOException {
+        MLTrainingCheckpoint modelCheckpoint = new MLTrainingCheckpoint(
+            "taskId",
+            checkpoint.getMlInput(),
+            100,
+            new String[0],
+            new double[0],
+            new byte[] { 1, 2, 3 }
+        );
+        mockGetCheckpoint(MLTrainingCheckpoint.FORMAT_VERSION, checkpointContent(modelCheckpoint));
+
+        ActionListener<MLTrainingCheckpoint> listener = mock(ActionListener.class);
+        mlTrainingCheckpointManager.getCheckpoint("taskId", listener);
+        ArgumentCaptor<MLTrainingCheckpoint> argumentCaptor = ArgumentCaptor.forClass(MLTrainingCheckpoint.class);
+        verify(listener).onResponse(argumentCaptor.capture());
+        assertEquals(100, argumentCaptor.getValue().getIteration());
+        assertTrue(argumentCaptor.getValue().hasProgress());
+        assertArrayEquals(new byte[] { 1, 2, 3 }, argumentCaptor.getValue().getModelState());
+    }
+
+    public void testGetCheckpoint_FormatVersion1() throws IOException {
+        BytesStreamOutput output = new BytesStreamOutput();
+        output.writeString("taskId");
+        checkpoint.getMlInput().writeTo(output);
+        output.writeVInt(2);
+        output.writeStringArray(new String[] { "f1", "f2" });
+        output.writeDoubleArray(new double[] { 1.0, 1.0, 10.0, 10.0 });
+        mockGetCheckpoint(1, Base64.getEncoder().encodeToString(BytesReference.toBytes(output.bytes())));
+
+        ActionListener<MLTrainingCheckpoint> listener = mock(ActionListener.class);
+        mlTrainingCheckpointManager.getCheckpoint("taskId", listener);
+        ArgumentCaptor<MLTrainingCheckpoint> argumentCaptor = ArgumentCaptor.forClass(MLTrainingCheckpoint.class);
+        verify(listener).onResponse(argumentCaptor.capture());
+        assertEquals(2, argumentCaptor.getValue().getIteration());
+        assertArrayEquals(new double[] { 1.0, 1.0, 10.0, 10.0 }, argumentCaptor.getValue().getState(), 0.0);
+        assertNull(argumentCaptor.getValue().getModelState());
+    }
+
+    public void testGetCheckpoint_UnsupportedFormatVersion() throws IOException {
+        mockGetCheckpoint(MLTrainingCheckpoint.FORMAT_VERSION + 1, checkpointContent(checkpoint));
+
+        ActionListener<MLTrainingCheckpoint> listener = mock(ActionListener.class);
+        mlTrainingCheckpointManager.getCheckpoint("taskId", listener);
+        verify(listener, never()).onResponse(any());
+        verify(listener).onFailure(any(MLException.class));
+    }
+
+    public void testGetCheckpoint_NoCheckpointIndex() {
+        doAnswer(invocation -> {
+            ActionListener<GetResponse> actionListener = invocation.getArgument(1);
+            actionListener.onFailure(new IndexNotFoundException(ML_CHECKPOINT_INDEX));
+            return null;
+        }).when(client).get(any(), any());
+
+        ActionListener<MLTrainingCheckpoint> listener = mock(ActionListener.class);
+        mlTrainingCheckpointManager.getCheckpoint("taskId", listener);
+        verify(listener).onResponse(null);
+    }
+
+    public void testDeleteCheckpoint() {
+        mlTrainingCheckpointManager.deleteCheckpoint("taskId");
+        ArgumentCaptor<DeleteRequest> deleteRequestCaptor = ArgumentCaptor.forClass(DeleteRequest.class);
+        verify(client).delete(deleteRequestCaptor.capture(), any());
+        assertEquals(ML_CHECKPOINT_INDEX, deleteRequestCaptor.getValue().index());
+        assertEquals("taskId", deleteRequestCaptor.getValue().id());
+    }
+
+    private void mockCheckpointIndex(boolean created) {
+        doAnswer(invocation -> {
+            ActionListener<Boolean> actionListener = invocation.getArgument(0);
+            actionListener.onResponse(created);
+            return null;
+        }).when(mlIndicesHandler).initCheckpointIndexIfAbsent(any());
+    }
+
+    private String checkpointContent(MLTrainingCheckpoint trainingCheckpoint) throws IOException {
+        BytesStreamOutput output = new BytesStreamOutput();
+        trainingCheckpoint.writeTo(output);
+        return Base64.getEncoder().encodeToString(BytesReference.toBytes(output.bytes()));
+    }
+
+    private void mockGetCheckpoint(int formatVersion, String content) throws IOException {
+        BytesReference source = BytesReference
+            .bytes(
+                XContentFactory
+                    .jsonBuilder()
+                    .startObject()
+                    .field(MLTrainingCheckpoint.TASK_ID_FIELD, "taskId")
+                    .field(MLTrainingCheckpoint.FORMAT_VERSION_FIELD, formatVersion)
+                    .field(MLTrainingCheckpoint.NODE_VERSION_FIELD, Version.CURRENT.id)
+                    .field(MLTrainingCheckpoint.CHECKPOINT_CONTENT_FIELD, content)
+                    .endObject()
+            );
+        GetResponse getResponse = new GetResponse(new GetResult(ML_CHECKPOINT_INDEX, "taskId", 0, 1, 2, true, source, null, null));
+        doAnswer(invocation -> {
+            ActionListener<GetResponse> actionListener = invocation.getArgument(1);
+            actionListener.onResponse(getResponse);
+            return null;
+        }).when(client).get(any(), any());
+    }
+}
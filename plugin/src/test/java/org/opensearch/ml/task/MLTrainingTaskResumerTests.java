@@ -0,0 +1,248 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.ml.task;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.opensearch.ml.indices.MLIndicesHandler.ML_TASK_INDEX;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.lucene.search.TotalHits;
+import org.junit.Before;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opensearch.Version;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.support.master.AcknowledgedResponse;
+import org.opensearch.action.support.replication.ClusterStateCreationUtils;
+import org.opensearch.action.update.UpdateRequest;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.ClusterChangedEvent;
+import org.opensearch.cluster.ClusterState;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.cluster.node.DiscoveryNodes;
+import org.opensearch.cluster.routing.ShardRoutingState;
+import org.opensearch.common.bytes.BytesReference;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.common.xcontent.NamedXContentRegistry;
+import org.opensearch.common.xcontent.ToXContent;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.index.get.GetResult;
+import org.opensearch.ml.action.training.MLResumeTrainingTaskAction;
+import org.opensearch.ml.action.training.MLResumeTrainingTaskRequest;
+import org.opensearch.ml.common.FunctionName;
+import org.opensearch.ml.common.MLTask;
+import org.opensearch.ml.common.MLTaskState;
+import org.opensearch.ml.common.MLTaskType;
+import org.opensearch.ml.common.dataset.MLInputDataType;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.SearchHits;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.ThreadPool;
+
+import com.google.common.collect.ImmutableMap;
+
+public class MLTrainingTaskResumerTests extends OpenSearchTestCase {
+    @Mock
+    Client client;
+    @Mock
+    ThreadPool threadPool;
+    @Mock
+    ExecutorService executorService;
+    @Mock
+    MLTrainingCheckpointManager mlTrainingCheckpointManager;
+
+    MLTrainingTaskResumer resumer;
+    ClusterState taskIndexState;
+    ClusterState state;
+    DiscoveryNode localNode;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(client.threadPool()).thenReturn(threadPool);
+        when(threadPool.getThreadContext()).thenReturn(new ThreadContext(Settings.EMPTY));
+        when(threadPool.generic()).thenReturn(executorService);
+        doAnswer(invocation -> {
+            Runnable runnable = invocation.getArgument(0);
+            runnable.run();
+            return null;
+        }).when(executorService).execute(any(Runnable.class));
+        resumer = new MLTrainingTaskResumer(
+            client,
+            threadPool,
+            NamedXContentRegistry.EMPTY,
+            mlTrainingCheckpointManager
+        );
+
+        // the master of this state is not the local node
+        taskIndexState = ClusterStateCreationUtils.state(ML_TASK_INDEX, true, ShardRoutingState.STARTED);
+        localNode = taskIndexState.nodes().getLocalNode();
+        state = ClusterState
+            .builder(taskIndexState)
+            .nodes(DiscoveryNodes.builder(taskIndexState.nodes()).masterNodeId(localNode.getId()))
+            .build();
+    }
+
+    public void testClusterChanged_NodeRemoved() {
+        DiscoveryNode removedNode = new DiscoveryNode("removedNode", buildNewFakeTransportAddress(), Version.CURRENT);
+        ClusterState previousState = ClusterState.builder(state).nodes(DiscoveryNodes.builder(state.nodes()).add(removedNode)).build();
+        mockSearchTasks();
+        resumer.clusterChanged(new ClusterChangedEvent("test", state, previousState));
+        verify(client).search(any(), any());
+    }
+
+    public void testClusterChanged_NoNodeRemoved() {
+        resumer.clusterChanged(new ClusterChangedEvent("test", state, state));
+        verify(client, never()).search(any(), any());
+    }
+
+    public void testClusterChanged_NotMaster() {
+        DiscoveryNode removedNode = new DiscoveryNode("removedNode", buildNewFakeTransportAddress(), Version.CURRENT);
+        ClusterState previousState = ClusterState
+            .builder(taskIndexState)
+            .nodes(DiscoveryNodes.builder(taskIndexState.nodes()).add(removedNode))
+            .build();
+        resumer.clusterChanged(new ClusterChangedEvent("test", taskIndexState, previousState));
+        verify(client, never()).search(any(), any());
+    }
+
+    public void testResumeOrphanedTasks() {
+        MLTrainingCheckpoint checkpoint = mock(MLTrainingCheckpoint.class);
+        doAnswer(invocation -> {
+            ActionListener<MLTrainingCheckpoint> actionListener = invocation.getArgument(1);
+            actionListener.onResponse(checkpoint);
+            return null;
+        }).when(mlTrainingCheckpointManager).getCheckpoint(eq("resumableTask"), any());
+        doAnswer(invocation -> {
+            ActionListener<MLTrainingCheckpoint> actionListener = invocation.getArgument(1);
+            actionListener.onResponse(null);
+            return null;
+        }).when(mlTrainingCheckpointManager).getCheckpoint(eq("failedTask"), any());
+        mockSearchTasks();
+        mockGetTasks(ImmutableMap.of("resumableTask", MLTaskState.RUNNING, "failedTask", MLTaskState.RUNNING));
+
+        resumer.resumeOrphanedTasks(state.nodes());
+
+        ArgumentCaptor<MLResumeTrainingTaskRequest> requestCaptor = ArgumentCaptor.forClass(MLResumeTrainingTaskRequest.class);
+        verify(client).execute(eq(MLResumeTrainingTaskAction.INSTANCE), requestCaptor.capture(), any());
+        assertEquals("resumableTask", requestCaptor.getValue().getTaskId());
+        assertTrue(requestCaptor.getValue().isDispatchTask());
+        ArgumentCaptor<UpdateRequest> updateCaptor = ArgumentCaptor.forClass(UpdateRequest.class);
+        verify(client).update(updateCaptor.capture(), any());
+        assertEquals("failedTask", updateCaptor.getValue().id());
+        assertEquals(MLTaskState.FAILED.name(), updateCaptor.getValue().doc().sourceAsMap().get(MLTask.STATE_FIELD));
+        // the task running on a node in the cluster is left alone
+        verify(mlTrainingCheckpointManager, times(2)).getCheckpoint(any(), any());
+    }
+
+    public void testResumeOrphanedTasks_TaskChangedSinceSearch() {
+        mockSearchTasks();
+        mockGetTasks(ImmutableMap.of("resumableTask", MLTaskState.COMPLETED));
+
+        resumer.resumeOrphanedTasks(state.nodes());
+
+        // the completed task is left alone, the deleted task too
+        ArgumentCaptor<GetRequest> getCaptor = ArgumentCaptor.forClass(GetRequest.class);
+        verify(client, times(2)).get(getCaptor.capture(), any());
+        assertTrue(getCaptor.getValue().realtime());
+        verify(mlTrainingCheckpointManager, never()).getCheckpoint(any(), any());
+        verify(client, never()).execute(eq(MLResumeTrainingTaskAction.INSTANCE), any(), any());
+        verify(client, never()).update(any(), any());
+    }
+
+    public void testResumeOrphanedTasks_ResumeFailure() {
+        MLTrainingCheckpoint checkpoint = mock(MLTrainingCheckpoint.class);
+        doAnswer(invocation -> {
+            ActionListener<MLTrainingCheckpoint> actionListener = invocation.getArgument(1);
+            actionListener.onResponse(checkpoint);
+            return null;
+        }).when(mlTrainingCheckpointManager).getCheckpoint(any(), any());
+        doAnswer(invocation -> {
+            ActionListener<AcknowledgedResponse> actionListener = invocation.getArgument(2);
+            actionListener.onFailure(new RuntimeException("rejected"));
+            return null;
+        }).when(client).execute(eq(MLResumeTrainingTaskAction.INSTANCE), any(), any());
+        mockSearchTasks();
+        mockGetTasks(ImmutableMap.of("resumableTask", MLTaskState.RUNNING));
+
+        resumer.resumeOrphanedTasks(state.nodes());
+
+        // a task which can't be resumed on any node is marked failed instead of staying running
+        ArgumentCaptor<UpdateRequest> updateCaptor = ArgumentCaptor.forClass(UpdateRequest.class);
+        verify(client).update(updateCaptor.capture(), any());
+        assertEquals("resumableTask", updateCaptor.getValue().id());
+        Map<String, Object> updatedFields = updateCaptor.getValue().doc().sourceAsMap();
+        assertEquals(MLTaskState.FAILED.name(), updatedFields.get(MLTask.STATE_FIELD));
+        assertTrue(((String) updatedFields.get(MLTask.ERROR_FIELD)).endsWith("rejected"));
+    }
+
+    private void mockGetTasks(Map<String, MLTaskState> states) {
+        doAnswer(invocation -> {
+            GetRequest getRequest = invocation.getArgument(0);
+            ActionListener<GetResponse> actionListener = invocation.getArgument(1);
+            MLTaskState taskState = states.get(getRequest.id());
+            BytesReference source = taskState == null ? null : taskSource("removedNode", taskState);
+            actionListener
+                .onResponse(new GetResponse(new GetResult(ML_TASK_INDEX, getRequest.id(), 0, 1, 1, source != null, source, null, null)));
+            return null;
+        }).when(client).get(any(), any());
+    }
+
+    private void mockSearchTasks() {
+        SearchHit[] hits = new SearchHit[] {
+            taskHit("resumableTask", "removedNode"),
+            taskHit("failedTask", "removedNode"),
+            taskHit("runningTask", localNode.getId()) };
+        SearchResponse searchResponse = mock(SearchResponse.class);
+        when(searchResponse.getHits()).thenReturn(new SearchHits(hits, new TotalHits(hits.length, TotalHits.Relation.EQUAL_TO), 1f));
+        doAnswer(invocation -> {
+            ActionListener<SearchResponse> actionListener = invocation.getArgument(1);
+            actionListener.onResponse(searchResponse);
+            return null;
+        }).when(client).search(any(), any());
+    }
+
+    private SearchHit taskHit(String taskId, String workerNode) {
+        SearchHit hit = new SearchHit(1, taskId, null, null);
+        hit.sourceRef(taskSource(workerNode, MLTaskState.RUNNING));
+        return hit;
+    }
+
+    private BytesReference taskSource(String workerNode, MLTaskState taskState) {
+        MLTask mlTask = MLTask
+            .builder()
+            .taskType(MLTaskType.TRAINING)
+            .functionName(FunctionName.KMEANS)
+            .state(taskState)
+            .inputType(MLInputDataType.SEARCH_QUERY)
+            .workerNode(workerNode)
+            .createTime(Instant.now())
+            .lastUpdateTime(Instant.now())
+            .async(true)
+            .build();
+        try {
+            return BytesReference.bytes(mlTask.toXContent(XContentFactory.jsonBuilder(), ToXContent.EMPTY_PARAMS));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -6,26 +6,40 @@
 package org.opensearch.ml.task;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.opensearch.ml.plugin.MachineLearningPlugin.TRAIN_THREAD_POOL;
+import static org.opensearch.ml.utils.TestHelper.clusterSetting;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import org.junit.Before;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.opensearch.OpenSearchStatusException;
 import org.opensearch.Version;
 import org.opensearch.action.ActionListener;
 import org.opensearch.action.index.IndexResponse;
+import org.opensearch.action.support.master.AcknowledgedResponse;
 import org.opensearch.client.Client;
 import org.opensearch.cluster.node.DiscoveryNode;
 import org.opensearch.cluster.service.ClusterService;
@@ -34,18 +48,28 @@ import org.opensearch.common.util.concurrent.ThreadContext;
 import org.opensearch.index.Index;
 import org.opensearch.index.query.MatchAllQueryBuilder;
 import org.opensearch.index.shard.ShardId;
+import org.opensearch.ml.action.training.MLResumeTrainingTaskAction;
+import org.opensearch.ml.action.training.MLResumeTrainingTaskRequest;
 import org.opensearch.ml.common.FunctionName;
 import org.opensearch.ml.common.MLTask;
+import org.opensearch.ml.common.MLTaskState;
+import org.opensearch.ml.common.MLTaskType;
+import org.opensearch.ml.common.Model;
 import org.opensearch.ml.common.breaker.MLCircuitBreakerService;
 import org.opensearch.ml.common.dataframe.DataFrame;
 import org.opensearch.ml.common.dataset.DataFrameInputDataset;
 import org.opensearch.ml.common.dataset.MLInputDataset;
 import org.opensearch.ml.common.dataset.SearchQueryInputDataset;
+import org.opensearch.ml.common.exception.MLResourceNotFoundException;
 import org.opensearch.ml.common.input.MLInput;
+import org.opensearch.ml.common.input.parameter.clustering.KMeansParams;
 import org.opensearch.ml.common.input.parameter.rcf.BatchRCFParams;
 import org.opensearch.ml.common.transport.MLTaskResponse;
 import org.opensearch.ml.common.transport.training.MLTrainingTaskAction;
 import org.opensearch.ml.common.transport.training.MLTrainingTaskRequest;
+import org.opensearch.ml.engine.CancellationToken;
+import org.opensearch.ml.engine.MLEngine;
+import org.opensearch.ml.engine.TrainingCheckpoint;
 import org.opensearch.ml.indices.MLIndicesHandler;
 import org.opensearch.ml.indices.MLInputDatasetHandler;
 import org.opensearch.ml.stats.MLStat;
@@ -53,6 +77,7 @@ import org.opensearch.ml.stats.MLStats;
 import org.opensearch.ml.stats.StatNames;
 import org.opensearch.ml.stats.suppliers.CounterSupplier;
 import org.opensearch.ml.utils.TestData;
+import org.opensearch.rest.RestStatus;
 import org.opensearch.search.builder.SearchSourceBuilder;
 import org.opensearch.test.OpenSearchTestCase;
 import org.opensearch.threadpool.ThreadPool;
@@ -82,12 +107,17 @@ public class MLTrainingTaskRunnerTests extends OpenSearchTestCase {
     ActionListener<MLTaskResponse> listener;
     @Mock
     ExecutorService executorService;
+    @Mock
+    MLDistributedTrainer mlDistributedTrainer;
+    @Mock
+    MLTrainingCheckpointManager mlTrainingCheckpointManager;
 
     MLStats mlStats;
     DataFrame dataFrame;
     DiscoveryNode localNode;
     DiscoveryNode remoteNode;
     MLInputDatasetHandler mlInputDatasetHandler;
+    MLTaskAdmissionController mlTaskAdmissionController;
     MLTrainingTaskRunner taskRunner;
     MLTrainingTaskRequest requestWithDataFrame;
     MLTrainingTaskRequest asyncRequestWithDataFrame;
@@ -100,10 +130,13 @@ public class MLTrainingTaskRunnerTests extends OpenSearchTestCase {
     @Before
     public void setup() {
         MockitoAnnotations.openMocks(this);
+        when(clusterService.getClusterSettings()).thenReturn(clusterSetting(Settings.EMPTY));
+        mlTaskAdmissionController = new MLTaskAdmissionController(Settings.EMPTY, clusterService, threadPool);
         localNode = new DiscoveryNode("localNodeId", buildNewFakeTransportAddress(), Version.CURRENT);
         remoteNode = new DiscoveryNode("remoteNodeId", buildNewFakeTransportAddress(), Version.CURRENT);
         when(clusterService.localNode()).thenReturn(localNode);
 
+        when(mlCircuitBreakerService.getAvailableMemoryInBytes()).thenReturn(Long.MAX_VALUE);
         when(threadPool.executor(anyString())).thenReturn(executorService);
         doAnswer(invocation -> {
             Runnable runnable = invocation.getArgument(0);
@@ -116,6 +149,8 @@ public class MLTrainingTaskRunnerTests extends OpenSearchTestCase {
         stats.put(StatNames.ML_TOTAL_REQUEST_COUNT, new MLStat<>(false, new CounterSupplier()));
         stats.put(StatNames.ML_TOTAL_FAILURE_COUNT, new MLStat<>(false, new CounterSupplier()));
         stats.put(StatNames.ML_TOTAL_MODEL_COUNT, new MLStat<>(false, new CounterSupplier()));
+        stats.put(StatNames.ML_OUTSTANDING_TASK_COST, new MLStat<>(false, new CounterSupplier()));
+        stats.put(StatNames.ML_TOTAL_CIRCUIT_BREAKER_TRIGGER_COUNT, new MLStat<>(false, new CounterSupplier()));
         this.mlStats = new MLStats(stats);
 
         mlInputDatasetHandler = spy(new MLInputDatasetHandler(client));
@@ -129,7 +164,10 @@ public class MLTrainingTaskRunnerTests extends OpenSearchTestCase {
                 mlIndicesHandler,
                 mlInputDatasetHandler,
                 mlTaskDispatcher,
-                mlCircuitBreakerService
+                mlCircuitBreakerService,
+                mlTaskAdmissionController,
+                mlDistributedTrainer,
+                mlTrainingCheckpointManager
             )
         );
 
@@ -187,6 +225,232 @@ public class MLTrainingTaskRunnerTests extends OpenSearchTestCase {
         verify(client).index(any(), any());
     }
 
+    public void testExecuteTask_OnLocalNode_SyncRequest_DistributedTraining() {
+        setupMocks(true, false, false, false);
+        when(mlDistributedTrainer.canTrain(any())).thenReturn(true);
+        doAnswer(invocation -> {
+            ActionListener<Model> actionListener = invocation.getArgument(4);
+            actionListener.onResponse(testModel());
+            return null;
+        }).when(mlDistributedTrainer).train(anyString(), any(), anyBoolean(), any(), any());
+        taskRunner.dispatchTask(requestWithQuery, transportService, listener);
+        verify(listener).onResponse(any());
+        verify(mlDistributedTrainer).train(anyString(), eq(requestWithQuery.getMlInput()), eq(false), any(), any());
+        verify(mlInputDatasetHandler, never()).parseSearchQueryInput(any(), any());
+        verify(mlTaskManager).add(any(MLTask.class));
+        verify(mlTaskManager).remove(anyString());
+        verify(client).index(any(), any());
+    }
+
+    public void testExecuteTask_OnLocalNode_SyncRequest_DistributedTraining_Failure() {
+        setupMocks(true, false, false, false);
+        when(mlDistributedTrainer.canTrain(any())).thenReturn(true);
+        doAnswer(invocation -> {
+            ActionListener<Model> actionListener = invocation.getArgument(4);
+            actionListener.onFailure(new RuntimeException(errorMessage));
+            return null;
+        }).when(mlDistributedTrainer).train(anyString(), any(), anyBoolean(), any(), any());
+        taskRunner.dispatchTask(requestWithQuery, transportService, listener);
+        ArgumentCaptor<Exception> argumentCaptor = ArgumentCaptor.forClass(Exception.class);
+        verify(listener).onFailure(argumentCaptor.capture());
+        assertEquals(errorMessage, argumentCaptor.getValue().getMessage());
+        assertEquals(1L, mlStats.getStat(StatNames.ML_TOTAL_FAILURE_COUNT).getValue());
+        verify(mlTaskManager).remove(anyString());
+        verify(client, never()).index(any(), any());
+    }
+
+    public void testExecuteTask_OnLocalNode_AsyncRequest_DistributedTraining() {
+        setupMocks(true, false, false, false);
+        when(mlDistributedTrainer.canTrain(any())).thenReturn(true);
+        doAnswer(invocation -> {
+            ActionListener<Model> actionListener = invocation.getArgument(4);
+            actionListener.onResponse(testModel());
+            return null;
+        }).when(mlDistributedTrainer).train(anyString(), any(), anyBoolean(), any(), any());
+        taskRunner.dispatchTask(asyncRequestWithQuery, transportService, listener);
+        verify(listener).onResponse(any());
+        verify(mlDistributedTrainer).train(eq("taskId"), eq(asyncRequestWithQuery.getMlInput()), eq(true), any(), any());
+        verify(client).index(any(), any());
+        verify(mlTrainingCheckpointManager).deleteCheckpoint("taskId");
+    }
+
+    public void testExecuteTask_OnLocalNode_SyncRequest_MiniBatchTraining() {
+        setupMocks(true, false, false, false);
+        when(mlDistributedTrainer.canTrain(any())).thenReturn(true);
+        doAnswer(invocation -> {
+            Consumer<DataFrame> pageConsumer = invocation.getArgument(4);
+            pageConsumer.accept(dataFrame);
+            ActionListener<Long> countListener = invocation.getArgument(5);
+            countListener.onResponse((long) dataFrame.size());
+            return null;
+        }).when(mlInputDatasetHandler).scanSearchQueryInput(any(), anyInt(), any(), any(), any(), any());
+        MLTrainingTaskRequest request = miniBatchRequestWithQuery();
+        taskRunner.dispatchTask(request, transportService, listener);
+        verify(listener).onResponse(any());
+        verify(mlInputDatasetHandler, times(2))
+            .scanSearchQueryInput(eq(request.getMlInput().getInputDataset()), eq(50), any(), eq(TRAIN_THREAD_POOL), any(), any());
+        verify(mlDistributedTrainer, never()).train(anyString(), any(), anyBoolean(), any(), any());
+        verify(mlInputDatasetHandler, never()).parseSearchQueryInput(any(), any());
+        verify(mlTaskManager).remove(anyString());
+        verify(client).index(any(), any());
+    }
+
+    public void testExecuteTask_OnLocalNode_SyncRequest_MiniBatchTraining_NoDocument() {
+        setupMocks(true, false, false, false);
+        doAnswer(invocation -> {
+            ActionListener<Long> countListener = invocation.getArgument(5);
+            countListener.onResponse(0L);
+            return null;
+        }).when(mlInputDatasetHandler).scanSearchQueryInput(any(), anyInt(), any(), any(), any(), any());
+        taskRunner.dispatchTask(miniBatchRequestWithQuery(), transportService, listener);
+        ArgumentCaptor<Exception> argumentCaptor = ArgumentCaptor.forClass(Exception.class);
+        verify(listener).onFailure(argumentCaptor.capture());
+        assertEquals("No document found", argumentCaptor.getValue().getMessage());
+        assertEquals(1L, mlStats.getStat(StatNames.ML_TOTAL_FAILURE_COUNT).getValue());
+        verify(mlTaskManager).remove(anyString());
+        verify(client, never()).index(any(), any());
+    }
+
+    public void testResumeTrainingTask_OnLocalNode() {
+        setupMocks(true, false, false, false);
+        mockCheckpoint(resumeCheckpoint());
+        doAnswer(invocation -> {
+            ActionListener<Model> actionListener = invocation.getArgument(2);
+            actionListener.onResponse(testModel());
+            return null;
+        }).when(mlDistributedTrainer).resume(any(), any(), any());
+        MLResumeTrainingTaskRequest request = new MLResumeTrainingTaskRequest("taskId", requestWithQuery.getMlInput());
+        ActionListener<AcknowledgedResponse> resumeListener = mock(ActionListener.class);
+        taskRunner.resumeTrainingTask(request, transportService, resumeListener);
+        verify(mlTaskDispatcher).dispatchTask(anyLong(), eq(ImmutableList.of(indexName)), any());
+        verify(resumeListener).onResponse(any());
+        ArgumentCaptor<MLTask> taskCaptor = ArgumentCaptor.forClass(MLTask.class);
+        verify(mlTaskManager).add(taskCaptor.capture());
+        assertEquals("taskId", taskCaptor.getValue().getTaskId());
+        assertEquals(localNode.getId(), taskCaptor.getValue().getWorkerNode());
+        verify(mlDistributedTrainer).resume(any(MLTrainingCheckpoint.class), any(MLResumedTaskCancellationToken.class), any());
+        verify(client).index(any(), any());
+        verify(mlTrainingCheckpointManager).deleteCheckpoint("taskId");
+        verify(mlTaskManager).remove("taskId");
+        assertEquals("modelId", taskCaptor.getValue().getModelId());
+    }
+
+    public void testResumeTrainingTask_ModelCheckpoint() {
+        setupMocks(true, false, false, false);
+        MLInput mlInput = asyncRequestWithQuery.getMlInput();
+        List<TrainingCheckpoint> trainingCheckpoints = new ArrayList<>();
+        MLEngine
+            .getCheckpointableTrainable(mlInput.getAlgorithm(), mlInput.getParameters())
+            .train(dataFrame, null, 40, trainingCheckpoints::add, CancellationToken.NONE, null, 1);
+        TrainingCheckpoint trainingCheckpoint = trainingCheckpoints.get(0);
+        MLTrainingCheckpoint checkpoint = new MLTrainingCheckpoint(
+            "taskId",
+            mlInput,
+            trainingCheckpoint.getPoints(),
+            new String[0],
+            new double[0],
+            trainingCheckpoint.getState()
+        );
+        mockCheckpoint(checkpoint);
+        when(mlTrainingCheckpointManager.getCheckpointPoints()).thenReturn(40);
+        MLResumeTrainingTaskRequest request = new MLResumeTrainingTaskRequest("taskId", mlInput);
+        ActionListener<AcknowledgedResponse> resumeListener = mock(ActionListener.class);
+        taskRunner.resumeTrainingTask(request, transportService, resumeListener);
+        verify(resumeListener).onResponse(any());
+        verify(mlInputDatasetHandler).parseSearchQueryInput(any(), any());
+        verify(mlDistributedTrainer, never()).resume(any(), any(), any());
+        // training continues at 40 points, so only the checkpoint at 80 points is written again
+        ArgumentCaptor<MLTrainingCheckpoint> checkpointCaptor = ArgumentCaptor.forClass(MLTrainingCheckpoint.class);
+        verify(mlTrainingCheckpointManager).writeCheckpoint(checkpointCaptor.capture(), any());
+        assertEquals(80, checkpointCaptor.getValue().getIteration());
+        verify(client).index(any(), any());
+        verify(mlTrainingCheckpointManager).deleteCheckpoint("taskId");
+        verify(mlTaskManager).remove("taskId");
+    }
+
+    public void testResumeTrainingTask_NoProgress() {
+        setupMocks(true, false, false, false);
+        mockCheckpoint(MLTrainingCheckpoint.initialCheckpoint("taskId", asyncRequestWithDataFrame.getMlInput()));
+        MLResumeTrainingTaskRequest request = new MLResumeTrainingTaskRequest("taskId", asyncRequestWithDataFrame.getMlInput());
+        ActionListener<AcknowledgedResponse> resumeListener = mock(ActionListener.class);
+        taskRunner.resumeTrainingTask(request, transportService, resumeListener);
+        verify(resumeListener).onResponse(any());
+        verify(mlDistributedTrainer, never()).resume(any(), any(), any());
+        verify(client).index(any(), any());
+        verify(mlTrainingCheckpointManager).deleteCheckpoint("taskId");
+        verify(mlTaskManager).remove("taskId");
+    }
+
+    public void testResumeTrainingTask_OnRemoteNode() {
+        setupMocks(false, false, false, false);
+        MLResumeTrainingTaskRequest request = new MLResumeTrainingTaskRequest("taskId", requestWithQuery.getMlInput());
+        ActionListener<AcknowledgedResponse> resumeListener = mock(ActionListener.class);
+        taskRunner.resumeTrainingTask(request, transportService, resumeListener);
+        verify(transportService).sendRequest(eq(remoteNode), eq(MLResumeTrainingTaskAction.NAME), eq(request), any());
+        assertFalse(request.isDispatchTask());
+        verify(mlTrainingCheckpointManager, never()).getCheckpoint(anyString(), any());
+    }
+
+    public void testResumeTrainingTask_NoCheckpoint() {
+        setupMocks(true, false, false, false);
+        mockCheckpoint(null);
+        MLResumeTrainingTaskRequest request = new MLResumeTrainingTaskRequest("taskId", requestWithQuery.getMlInput());
+        ActionListener<AcknowledgedResponse> resumeListener = mock(ActionListener.class);
+        taskRunner.resumeTrainingTask(request, transportService, resumeListener);
+        verify(resumeListener).onFailure(any(MLResourceNotFoundException.class));
+        verify(mlTaskManager, never()).add(any(MLTask.class));
+        verify(mlDistributedTrainer, never()).resume(any(), any(), any());
+    }
+
+    public void testResumeTrainingTask_Rejected() {
+        setupMocks(true, false, false, false);
+        AtomicBoolean saturated = new AtomicBoolean();
+        while (!saturated.get()) {
+            mlTaskAdmissionController.admit(MLTaskType.TRAINING, null, ActionListener.wrap(r -> {}, e -> saturated.set(true)));
+        }
+        MLResumeTrainingTaskRequest request = new MLResumeTrainingTaskRequest("taskId", requestWithQuery.getMlInput());
+        ActionListener<AcknowledgedResponse> resumeListener = mock(ActionListener.class);
+        taskRunner.resumeTrainingTask(request, transportService, resumeListener);
+        verify(resumeListener, never()).onResponse(any());
+        verify(resumeListener).onFailure(any(OpenSearchStatusException.class));
+        verify(mlTrainingCheckpointManager, never()).getCheckpoint(anyString(), any());
+        verify(mlTaskManager, never()).add(any(MLTask.class));
+    }
+
+    public void testResumeTrainingTask_AlreadyRunning() {
+        setupMocks(true, false, false, false);
+        mockCheckpoint(resumeCheckpoint());
+        doThrow(new IllegalArgumentException("Duplicate taskId")).when(mlTaskManager).add(any(MLTask.class));
+        MLResumeTrainingTaskRequest request = new MLResumeTrainingTaskRequest("taskId", requestWithQuery.getMlInput());
+        ActionListener<AcknowledgedResponse> resumeListener = mock(ActionListener.class);
+        taskRunner.resumeTrainingTask(request, transportService, resumeListener);
+        verify(resumeListener).onResponse(any());
+        verify(mlDistributedTrainer, never()).resume(any(), any(), any());
+        verify(mlTaskManager, never()).updateTaskState(anyString(), any(), anyBoolean());
+        verify(mlTaskManager, never()).remove(anyString());
+        assertEquals(0L, mlStats.getStat(StatNames.ML_EXECUTING_TASK_COUNT).getValue());
+    }
+
+    private MLTrainingCheckpoint resumeCheckpoint() {
+        return new MLTrainingCheckpoint("taskId", requestWithQuery.getMlInput(), 1, new String[] { "f1" }, new double[] { 1.0 });
+    }
+
+    private void mockCheckpoint(MLTrainingCheckpoint checkpoint) {
+        doAnswer(invocation -> {
+            ActionListener<MLTrainingCheckpoint> actionListener = invocation.getArgument(1);
+            actionListener.onResponse(checkpoint);
+            return null;
+        }).when(mlTrainingCheckpointManager).getCheckpoint(eq("taskId"), any());
+    }
+
+    private Model testModel() {
+        Model model = new Model();
+        model.setName(FunctionName.KMEANS.name());
+        model.setVersion(1);
+        model.setContent(new byte[0]);
+        return model;
+    }
+
     public void testExecuteTask_OnLocalNode_AsyncRequest_QueryInput_Failure() {
         setupMocks(true, false, false, true);
         taskRunner.dispatchTask(asyncRequestWithQuery, transportService, listener);
@@ -208,6 +472,89 @@ public class MLTrainingTaskRunnerTests extends OpenSearchTestCase {
         verify(mlTaskManager).remove(anyString());
         verify(mlIndicesHandler).initModelIndexIfAbsent(any());
         verify(client).index(any(), any());
+        // data frame input is only checkpointed before training, so another node can train it again
+        ArgumentCaptor<MLTrainingCheckpoint> checkpointCaptor = ArgumentCaptor.forClass(MLTrainingCheckpoint.class);
+        verify(mlTrainingCheckpointManager).writeCheckpoint(checkpointCaptor.capture(), any());
+        assertFalse(checkpointCaptor.getValue().hasProgress());
+        assertSame(asyncRequestWithDataFrame.getMlInput(), checkpointCaptor.getValue().getMlInput());
+        verify(mlTrainingCheckpointManager).deleteCheckpoint("taskId");
+    }
+
+    public void testExecuteTask_OnLocalNode_AsyncRequest_QueryInput_Checkpoints() {
+        setupMocks(true, false, false, false);
+        when(mlTrainingCheckpointManager.getCheckpointPoints()).thenReturn(40);
+        taskRunner.dispatchTask(asyncRequestWithQuery, transportService, listener);
+        verify(listener).onResponse(any());
+        verify(client).index(any(), any());
+        ArgumentCaptor<MLTrainingCheckpoint> checkpointCaptor = ArgumentCaptor.forClass(MLTrainingCheckpoint.class);
+        verify(mlTrainingCheckpointManager, times(3)).writeCheckpoint(checkpointCaptor.capture(), any());
+        assertEquals(0, checkpointCaptor.getAllValues().get(0).getIteration());
+        assertNull(checkpointCaptor.getAllValues().get(0).getModelState());
+        assertEquals(40, checkpointCaptor.getAllValues().get(1).getIteration());
+        assertEquals(80, checkpointCaptor.getAllValues().get(2).getIteration());
+        assertNotNull(checkpointCaptor.getAllValues().get(2).getModelState());
+        // checkpoints keep the search query rather than the data frame read from it
+        assertSame(asyncRequestWithQuery.getMlInput(), checkpointCaptor.getAllValues().get(2).getMlInput());
+        verify(mlTrainingCheckpointManager).deleteCheckpoint("taskId");
+    }
+
+    public void testExecuteTask_OnLocalNode_AsyncRequest_FailToCheckpoint() {
+        setupMocks(true, false, false, false);
+        doAnswer(invocation -> {
+            ActionListener<IndexResponse> actionListener = invocation.getArgument(1);
+            actionListener.onFailure(new RuntimeException(errorMessage));
+            return null;
+        }).when(mlTrainingCheckpointManager).writeCheckpoint(any(), any());
+        taskRunner.dispatchTask(asyncRequestWithDataFrame, transportService, listener);
+        verify(listener).onResponse(any());
+        verify(client).index(any(), any());
+        verify(taskRunner, never()).handleAsyncMLTaskFailure(any(MLTask.class), any(Exception.class));
+    }
+
+    public void testExecuteTask_OnLocalNode_AsyncRequest_MemoryLimitExceeded() {
+        setupMocks(true, false, false, false);
+        when(mlCircuitBreakerService.getAvailableMemoryInBytes()).thenReturn(1024L);
+        taskRunner.dispatchTask(asyncRequestWithDataFrame, transportService, listener);
+        // async requests get the task id first, the training failure is recorded in the task
+        verify(listener).onResponse(any());
+        verify(listener, never()).onFailure(any());
+        verify(mlTaskManager).updateMLTask(anyString(), argThat(fields -> fields.containsKey(MLTask.MEMORY_ESTIMATE_FIELD)), eq(0L));
+        verify(mlTaskManager)
+            .updateMLTask(
+                anyString(),
+                argThat(
+                    fields -> MLTaskState.FAILED.name().equals(fields.get(MLTask.STATE_FIELD))
+                        && ((String) fields.get(MLTask.ERROR_FIELD)).contains("is available under the ML memory circuit breaker")
+                ),
+                anyLong()
+            );
+        verify(client, never()).index(any(), any());
+    }
+
+    public void testExecuteTask_OnLocalNode_AsyncRequest_Rejected() {
+        setupMocks(true, false, false, false);
+        AtomicBoolean saturated = new AtomicBoolean();
+        while (!saturated.get()) {
+            mlTaskAdmissionController.admit(MLTaskType.TRAINING, null, ActionListener.wrap(r -> {}, e -> saturated.set(true)));
+        }
+        taskRunner.dispatchTask(asyncRequestWithDataFrame, transportService, listener);
+        verify(listener, never()).onResponse(any());
+        ArgumentCaptor<Exception> argumentCaptor = ArgumentCaptor.forClass(Exception.class);
+        verify(listener).onFailure(argumentCaptor.capture());
+        OpenSearchStatusException exception = (OpenSearchStatusException) argumentCaptor.getValue();
+        assertEquals(RestStatus.TOO_MANY_REQUESTS, exception.status());
+        assertNotNull(exception.getHeader(MLTaskAdmissionController.RETRY_AFTER_HEADER));
+        // the request is rejected before an ML task is created, so no task id is returned which fails later
+        verify(mlTaskManager, never()).createMLTask(any(MLTask.class), any());
+        verify(mlTaskManager, never()).add(any(MLTask.class));
+    }
+
+    public void testExecuteTask_OnLocalNode_AsyncRequest_ReleasedAfterTraining() {
+        setupMocks(true, false, false, false);
+        taskRunner.dispatchTask(asyncRequestWithDataFrame, transportService, listener);
+        verify(listener).onResponse(any());
+        verify(client).index(any(), any());
+        assertEquals(0, mlTaskAdmissionController.getRunningTaskCount(MLTaskType.TRAINING));
     }
 
     public void testExecuteTask_OnLocalNode_AsyncRequest_FailToCreateTask() {
@@ -262,10 +609,10 @@ public class MLTrainingTaskRunnerTests extends OpenSearchTestCase {
 
     public void testExecuteTask_FailedToDispatch() {
         doAnswer(invocation -> {
-            ActionListener<DiscoveryNode> actionListener = invocation.getArgument(0);
+            ActionListener<DiscoveryNode> actionListener = invocation.getArgument(2);
             actionListener.onFailure(new RuntimeException(errorMessage));
             return null;
-        }).when(mlTaskDispatcher).dispatchTask(any());
+        }).when(mlTaskDispatcher).dispatchTask(anyLong(), any(), any());
         taskRunner.dispatchTask(requestWithDataFrame, transportService, listener);
         verify(listener, never()).onResponse(any());
         ArgumentCaptor<Exception> argumentCaptor = ArgumentCaptor.forClass(Exception.class);
@@ -273,6 +620,17 @@ public class MLTrainingTaskRunnerTests extends OpenSearchTestCase {
         assertEquals(errorMessage, argumentCaptor.getValue().getMessage());
     }
 
+    private MLTrainingTaskRequest miniBatchRequestWithQuery() {
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().query(new MatchAllQueryBuilder());
+        MLInput mlInput = MLInput
+            .builder()
+            .algorithm(FunctionName.KMEANS)
+            .parameters(KMeansParams.builder().centroids(2).iterations(2).miniBatchSize(50).build())
+            .inputDataset(new SearchQueryInputDataset(ImmutableList.of(indexName), searchSourceBuilder))
+            .build();
+        return MLTrainingTaskRequest.builder().async(false).mlInput(mlInput).build();
+    }
+
     private void setupMocks(
         boolean runOnLocalNode,
         boolean failedToCreateTask,
@@ -280,14 +638,14 @@ public class MLTrainingTaskRunnerTests extends OpenSearchTestCase {
         boolean failedToParseQueryInput
     ) {
         doAnswer(invocation -> {
-            ActionListener<DiscoveryNode> actionListener = invocation.getArgument(0);
+            ActionListener<DiscoveryNode> actionListener = invocation.getArgument(2);
             if (runOnLocalNode) {
                 actionListener.onResponse(localNode);
             } else {
                 actionListener.onResponse(remoteNode);
             }
             return null;
-        }).when(mlTaskDispatcher).dispatchTask(any());
+        }).when(mlTaskDispatcher).dispatchTask(anyLong(), any(), any());
 
         if (throwExceptionWhenCreateMLTask) {
             doThrow(new RuntimeException(errorMessage)).when(mlTaskManager).createMLTask(any(), any());
@@ -319,6 +677,13 @@ public class MLTrainingTaskRunnerTests extends OpenSearchTestCase {
             return null;
         }).when(client).index(any(), any());
 
+        doAnswer(invocation -> {
+            ActionListener<IndexResponse> actionListener = invocation.getArgument(1);
+            ShardId shardId = new ShardId(new Index(".plugins-ml-checkpoint", "uuid"), 1);
+            actionListener.onResponse(new IndexResponse(shardId, "taskId", 1, 1, 1, true));
+            return null;
+        }).when(mlTrainingCheckpointManager).writeCheckpoint(any(), any());
+
         if (failedToParseQueryInput) {
             doAnswer(invocation -> {
                 ActionListener<DataFrame> actionListener = invocation.getArgument(1);
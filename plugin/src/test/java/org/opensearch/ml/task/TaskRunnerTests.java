@@ -26,16 +26,19 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.opensearch.action.ActionListener;
 import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.ml.common.MLTask;
 import org.opensearch.ml.common.MLTaskState;
 import org.opensearch.ml.common.MLTaskType;
 import org.opensearch.ml.common.breaker.MLCircuitBreakerService;
 import org.opensearch.ml.common.exception.MLLimitExceededException;
 import org.opensearch.ml.common.transport.MLTaskRequest;
+import org.opensearch.ml.engine.CancellationToken;
 import org.opensearch.ml.stats.MLStat;
 import org.opensearch.ml.stats.MLStats;
 import org.opensearch.ml.stats.StatNames;
 import org.opensearch.ml.stats.suppliers.CounterSupplier;
+import org.opensearch.tasks.TaskCancelledException;
 import org.opensearch.test.OpenSearchTestCase;
 import org.opensearch.transport.TransportResponseHandler;
 import org.opensearch.transport.TransportService;
@@ -50,6 +53,8 @@ public class TaskRunnerTests extends OpenSearchTestCase {
     @Mock
     MLCircuitBreakerService mlCircuitBreakerService;
     @Mock
+    MLTaskAdmissionController mlTaskAdmissionController;
+    @Mock
     ClusterService clusterService;
 
     MLTaskRunner mlTaskRunner;
@@ -69,7 +74,14 @@ public class TaskRunnerTests extends OpenSearchTestCase {
         mlStats = new MLStats(stats);
 
         MockitoAnnotations.openMocks(this);
-        mlTaskRunner = new MLTaskRunner(mlTaskManager, mlStats, mlTaskDispatcher, mlCircuitBreakerService, clusterService) {
+        mlTaskRunner = new MLTaskRunner(
+            mlTaskManager,
+            mlStats,
+            mlTaskDispatcher,
+            mlCircuitBreakerService,
+            mlTaskAdmissionController,
+            clusterService
+        ) {
             @Override
             public String getTransportActionName() {
                 return null;
@@ -81,7 +93,7 @@ public class TaskRunnerTests extends OpenSearchTestCase {
             }
 
             @Override
-            public void executeTask(MLTaskRequest request, ActionListener listener) {}
+            public void executeTask(MLTaskRequest request, CancellationToken cancellationToken, ActionListener listener) {}
         };
         mlTask = MLTask
             .builder()
@@ -101,6 +113,25 @@ public class TaskRunnerTests extends OpenSearchTestCase {
         assertEquals(errorMessage, argumentCaptor.getValue().get(MLTask.ERROR_FIELD));
     }
 
+    public void testHandleAsyncMLTaskFailure_Cancelled() {
+        mlTaskRunner.handleAsyncMLTaskFailure(mlTask, new TaskCancelledException("cancelled"));
+        ArgumentCaptor<Map> argumentCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(mlTaskManager, times(1)).updateMLTask(eq(mlTask.getTaskId()), argumentCaptor.capture(), anyLong());
+        assertEquals(MLTaskState.CANCELLED.name(), argumentCaptor.getValue().get(MLTask.STATE_FIELD));
+    }
+
+    public void testCreateCancellationToken_NoTaskNoTimeout() {
+        MLTaskRequest request = new MLTaskRequest(false);
+        assertSame(CancellationToken.NONE, mlTaskRunner.createCancellationToken(null, request));
+    }
+
+    public void testCreateCancellationToken_WithTimeout() {
+        MLTaskRequest request = new MLTaskRequest(false);
+        request.setTimeout(TimeValue.timeValueMillis(0));
+        CancellationToken token = mlTaskRunner.createCancellationToken(null, request);
+        assertTrue(token.isCancelled());
+    }
+
     public void testHandleAsyncMLTaskFailure_SyncTask() {
         MLTask syncMlTask = mlTask.toBuilder().async(false).build();
         mlTaskRunner.handleAsyncMLTaskFailure(syncMlTask, new RuntimeException("error"));
@@ -9,6 +9,7 @@ import static org.opensearch.ml.utils.RestActionUtils.OPENSEARCH_DASHBOARDS_USER
 import static org.opensearch.ml.utils.RestActionUtils.PARAMETER_ALGORITHM;
 import static org.opensearch.ml.utils.RestActionUtils.PARAMETER_ASYNC;
 import static org.opensearch.ml.utils.RestActionUtils.PARAMETER_MODEL_ID;
+import static org.opensearch.ml.utils.RestActionUtils.PARAMETER_TIMEOUT;
 import static org.opensearch.ml.utils.RestActionUtils.UI_METADATA_EXCLUDE;
 
 import java.util.Arrays;
@@ -19,6 +20,7 @@ import java.util.Map;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.rules.ExpectedException;
+import org.opensearch.common.unit.TimeValue;
 import org.opensearch.ml.common.FunctionName;
 import org.opensearch.ml.plugin.MachineLearningPlugin;
 import org.opensearch.rest.RestRequest;
@@ -70,6 +72,15 @@ public class RestActionUtilsTests extends OpenSearchTestCase {
         assertTrue(isAsync);
     }
 
+    public void testGetTimeout() {
+        fakeRestRequest = createRestRequest(ImmutableMap.<String, String>builder().put(PARAMETER_TIMEOUT, "30s").build());
+        assertEquals(TimeValue.timeValueSeconds(30), RestActionUtils.getTimeout(fakeRestRequest));
+    }
+
+    public void testGetTimeout_NotSet() {
+        assertNull(RestActionUtils.getTimeout(fakeRestRequest));
+    }
+
     public void testGetParameterId() {
         String modelId = "testModelId";
         param = ImmutableMap.<String, String>builder().put(PARAMETER_MODEL_ID, modelId).build();